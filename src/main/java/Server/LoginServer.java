@@ -1,27 +1,35 @@
 package Server;
 
 import Server.commands.*;
+import Server.network.AdmissionController;
+import Server.network.BlockingClientSession;
+import Server.network.ClientExecutors;
+import Server.network.NioServer;
+import Server.network.SessionProcessor;
+import Server.storage.RoomLocks;
+import Server.storage.StorageCompactor;
 import common.utils.ConfigLoader;
 import java.io.*;
 import java.net.*;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
-import Server.exceptions.*;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 public class LoginServer {
 
-    private static boolean running = true;
+    private static volatile boolean running = true;
     private static ServerSocket serverSocket;
-    private static final int MAX_CLIENTS = 3;
+    private static NioServer nioServer;
     private static final AtomicInteger currentClients = new AtomicInteger(0);
     private static final ConcurrentHashMap<String, Socket> loggedInUsers = new ConcurrentHashMap<>();
-    private static final Object FILE_LOCK = new Object();
+    // 예약 잠금: 강의실별 stripe로 나누어 서로 다른 강의실의 명령은 동시에 처리 (storage.lock.stripes)
+    private static final RoomLocks ROOM_LOCKS = new RoomLocks(ServerConfig.getInt("storage.lock.stripes", 64));
     private static final String BASE_DIR = System.getProperty("user.dir") + File.separator + "data";
     private static final String ROOM_STATUS_FILE = BASE_DIR + File.separator + "RoomStatus.txt";
 
     private static CommandFactory commandFactory;
+    private static SessionProcessor sessionProcessor;
     private static UserDAO userDAO;
 
     public static void main(String[] args) {
@@ -32,14 +40,17 @@ public class LoginServer {
 
         userDAO = new UserDAO();
 
+        // 접속 허용 제어 (max.clients, admission.* 설정)
+        AdmissionController admission = AdmissionController.getInstance();
+
         // CommandFactory 초기화 (Factory Method 패턴 적용: DefaultCommandFactory 사용)
         commandFactory = new DefaultCommandFactory(
             userDAO,
             BASE_DIR,
-            FILE_LOCK,
+            ROOM_LOCKS,
             loggedInUsers,
             currentClients,
-            MAX_CLIENTS
+            admission.getMaxSessions()
         );
 
         // ✅ ReservationSubject에 오프라인 알림 관리자 초기화
@@ -49,6 +60,14 @@ public class LoginServer {
         System.out.println("[서버 초기화] 오프라인 알림 관리자 설정 완료");
         System.out.println("[서버 초기화] CommandInvoker를 통한 예외 처리 활성화");
 
+        sessionProcessor = new SessionProcessor(
+            commandFactory,
+            loggedInUsers,
+            currentClients,
+            admission,
+            LoginServer::shutdown
+        );
+
         try {
             logServerStart();
 
@@ -58,37 +77,66 @@ public class LoginServer {
             }
 
             int serverPort = Integer.parseInt(portStr);
+            String ioMode = ServerConfig.getString("server.io.mode", "nio");
+            System.out.println("서버 시작: 포트 " + serverPort + " (I/O 모드: " + ioMode + ")");
+
+            if ("blocking".equalsIgnoreCase(ioMode)) {
+                runBlockingServer(serverPort);
+            } else {
+                runNioServer(serverPort);
+            }
+        } catch (IOException e) {
+            System.err.println("서버 오류: " + e.getMessage());
+        } catch (NumberFormatException e) {
+            System.err.println("설정 파일에서 포트 번호를 파싱하는 중 오류: " + e.getMessage());
+        }
+
+        // 종료 전 남은 변경 로그를 데이터 파일에 반영
+        StorageCompactor.compactAll();
+    }
+
+    /**
+     * NIO Selector 기반 이벤트 루프 실행 (기본 모드)
+     * 유휴 연결은 스레드를 점유하지 않고, 완성된 요청만 워커 풀에서 처리한다.
+     */
+    private static void runNioServer(int serverPort) throws IOException {
+        int workerThreads = ServerConfig.getInt("server.worker.threads",
+                Runtime.getRuntime().availableProcessors() * 2);
+        int workerQueue = ServerConfig.getInt("server.worker.queue", 1024);
+
+        nioServer = new NioServer(
+                new InetSocketAddress(InetAddress.getByName("0.0.0.0"), serverPort),
+                50, sessionProcessor, workerThreads, workerQueue);
+        if (running) {
+            nioServer.run();
+        }
+    }
+
+    /**
+     * 연결마다 스레드를 할당하는 기존 블로킹 방식 (server.io.mode=blocking)
+     * 연결 처리 스레드는 server.executor.mode(platform/virtual/pool)에 따라 생성한다.
+     */
+    private static void runBlockingServer(int serverPort) throws IOException {
+        ClientExecutors.Mode mode = ClientExecutors.Mode.parse(
+                ServerConfig.getString("server.executor.mode", "platform"));
+        int poolSize = ServerConfig.getInt("server.executor.pool.size", 64);
+        ExecutorService clientExecutor = ClientExecutors.create(mode, poolSize, "client");
+        System.out.println("[서버 초기화] 연결 실행 모드: " + mode.name().toLowerCase()
+                + (mode == ClientExecutors.Mode.POOL ? " (스레드 " + poolSize + "개)" : ""));
+
+        try {
             serverSocket = new ServerSocket(serverPort, 50, InetAddress.getByName("0.0.0.0"));
-            System.out.println("서버 시작: 포트 " + serverPort);
 
             while (running) {
                 Socket socket = serverSocket.accept();
                 System.out.println("새 클라이언트 접속: " + socket.getInetAddress());
 
-                new Thread(() -> {
-                    String userId = null;
+                clientExecutor.execute(() -> {
                     try {
-                        userId = handleClient(socket);
+                        handleClient(socket);
                     } catch (IOException e) {
                         System.err.println("클라이언트 처리 중 IOException: " + e.getMessage());
-                    } catch (InvalidInputException ex) {
-                        Logger.getLogger(LoginServer.class.getName()).log(Level.SEVERE, null, ex);
-                    } catch (DatabaseException ex) {
-                        Logger.getLogger(LoginServer.class.getName()).log(Level.SEVERE, null, ex);
-                    } catch (AuthenticationException ex) {
-                        Logger.getLogger(LoginServer.class.getName()).log(Level.SEVERE, null, ex);
-                    } catch (BusinessLogicException ex) {
-                        Logger.getLogger(LoginServer.class.getName()).log(Level.SEVERE, null, ex);
                     } finally {
-                        if (userId != null) {
-                            synchronized (LoginServer.class) {
-                                loggedInUsers.remove(userId);
-                                currentClients.decrementAndGet();
-                                System.out.println(userId + " 로그아웃 처리됨");
-                                System.out.println("현재 로그인 중인 사용자: " + loggedInUsers.keySet());
-                                System.out.println("현재 접속자 수: " + currentClients.get());
-                            }
-                        }
                         try {
                             if (socket != null && !socket.isClosed()) {
                                 socket.close();
@@ -96,13 +144,15 @@ public class LoginServer {
                         } catch (IOException ignored) {
                         }
                     }
-                }).start();
+                });
+            }
+        } catch (SocketException e) {
+            if (running) {
+                throw e;
             }
-        } catch (IOException e) {
-            System.err.println("서버 오류: " + e.getMessage());
-        } catch (NumberFormatException e) {
-            System.err.println("설정 파일에서 포트 번호를 파싱하는 중 오류: " + e.getMessage());
         } finally {
+            // 진행 중인 연결은 끝까지 처리하고 새 작업만 받지 않음
+            clientExecutor.shutdown();
             if (serverSocket != null && !serverSocket.isClosed()) {
                 try {
                     serverSocket.close();
@@ -113,148 +163,53 @@ public class LoginServer {
     }
 
     /**
-     * 클라이언트 연결 처리 (CommandInvoker를 통한 중앙화된 예외 처리)
+     * 클라이언트 연결 처리 (블로킹 모드)
+     * 요청 해석과 세션 관리는 SessionProcessor가 담당한다.
      */
-    private static String handleClient(Socket socket) throws IOException, InvalidInputException, DatabaseException, AuthenticationException, BusinessLogicException {
-        String loggedInUserId = null;
-        PrintWriter out = null;
+    private static void handleClient(Socket socket) throws IOException {
+        BlockingClientSession session = new BlockingClientSession(socket);
+        session.start();
 
         try {
-            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-            out = new PrintWriter(socket.getOutputStream(), true);
-
-            String request = in.readLine();
-            System.out.println("수신된 요청: " + request);
-
-            if (request == null) {
-                return null;
-            }
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
 
-            // SHUTDOWN 명령 처리
-            if (request.equalsIgnoreCase("SHUTDOWN")) {
-                out.println("SERVER_SHUTTING_DOWN");
-                out.flush();
-                running = false;
-                serverSocket.close();
-                return null;
-            }
-
-            // ✅ CommandInvoker 사용: 중앙화된 예외 처리
-            String[] params = request.split(",");
-            String commandName = params.length > 0 ? params[0] : "UNKNOWN";
-
-            CommandInvoker invoker = new CommandInvoker();
-            Command command = commandFactory.createCommand(request);
-
-            if (command == null) {
-                out.println("ERROR:UNKNOWN_COMMAND:알 수 없는 명령입니다");
-                out.flush();
-                return null;
-            }
-
-            // Command 설정 및 실행
-            invoker.setCommand(command, commandName);
-
-            //  예외가 발생해도 invoker가 알아서 처리하고 에러 응답 반환
-            String response = invoker.execute(params, in, out);
-
-            // 응답 전송 (null이 아닌 경우만)
-            if (response != null) {
-                out.println(response);
-                out.flush();
-            }
-
-            // 로그인 성공 시 세션 등록
-            if (request.startsWith("LOGIN") && response != null && response.startsWith("SUCCESS")) {
-                loggedInUserId = params[1];
-                loggedInUsers.put(loggedInUserId, socket);
-                currentClients.incrementAndGet();
-
-                // Observer 패턴: 클라이언트 등록
-                common.observer.ReservationSubject subject
-                        = common.observer.ReservationSubject.getInstance();
-                subject.registerClient(loggedInUserId, out);
-                System.out.println("[Observer] " + loggedInUserId + " 클라이언트 알림 등록 완료");
-
-                System.out.println(loggedInUserId + " 로그인 성공");
-                System.out.println("현재 로그인 중인 사용자: " + loggedInUsers.keySet());
-                System.out.println("현재 접속자 수: " + currentClients.get());
-
-                // 오프라인 알림 전송
-                OfflineNotificationHelper.sendOfflineNotifications(loggedInUserId, out);
-
-                // 로그인 후 후속 메시지 처리
-                handleSubsequentMessages(in, out, loggedInUserId);
+            String request;
+            while ((request = in.readLine()) != null) {
+                if (!sessionProcessor.handleLine(session, request) || !session.awaitOutboundRoom()) {
+                    break;
+                }
+                // 익명 세션만 유휴 제한 시간 적용 (로그인 세션은 기존처럼 제한 없음)
+                long idleMs = sessionProcessor.getAnonymousIdleMillis();
+                socket.setSoTimeout(session.isAnonymous() && idleMs > 0 ? (int) Math.min(idleMs, Integer.MAX_VALUE) : 0);
             }
 
-            // REGISTER 명령 처리
-            if (request.startsWith("REGISTER") && response != null) {
-                System.out.println("회원가입 처리 완료: " + response);
+            if (request == null && session.isLoggedIn()) {
+                System.out.println("[" + session.getUserId() + "] 연결 끊김.");
             }
-
+        } catch (SocketTimeoutException e) {
+            System.out.println("익명 세션 유휴 시간 초과로 종료: " + socket.getRemoteSocketAddress());
         } catch (IOException e) {
             System.err.println("클라이언트 처리 중 오류: " + e.getMessage());
             throw e;
         } finally {
-            // Observer 패턴: 로그아웃 시 제거
-            if (loggedInUserId != null && out != null) {
-                common.observer.ReservationSubject subject
-                        = common.observer.ReservationSubject.getInstance();
-                subject.unregisterClient(loggedInUserId, out);
-                System.out.println("[Observer] " + loggedInUserId + " 클라이언트 알림 등록 해제");
-            }
+            sessionProcessor.onDisconnect(session);
+            session.closeAfterFlush();
         }
-
-        return loggedInUserId;
     }
 
     /**
-     * 로그인 후 후속 메시지 처리 (CommandInvoker 사용)
+     * SHUTDOWN 명령 처리: 수신 대기 중단
      */
-    private static void handleSubsequentMessages(BufferedReader in, PrintWriter out, String userId)
-            throws IOException, InvalidInputException, DatabaseException, AuthenticationException, BusinessLogicException {
-        while (true) {
-            String request = in.readLine();
-
-            // 연결 종료 또는 로그아웃
-            if (request == null || request.equalsIgnoreCase("EXIT")) {
-                out.println("LOGOUT_SUCCESS");
-                out.flush();
-                System.out.println("[" + userId + "] 로그아웃 요청 수신 또는 연결 끊김.");
-                break;
-            }
-
-            // INIT 메시지 무시
-            if (request.equals("INIT")) {
-                System.out.println("[" + userId + "] INIT 메시지 수신 (연결 확인)");
-                continue;
-            }
-
-            System.out.println("[" + userId + "] 후속 메시지 수신: " + request);
-
-            // ✅ CommandInvoker를 통한 명령 실행 및 예외 처리
-            String[] params = request.split(",");
-            String commandName = params.length > 0 ? params[0] : "UNKNOWN";
-
-            CommandInvoker invoker = new CommandInvoker();
-            Command command = commandFactory.createCommand(request, userId);
-
-            if (command == null) {
-                out.println("ERROR:UNKNOWN_COMMAND:알 수 없는 명령입니다");
-                out.flush();
-                continue;
-            }
-
-            // Command 실행
-            invoker.setCommand(command, commandName);
-
-            // 예외 처리는 invoker가 자동으로 수행
-            String response = invoker.execute(params, in, out);
-
-            // 응답 전송
-            if (response != null) {
-                out.println(response);
-                out.flush();
+    private static void shutdown() {
+        running = false;
+        if (nioServer != null) {
+            nioServer.shutdown();
+        }
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (IOException ignored) {
             }
         }
     }
@@ -285,6 +240,7 @@ public class LoginServer {
             logWriter.println("시작 시간: " + new java.util.Date());
             logWriter.println("현재 작업 디렉토리: " + System.getProperty("user.dir"));
             logWriter.println("예외 처리: CommandInvoker 활성화");
+            logWriter.println("I/O 모드: " + ServerConfig.getString("server.io.mode", "nio"));
             logWriter.println("=================================");
             logWriter.flush();
         } catch (IOException e) {
@@ -0,0 +1,62 @@
+package Server;
+
+import common.utils.ConfigLoader;
+
+/**
+ * config.properties 조회 헬퍼
+ * 값이 없거나 형식이 잘못된 경우 기본값을 사용한다.
+ */
+public final class ServerConfig {
+
+    private ServerConfig() {
+    }
+
+    /**
+     * 문자열 설정값 조회
+     */
+    public static String getString(String key, String defaultValue) {
+        String value;
+        try {
+            value = ConfigLoader.getProperty(key);
+        } catch (RuntimeException e) {
+            System.err.println("[ServerConfig] 설정 읽기 실패 (" + key + "): " + e.getMessage());
+            return defaultValue;
+        }
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return value.trim();
+    }
+
+    /**
+     * 정수 설정값 조회
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("[ServerConfig] 정수 형식 오류 (" + key + "=" + value + ") → 기본값 " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * long 설정값 조회
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("[ServerConfig] 정수 형식 오류 (" + key + "=" + value + ") → 기본값 " + defaultValue);
+            return defaultValue;
+        }
+    }
+}
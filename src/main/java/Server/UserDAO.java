@@ -1,7 +1,12 @@
 package Server;
 
+import Server.exceptions.DatabaseException;
+import Server.storage.UserFile;
+import Server.storage.UserRecord;
+import Server.storage.UserRepository;
 import common.model.User;
 import java.io.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class UserDAO {
 
@@ -20,6 +25,11 @@ public class UserDAO {
     private static final String TEMP2 = BASE_DIR + "/temp2.txt";
     private static final String CLASSROOMS_FILE = BASE_DIR + "/Classrooms.txt";
 
+    // 가입의 "중복 확인 후 추가"만 묶는 락: synchronized는 가상 스레드를 캐리어에 고정(pinning)시키므로 ReentrantLock 사용
+    private final ReentrantLock lock = new ReentrantLock();
+    // 사용자 파일은 메모리에 올려 두고 변경은 변경 로그(users-*.wal)에 기록, 조회는 아이디/이름 색인에서 잠금 없이 처리
+    private final UserRepository users;
+
     public UserDAO() {
 System.out.println("현재 작업 디렉토리: " + System.getProperty("user.dir"));
 System.out.println("읽고 있는 사용자 파일 경로: " + new File(USER_FILE).getAbsolutePath());
@@ -39,6 +49,7 @@ System.out.println("읽고 있는 사용자 파일 경로: " + new File(USER_FIL
         createFileIfNotExists(CLASSROOMS_FILE);
         initDefaultClassrooms();   // ✅ 기본 강의실 자동 생성
 //initDefaultLabs();         // ✅ 기본 실습실 자동 생성
+        users = UserRepository.open(BASE_DIR);
     }
 
     private void createFileIfNotExists(String fileName) {
@@ -53,97 +64,56 @@ System.out.println("읽고 있는 사용자 파일 경로: " + new File(USER_FIL
         }
     }
 
-    public synchronized boolean validateUser(String userId, String password) {
-        String fileName = getFileNameByUserId(userId);
-        System.out.println("[validateUser] 검사 대상: ID=" + userId + ", PW=" + password);
-    System.out.println("[validateUser] 파일 경로: " + fileName);
-        if (fileName == null) {
-            return false;
-        }
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] tokens = line.split(",");
-                if (tokens.length >= 3) {
-                System.out.println("[validateUser] 비교 중: " + tokens[1] + ", " + tokens[2]);
-            }
-                if (tokens.length >= 3 && tokens[1].equals(userId) && tokens[2].equals(password)) {
-                                    System.out.println("[validateUser] 유효한 사용자 확인됨!");
+    public boolean validateUser(String userId, String password) {
+        System.out.println("[validateUser] 검사 대상: ID=" + userId);
 
-                    return true;
-                }
-            }
-        } catch (IOException e) {
-            System.out.println("읽기 오류: " + e.getMessage());
+        UserRecord user = users.findById(userId, r -> r.fieldCount() >= 3 && r.getPassword().equals(password));
+        if (user != null) {
+            System.out.println("[validateUser] 유효한 사용자 확인됨!");
+            return true;
         }
-            System.out.println("[validateUser] 사용자 인증 실패");
+        System.out.println("[validateUser] 사용자 인증 실패");
 
         return false;
     }
 
-    public synchronized boolean isUserIdExists(String userId) {
-        String fileName = getFileNameByUserId(userId);
-        if (fileName == null) {
-            return false;
-        }
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] tokens = line.split(",");
-                if (tokens.length >= 2 && tokens[1].equals(userId)) {
-                    return true;
-                }
-            }
-        } catch (IOException e) {
-            System.out.println("읽기 오류: " + e.getMessage());
-        }
-        return false;
+    public boolean isUserIdExists(String userId) {
+        return users.findById(userId) != null;
     }
 
-    public synchronized void registerUser(User user) {
-        String fileName = getFileNameByUserId(user.getUserId());
-        if (fileName == null) {
-            System.out.println("잘못된 형식의 ID입니다: " + user.getUserId());
-            return;
-        }
+    public void registerUser(User user) {
+        lock.lock();
+        try {
+            UserFile file = UserFile.forUserId(user.getUserId());
+            if (file == null) {
+                System.out.println("잘못된 형식의 ID입니다: " + user.getUserId());
+                return;
+            }
 
-        if (isUserIdExists(user.getUserId())) {
-            System.out.println("이미 존재하는 ID입니다: " + user.getUserId());
-            return;
-        }
+            if (isUserIdExists(user.getUserId())) {
+                System.out.println("이미 존재하는 ID입니다: " + user.getUserId());
+                return;
+            }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName, true))) {
-            writer.write(user.getName() + "," + user.getUserId() + "," + user.getPassword());
-            writer.newLine();
-        } catch (IOException e) {
-            System.out.println("쓰기 오류: " + e.getMessage());
+            try {
+                users.append(file, user.getName() + "," + user.getUserId() + "," + user.getPassword());
+            } catch (DatabaseException e) {
+                System.out.println("쓰기 오류: " + e.getMessage());
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
-    public synchronized String getUserNameById(String userId) {
-        String fileName = getFileNameByUserId(userId);
+    public String getUserNameById(String userId) {
         System.out.println("[getUserNameById] 조회 대상 ID: " + userId);
-    System.out.println("[getUserNameById] 파일 경로: " + fileName);
-        if (fileName == null) {
-            return null;
-        }
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] tokens = line.split(",");
-                if (tokens.length >= 3 && tokens[1].equals(userId)) {
-                                    System.out.println("[getUserNameById] 이름 찾음: " + tokens[0]);
 
-                    return tokens[0];
-                }
-            }
-        } catch (IOException e) {
-            System.out.println("읽기 오류: " + e.getMessage());
+        UserRecord user = users.findById(userId, r -> r.fieldCount() >= 3);
+        if (user != null) {
+            System.out.println("[getUserNameById] 이름 찾음: " + user.getName());
+            return user.getName();
         }
-            System.out.println("[getUserNameById] 해당 ID 없음");
+        System.out.println("[getUserNameById] 해당 ID 없음");
 
         return null;
     }
@@ -158,106 +128,34 @@ System.out.println("읽고 있는 사용자 파일 경로: " + new File(USER_FIL
         return role == 'P' || role == 'A'; // 교수 또는 조교만 true 반환
     }
 
-    public synchronized boolean updatePassword(String userId, String newPassword) {
-    String fileName = getFileNameByUserId(userId);
-    
-    // 로그: 어떤 파일을 열려고 하는지 확인
-    System.out.println("[updatePassword] userId: " + userId);
-    System.out.println("[updatePassword] fileName: " + fileName);
-    
-    if (fileName == null) return false;
-
-    File originalFile = new File(fileName);
-    File tempFile = new File(fileName + ".tmp");
-
-    boolean updated = false;
-
-    try (
-        BufferedReader reader = new BufferedReader(new FileReader(originalFile));
-        BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile))
-    ) {
-        String line;
-        while ((line = reader.readLine()) != null) {
-            
-            // 로그: 파일에서 읽은 줄 확인
-            System.out.println("[updatePassword] read line: " + line);
-            
-            String[] tokens = line.split(",");
-            
-            // 로그: ID 비교 로그
-            if (tokens.length >= 3) {
-                System.out.println("[updatePassword] 비교 대상: " + tokens[1].trim() + " == " + userId.trim());
-            }
-            
-            if (tokens.length >= 3 && tokens[1].equals(userId)) {
-                // 이름, 아이디는 유지하고 비밀번호만 수정
-                writer.write(tokens[0] + "," + tokens[1] + "," + newPassword);
-                updated = true;
-            } else {
-                writer.write(line);
-            }
-            writer.newLine();
-        }
-    } catch (IOException e) {
-        System.out.println("비밀번호 변경 중 오류: " + e.getMessage());
-        return false;
-    }
-    // 로그: 변경 결과 출력
-    System.out.println("[updatePassword] updated: " + updated);
-    
-
-    // 파일 교체
-    if (updated) {
-        if (!originalFile.delete() || !tempFile.renameTo(originalFile)) {
-            System.out.println("파일 덮어쓰기 실패");
-            return false;
-        }
-    } else {
-        tempFile.delete();
-    }
+    public boolean updatePassword(String userId, String newPassword) {
+        UserFile file = UserFile.forUserId(userId);
+        System.out.println("[updatePassword] userId: " + userId + ", file: " + file);
 
-    return updated;
-}
-   private String getFileNameByUserId(String userId) {
-    if (userId == null) return null;
+        if (file == null) return false;
 
-    userId = userId.trim().toUpperCase();
+        int updated;
+        try {
+            // 이름, 아이디는 유지하고 비밀번호만 수정
+            updated = users.updateIf(file, r -> r.fieldCount() >= 3 && r.getUserId().equals(userId)
+                    ? r.getName() + "," + r.getUserId() + "," + newPassword
+                    : null);
+        } catch (DatabaseException e) {
+            System.out.println("비밀번호 변경 중 오류: " + e.getMessage());
+            return false;
+        }
+        System.out.println("[updatePassword] updated: " + (updated > 0));
 
-    if (userId.startsWith("S")) {
-        return USER_FILE;
-    }
-    if (userId.startsWith("P")) {
-        return PROF_FILE;
-    }
-    if (userId.startsWith("A")) {
-        return ASSISTANT_FILE;
+        return updated > 0;
     }
-    return null;
-}
-
 
-    public synchronized boolean login(String userId, String password) {
+    public boolean login(String userId, String password) {
         return validateUser(userId, password);
     }
 
-    public synchronized String getUserIdByName(String name) {
-        String[] files = {USER_FILE, PROF_FILE, ASSISTANT_FILE};
-
-        for (String fileName : files) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] tokens = line.split(",");
-                    if (tokens.length >= 2 && tokens[0].trim().equals(name)) {
-                        return tokens[1].trim();
-                    }
-                }
-            } catch (IOException e) {
-                System.out.println("getUserIdByName 읽기 오류: " + e.getMessage());
-            }
-        }
-
-        return name;
+    public String getUserIdByName(String name) {
+        String userId = users.findUserIdByName(name);
+        return userId != null ? userId : name;
     }
     /**
  * ✅ 서버 시작 시 ReserveClass.txt 자동 초기화
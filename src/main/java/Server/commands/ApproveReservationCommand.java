@@ -2,21 +2,27 @@ package Server.commands;
 
 import Server.UserDAO;
 import Server.manager.ServerClassroomManager;
+import Server.storage.ReservationRecord;
+import Server.storage.ReservationRepository;
+import Server.storage.ReservationStore;
+import Server.storage.RoomLocks;
 import common.dto.ClassroomDTO;
 import common.observer.ReservationNotification;
 import common.observer.ReservationSubject;
 import java.io.*;
 import Server.exceptions.*;
+import java.util.ArrayList;
+import java.util.List;
 public class ApproveReservationCommand implements Command {
 
-    private final String BASE_DIR;
-    private final Object FILE_LOCK;
+    private final ReservationRepository reservations;
+    private final RoomLocks roomLocks;
     private final UserDAO userDAO;
     private final String currentUserId;
 
-    public ApproveReservationCommand(String baseDir, Object fileLock, UserDAO userDAO, String currentUserId) {
-        this.BASE_DIR = baseDir;
-        this.FILE_LOCK = fileLock;
+    public ApproveReservationCommand(ReservationRepository reservations, RoomLocks roomLocks, UserDAO userDAO, String currentUserId) {
+        this.reservations = reservations;
+        this.roomLocks = roomLocks;
         this.userDAO = userDAO;
         this.currentUserId = currentUserId;
     }
@@ -46,110 +52,57 @@ public class ApproveReservationCommand implements Command {
 
         System.out.println("승인 처리: 요청자=" + requesterName + ", ID=" + userId + ", 방=" + room + ", 날짜=" + date + ", 요일=" + day + ", 시간=" + time);
 
-        synchronized (FILE_LOCK) {
+        RoomLocks.Held held = roomLocks.lock(() -> roomsTouched(userId, time, date, day, room, requesterName));
+        try {
+            // ReservationRequest 포맷: 이름,방,날짜,요일,시간,목적,권한,상태,학생수,아이디 (10개)
+            List<ReservationRecord> approvedRequests;
+            // ChangeRequest 포맷: ID,시간,날짜,요일,방,이름,목적,권한,원시간,원날짜,원요일,원방,인원 (13개)
+            List<ReservationRecord> approvedChanges;
+            try {
+                approvedRequests = reservations.removeRows(ReservationStore.PENDING,
+                        reservations.findInRoom(ReservationStore.PENDING, room, date, r ->
+                                r.fieldCount() >= 10
+                                && r.field(0).equals(requesterName)
+                                && r.field(1).equals(room)
+                                && !r.field(2).isEmpty() && r.field(2).equals(date)
+                                && !r.field(3).isEmpty() && r.field(3).equals(day)
+                                && r.field(4).equals(time)));
+
+                List<ReservationRecord> changes = reservations.find(ReservationStore.CHANGE, r -> {
+                    if (r.fieldCount() < 13) {
+                        System.out.println("[WARN] 구버전 ChangeRequest 무시 (" + r.fieldCount() + "개 필드): " + r.getLine());
+                        return true;
+                    }
+                    return isTargetChange(r, userId, time, date, day, room, requesterName);
+                });
+                approvedChanges = reservations.removeRows(ReservationStore.CHANGE, changes);
+                approvedChanges.removeIf(r -> r.fieldCount() < 13);
+            } catch (DatabaseException e) {
+                System.err.println("[ERROR] 파일 처리 오류: " + e.getMessage());
+                return "APPROVE_FAILED_IO";
+            }
+
             String purpose = "", role = "";
             int studentCount = 0;
             String originalTime = "", originalDate = "", originalDay = "", originalRoom = "";
-            boolean found = false;
-            boolean isChangeRequest = false;
-
-            File[] sources = {
-                new File(BASE_DIR + "/ReservationRequest.txt"),
-                new File(BASE_DIR + "/ChangeRequest.txt")
-            };
-
-            for (File file : sources) {
-                if (!file.exists()) {
-                    System.out.println("[WARN] 파일 없음: " + file.getName());
-                    continue;
-                }
-
-                File temp = new File(BASE_DIR + "/temp_" + file.getName());
-                try (BufferedReader reader = new BufferedReader(new FileReader(file));
-                     BufferedWriter writer = new BufferedWriter(new FileWriter(temp))) {
-
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        String[] tokens = line.split(",");
-
-                        if (file.getName().equals("ChangeRequest.txt") && tokens.length < 13) {
-                            System.out.println("[WARN] 구버전 ChangeRequest 무시 (" + tokens.length + "개 필드): " + line);
-                            continue;
-                        }
-
-                        //  ReservationRequest 처리
-                        if (file.getName().equals("ReservationRequest.txt") && tokens.length >= 7 &&
-                            tokens[0].trim().equals(requesterName.trim()) &&
-                            tokens[1].trim().equals(room.trim())) {
-
-                            String fileDate = "", fileDay = "", fileTime = "";
-                            if (tokens.length >= 10) {
-                                fileDate = tokens[2].trim();
-                                fileDay = tokens[3].trim();
-                                fileTime = tokens[4].trim();
-                            }
-
-                            boolean dateMatch = !fileDate.isEmpty() && fileDate.equals(date.trim());
-                            boolean dayMatch = !fileDay.isEmpty() && fileDay.equals(day.trim());
-                            boolean timeMatch = fileTime.equals(time.trim());
-
-                            if (dateMatch && dayMatch && timeMatch) {
-                                found = true;
-                                purpose = tokens[5].trim();
-                                role = tokens[6].trim();
-
-                                try {
-                                    studentCount = Integer.parseInt(tokens[8].trim());
-                                } catch (NumberFormatException e) {
-                                    studentCount = 1;
-                                }
-
-                                System.out.println("[ReservationRequest 찾음] " + line);
-                                continue; // 승인 항목은 원본 파일에서 제거
-                            }
-                        }
-
-                        //  ChangeRequest 처리
-                        // ChangeRequest 포맷: ID,시간,날짜,요일,방,이름,목적,권한,원시간,원날짜,원요일,원방,인원 (13개)
-                        if (file.getName().equals("ChangeRequest.txt") && tokens.length >= 13 &&
-                            tokens[0].trim().equals(userId.trim()) &&
-                            tokens[1].trim().equals(time.trim()) &&
-                            tokens[2].trim().equals(date.trim()) &&
-                            tokens[3].trim().equals(day.trim()) &&
-                            tokens[4].trim().equals(room.trim()) &&
-                            tokens[5].trim().equals(requesterName.trim())) {
-
-                            purpose = tokens[6].trim();
-                            role = tokens[7].trim();
-                            originalTime = tokens[8].trim();
-                            originalDate = tokens[9].trim();
-                            originalDay = tokens[10].trim();
-                            originalRoom = tokens[11].trim();
-
-                            try {
-                                studentCount = Integer.parseInt(tokens[12].trim());
-                            } catch (NumberFormatException e) {
-                                studentCount = 1;
-                            }
-
-                            found = true;
-                            isChangeRequest = true;
-                            System.out.println("[ChangeRequest 찾음] " + line);
-                            continue; // 승인 항목 제거
-                        }
-
-                        // 다른 줄은 그대로 복사
-                        writer.write(line);
-                        writer.newLine();
-                    }
-
-                } catch (IOException e) {
-                    System.err.println("[ERROR] 파일 처리 오류: " + e.getMessage());
-                    return "APPROVE_FAILED_IO";
-                }
-
-                file.delete();
-                temp.renameTo(file);
+            boolean found = !approvedRequests.isEmpty() || !approvedChanges.isEmpty();
+            boolean isChangeRequest = !approvedChanges.isEmpty();
+
+            for (ReservationRecord request : approvedRequests) {
+                purpose = request.field(5);
+                role = request.field(6);
+                studentCount = parseStudentCount(request.field(8));
+                System.out.println("[ReservationRequest 찾음] " + request.getLine());
+            }
+            for (ReservationRecord change : approvedChanges) {
+                purpose = change.field(6);
+                role = change.field(7);
+                originalTime = change.field(8);
+                originalDate = change.field(9);
+                originalDay = change.field(10);
+                originalRoom = change.field(11);
+                studentCount = parseStudentCount(change.field(12));
+                System.out.println("[ChangeRequest 찾음] " + change.getLine());
             }
 
             if (!found) {
@@ -171,30 +124,22 @@ public class ApproveReservationCommand implements Command {
             ClassroomDTO roomDto = cm.getClassroom(room);
             boolean isClass = roomDto != null && roomDto.isClassroom();
 
-            String targetFile = isClass
-                    ? BASE_DIR + "/ReserveClass.txt"
-                    : BASE_DIR + "/ReserveLab.txt";
-            
+            ReservationStore target = isClass ? ReservationStore.CLASS : ReservationStore.LAB;
+
             //  변경 요청 시 기존 예약 삭제
             if (isChangeRequest) {
                 deleteOriginalReservation(reserverName, originalRoom, originalDate, originalDay, originalTime);
             }
 
             //  승인된 예약 저장 (일관된 포맷)
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(targetFile, true))) {
-                // 이름,방,날짜,요일,시간,목적,권한,상태,학생수,아이디
-                writer.write(String.join(",", reserverName, room, date, day, time,
-                        purpose, role, "예약됨", String.valueOf(studentCount), userId));
-                writer.newLine();
-                System.out.println("[예약 추가 완료] " + reserverName + "," + room + "," + date + "," + day + "," + time);
-            }
+            // 이름,방,날짜,요일,시간,목적,권한,상태,학생수,아이디
+            reservations.append(target, String.join(",", reserverName, room, date, day, time,
+                    purpose, role, "예약됨", String.valueOf(studentCount), userId));
+            System.out.println("[예약 추가 완료] " + reserverName + "," + room + "," + date + "," + day + "," + time);
 
             // 백업 로그에도 동일 포맷 유지
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(BASE_DIR + "/ApprovedBackup.txt", true))) {
-                writer.write(String.join(",", reserverName, room, date, day, time,
-                        purpose, role, "승인", String.valueOf(studentCount), userId));
-                writer.newLine();
-            }
+            reservations.append(ReservationStore.APPROVED_BACKUP, String.join(",", reserverName, room, date, day, time,
+                    purpose, role, "승인", String.valueOf(studentCount), userId));
 
             //  Observer 패턴: 클라이언트에게 실시간 알림 전송
             ReservationSubject subject = ReservationSubject.getInstance();
@@ -216,6 +161,43 @@ public class ApproveReservationCommand implements Command {
             System.out.println("[Observer 패턴] " + userId + "에게 알림 전송 완료");
 
             return "APPROVE_SUCCESS";
+        } finally {
+            held.unlock();
+        }
+    }
+
+    /**
+     * 승인할 변경 요청 행인지 (13개 필드 형식)
+     */
+    private static boolean isTargetChange(ReservationRecord r, String userId, String time, String date,
+                                          String day, String room, String requesterName) {
+        return r.field(0).equals(userId)
+                && r.field(1).equals(time)
+                && r.field(2).equals(date)
+                && r.field(3).equals(day)
+                && r.field(4).equals(room)
+                && r.field(5).equals(requesterName);
+    }
+
+    /**
+     * 승인으로 바뀌는 강의실: 요청 강의실 + 변경 요청이면 원래 강의실 (잠금 대상)
+     */
+    private List<String> roomsTouched(String userId, String time, String date, String day,
+                                      String room, String requesterName) {
+        List<String> rooms = new ArrayList<>();
+        rooms.add(room);
+        for (ReservationRecord change : reservations.find(ReservationStore.CHANGE, r ->
+                r.fieldCount() >= 13 && isTargetChange(r, userId, time, date, day, room, requesterName))) {
+            rooms.add(change.field(11));
+        }
+        return rooms;
+    }
+
+    private int parseStudentCount(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 1;
         }
     }
 
@@ -226,42 +208,23 @@ public class ApproveReservationCommand implements Command {
         ServerClassroomManager cm = ServerClassroomManager.getInstance();
         ClassroomDTO info = cm.getClassroom(room.endsWith("호") ? room : room + "호");
         boolean isClass = info != null && info.isClassroom();
-        String targetFile = isClass
-                ? BASE_DIR + "/ReserveClass.txt"
-                : BASE_DIR + "/ReserveLab.txt";
-
-        File inputFile = new File(targetFile);
-        File tempFile = new File(targetFile + ".tmp");
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(inputFile));
-             BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile))) {
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] tokens = line.split(",");
-                // 이름,방,날짜,요일,시간,목적,권한,상태,학생수,아이디 (10개 필드)
-                if (tokens.length >= 10) {
-                    boolean match =
-                            tokens[0].trim().equals(name.trim()) &&
-                            tokens[1].replace("호", "").trim().equals(normalizedRoom) &&
-                            tokens[2].trim().equals(date.trim()) &&
-                            tokens[3].trim().equals(day.trim()) &&
-                            tokens[4].trim().equals(time.trim());
-
-                    if (match) {
-                        System.out.println("[기존 예약 삭제] " + line);
-                        continue;
-                    }
-                }
-                writer.write(line);
-                writer.newLine();
+        ReservationStore target = isClass ? ReservationStore.CLASS : ReservationStore.LAB;
+
+        try {
+            // 이름,방,날짜,요일,시간,목적,권한,상태,학생수,아이디 (10개 필드)
+            List<ReservationRecord> matches = reservations.findInRoom(target, room, date, r ->
+                    r.fieldCount() >= 10
+                    && r.field(0).equals(name.trim())
+                    && r.rawField(1).replace("호", "").trim().equals(normalizedRoom)
+                    && r.field(2).equals(date.trim())
+                    && r.field(3).equals(day.trim())
+                    && r.field(4).equals(time.trim()));
+            List<ReservationRecord> deleted = reservations.removeRows(target, matches);
+            for (ReservationRecord record : deleted) {
+                System.out.println("[기존 예약 삭제] " + record.getLine());
             }
-
-        } catch (IOException e) {
+        } catch (DatabaseException e) {
             System.err.println("[ERROR] 기존 예약 삭제 실패: " + e.getMessage());
         }
-
-        inputFile.delete();
-        tempFile.renameTo(inputFile);
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,22 @@
 package Server.commands;
 
+import Server.storage.ReservationRecord;
+import Server.storage.ReservationRepository;
+import Server.storage.ReservationStore;
+import Server.storage.RoomLocks;
 import common.observer.ReservationNotification;
 import common.observer.ReservationSubject;
 import java.io.*;
 import Server.exceptions.*;
+import java.util.List;
 public class CancelReservationCommand implements Command {
 
-    private final String BASE_DIR;
-    private final Object FILE_LOCK;
+    private final ReservationRepository reservations;
+    private final RoomLocks roomLocks;
 
-    public CancelReservationCommand(String baseDir, Object fileLock) {
-        this.BASE_DIR = baseDir;
-        this.FILE_LOCK = fileLock;
+    public CancelReservationCommand(ReservationRepository reservations, RoomLocks roomLocks) {
+        this.reservations = reservations;
+        this.roomLocks = roomLocks;
     }
 
     @Override
@@ -29,67 +34,43 @@ public class CancelReservationCommand implements Command {
         String room = params[6].trim();
         String userName = params[7].trim();
 
-        synchronized (FILE_LOCK) {
-            String targetFile = (room.equals("908호") || room.equals("912호")
+        RoomLocks.Held held = roomLocks.lock(room);
+        try {
+            ReservationStore target = (room.equals("908호") || room.equals("912호")
                     || room.equals("913호") || room.equals("914호"))
-                    ? BASE_DIR + "/ReserveClass.txt"
-                    : BASE_DIR + "/ReserveLab.txt";
+                    ? ReservationStore.CLASS
+                    : ReservationStore.LAB;
 
-            File inputFile = new File(targetFile);
-            File tempFile = new File(targetFile + ".tmp");
-            boolean deleted = false;
-            int canceledStudentCount = 0;
+            List<ReservationRecord> matches = reservations.findInRoom(target, room, date, r -> {
+                // 형식: 이름,방,날짜,요일,시간,목적,권한,상태,학생수,userId
+                if (!r.isCanonical()) {
+                    return false;
+                }
+                // ✅ 날짜가 비어있으면 날짜 비교 생략
+                boolean dateMatch = date.isEmpty() || r.field(2).equals(date);
+                // 이름 또는 userId로 매칭
+                boolean ownerMatch = r.field(0).equals(userName) || r.field(9).equals(cancelUserId);
+                return ownerMatch
+                        && r.field(1).equals(room)
+                        && dateMatch
+                        && r.field(3).equals(day)
+                        && r.field(4).equals(time);
+            });
+            List<ReservationRecord> canceled = reservations.removeRows(target, matches);
 
-            try (BufferedReader reader = new BufferedReader(new FileReader(inputFile));
-                 BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] lineParts = line.split(",");
-                    // ✅ 새 형식 (10개 필드) 또는 구 형식 (9개 필드) 모두 지원
-                    boolean isNewFormat = lineParts.length >= 10;
-                    boolean isMatch = false;
-                    
-                    if (isNewFormat) {
-                        // 새 형식: 이름,방,날짜,요일,시간,목적,권한,상태,학생수,userId
-                        String fileUserId = lineParts[9].trim();
-                        // ✅ 날짜가 비어있으면 날짜 비교 생략
-                        boolean dateMatch = date.isEmpty() || lineParts[2].trim().equals(date);
-                        isMatch = lineParts.length >= 10
-                                && (lineParts[0].trim().equals(userName) || fileUserId.equals(cancelUserId))
-                                && lineParts[1].trim().equals(room)
-                                && dateMatch
-                                && lineParts[3].trim().equals(day)
-                                && lineParts[4].trim().equals(time);
-                    } else if (lineParts.length >= 9) {
-                        // 구 형식: 이름,방,날짜,요일,시간,목적,권한,상태,학생수
-                        // ✅ 날짜가 비어있으면 날짜 비교 생략
-                        boolean dateMatch = date.isEmpty() || lineParts[2].trim().equals(date);
-                        isMatch = lineParts[0].trim().equals(userName)
-                                && lineParts[1].trim().equals(room)
-                                && dateMatch
-                                && lineParts[3].trim().equals(day)
-                                && lineParts[4].trim().equals(time);
-                    }
-                    
-                    if (isMatch) {
-                        // 학생 수 추출
-                        try {
-                            canceledStudentCount = Integer.parseInt(lineParts[8].trim());
-                        } catch (NumberFormatException e) {
-                            canceledStudentCount = 1;
-                        }
-                        deleted = true;
-                        System.out.println("[DEBUG] 예약 취소: " + line);
-                        continue;
-                    }
-                    writer.write(line);
-                    writer.newLine();
+            boolean deleted = !canceled.isEmpty();
+            int canceledStudentCount = 0;
+            for (ReservationRecord record : canceled) {
+                // 학생 수 추출
+                try {
+                    canceledStudentCount = Integer.parseInt(record.field(8));
+                } catch (NumberFormatException e) {
+                    canceledStudentCount = 1;
                 }
+                System.out.println("[DEBUG] 예약 취소: " + record.getLine());
             }
 
             if (deleted) {
-                inputFile.delete();
-                tempFile.renameTo(inputFile);
                 System.out.println("[취소] " + room + " " + day + " " + time + " - 학생 수: " + canceledStudentCount + "명");
                 
                 // ✅ 자기 자신의 예약을 취소한 경우는 알림 X, 조교가 취소한 경우에만 알림 O
@@ -117,9 +98,10 @@ public class CancelReservationCommand implements Command {
                 
                 return "CANCEL_SUCCESS";
             } else {
-                tempFile.delete();
                 return "CANCEL_FAILED_NOT_FOUND";
             }
+        } finally {
+            held.unlock();
         }
     }
 }
@@ -8,15 +8,19 @@ package Server.commands;
  *
  * @author YangJinWon
  */
+import Server.storage.ReservationRecord;
+import Server.storage.ReservationRepository;
+import Server.storage.ReservationStore;
+import Server.storage.RoomLocks;
 import java.io.*;
 import Server.exceptions.*;
 public class ChangeReservationCommand implements Command {
-    private final String BASE_DIR;
-    private final Object FILE_LOCK;
+    private final ReservationRepository reservations;
+    private final RoomLocks roomLocks;
 
-    public ChangeReservationCommand(String baseDir, Object fileLock) {
-        this.BASE_DIR = baseDir;
-        this.FILE_LOCK = fileLock;
+    public ChangeReservationCommand(ReservationRepository reservations, RoomLocks roomLocks) {
+        this.reservations = reservations;
+        this.roomLocks = roomLocks;
     }
 
     @Override
@@ -43,93 +47,56 @@ public class ChangeReservationCommand implements Command {
 
         String purpose = "";
         String role = "";
-        String filePath = (originalRoom.equals("908호") || originalRoom.equals("912호") ||
+        ReservationStore source = (originalRoom.equals("908호") || originalRoom.equals("912호") ||
                           originalRoom.equals("913호") || originalRoom.equals("914호"))
-                ? BASE_DIR + "/ReserveClass.txt" : BASE_DIR + "/ReserveLab.txt";
+                ? ReservationStore.CLASS : ReservationStore.LAB;
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] tokens = line.split(",");
-                // 이름,방,날짜,요일,시간,목적,권한,상태,학생수,아이디 (10개 필드)
-                if (tokens.length >= 10 &&
-                    tokens[0].trim().equals(userName.trim()) &&
-                    tokens[1].trim().equals(originalRoom.trim()) &&
-                    tokens[2].trim().equals(originalDate.trim()) &&
-                    tokens[3].trim().equals(originalDay.trim()) &&
-                    tokens[4].trim().equals(originalTime.trim())) {
-                    purpose = tokens[5].trim();
-                    role = tokens[6].trim();
-                    break;
-                }
-            }
-        } catch (IOException e) {
-            return "CHANGE_FAILED_LOOKUP";
+        // 이름,방,날짜,요일,시간,목적,권한,상태,학생수,아이디 (10개 필드)
+        ReservationRecord original = reservations.findFirst(source, r ->
+                r.fieldCount() >= 10 &&
+                r.field(0).equals(userName.trim()) &&
+                r.field(1).equals(originalRoom.trim()) &&
+                r.field(2).equals(originalDate.trim()) &&
+                r.field(3).equals(originalDay.trim()) &&
+                r.field(4).equals(originalTime.trim()));
+        if (original != null) {
+            purpose = original.field(5);
+            role = original.field(6);
         }
 
-        synchronized (FILE_LOCK) {
+        RoomLocks.Held held = roomLocks.lock(originalRoom, newRoom);
+        try {
             boolean duplicate = false;
-            File[] reserveFiles = {
-                new File(BASE_DIR + "/ReserveClass.txt"),
-                new File(BASE_DIR + "/ReserveLab.txt")
-            };
-
-            for (File file : reserveFiles) {
-                if (!file.exists()) continue;
-
-                try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        String[] tokens = line.split(",");
-                        // 이름,방,날짜,요일,시간,목적,권한,상태,학생수,아이디
-                        if (tokens.length >= 10 &&
-                            tokens[1].trim().equals(newRoom.trim()) &&
-                            tokens[2].trim().equals(newDate.trim()) &&
-                            tokens[3].trim().equals(newDay.trim()) &&
-                            tokens[4].trim().equals(newTime.trim()) &&
-                            tokens[7].trim().equals("예약됨")) {
-                            duplicate = true;
-                            break;
-                        }
-                    }
-                } catch (IOException e) {
-                    return "CHANGE_FAILED_IO";
-                }
+            for (ReservationStore store : ReservationStore.approved()) {
+                // 이름,방,날짜,요일,시간,목적,권한,상태,학생수,아이디
+                duplicate = reservations.exists(store, r ->
+                        r.fieldCount() >= 10 &&
+                        r.field(1).equals(newRoom.trim()) &&
+                        r.field(2).equals(newDate.trim()) &&
+                        r.field(3).equals(newDay.trim()) &&
+                        r.field(4).equals(newTime.trim()) &&
+                        r.field(7).equals("예약됨"));
                 if (duplicate) break;
             }
 
             if (!duplicate) {
-                File changeFile = new File(BASE_DIR + "/ChangeRequest.txt");
-                if (changeFile.exists()) {
-                    try (BufferedReader reader = new BufferedReader(new FileReader(changeFile))) {
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            String[] tokens = line.split(",");
-                            // ID,시간,날짜,요일,방,이름,목적,권한,원시간,원날짜,원요일,원방,인원
-                            if (tokens.length >= 13 &&
-                                tokens[0].trim().equals(changeUserId.trim()) &&
-                                tokens[1].trim().equals(newTime.trim()) &&
-                                tokens[2].trim().equals(newDate.trim()) &&
-                                tokens[3].trim().equals(newDay.trim()) &&
-                                tokens[4].trim().equals(newRoom.trim())) {
-                                duplicate = true;
-                                break;
-                            }
-                        }
-                    } catch (IOException e) {
-                        return "CHANGE_FAILED_IO";
-                    }
-                }
+                // ID,시간,날짜,요일,방,이름,목적,권한,원시간,원날짜,원요일,원방,인원
+                duplicate = reservations.exists(ReservationStore.CHANGE, r ->
+                        r.fieldCount() >= 13 &&
+                        r.field(0).equals(changeUserId.trim()) &&
+                        r.field(1).equals(newTime.trim()) &&
+                        r.field(2).equals(newDate.trim()) &&
+                        r.field(3).equals(newDay.trim()) &&
+                        r.field(4).equals(newRoom.trim()));
             }
 
             if (duplicate) {
                 return "CHANGE_DUPLICATE_REQUEST";
             }
 
-            File changeFile = new File(BASE_DIR + "/ChangeRequest.txt");
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(changeFile, true))) {
+            try {
                 // ChangeRequest 포맷: ID,시간,날짜,요일,방,이름,목적,권한,원시간,원날짜,원요일,원방,인원 (13개 필드)
-                writer.write(String.join(",", 
+                reservations.append(ReservationStore.CHANGE, String.join(",", 
                     changeUserId,      // 0: ID
                     newTime,           // 1: 새 시간
                     newDate,           // 2: 새 날짜
@@ -144,14 +111,15 @@ public class ChangeReservationCommand implements Command {
                     originalRoom,      // 11: 원래 방
                     changeNumber       // 12: 인원
                 ));
-                writer.newLine();
                 System.out.println("[DEBUG] CHANGE_RESERVATION 저장 완료 (인원: " + changeNumber + ")");
-            } catch (IOException e) {
+            } catch (DatabaseException e) {
                 System.out.println("[ERROR] CHANGE_RESERVATION 저장 실패: " + e.getMessage());
                 return "CHANGE_FAILED_WRITE";
             }
 
             return "CHANGE_SUCCESS";
+        } finally {
+            held.unlock();
         }
     }
 }
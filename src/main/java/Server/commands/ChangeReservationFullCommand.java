@@ -1,24 +1,30 @@
 package Server.commands;
 
+import Server.storage.ReservationRecord;
+import Server.storage.ReservationRepository;
+import Server.storage.ReservationStore;
+import Server.storage.RoomLocks;
 import java.io.*;
 import java.util.*;
 import Server.exceptions.*;
+import java.util.function.Predicate;
 public class ChangeReservationFullCommand implements Command {
 
-    private final String BASE_DIR;
-    private final Object FILE_LOCK;
+    private final ReservationRepository reservations;
+    private final RoomLocks roomLocks;
 
-    public ChangeReservationFullCommand(String baseDir, Object fileLock) {
-        this.BASE_DIR = baseDir;
-        this.FILE_LOCK = fileLock;
+    public ChangeReservationFullCommand(ReservationRepository reservations, RoomLocks roomLocks) {
+        this.reservations = reservations;
+        this.roomLocks = roomLocks;
     }
 
     @Override
     public String execute(String[] params, BufferedReader in, PrintWriter out) throws IOException, InvalidInputException, DatabaseException, AuthenticationException, BusinessLogicException {
-        synchronized (FILE_LOCK) {
+        RoomLocks.Held held = roomLocks.lock(roomsTouched(params));
+        try {
             // 백업용 변수 (롤백을 위해)
-            String deletedReservation = null;
-            File deletedFromFile = null;
+            List<ReservationRecord> deletedReservations = null;
+            ReservationStore deletedFromStore = null;
             
             try {
                 // 요청 파싱
@@ -92,50 +98,54 @@ public class ChangeReservationFullCommand implements Command {
                 System.out.println("[ChangeReservationFull] 새 예약 검증 완료: " + validatedReservations.size() + "개");
 
                 // ===== 2단계: 기존 예약 찾기 및 백업 =====
-                File oldReservationFile;
+                ReservationStore oldReservationStore;
                 if ("CLASS".equals(oldFileType)) {
-                    oldReservationFile = new File(BASE_DIR + "/ReserveClass.txt");
+                    oldReservationStore = ReservationStore.CLASS;
                 } else if ("LAB".equals(oldFileType)) {
-                    oldReservationFile = new File(BASE_DIR + "/ReserveLab.txt");
+                    oldReservationStore = ReservationStore.LAB;
                 } else {
                     System.err.println("[ChangeReservationFull] 잘못된 기존 파일 타입: " + oldFileType);
                     out.println("CHANGE_FAILED");
                     out.flush();
                     return "CHANGE_FAILED";
                 }
-                
-                File requestFile = new File(BASE_DIR + "/ReservationRequest.txt");
 
-                // 기존 예약 찾기 및 백업
-                ReservationBackup backup = findAndBackupReservation(
-                    oldReservationFile, requestFile, userId, userName, oldRoom, oldDate, oldDay, oldTime
-                );
+                // 기존 예약이 있는 파일 찾기 (승인된 예약 → 대기 중 요청 순)
+                Predicate<ReservationRecord> oldMatch = matchesReservation(userId, userName, oldRoom, oldDate, oldDay, oldTime);
+                ReservationStore sourceStore = null;
+                List<ReservationRecord> oldRows =
+                        reservations.findInRoom(oldReservationStore, oldRoom, oldDate, oldMatch);
+                if (!oldRows.isEmpty()) {
+                    sourceStore = oldReservationStore;
+                } else {
+                    oldRows = reservations.findInRoom(ReservationStore.PENDING, oldRoom, oldDate, oldMatch);
+                    if (!oldRows.isEmpty()) {
+                        sourceStore = ReservationStore.PENDING;
+                    }
+                }
 
-                if (backup.deletedLine == null) {
+                if (sourceStore == null) {
                     System.err.println("[ChangeReservationFull] 기존 예약을 찾을 수 없음");
                     out.println("CHANGE_FAILED_NOT_FOUND");
                     out.flush();
                     return "CHANGE_FAILED_NOT_FOUND";
                 }
 
-                deletedReservation = backup.deletedLine;
-                deletedFromFile = backup.sourceFile;
-
-                System.out.println("[ChangeReservationFull] 기존 예약 백업 완료: " + deletedReservation);
+                // ===== 3단계: 기존 예약 삭제 (삭제된 행은 롤백용으로 보관) =====
+                deletedReservations = reservations.removeRows(sourceStore, oldRows);
+                deletedFromStore = sourceStore;
 
-                // ===== 3단계: 기존 예약 삭제 =====
-                boolean deleteSuccess = deleteReservationFromFile(
-                    backup.sourceFile, userId, userName, oldRoom, oldDate, oldDay, oldTime
-                );
-
-                if (!deleteSuccess) {
+                if (deletedReservations.isEmpty()) {
                     System.err.println("[ChangeReservationFull] 기존 예약 삭제 실패");
                     out.println("CHANGE_FAILED");
                     out.flush();
                     return "CHANGE_FAILED";
                 }
 
-                System.out.println("[ChangeReservationFull] 기존 예약 삭제 완료");
+                for (ReservationRecord deleted : deletedReservations) {
+                    System.out.println("[ChangeReservationFull] 기존 예약 삭제: " + deleted.getLine());
+                }
+                System.out.println("[ChangeReservationFull] 기존 예약 삭제 완료 (" + sourceStore.getFileName() + ")");
 
                 // ===== 4단계: 새 예약 추가 (대기 상태로) =====
                 try {
@@ -155,12 +165,9 @@ public class ChangeReservationFullCommand implements Command {
                                 userId
                         );
 
-                        try (FileWriter fw = new FileWriter(requestFile, true);
-                             PrintWriter pw = new PrintWriter(fw)) {
-                            pw.println(newReservationLine);
-                            addedCount++;
-                            System.out.println("[ChangeReservationFull] 새 예약 추가: " + newReservationLine);
-                        }
+                        reservations.append(ReservationStore.PENDING, newReservationLine);
+                        addedCount++;
+                        System.out.println("[ChangeReservationFull] 새 예약 추가: " + newReservationLine);
                     }
 
                     if (addedCount > 0) {
@@ -170,18 +177,19 @@ public class ChangeReservationFullCommand implements Command {
                         return "CHANGE_SUCCESS";
                     } else {
                         // 새 예약 추가 실패 - 롤백 필요
-                        throw new IOException("새 예약 추가 실패");
+                        throw new DatabaseException(ReservationStore.PENDING.getFileName(),
+                                DatabaseException.OperationType.WRITE, "새 예약 추가 실패");
                     }
                     
-                } catch (IOException e) {
+                } catch (DatabaseException e) {
                     // ===== 롤백: 삭제된 예약 복구 =====
                     System.err.println("[ChangeReservationFull] 새 예약 추가 실패, 롤백 시작: " + e.getMessage());
                     
-                    if (deletedReservation != null && deletedFromFile != null) {
+                    if (deletedReservations != null && deletedFromStore != null) {
                         try {
-                            restoreReservation(deletedFromFile, deletedReservation);
+                            restoreReservations(deletedFromStore, deletedReservations);
                             System.out.println("[ChangeReservationFull] 롤백 완료: 기존 예약 복구됨");
-                        } catch (IOException rollbackEx) {
+                        } catch (DatabaseException rollbackEx) {
                             System.err.println("[ChangeReservationFull] 롤백 실패: " + rollbackEx.getMessage());
                             // 심각한 오류 - 관리자 개입 필요
                         }
@@ -197,11 +205,11 @@ public class ChangeReservationFullCommand implements Command {
                 e.printStackTrace();
                 
                 // ===== 예외 발생 시 롤백 =====
-                if (deletedReservation != null && deletedFromFile != null) {
+                if (deletedReservations != null && deletedFromStore != null) {
                     try {
-                        restoreReservation(deletedFromFile, deletedReservation);
+                        restoreReservations(deletedFromStore, deletedReservations);
                         System.out.println("[ChangeReservationFull] 예외 후 롤백 완료");
-                    } catch (IOException rollbackEx) {
+                    } catch (DatabaseException rollbackEx) {
                         System.err.println("[ChangeReservationFull] 예외 후 롤백 실패: " + rollbackEx.getMessage());
                     }
                 }
@@ -210,260 +218,79 @@ public class ChangeReservationFullCommand implements Command {
                 out.flush();
                 return "CHANGE_FAILED";
             }
+        } finally {
+            held.unlock();
         }
     }
 
     /**
-     * ✅ 특정 날짜/시간대에 이미 예약이 존재하는지 체크 (중복 예약 방지)
+     * ✅ 특정 날짜/시간대에 이미 예약이 존재하는지 체크 (중복 예약 방지, 교시 비트맵으로 거른 뒤 시간대 색인 조회)
      */
     private boolean isTimeSlotReserved(String room, String date, String time) {
-        // 시간 정규화 (괄호 제거)
-        String normalizedTime = time;
-        if (time.contains("(")) {
-            normalizedTime = time.substring(0, time.indexOf("(")).trim();
-        }
-
-        // 1. 대기 중인 예약 체크
-        File pendingFile = new File(BASE_DIR + "/ReservationRequest.txt");
-        if (pendingFile.exists()) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(pendingFile))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] parts = line.split(",");
-                    if (parts.length >= 9) {
-                        String lineRoom = parts[1].trim();
-                        String lineDate = parts[2].trim();
-                        String lineTime = parts[4].trim();
-                        
-                        // 시간 정규화
-                        if (lineTime.contains("(")) {
-                            lineTime = lineTime.substring(0, lineTime.indexOf("(")).trim();
-                        }
-                        
-                        if (lineRoom.equals(room) && lineDate.equals(date) && lineTime.equals(normalizedTime)) {
-                            System.out.println("[중복체크] 대기 중 예약 발견: " + line);
-                            return true;
-                        }
-                    }
-                }
-            } catch (IOException e) {
-                System.err.println("[중복체크] 파일 읽기 오류: " + e.getMessage());
-            }
+        if (!reservations.isSlotTaken(room, date, time)) {
+            return false;
         }
-
-        // 2. 승인된 예약 체크
-        String[] approvedFiles = {
-            BASE_DIR + "/ReserveClass.txt",
-            BASE_DIR + "/ReserveLab.txt"
-        };
-
-        for (String filePath : approvedFiles) {
-            File file = new File(filePath);
-            if (!file.exists()) continue;
-
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] parts = line.split(",");
-                    if (parts.length >= 9) {
-                        String lineRoom = parts[1].trim();
-                        String lineDate = parts[2].trim();
-                        String lineTime = parts[4].trim();
-                        String status = parts[7].trim();
-                        
-                        // 시간 정규화
-                        if (lineTime.contains("(")) {
-                            lineTime = lineTime.substring(0, lineTime.indexOf("(")).trim();
-                        }
-                        
-                        if (lineRoom.equals(room) && lineDate.equals(date) && lineTime.equals(normalizedTime)) {
-                            if (status.equals("예약됨") || status.equals("승인")) {
-                                System.out.println("[중복체크] 승인된 예약 발견: " + line);
-                                return true;
-                            }
-                        }
-                    }
-                }
-            } catch (IOException e) {
-                System.err.println("[중복체크] 파일 읽기 오류: " + filePath);
-            }
+        List<ReservationRecord> holders = reservations.findSlotHolders(room, date, time);
+        if (holders.isEmpty()) {
+            return false;
         }
-
-        return false;
+        System.out.println("[중복체크] 기존 예약 발견: " + holders.get(0).getLine());
+        return true;
     }
 
     /**
-     * ✅ 기존 예약 찾기 및 백업
+     * ✅ 기존 예약 매칭 조건
+     * 아이디 또는 이름으로 비교
      */
-    private ReservationBackup findAndBackupReservation(
-            File reservationFile, File requestFile, 
-            String userId, String userName, String room, String date, String day, String time) throws IOException, InvalidInputException, DatabaseException, AuthenticationException, BusinessLogicException {
-        
-        // 먼저 ReservationFile에서 찾기
-        String backup = findReservationLine(reservationFile, userId, userName, room, date, day, time);
-        if (backup != null) {
-            return new ReservationBackup(backup, reservationFile);
-        }
-        
-        // 없으면 RequestFile에서 찾기
-        backup = findReservationLine(requestFile, userId, userName, room, date, day, time);
-        if (backup != null) {
-            return new ReservationBackup(backup, requestFile);
-        }
-        
-        return new ReservationBackup(null, null);
+    private Predicate<ReservationRecord> matchesReservation(String userId, String userName,
+                                                           String room, String date, String day, String time) {
+        String normalizedTime = normalizeTime(time);
+        return r -> {
+            if (!r.isCanonical()) {
+                return false;
+            }
+            boolean ownerMatch = r.field(0).equals(userName) || r.field(9).equals(userId);
+            return ownerMatch
+                    && r.field(1).equals(room)
+                    && r.field(2).equals(date)
+                    && r.field(3).equals(day)
+                    && normalizeTime(r.field(4)).equals(normalizedTime);
+        };
     }
 
     /**
-     * ✅ 파일에서 예약 라인 찾기 (백업용)
+     * 변경으로 바뀌는 강의실: 기존 강의실 + 새 예약 강의실들 (잠금 대상, 형식이 잘못된 부분은 건너뜀)
      */
-    private String findReservationLine(File file, String userId, String userName, 
-                                      String room, String date, String day, String time) throws IOException, InvalidInputException, DatabaseException, AuthenticationException, BusinessLogicException {
-        if (!file.exists()) {
-            return null;
-        }
-
-        // 시간 정규화
-        String normalizedTime = time;
-        if (time.contains("(")) {
-            normalizedTime = time.substring(0, time.indexOf("(")).trim();
+    private static List<String> roomsTouched(String[] params) {
+        List<String> rooms = new ArrayList<>();
+        if (params.length > 5) {
+            rooms.add(params[5].trim());
         }
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                
-                // 새 형식 (10개 필드)
-                if (parts.length >= 10) {
-                    String lineName = parts[0].trim();
-                    String lineRoom = parts[1].trim();
-                    String lineDate = parts[2].trim();
-                    String lineDay = parts[3].trim();
-                    String lineTime = parts[4].trim();
-                    String lineUserId = parts[9].trim();
-                    
-                    if (lineTime.contains("(")) {
-                        lineTime = lineTime.substring(0, lineTime.indexOf("(")).trim();
-                    }
-
-                    if ((lineUserId.equals(userId) || lineName.equals(userName)) &&
-                        lineRoom.equals(room) && lineDate.equals(date) && 
-                        lineDay.equals(day) && lineTime.equals(normalizedTime)) {
-                        return line;
-                    }
-                }
-                // 구 형식 (9개 필드)
-                else if (parts.length >= 9) {
-                    String lineName = parts[0].trim();
-                    String lineRoom = parts[1].trim();
-                    String lineDate = parts[2].trim();
-                    String lineDay = parts[3].trim();
-                    String lineTime = parts[4].trim();
-                    
-                    if (lineTime.contains("(")) {
-                        lineTime = lineTime.substring(0, lineTime.indexOf("(")).trim();
-                    }
-                    
-                    if (lineName.equals(userName) && lineRoom.equals(room) && 
-                        lineDate.equals(date) && lineDay.equals(day) && lineTime.equals(normalizedTime)) {
-                        return line;
-                    }
+        if (params.length > 9) {
+            for (String newRes : params[9].split(";")) {
+                String newRoom = newRes.split("\\|")[0].trim();
+                if (!newRoom.isEmpty()) {
+                    rooms.add(newRoom);
                 }
             }
         }
-
-        return null;
+        return rooms;
     }
 
-    /**
-     * ✅ 파일에서 예약 삭제
-     */
-    private boolean deleteReservationFromFile(File file, String userId, String userName, 
-                                             String room, String date, String day, String time) throws IOException, InvalidInputException, DatabaseException, AuthenticationException, BusinessLogicException {
-        if (!file.exists()) {
-            return false;
-        }
-
-        List<String> lines = new ArrayList<>();
-        boolean found = false;
-
-        // 시간 정규화
-        String normalizedTime = time;
+    private static String normalizeTime(String time) {
         if (time.contains("(")) {
-            normalizedTime = time.substring(0, time.indexOf("(")).trim();
+            return time.substring(0, time.indexOf("(")).trim();
         }
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                boolean isMatch = false;
-                
-                // 새 형식 (10개 필드)
-                if (parts.length >= 10) {
-                    String lineName = parts[0].trim();
-                    String lineRoom = parts[1].trim();
-                    String lineDate = parts[2].trim();
-                    String lineDay = parts[3].trim();
-                    String lineTime = parts[4].trim();
-                    String lineUserId = parts[9].trim();
-                    
-                    if (lineTime.contains("(")) {
-                        lineTime = lineTime.substring(0, lineTime.indexOf("(")).trim();
-                    }
-
-                    isMatch = (lineUserId.equals(userId) || lineName.equals(userName)) &&
-                              lineRoom.equals(room) && lineDate.equals(date) && 
-                              lineDay.equals(day) && lineTime.equals(normalizedTime);
-                }
-                // 구 형식 (9개 필드)
-                else if (parts.length >= 9) {
-                    String lineName = parts[0].trim();
-                    String lineRoom = parts[1].trim();
-                    String lineDate = parts[2].trim();
-                    String lineDay = parts[3].trim();
-                    String lineTime = parts[4].trim();
-                    
-                    if (lineTime.contains("(")) {
-                        lineTime = lineTime.substring(0, lineTime.indexOf("(")).trim();
-                    }
-                    
-                    isMatch = lineName.equals(userName) && lineRoom.equals(room) && 
-                              lineDate.equals(date) && lineDay.equals(day) && lineTime.equals(normalizedTime);
-                }
-                
-                if (isMatch) {
-                    found = true;
-                    System.out.println("[deleteReservationFromFile] 삭제: " + line);
-                    continue; // 삭제 (추가하지 않음)
-                }
-                
-                lines.add(line);
-            }
-        }
-
-        // 파일 쓰기
-        if (found) {
-            try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
-                for (String line : lines) {
-                    writer.println(line);
-                }
-            }
-            System.out.println("[deleteReservationFromFile] " + file.getName() + "에서 삭제 완료");
-        }
-
-        return found;
+        return time;
     }
 
     /**
      * ✅ 삭제된 예약 복구 (롤백)
      */
-    private void restoreReservation(File file, String reservationLine) throws IOException, InvalidInputException, DatabaseException, AuthenticationException, BusinessLogicException {
-        try (FileWriter fw = new FileWriter(file, true);
-             PrintWriter pw = new PrintWriter(fw)) {
-            pw.println(reservationLine);
-            System.out.println("[restoreReservation] 예약 복구: " + reservationLine);
+    private void restoreReservations(ReservationStore store, List<ReservationRecord> deleted) throws DatabaseException {
+        for (ReservationRecord record : deleted) {
+            reservations.restore(store, record);
+            System.out.println("[restoreReservation] 예약 복구: " + record.getLine());
         }
     }
 
@@ -490,17 +317,4 @@ public class ChangeReservationFullCommand implements Command {
             this.studentCount = studentCount;
         }
     }
-
-    /**
-     * 예약 백업 정보 저장용 내부 클래스
-     */
-    private static class ReservationBackup {
-        String deletedLine;
-        File sourceFile;
-
-        ReservationBackup(String deletedLine, File sourceFile) {
-            this.deletedLine = deletedLine;
-            this.sourceFile = sourceFile;
-        }
-    }
 }
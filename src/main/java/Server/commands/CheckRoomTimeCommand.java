@@ -8,16 +8,19 @@ package Server.commands;
  *
  * @author YangJinWon
  */
+import Server.storage.ReservationRepository;
+import Server.storage.ReservationStore;
+import Server.storage.RoomLocks;
 import java.io.*;
 import Server.exceptions.*;
 
 public class CheckRoomTimeCommand implements Command {
-    private final String BASE_DIR;
-    private final Object FILE_LOCK;
+    private final ReservationRepository reservations;
+    private final RoomLocks roomLocks;
 
-    public CheckRoomTimeCommand(String baseDir, Object fileLock) {
-        this.BASE_DIR = baseDir;
-        this.FILE_LOCK = fileLock;
+    public CheckRoomTimeCommand(ReservationRepository reservations, RoomLocks roomLocks) {
+        this.reservations = reservations;
+        this.roomLocks = roomLocks;
     }
 
     @Override
@@ -30,38 +33,23 @@ public class CheckRoomTimeCommand implements Command {
         String day = params[2].trim();
         String time = params[3].trim();
 
-        synchronized (FILE_LOCK) {
-            File[] files = {
-                new File(BASE_DIR + "/ReserveClass.txt"),
-                new File(BASE_DIR + "/ReserveLab.txt")
-            };
-
-            boolean conflict = false;
-
-            for (File file : files) {
-                if (!file.exists()) continue;
-
-                try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        String[] tokens = line.split(",");
-                        if (tokens.length >= 7 &&
-                            tokens[1].trim().equals(room.trim()) &&
-                            tokens[2].trim().equals(day.trim()) &&
-                            tokens[3].trim().equals(time.trim()) &&
-                            tokens[6].trim().equals("예약됨")) {
-                            conflict = true;
-                            break;
-                        }
-                    }
-                } catch (IOException e) {
-                    return "CHECK_ROOM_TIME_ERROR";
+        // 강의실 잠금 없이 낙관적 읽기 (변경 명령과 겹치면 읽기 잠금으로 다시 확인)
+        boolean conflict = roomLocks.read(room, () -> {
+            for (ReservationStore store : ReservationStore.approved()) {
+                // 날짜 없이 요일로 기록된 주간 예약과 비교
+                if (reservations.exists(store, r ->
+                        r.isCanonical() &&
+                        r.getDate().isEmpty() &&
+                        r.field(1).equals(room.trim()) &&
+                        r.field(3).equals(day.trim()) &&
+                        r.field(4).equals(time.trim()) &&
+                        r.field(7).equals("예약됨"))) {
+                    return true;
                 }
-
-                if (conflict) break;
             }
+            return false;
+        });
 
-            return conflict ? "CONFLICT" : "NO_CONFLICT";
-        }
+        return conflict ? "CONFLICT" : "NO_CONFLICT";
     }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package Server.commands;
 
 import Server.UserDAO;
+import Server.storage.ReservationRepository;
+import Server.storage.RoomLocks;
+import Server.storage.UserRepository;
 import java.net.Socket;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -13,23 +16,27 @@ public abstract class CommandFactory {
 
     protected final UserDAO userDAO;
     protected final String BASE_DIR;
-    protected final Object FILE_LOCK;
+    protected final RoomLocks roomLocks;
     protected final ConcurrentHashMap<String, Socket> loggedInUsers;
     protected final AtomicInteger currentClients;
     protected final int MAX_CLIENTS;
+    protected final ReservationRepository reservations;
+    protected final UserRepository users;
 
     public CommandFactory(UserDAO userDAO,
             String baseDir,
-            Object fileLock,
+            RoomLocks roomLocks,
             ConcurrentHashMap<String, Socket> loggedInUsers,
             AtomicInteger currentClients,
             int maxClients) {
         this.userDAO = userDAO;
         this.BASE_DIR = baseDir;
-        this.FILE_LOCK = fileLock;
+        this.roomLocks = roomLocks;
         this.loggedInUsers = loggedInUsers;
         this.currentClients = currentClients;
         this.MAX_CLIENTS = maxClients;
+        this.reservations = ReservationRepository.open(baseDir);
+        this.users = UserRepository.open(baseDir);
     }
 
     /**
@@ -44,6 +51,17 @@ public abstract class CommandFactory {
         return createCommandInstance(commandType, request, currentUserId);
     }
 
+    /**
+     * 이미 분리된 매개변수로 명령 생성 (요청 문자열을 다시 split하지 않음)
+     * 이진 프레임 요청처럼 원문 줄이 없는 경우 createCommandInstance의 request는 null이다.
+     */
+    public Command createCommand(String[] params, String currentUserId) {
+        if (params == null || params.length == 0 || params[0].isEmpty()) {
+            return null;
+        }
+        return createCommandInstance(params[0], null, currentUserId);
+    }
+
     public Command createCommand(String request) {
         return createCommand(request, null);
     }
@@ -8,34 +8,22 @@ package Server.commands;
  *
  * @author YangJinWon
  */
+import Server.storage.ReservationRepository;
+import Server.storage.ReservationStore;
 import java.io.*;
 import Server.exceptions.*;
 
 public class CountPendingRequestCommand implements Command {
 
-    private final String BASE_DIR;
+    private final ReservationRepository reservations;
 
-    public CountPendingRequestCommand(String baseDir) {
-        this.BASE_DIR = baseDir;
+    public CountPendingRequestCommand(ReservationRepository reservations) {
+        this.reservations = reservations;
     }
 
     @Override
     public String execute(String[] params, BufferedReader in, PrintWriter out) throws IOException, InvalidInputException, DatabaseException, AuthenticationException, BusinessLogicException {
-        File file = new File(BASE_DIR + "/ReservationRequest.txt");
-        int count = 0;
-
-        if (file.exists()) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (!line.trim().isEmpty()) {
-                        count++;
-                    }
-                }
-            } catch (IOException e) {
-                return "ERROR_COUNTING_REQUEST";
-            }
-        }
+        int count = reservations.count(ReservationStore.PENDING, record -> !record.isBlank());
 
         return "PENDING_COUNT:" + count;
     }
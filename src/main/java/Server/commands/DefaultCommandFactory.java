@@ -1,6 +1,7 @@
 package Server.commands;
 
 import Server.UserDAO;
+import Server.storage.RoomLocks;
 import java.net.Socket;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -12,11 +13,11 @@ public class DefaultCommandFactory extends CommandFactory {
 
     public DefaultCommandFactory(UserDAO userDAO,
             String baseDir,
-            Object fileLock,
+            RoomLocks roomLocks,
             ConcurrentHashMap<String, Socket> loggedInUsers,
             AtomicInteger currentClients,
             int maxClients) {
-        super(userDAO, baseDir, fileLock, loggedInUsers, currentClients, maxClients);
+        super(userDAO, baseDir, roomLocks, loggedInUsers, currentClients, maxClients);
     }
 
     @Override
@@ -27,45 +28,45 @@ public class DefaultCommandFactory extends CommandFactory {
             case "REGISTER" ->
                 new RegisterCommand(userDAO);
             case "RESERVE_REQUEST" ->
-                new ReserveRequestCommand(BASE_DIR, FILE_LOCK);
+                new ReserveRequestCommand(reservations, roomLocks);
             case "VIEW_RESERVATION" ->
-                new ViewReservationCommand(BASE_DIR, FILE_LOCK);
+                new ViewReservationCommand(reservations, roomLocks);
             case "CANCEL_RESERVATION" ->
-                new CancelReservationCommand(BASE_DIR, FILE_LOCK);
+                new CancelReservationCommand(reservations, roomLocks);
             case "CHANGE_RESERVATION" ->
-                new ChangeReservationCommand(BASE_DIR, FILE_LOCK);
+                new ChangeReservationCommand(reservations, roomLocks);
             case "APPROVE_RESERVATION" ->
-                new ApproveReservationCommand(BASE_DIR, FILE_LOCK, userDAO, currentUserId);
+                new ApproveReservationCommand(reservations, roomLocks, userDAO, currentUserId);
             case "REJECT_RESERVATION" ->
-                new RejectReservationCommand(BASE_DIR, FILE_LOCK, userDAO, currentUserId);
+                new RejectReservationCommand(reservations, roomLocks, userDAO, currentUserId);
             case "COUNT_PENDING_REQUEST" ->
-                new CountPendingRequestCommand(BASE_DIR);
+                new CountPendingRequestCommand(reservations);
             case "GET_ALL_USERS" ->
-                new GetAllUsersCommand(BASE_DIR, userDAO, currentUserId);
+                new GetAllUsersCommand(users, userDAO, currentUserId);
             case "DELETE_USER" ->
-                new DeleteUserCommand(BASE_DIR, FILE_LOCK, userDAO, currentUserId);
+                new DeleteUserCommand(users, roomLocks, userDAO, currentUserId);
             case "UPDATE_USER" ->
-                new UpdateUserCommand(BASE_DIR, FILE_LOCK, userDAO, currentUserId);
+                new UpdateUserCommand(BASE_DIR, reservations, users, roomLocks, userDAO, currentUserId);
             case "VIEW_ALL_RESERVATIONS" ->
-                new ViewAllReservationsCommand(BASE_DIR, userDAO, currentUserId);
+                new ViewAllReservationsCommand(reservations, userDAO, currentUserId);
             case "VIEW_MY_RESERVATIONS" ->
-                new ViewMyReservationsCommand(BASE_DIR, userDAO, currentUserId);
+                new ViewMyReservationsCommand(reservations, currentUserId);
             case "CHECK_ROOM_TIME" ->
-                new CheckRoomTimeCommand(BASE_DIR, FILE_LOCK);
+                new CheckRoomTimeCommand(reservations, roomLocks);
             case "CHANGE_PASSWORD" ->
                 new ChangePasswordCommand(userDAO);
             case "GET_RESERVATION_REQUESTS" ->
-                new GetReservationRequestsCommand(BASE_DIR, userDAO, currentUserId);
+                new GetReservationRequestsCommand(reservations, userDAO, currentUserId);
             case "UPDATE_ROOM_STATUS" ->
                 new UpdateRoomStatusCommand(BASE_DIR, userDAO, currentUserId);
             case "CHECK_ROOM_STATUS" ->
                 new CheckRoomStatusCommand(BASE_DIR);
             case "GET_RESERVED_COUNT" ->
-                new GetReservedCountCommand(BASE_DIR);
+                new GetReservedCountCommand(reservations);
             case "GET_RESERVED_COUNT_BY_DATE" ->
-                new GetReservedCountByDateCommand(BASE_DIR);
+                new GetReservedCountByDateCommand(reservations);
             case "VIEW_WEEKLY_RESERVATION" ->
-                new ViewWeeklyReservationCommand(BASE_DIR, FILE_LOCK);
+                new ViewWeeklyReservationCommand(reservations, roomLocks);
             case "GET_ROOM_INFO" ->
                 new GetRoomInfoCommand();
             case "GET_CLASSROOMS" ->
@@ -75,13 +76,19 @@ public class DefaultCommandFactory extends CommandFactory {
             case "UPDATE_ROOM_CAPACITY" ->
                 new UpdateRoomCapacityCommand(userDAO, currentUserId);
             case "VIEW_APPROVED_RESERVATIONS" ->
-                new ViewApprovedReservationsCommand(BASE_DIR, userDAO, currentUserId);
+                new ViewApprovedReservationsCommand(reservations, userDAO, currentUserId);
             case "CHANGE_RESERVATION_FULL" ->
-                new ChangeReservationFullCommand(BASE_DIR, FILE_LOCK);
+                new ChangeReservationFullCommand(reservations, roomLocks);
             case "ADD_CLASSROOM" ->
                 new AddClassroomCommand();
             case "DELETE_CLASSROOM" ->
-                new DeleteClassroomCommand();
+                new DeleteClassroomCommand(reservations);
+            case "FIND_AVAILABLE_ROOMS" ->
+                new FindAvailableRoomsCommand(reservations, BASE_DIR);
+            case "GET_WEEK_GRID" ->
+                new GetWeekGridCommand(reservations);
+            case "GET_SERVER_METRICS" ->
+                new GetServerMetricsCommand(userDAO, currentUserId);
             default ->
                 null;
         };
@@ -1,11 +1,20 @@
 package Server.commands;
 
 import Server.manager.ServerClassroomManager;
+import Server.storage.ReservationRepository;
+import Server.storage.ReservationStore;
 
 import java.io.*;
 import Server.exceptions.*;
 
 public class DeleteClassroomCommand implements Command {
+
+    private final ReservationRepository reservations;
+
+    public DeleteClassroomCommand(ReservationRepository reservations) {
+        this.reservations = reservations;
+    }
+
     @Override
     public String execute(String[] args, BufferedReader in, PrintWriter out) throws IOException, InvalidInputException, DatabaseException, AuthenticationException, BusinessLogicException {
         try {
@@ -49,29 +58,13 @@ public class DeleteClassroomCommand implements Command {
         }
     }
 
-    // 예약 건 확인 메서드
+    // 예약 건 확인 메서드 (ReserveClass.txt, ReserveLab.txt: 이름,방,...)
     private boolean hasReservations(String roomName) {
-        // ReserveClass.txt와 ReserveLab.txt 파일에서 해당 강의실 예약 확인
-        return checkFileForReservations("data/ReserveClass.txt", roomName) ||
-               checkFileForReservations("data/ReserveLab.txt", roomName);
-    }
-
-    private boolean checkFileForReservations(String filePath, String roomName) {
-        File file = new File(filePath);
-        if (!file.exists()) {
-            return false;
-        }
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length > 0 && parts[0].equals(roomName)) {
-                    return true; // 예약 건 존재
-                }
+        String room = roomName.trim();
+        for (ReservationStore store : ReservationStore.approved()) {
+            if (reservations.exists(store, r -> r.fieldCount() > 1 && r.field(1).equals(room))) {
+                return true; // 예약 건 존재
             }
-        } catch (IOException e) {
-            System.err.println("예약 파일 확인 중 오류: " + e.getMessage());
         }
         return false;
     }
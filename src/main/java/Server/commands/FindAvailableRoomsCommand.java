@@ -0,0 +1,107 @@
+package Server.commands;
+
+import Server.exceptions.*;
+import Server.manager.ServerClassroomManager;
+import Server.storage.ReservationRepository;
+import common.dto.ClassroomDTO;
+import java.io.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 날짜·교시에 예약 가능한 강의실 검색
+ * 형식: FIND_AVAILABLE_ROOMS,날짜(yyyy-MM-dd),교시(예: 3 또는 3교시),최소인원,타입(CLASS/LAB/ALL)
+ * 응답: AVAILABLE_ROOMS,name1,type1,capacity1,allowed1,name2,...
+ *
+ * 강의실 정보(50% 허용 인원)와 사용불가 목록으로 후보를 거른 뒤, 교시 비트맵에서 대기·승인 예약과
+ * 그 요일의 주간 예약이 없는 강의실만 남긴다. 허용 인원이 요청 인원에 가장 가까운 강의실부터 정렬한다.
+ */
+public class FindAvailableRoomsCommand implements Command {
+
+    private final ReservationRepository reservations;
+    private final String baseDir;
+
+    public FindAvailableRoomsCommand(ReservationRepository reservations, String baseDir) {
+        this.reservations = reservations;
+        this.baseDir = baseDir;
+    }
+
+    @Override
+    public String execute(String[] params, BufferedReader in, PrintWriter out)
+            throws IOException, InvalidInputException, DatabaseException,
+                   AuthenticationException, BusinessLogicException {
+        if (params.length < 3 || params.length > 5) {
+            return "ERROR:INVALID_FORMAT";
+        }
+
+        LocalDate date;
+        try {
+            date = LocalDate.parse(params[1].trim());
+        } catch (DateTimeParseException e) {
+            return "ERROR:INVALID_DATE";
+        }
+
+        int period = ReservationRepository.periodOf(params[2]);
+        if (period < 0) {
+            return "ERROR:INVALID_PERIOD";
+        }
+
+        int minCapacity = 0;
+        if (params.length >= 4 && !params[3].trim().isEmpty()) {
+            try {
+                minCapacity = Integer.parseInt(params[3].trim());
+            } catch (NumberFormatException e) {
+                return "ERROR:INVALID_CAPACITY";
+            }
+        }
+
+        String type = params.length >= 5 && !params[4].trim().isEmpty() ? params[4].trim().toUpperCase() : "ALL";
+        if (!type.equals("ALL") && !type.equals("CLASS") && !type.equals("LAB")) {
+            return "ERROR:INVALID_TYPE";
+        }
+        ServerClassroomManager manager = ServerClassroomManager.getInstance();
+        List<ClassroomDTO> rooms = new ArrayList<>();
+        if (!type.equals("LAB")) {
+            rooms.addAll(manager.getAllClassrooms());
+        }
+        if (!type.equals("CLASS")) {
+            rooms.addAll(manager.getAllLabs());
+        }
+
+        // 사용불가·허용 인원 부족 강의실을 먼저 거르고 남은 후보만 비트맵으로 확인
+        Set<String> unavailable = RoomStatusTable.unavailable(baseDir);
+        Map<String, ClassroomDTO> candidates = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        for (ClassroomDTO dto : rooms) {
+            if (dto.getAllowedCapacity() >= minCapacity && !unavailable.contains(dto.name.toLowerCase())) {
+                candidates.put(dto.name, dto);
+                names.add(dto.name);
+            }
+        }
+
+        List<ClassroomDTO> matches = new ArrayList<>();
+        for (String name : reservations.findFreeRooms(names, date, period)) {
+            matches.add(candidates.get(name));
+        }
+        matches.sort(Comparator.comparingInt(ClassroomDTO::getAllowedCapacity)
+                .thenComparing(ClassroomDTO::getRoomName));
+
+        StringBuilder response = new StringBuilder("AVAILABLE_ROOMS");
+        for (ClassroomDTO dto : matches) {
+            response.append(",").append(dto.name);
+            response.append(",").append(dto.type);
+            response.append(",").append(dto.capacity);
+            response.append(",").append(dto.getAllowedCapacity());
+        }
+
+        System.out.println(String.format("[서버] FIND_AVAILABLE_ROOMS: %s %d교시 %d명 이상 → %d개",
+                date, period, minCapacity, matches.size()));
+        return response.toString();
+    }
+}
@@ -2,15 +2,21 @@ package Server.commands;
 
 import Server.UserDAO;
 import Server.exceptions.*;
+import Server.network.FileTransferWriter;
+import Server.storage.UserFile;
+import Server.storage.UserRecord;
+import Server.storage.UserRepository;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class GetAllUsersCommand implements Command {
-    private final String BASE_DIR;
+    private final UserRepository users;
     private final UserDAO userDAO;
     private final String currentUserId;
 
-    public GetAllUsersCommand(String baseDir, UserDAO userDAO, String currentUserId) {
-        this.BASE_DIR = baseDir;
+    public GetAllUsersCommand(UserRepository users, UserDAO userDAO, String currentUserId) {
+        this.users = users;
         this.userDAO = userDAO;
         this.currentUserId = currentUserId;
     }
@@ -31,32 +37,53 @@ public class GetAllUsersCommand implements Command {
             );
         }
 
+        // PAGE=n[,CURSOR=...]이면 한 페이지만 전송 (학생 → 교수 → 조교 파일 순서)
+        Pager pager = Pager.parse(params, users.pageEpoch());
+        if (pager != null) {
+            UserFile[] files = UserFile.values();
+            for (int part = 0; part < files.length; part++) {
+                UserFile file = files[part];
+                for (UserRecord record : pager.take(part, files.length,
+                        (afterSeq, limit) -> users.page(file, record -> true, afterSeq, limit), UserRecord::getSeq)) {
+                    out.println(record.getLine());
+                }
+            }
+            pager.writeCursor(out);
+            out.println("END_OF_USERS");
+            out.flush();
+            return null;
+        }
+
         // 모든 사용자 전송
-        sendUsersFromFile(BASE_DIR + "/users.txt", out);
-        sendUsersFromFile(BASE_DIR + "/prof.txt", out);
-        sendUsersFromFile(BASE_DIR + "/assistant.txt", out);
+        for (UserFile file : UserFile.values()) {
+            sendUsers(file, out);
+        }
         out.println("END_OF_USERS");
         out.flush();
 
         return null;
     }
 
-    private void sendUsersFromFile(String filePath, PrintWriter out) throws DatabaseException {
-        File file = new File(filePath);
-        if (!file.exists()) return;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                out.println(line);
+    private void sendUsers(UserFile userFile, PrintWriter out) throws DatabaseException {
+        // 변경 로그가 모두 반영되어 파일이 최신이면 줄 변환 없이 그대로 보내므로 가능하면 zero-copy 전송
+        if (out instanceof FileTransferWriter && users.isFileCurrent(userFile)) {
+            Path file = users.getFilePath(userFile);
+            try {
+                if (Files.exists(file) && ((FileTransferWriter) out).transferFile(file)) {
+                    return;
+                }
+            } catch (IOException e) {
+                throw new DatabaseException(
+                        userFile.getFileName(),
+                        DatabaseException.OperationType.READ,
+                        "사용자 목록을 읽는 중 오류가 발생했습니다",
+                        e
+                );
             }
-        } catch (IOException e) {
-            throw new DatabaseException(
-                    file.getName(),
-                    DatabaseException.OperationType.READ,
-                    "사용자 목록을 읽는 중 오류가 발생했습니다",
-                    e
-            );
+        }
+
+        for (UserRecord record : users.list(userFile)) {
+            out.println(record.getLine());
         }
     }
 }
@@ -9,25 +9,30 @@ package Server.commands;
  * @author YangJinWon
  */
 import Server.UserDAO;
+import Server.storage.ReservationRecord;
+import Server.storage.ReservationRepository;
+import Server.storage.ReservationStore;
 import java.io.*;
+import java.util.List;
+import java.util.function.Predicate;
 import Server.exceptions.*;
 public class GetReservationRequestsCommand implements Command {
 
-    private final String BASE_DIR;
+    private final ReservationRepository reservations;
     private final UserDAO userDAO;
         private final String currentUserId; // 추가: 현재 로그인한 사용자 ID
 
       // 생성자 수정: currentUserId 추가
-    public GetReservationRequestsCommand(String baseDir, UserDAO userDAO, String currentUserId) {
-        this.BASE_DIR = baseDir;
+    public GetReservationRequestsCommand(ReservationRepository reservations, UserDAO userDAO, String currentUserId) {
+        this.reservations = reservations;
         this.userDAO = userDAO;
         this.currentUserId = currentUserId;
     }
 
     @Override
     public String execute(String[] params, BufferedReader in, PrintWriter out) throws IOException, InvalidInputException, DatabaseException, AuthenticationException, BusinessLogicException {
-        // 파라미터에서 userId를 가져오거나, 없으면 currentUserId 사용
-        String userId = params.length > 1 ? params[1] : currentUserId;
+        // 파라미터에서 userId를 가져오거나, 없으면 currentUserId 사용 (PAGE=/CURSOR= 옵션은 userId가 아님)
+        String userId = params.length > 1 && !Pager.isOption(params[1]) ? params[1] : currentUserId;
         
         System.out.println("[DEBUG] GET_RESERVATION_REQUESTS - userId: " + userId);
         
@@ -41,79 +46,47 @@ public class GetReservationRequestsCommand implements Command {
             return "ACCESS_DENIED";
         }
 
-        File[] files = {
-            new File(BASE_DIR + "/ChangeRequest.txt"),
-            new File(BASE_DIR + "/ReservationRequest.txt")
-        };
-
-        for (File file : files) {
-            if (!file.exists()) continue;
-
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] partsLine = line.split(",");
-
-                    if (file.getName().equals("ChangeRequest.txt") && partsLine.length >= 5) {
-                        String id = partsLine[0].trim();
-                        String time = partsLine[1].trim();
-                        String date = partsLine[2].trim();  // 날짜
-                        String room = partsLine[3].trim();
-                        String userName = partsLine[4].trim();
-                        
-                        // 요일 추출 (8번째 필드)
-                        String day = "";
-                        if (partsLine.length >= 9) {
-                            day = partsLine[8].trim();
-                        }
-                        
-                        // 학생 수 추출 (필드 10번째, 인덱스 10)
-                        String studentCount = "1"; // 기본값
-                        if (partsLine.length >= 11) {
-                            studentCount = partsLine[10].trim();
-                        }
-                        
-                        out.println(String.join(",", id, time, date, day, room, userName, studentCount));
-                    } else if (file.getName().equals("ReservationRequest.txt") && partsLine.length >= 5) {
-                        String name2 = partsLine[0].trim();
-                        String room = partsLine[1].trim();
-                        String date = "";
-                        String day = "";
-                        String time = "";
-                        String id2 = userDAO.getUserIdByName(name2);
-                        
-                        // ✅ 날짜 필드 유무에 따라 분기 처리
-                        String studentCount = "1"; // 기본값
-                        
-                        if (partsLine.length >= 10) {
-                            // 새 형식: 이름,방,날짜,요일,시간,목적,권한,상태,학생수,userId
-                            date = partsLine[2].trim();  // 날짜 (yyyy-MM-dd)
-                            day = partsLine[3].trim();   // 요일
-                            time = partsLine[4].trim();
-                            if (partsLine.length >= 9) {
-                                studentCount = partsLine[8].trim();
-                            }
-                        } else {
-                            // 구 형식: 이름,방,요일,시간,목적,권한,상태,학생수
-                            day = partsLine[2].trim();  // 요일
-                            date = "";  // 날짜 없음
-                            time = partsLine[3].trim();
-                            if (partsLine.length >= 8) {
-                                studentCount = partsLine[7].trim();
-                            }
-                        }
-                        
-                        // ✅ id, time, date, day, room, name, studentCount 순서로 전송
-                        out.println(String.join(",", id2, time, date, day, room, name2, studentCount));
-                    }
-                }
-            } catch (IOException e) {
-                out.println("GET_REQUESTS_ERROR");
-                out.flush();
-                continue;
+        // PAGE=n[,CURSOR=...]이면 한 페이지만 전송 (변경 요청 → 대기 중 예약 순서)
+        Pager pager = Pager.parse(params, reservations.pageEpoch());
+        Predicate<ReservationRecord> isChange = r -> r.fieldCount() >= 5;
+        List<ReservationRecord> changes = pager == null
+                ? reservations.find(ReservationStore.CHANGE, isChange)
+                : pager.take(0, 2, (afterSeq, limit) -> reservations.page(ReservationStore.CHANGE, isChange, afterSeq, limit),
+                        ReservationRecord::getSeq);
+        for (ReservationRecord change : changes) {
+            String id = change.field(0);
+            String time = change.field(1);
+            String date = change.field(2);  // 날짜
+            String room = change.field(3);
+            String userName = change.field(4);
+            
+            // 요일 추출 (8번째 필드)
+            String day = change.field(8);
+            
+            // 학생 수 추출 (필드 10번째, 인덱스 10)
+            String studentCount = "1"; // 기본값
+            if (change.fieldCount() >= 11) {
+                studentCount = change.field(10);
             }
+            
+            out.println(String.join(",", id, time, date, day, room, userName, studentCount));
         }
 
+        // 형식: 이름,방,날짜,요일,시간,목적,권한,상태,학생수,userId
+        List<ReservationRecord> requests = pager == null
+                ? reservations.find(ReservationStore.PENDING, ReservationRecord::isCanonical)
+                : pager.take(1, 2, (afterSeq, limit) ->
+                        reservations.page(ReservationStore.PENDING, ReservationRecord::isCanonical, afterSeq, limit),
+                        ReservationRecord::getSeq);
+        for (ReservationRecord request : requests) {
+            // ✅ id, time, date, day, room, name, studentCount 순서로 전송
+            out.println(String.join(",", request.field(9), request.field(4), request.field(2), request.field(3),
+                    request.field(1), request.field(0), request.field(8)));
+        }
+
+        if (pager != null) {
+            pager.writeCursor(out);
+        }
         out.println("END_OF_REQUESTS");
         out.flush();
         
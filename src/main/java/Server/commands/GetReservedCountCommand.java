@@ -1,5 +1,6 @@
 package Server.commands;
 
+import Server.storage.ReservationRepository;
 import java.io.*;
 import Server.exceptions.*;
 /**
@@ -7,10 +8,10 @@ import Server.exceptions.*;
  */
 public class GetReservedCountCommand implements Command {
 
-    private final String BASE_DIR;
+    private final ReservationRepository reservations;
 
-    public GetReservedCountCommand(String baseDir) {
-        this.BASE_DIR = baseDir;
+    public GetReservedCountCommand(ReservationRepository reservations) {
+        this.reservations = reservations;
     }
 
     @Override
@@ -26,62 +27,12 @@ public class GetReservedCountCommand implements Command {
         String day = params[2].trim();
         String time = params[3].trim();
 
-        int totalReserved = calculateReservedCount(room, day, time);
+        // 승인·취소·변경 때 갱신되는 인원 집계에서 바로 조회
+        int totalReserved = reservations.weeklyReservedCount(room, day, time);
 
         out.println("RESERVED_COUNT:" + totalReserved);
         out.flush();
 
-        System.out.printf("[GetReservedCountCommand] %s %s %s -> 예약인원: %d명%n",
-                room, day, time, totalReserved);
-
         return null;
     }
-
-    /**
-     * 승인된 예약(ReserveClass/Lab.txt)에서 해당 시간대 예약 인원 합계 반환
-     */
-    private int calculateReservedCount(String room, String day, String time) {
-        String[] files = {
-                BASE_DIR + "/ReserveClass.txt",
-                BASE_DIR + "/ReserveLab.txt"
-        };
-
-        int totalCount = 0;
-
-        for (String filePath : files) {
-            File file = new File(filePath);
-            if (!file.exists()) continue;
-
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] parts = line.split(",");
-                    // 형식: name,room,day,time,purpose,role,status,studentCount
-                    if (parts.length >= 8) {
-                        String fileRoom = parts[1].trim();
-                        String fileDay = parts[2].trim();
-                        String fileTime = parts[3].trim();
-                        String status = parts[6].trim();
-
-                        if (fileRoom.equals(room)
-                                && fileDay.equals(day)
-                                && fileTime.equals(time)
-                                && (status.equals("예약됨") || status.equals("승인"))) {
-
-                            try {
-                                int count = Integer.parseInt(parts[7].trim());
-                                totalCount += count;
-                                System.out.printf("[누적] %s %s %s → +%d명 (현재합계=%d명)%n",
-                                        room, day, time, count, totalCount);
-                            } catch (NumberFormatException ignored) {}
-                        }
-                    }
-                }
-            } catch (IOException e) {
-                System.err.println("[ERROR] 파일 읽기 오류: " + filePath + " - " + e.getMessage());
-            }
-        }
-
-        return totalCount;
-    }
 }
@@ -0,0 +1,35 @@
+package Server.commands;
+
+import Server.UserDAO;
+import Server.exceptions.*;
+import Server.network.AdmissionController;
+import java.io.*;
+
+/**
+ * 서버 부하 지표 조회 (관리자 전용)
+ * 세션 수, 로그인 대기열, 처리 중 요청, 워커 큐 깊이, 평균 처리 시간, 거절 횟수를 한 줄로 반환한다.
+ */
+public class GetServerMetricsCommand implements Command {
+    private final UserDAO userDAO;
+    private final String currentUserId;
+
+    public GetServerMetricsCommand(UserDAO userDAO, String currentUserId) {
+        this.userDAO = userDAO;
+        this.currentUserId = currentUserId;
+    }
+
+    @Override
+    public String execute(String[] params, BufferedReader in, PrintWriter out)
+            throws IOException, InvalidInputException, DatabaseException,
+                   AuthenticationException, BusinessLogicException {
+
+        if (currentUserId == null || !userDAO.authorizeAccess(currentUserId)) {
+            throw new AuthenticationException(
+                    AuthenticationException.AuthFailureReason.INSUFFICIENT_PERMISSION,
+                    "관리자 권한이 필요합니다"
+            );
+        }
+
+        return AdmissionController.getInstance().metricsLine();
+    }
+}
@@ -0,0 +1,103 @@
+package Server.commands;
+
+import Server.exceptions.*;
+import Server.manager.ServerClassroomManager;
+import Server.storage.ReservationRepository;
+import Server.storage.WeekGrid;
+import common.dto.ClassroomDTO;
+import java.io.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 모든 강의실의 한 주 시간표를 한 번에 반환
+ * 형식: GET_WEEK_GRID,주시작일(yyyy-MM-dd),타입(CLASS/LAB/ALL)
+ * 응답:
+ *   WEEK_GRID,주시작일,강의실수
+ *   ROOM,이름,타입,수용인원,허용인원,칸0;칸1;...;칸6      (칸 = 승인비트/대기비트[/인원1:인원2:...])
+ *   END_OF_WEEK_GRID
+ *
+ * 비트맵은 16진수이며 비트 p = p교시, 인원은 승인 비트가 켜진 교시 순서대로의 승인 예약 학생 수 합계이다.
+ * 시간표는 메모리 색인에서 계산하고, 예약이 바뀌기 전까지는 같은 주 요청에 캐시된 결과를 쓴다.
+ */
+public class GetWeekGridCommand implements Command {
+
+    private final ReservationRepository reservations;
+
+    public GetWeekGridCommand(ReservationRepository reservations) {
+        this.reservations = reservations;
+    }
+
+    @Override
+    public String execute(String[] params, BufferedReader in, PrintWriter out)
+            throws IOException, InvalidInputException, DatabaseException,
+                   AuthenticationException, BusinessLogicException {
+        if (params.length < 2 || params.length > 3) {
+            out.println("INVALID_GRID_FORMAT");
+            out.println("END_OF_WEEK_GRID");
+            out.flush();
+            return null;
+        }
+
+        LocalDate weekStart;
+        try {
+            weekStart = LocalDate.parse(params[1].trim());
+        } catch (DateTimeParseException e) {
+            out.println("INVALID_GRID_FORMAT");
+            out.println("END_OF_WEEK_GRID");
+            out.flush();
+            return null;
+        }
+
+        String type = params.length == 3 && !params[2].trim().isEmpty() ? params[2].trim().toUpperCase() : "ALL";
+        if (!type.equals("ALL") && !type.equals("CLASS") && !type.equals("LAB")) {
+            out.println("INVALID_GRID_FORMAT");
+            out.println("END_OF_WEEK_GRID");
+            out.flush();
+            return null;
+        }
+        ServerClassroomManager manager = ServerClassroomManager.getInstance();
+        List<ClassroomDTO> rooms = new ArrayList<>();
+        if (!type.equals("LAB")) {
+            rooms.addAll(manager.getAllClassrooms());
+        }
+        if (!type.equals("CLASS")) {
+            rooms.addAll(manager.getAllLabs());
+        }
+
+        List<String> names = new ArrayList<>(rooms.size());
+        for (ClassroomDTO dto : rooms) {
+            names.add(dto.name);
+        }
+        WeekGrid grid = reservations.weekGrid(names, weekStart);
+
+        out.println("WEEK_GRID," + weekStart + "," + rooms.size());
+        StringBuilder line = new StringBuilder();
+        for (int r = 0; r < rooms.size(); r++) {
+            ClassroomDTO dto = rooms.get(r);
+            line.setLength(0);
+            line.append("ROOM,").append(dto.name).append(',').append(dto.type).append(',')
+                    .append(dto.capacity).append(',').append(dto.getAllowedCapacity()).append(',');
+            for (int d = 0; d < WeekGrid.DAYS; d++) {
+                if (d > 0) {
+                    line.append(';');
+                }
+                long approved = grid.approved(r, d);
+                line.append(Long.toHexString(approved)).append('/').append(Long.toHexString(grid.pending(r, d)));
+                char separator = '/';
+                for (long rest = approved; rest != 0; rest &= rest - 1) {
+                    line.append(separator).append(grid.students(r, d, Long.numberOfTrailingZeros(rest)));
+                    separator = ':';
+                }
+            }
+            out.println(line);
+        }
+        out.println("END_OF_WEEK_GRID");
+        out.flush();
+
+        System.out.println("[서버] GET_WEEK_GRID: " + weekStart + " " + type + " " + rooms.size() + "개 강의실");
+        return null;
+    }
+}
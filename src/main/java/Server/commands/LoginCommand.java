@@ -2,11 +2,13 @@ package Server.commands;
 
 import Server.UserDAO;
 import Server.exceptions.*;
+import Server.network.ClientSession;
 import common.model.User;
 import java.io.*;
 import java.net.Socket;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 로그인 명령 처리 (Exception Handling 적용)
@@ -17,6 +19,10 @@ import java.util.concurrent.atomic.AtomicInteger;
  * - 파일 읽기 실패 → DatabaseException
  */
 public class LoginCommand implements Command {
+
+    // 로그인 검증(파일 I/O 포함)을 직렬화하는 락 (가상 스레드 pinning 방지를 위해 synchronized 대신 사용)
+    private static final ReentrantLock LOGIN_LOCK = new ReentrantLock();
+
     private final UserDAO userDAO;
     private final ConcurrentHashMap<String, Socket> loggedInUsers;
     private final AtomicInteger currentClients;
@@ -46,7 +52,8 @@ public class LoginCommand implements Command {
 
         System.out.println("로그인 시도: " + userId);
 
-        synchronized (LoginCommand.class) {
+        LOGIN_LOCK.lock();
+        try {
             // 2. 동시 접속자 수 제한 확인
             checkConnectionLimit();
 
@@ -65,6 +72,8 @@ public class LoginCommand implements Command {
 
             // 6. 성공 응답
             return "SUCCESS," + name;
+        } finally {
+            LOGIN_LOCK.unlock();
         }
     }
 
@@ -97,6 +106,7 @@ public class LoginCommand implements Command {
 
     /**
      * 동시 접속자 수 제한 확인
+     * (SessionProcessor가 AdmissionController 세션 슬롯을 먼저 확보하므로 정상 경로에서는 통과하는 안전장치)
      * @throws AuthenticationException 접속자 수 초과 시
      */
     private void checkConnectionLimit() throws AuthenticationException {
@@ -117,11 +127,11 @@ public class LoginCommand implements Command {
         if (loggedInUsers.containsKey(userId)) {
             System.out.println("중복 로그인 시도: " + userId);
             
-            // 기존 소켓 정리
+            // 기존 연결 정리 (세션 방식대로 닫아 NIO 세션도 즉시 정리되도록)
             Socket oldSocket = loggedInUsers.get(userId);
             try {
-                if (oldSocket != null && !oldSocket.isClosed()) {
-                    oldSocket.close();
+                if (oldSocket != null) {
+                    ClientSession.closeSocket(oldSocket);
                 }
             } catch (IOException ignored) {
             }
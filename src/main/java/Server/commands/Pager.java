@@ -0,0 +1,151 @@
+package Server.commands;
+
+import Server.exceptions.InvalidInputException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * 목록 명령의 페이지 옵션 (PAGE=크기, CURSOR=커서)
+ *
+ * 목록 명령 뒤에 PAGE=n을 붙이면 n행까지만 보내고, 더 남았으면 종료 줄(END_OF_...) 앞에 "NEXT_CURSOR,커서"를 보낸다.
+ * 다음 요청에 CURSOR=커서를 함께 보내면 이어서 보낸다. 옵션이 없으면 기존처럼 전체를 보낸다.
+ * 한 명령이 여러 파일(파트)을 차례로 보내므로 커서는 (파트, 마지막으로 보낸 행의 순번)을 담으며,
+ * 순번은 재시작하면 다시 매겨지므로 저장소의 순번 구분값도 함께 담아 이전 실행의 커서는 거절한다.
+ * 페이지 사이에 추가된 행은 순번이 커서보다 크므로 뒤 페이지에 나오고, 삭제된 행은 건너뛴다.
+ */
+final class Pager {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String PAGE = "PAGE=";
+    private static final String CURSOR = "CURSOR=";
+
+    /**
+     * 파트 안에서 순번이 afterSeq보다 큰 행을 순번 순으로 최대 limit개 가져오는 함수
+     */
+    interface Fetch<R> {
+        List<R> rows(long afterSeq, int limit);
+    }
+
+    private final long epoch;
+    private final int part;
+    private final long afterSeq;
+    private int remaining;
+    private String nextCursor;
+
+    private Pager(long epoch, int size, int part, long afterSeq) {
+        this.epoch = epoch;
+        this.remaining = size;
+        this.part = part;
+        this.afterSeq = afterSeq;
+    }
+
+    static boolean isOption(String param) {
+        String trimmed = param.trim().toUpperCase();
+        return trimmed.startsWith(PAGE) || trimmed.startsWith(CURSOR);
+    }
+
+    /**
+     * @param epoch 저장소의 순번 구분값
+     * @return 페이지 옵션이 없으면 null (전체 전송)
+     */
+    static Pager parse(String[] params, long epoch) throws InvalidInputException {
+        String size = null;
+        String cursor = null;
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            String upper = param.toUpperCase();
+            if (upper.startsWith(PAGE)) {
+                size = param.substring(PAGE.length()).trim();
+            } else if (upper.startsWith(CURSOR)) {
+                cursor = param.substring(CURSOR.length()).trim();
+            }
+        }
+        if (size == null) {
+            if (cursor != null) {
+                throw new InvalidInputException("page", "", "CURSOR는 PAGE와 함께 보내야 합니다");
+            }
+            return null;
+        }
+
+        int pageSize;
+        try {
+            pageSize = Integer.parseInt(size);
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("page", size, "페이지 크기는 숫자여야 합니다");
+        }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidInputException("page", size, "페이지 크기는 1~" + MAX_PAGE_SIZE + "이어야 합니다");
+        }
+        if (cursor == null || cursor.isEmpty()) {
+            return new Pager(epoch, pageSize, 0, 0);
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\.");
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("cursor", cursor, "알 수 없는 커서입니다");
+        }
+        if (parts.length != 3) {
+            throw new InvalidInputException("cursor", cursor, "알 수 없는 커서입니다");
+        }
+        try {
+            if (Long.parseLong(parts[0]) != epoch) {
+                throw new InvalidInputException("cursor", cursor, "서버가 다시 시작되어 만료된 커서입니다. 처음부터 다시 조회하세요");
+            }
+            int part = Integer.parseInt(parts[1]);
+            long afterSeq = Long.parseLong(parts[2]);
+            if (part < 0 || afterSeq < 0) {
+                throw new InvalidInputException("cursor", cursor, "알 수 없는 커서입니다");
+            }
+            return new Pager(epoch, pageSize, part, afterSeq);
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("cursor", cursor, "알 수 없는 커서입니다");
+        }
+    }
+
+    /**
+     * 이 페이지에 보낼 파트의 행 (커서보다 앞선 파트이거나 페이지가 이미 찼으면 빈 목록)
+     * 파트 순서대로 호출해야 하며, 페이지가 차면 다음 커서를 정해 둔다.
+     * @param part 파트 번호 (0부터)
+     * @param parts 전체 파트 수
+     */
+    <R> List<R> take(int part, int parts, Fetch<R> fetch, ToLongFunction<R> seqOf) {
+        if (part < this.part || remaining == 0) {
+            return Collections.emptyList();
+        }
+        // 한 행 더 가져와 이 파트에 남은 행이 있는지 확인
+        List<R> rows = fetch.rows(part == this.part ? afterSeq : 0, remaining + 1);
+        if (rows.size() > remaining) {
+            rows = new ArrayList<>(rows.subList(0, remaining));
+            nextCursor = encode(part, seqOf.applyAsLong(rows.get(rows.size() - 1)));
+            remaining = 0;
+        } else {
+            remaining -= rows.size();
+            if (remaining == 0 && part + 1 < parts) {
+                nextCursor = encode(part + 1, 0);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 남은 행이 있으면 "NEXT_CURSOR,커서" 줄 전송 (종료 줄 바로 앞에서 호출)
+     */
+    void writeCursor(PrintWriter out) {
+        if (nextCursor != null) {
+            out.println("NEXT_CURSOR," + nextCursor);
+        }
+    }
+
+    private String encode(int part, long seq) {
+        String raw = epoch + "." + part + "." + seq;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
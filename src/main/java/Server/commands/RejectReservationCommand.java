@@ -1,20 +1,25 @@
 package Server.commands;
 
 import Server.UserDAO;
+import Server.storage.ReservationRecord;
+import Server.storage.ReservationRepository;
+import Server.storage.ReservationStore;
+import Server.storage.RoomLocks;
 import common.observer.ReservationNotification;
 import common.observer.ReservationSubject;
 import java.io.*;
 import Server.exceptions.*;
+import java.util.List;
 
 public class RejectReservationCommand implements Command {
-    private final String BASE_DIR;
-    private final Object FILE_LOCK;
+    private final ReservationRepository reservations;
+    private final RoomLocks roomLocks;
     private final UserDAO userDAO;
     private final String currentUserId;
 
-    public RejectReservationCommand(String baseDir, Object fileLock, UserDAO userDAO, String currentUserId) {
-        this.BASE_DIR = baseDir;
-        this.FILE_LOCK = fileLock;
+    public RejectReservationCommand(ReservationRepository reservations, RoomLocks roomLocks, UserDAO userDAO, String currentUserId) {
+        this.reservations = reservations;
+        this.roomLocks = roomLocks;
         this.userDAO = userDAO;
         this.currentUserId = currentUserId;
     }
@@ -42,62 +47,38 @@ public class RejectReservationCommand implements Command {
 
         System.out.println("[DEBUG] 거절 처리: 요청자=" + name2 + ", 방=" + room + ", 날짜=" + date + ", 요일=" + day + ", 시간=" + time);
 
-        boolean isChangeRequest = false;
-
-        synchronized (FILE_LOCK) {
-            File[] targets = {
-                new File(BASE_DIR + "/ReservationRequest.txt"),
-                new File(BASE_DIR + "/ChangeRequest.txt")
-            };
-
-            boolean removed = false;
-
-            for (File file : targets) {
-                if (!file.exists()) {
-                    System.out.println("[WARN] 파일 없음: " + file.getName());
-                    continue;
-                }
+        RoomLocks.Held held = roomLocks.lock(room);
+        try {
+            // ReservationRequest 매칭
+            List<ReservationRecord> removedRequests = reservations.removeRows(ReservationStore.PENDING,
+                    reservations.findInRoom(ReservationStore.PENDING, room, date, r ->
+                            r.fieldCount() >= 5
+                            && r.field(0).equals(name2.trim())
+                            && r.field(1).equals(room.trim())
+                            && r.field(2).equals(date.trim())
+                            && r.field(3).equals(day.trim())
+                            && r.field(4).equals(time.trim())));
+            for (ReservationRecord record : removedRequests) {
+                System.out.println("[DEBUG] ReservationRequest 삭제: " + record.getLine());
+            }
 
-                File temp = new File(BASE_DIR + "/temp_" + file.getName());
-                try (BufferedReader reader = new BufferedReader(new FileReader(file));
-                     BufferedWriter writer = new BufferedWriter(new FileWriter(temp))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        String[] tokens = line.split(",");
-                        
-                        // ReservationRequest 매칭
-                        if (file.getName().equals("ReservationRequest.txt") && tokens.length >= 5 &&
-                            tokens[0].trim().equals(name2.trim()) &&
-                            tokens[1].trim().equals(room.trim()) &&
-                            tokens[2].trim().equals(date.trim()) &&
-                            tokens[3].trim().equals(day.trim()) &&
-                            tokens[4].trim().equals(time.trim())) {
-                            removed = true;
-                            System.out.println("[DEBUG] ReservationRequest 삭제: " + line);
-                            continue;
-                        } 
-                        // ChangeRequest 매칭
-                        else if (file.getName().equals("ChangeRequest.txt") && tokens.length >= 13 &&
-                                  tokens[0].trim().equals(id.trim()) &&
-                                  tokens[1].trim().equals(time.trim()) &&
-                                  tokens[2].trim().equals(date.trim()) &&
-                                  tokens[3].trim().equals(day.trim()) &&
-                                  tokens[4].trim().equals(room.trim()) &&
-                                  tokens[5].trim().equals(name2.trim())) {
-                            removed = true;
-                            isChangeRequest = true;
-                            System.out.println("[DEBUG] ChangeRequest 삭제: " + line);
-                            continue;
-                        }
-                        
-                        writer.write(line);
-                        writer.newLine();
-                    }
-                }
-                file.delete();
-                temp.renameTo(file);
+            // ChangeRequest 매칭
+            List<ReservationRecord> removedChanges = reservations.removeRows(ReservationStore.CHANGE,
+                    reservations.find(ReservationStore.CHANGE, r ->
+                            r.fieldCount() >= 13
+                            && r.field(0).equals(id.trim())
+                            && r.field(1).equals(time.trim())
+                            && r.field(2).equals(date.trim())
+                            && r.field(3).equals(day.trim())
+                            && r.field(4).equals(room.trim())
+                            && r.field(5).equals(name2.trim())));
+            for (ReservationRecord record : removedChanges) {
+                System.out.println("[DEBUG] ChangeRequest 삭제: " + record.getLine());
             }
 
+            boolean removed = !removedRequests.isEmpty() || !removedChanges.isEmpty();
+            boolean isChangeRequest = !removedChanges.isEmpty();
+
             if (removed) {
                 // 🔔 Observer 패턴: 클라이언트에게 실시간 거절 알림 전송
                 ReservationSubject subject = ReservationSubject.getInstance();
@@ -124,6 +105,8 @@ public class RejectReservationCommand implements Command {
                 System.err.println("[ERROR] 거절할 요청을 찾을 수 없음");
                 return "REJECT_FAILED";
             }
+        } finally {
+            held.unlock();
         }
     }
 }
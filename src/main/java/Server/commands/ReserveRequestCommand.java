@@ -2,17 +2,22 @@ package Server.commands;
 
 import Server.exceptions.*;
 import Server.manager.ServerClassroomManager;
+import Server.storage.ReservationRecord;
+import Server.storage.ReservationRepository;
+import Server.storage.ReservationStore;
+import Server.storage.RoomLocks;
 import common.dto.ClassroomDTO;
 import java.io.*;
+import java.util.List;
 
 public class ReserveRequestCommand implements Command {
 
-    private final String BASE_DIR;
-    private final Object FILE_LOCK;
+    private final ReservationRepository reservations;
+    private final RoomLocks roomLocks;
 
-    public ReserveRequestCommand(String baseDir, Object fileLock) {
-        this.BASE_DIR = baseDir;
-        this.FILE_LOCK = fileLock;
+    public ReserveRequestCommand(ReservationRepository reservations, RoomLocks roomLocks) {
+        this.reservations = reservations;
+        this.roomLocks = roomLocks;
     }
 
     @Override
@@ -75,7 +80,8 @@ public class ReserveRequestCommand implements Command {
             );
         }
 
-        synchronized (FILE_LOCK) {
+        RoomLocks.Held held = roomLocks.lock(room);
+        try {
             // 시간대 충돌 체크
             boolean isAlreadyReserved = isTimeSlotReserved(room, dateString, time);
             
@@ -91,94 +97,30 @@ public class ReserveRequestCommand implements Command {
                 room, dateString, time, studentCount
             ));
 
-            File file = new File(BASE_DIR + "/ReservationRequest.txt");
-            file.getParentFile().mkdirs();
+            // 예약 저장 (메모리 반영 후 ReservationRequest.txt에 append)
+            String data = String.format("%s,%s,%s,%s,%s,%s,%s,대기중,%d,%s",
+                reserveName, room, dateString, day, time, purpose, role, studentCount, userId);
+            reservations.append(ReservationStore.PENDING, data);
 
-            // 예약 저장
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
-                String data = String.format("%s,%s,%s,%s,%s,%s,%s,대기중,%d,%s",
-                    reserveName, room, dateString, day, time, purpose, role, studentCount, userId);
-                writer.write(data);
-                writer.newLine();
-                
-                System.out.println("[ReserveRequest] 예약 저장 완료: " + data);
-                return "RESERVE_SUCCESS";
-            } catch (IOException e) {
-                throw new DatabaseException(
-                        "ReservationRequest.txt",
-                        DatabaseException.OperationType.WRITE,
-                        "예약 저장 중 오류가 발생했습니다",
-                        e
-                );
-            }
+            System.out.println("[ReserveRequest] 예약 저장 완료: " + data);
+            return "RESERVE_SUCCESS";
+        } finally {
+            held.unlock();
         }
     }
     
     /**
-     * 특정 날짜/시간대에 이미 예약이 존재하는지 체크
+     * 특정 날짜/시간대에 이미 예약이 존재하는지 체크 (대기 중 예약 + 승인된 예약, 교시 비트맵으로 거른 뒤 시간대 색인 조회)
      */
-    private boolean isTimeSlotReserved(String room, String dateString, String time) throws DatabaseException {
-        // 1. 대기 중인 예약 체크
-        File pendingFile = new File(BASE_DIR + "/ReservationRequest.txt");
-        if (pendingFile.exists()) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(pendingFile))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] parts = line.split(",");
-                    if (parts.length >= 9 &&
-                        parts[1].trim().equals(room.trim()) &&
-                        parts[2].trim().equals(dateString.trim()) &&
-                        parts[4].trim().equals(time.trim())) {
-                        System.out.println("[예약체크] 대기 중 예약 발견: " + line);
-                        return true;
-                    }
-                }
-            } catch (IOException e) {
-                throw new DatabaseException(
-                        "ReservationRequest.txt",
-                        DatabaseException.OperationType.READ,
-                        "예약 정보를 읽는 중 오류가 발생했습니다",
-                        e
-                );
-            }
+    private boolean isTimeSlotReserved(String room, String dateString, String time) {
+        if (!reservations.isSlotTaken(room, dateString, time)) {
+            return false;
         }
-
-        // 2. 승인된 예약 체크
-        String[] approvedFiles = {
-            BASE_DIR + "/ReserveClass.txt",
-            BASE_DIR + "/ReserveLab.txt"
-        };
-
-        for (String filePath : approvedFiles) {
-            File file = new File(filePath);
-            if (!file.exists()) continue;
-
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] parts = line.split(",");
-                    if (parts.length >= 9 &&
-                        parts[1].trim().equals(room.trim()) &&
-                        parts[2].trim().equals(dateString.trim()) &&
-                        parts[4].trim().equals(time.trim())) {
-                        
-                        String status = parts[7].trim();
-                        if (status.equals("예약됨") || status.equals("승인")) {
-                            System.out.println("[예약체크] 승인된 예약 발견: " + line);
-                            return true;
-                        }
-                    }
-                }
-            } catch (IOException e) {
-                throw new DatabaseException(
-                        new File(filePath).getName(),
-                        DatabaseException.OperationType.READ,
-                        "예약 정보를 읽는 중 오류가 발생했습니다",
-                        e
-                );
-            }
+        List<ReservationRecord> holders = reservations.findSlotHolders(room, dateString, time);
+        if (holders.isEmpty()) {
+            return false;
         }
-
-        return false;
+        System.out.println("[예약체크] 기존 예약 발견: " + holders.get(0).getLine());
+        return true;
     }
 }
@@ -0,0 +1,69 @@
+package Server.commands;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * RoomStatus.txt의 사용불가 강의실 목록 (메모리 캐시)
+ *
+ * 파일의 수정 시각·크기가 그대로면 다시 읽지 않고, UPDATE_ROOM_STATUS가 파일을 쓴 뒤에는 invalidate()로 바로 버린다.
+ * 강의실 이름은 CHECK_ROOM_STATUS와 같이 대소문자를 무시해 비교한다.
+ */
+final class RoomStatusTable {
+
+    private static volatile Snapshot snapshot;
+
+    private RoomStatusTable() {
+    }
+
+    /**
+     * 사용불가 강의실 이름 (소문자, 파일이 없으면 빈 집합)
+     */
+    static Set<String> unavailable(String baseDir) throws IOException {
+        File file = new File(baseDir, "RoomStatus.txt");
+        long modified = file.lastModified();
+        long length = file.length();
+        Snapshot current = snapshot;
+        if (current != null && current.file.equals(file) && current.modified == modified && current.length == length) {
+            return current.rooms;
+        }
+        Set<String> rooms = new HashSet<>();
+        if (file.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] tokens = line.split(",");
+                    if (tokens.length >= 2 && "사용불가".equals(tokens[1].trim())) {
+                        rooms.add(tokens[0].trim().toLowerCase());
+                    }
+                }
+            }
+        }
+        Set<String> loaded = Collections.unmodifiableSet(rooms);
+        snapshot = new Snapshot(file, modified, length, loaded);
+        return loaded;
+    }
+
+    static void invalidate() {
+        snapshot = null;
+    }
+
+    private static final class Snapshot {
+        final File file;
+        final long modified;
+        final long length;
+        final Set<String> rooms;
+
+        Snapshot(File file, long modified, long length, Set<String> rooms) {
+            this.file = file;
+            this.modified = modified;
+            this.length = length;
+            this.rooms = rooms;
+        }
+    }
+}
@@ -13,8 +13,13 @@ import java.io.*;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import Server.exceptions.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class UpdateRoomStatusCommand implements Command {
+
+    // RoomStatus.txt 갱신을 직렬화하는 락 (가상 스레드 pinning 방지를 위해 synchronized 대신 사용)
+    private static final ReentrantLock ROOM_STATUS_LOCK = new ReentrantLock();
+
     private final String BASE_DIR;
     private final String ROOM_STATUS_FILE;
     private final UserDAO userDAO;
@@ -40,13 +45,16 @@ public class UpdateRoomStatusCommand implements Command {
         String roomNumber = params[1].trim();
         String status = params[2].trim();
 
-        synchronized (UpdateRoomStatusCommand.class) {
+        ROOM_STATUS_LOCK.lock();
+        try {
             try {
                 updateRoomStatusFile(roomNumber, status);
                 return "ROOM_STATUS_UPDATED";
             } catch (IOException e) {
                 return "UPDATE_FAILED_SERVER_ERROR";
             }
+        } finally {
+            ROOM_STATUS_LOCK.unlock();
         }
     }
 
@@ -94,6 +102,8 @@ public class UpdateRoomStatusCommand implements Command {
         } catch (IOException e) {
             System.err.println("[서버 오류] RoomStatus 저장 실패: " + e.getMessage());
             throw e;
+        } finally {
+            RoomStatusTable.invalidate();
         }
     }
 }
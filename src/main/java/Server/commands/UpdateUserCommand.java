@@ -2,17 +2,27 @@ package Server.commands;
 
 import Server.UserDAO;
 import Server.exceptions.*;
+import Server.storage.ReservationRepository;
+import Server.storage.ReservationStore;
+import Server.storage.RoomLocks;
+import Server.storage.UserFile;
+import Server.storage.UserRepository;
 import java.io.*;
 
 public class UpdateUserCommand implements Command {
     private final String BASE_DIR;
-    private final Object FILE_LOCK;
+    private final ReservationRepository reservations;
+    private final UserRepository users;
+    private final RoomLocks roomLocks;
     private final UserDAO userDAO;
     private final String currentUserId;
 
-    public UpdateUserCommand(String baseDir, Object fileLock, UserDAO userDAO, String currentUserId) {
+    public UpdateUserCommand(String baseDir, ReservationRepository reservations, UserRepository users,
+                             RoomLocks roomLocks, UserDAO userDAO, String currentUserId) {
         this.BASE_DIR = baseDir;
-        this.FILE_LOCK = fileLock;
+        this.reservations = reservations;
+        this.users = users;
+        this.roomLocks = roomLocks;
         this.userDAO = userDAO;
         this.currentUserId = currentUserId;
     }
@@ -59,7 +69,8 @@ public class UpdateUserCommand implements Command {
 
         System.out.println("수정 대상: " + targetUserId + ", 새 이름: " + newName);
 
-        synchronized (FILE_LOCK) {
+        RoomLocks.Held held = roomLocks.lockAll();
+        try {
             String oldName = userDAO.getUserNameById(targetUserId);
             if (oldName == null || oldName.isEmpty()) {
                 throw new BusinessLogicException(
@@ -76,94 +87,56 @@ public class UpdateUserCommand implements Command {
             
             System.out.println("사용자 수정 완료: " + targetUserId);
             return "UPDATE_SUCCESS";
+        } finally {
+            held.unlock();
         }
     }
 
     private void updateUserById(String userId, String newName, String newPw) 
             throws DatabaseException, BusinessLogicException, InvalidInputException {
-        String filePath = getUserFileById(userId);
-        if (filePath == null) {
+        UserFile file = UserFile.forUserId(userId);
+        if (file == null) {
             throw new InvalidInputException("userId", userId, 
                     "유효하지 않은 사용자 ID 형식입니다");
         }
 
-        File inputFile = new File(filePath);
-        if (!inputFile.exists()) {
-            throw new DatabaseException(
-                    inputFile.getName(),
-                    DatabaseException.OperationType.READ,
-                    "사용자 파일을 찾을 수 없습니다"
-            );
-        }
-
-        File tempFile = new File(filePath + ".tmp");
-
-        boolean updated = false;
-        try (BufferedReader reader = new BufferedReader(new FileReader(inputFile));
-             BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile))) {
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 3 && parts[1].trim().equals(userId)) {
-                    writer.write(newName + "," + userId + "," + newPw);
-                    updated = true;
-                    System.out.println("사용자 수정: " + line + " -> " + newName);
-                } else {
-                    writer.write(line);
-                }
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            // 임시 파일 정리
-            if (tempFile.exists()) {
-                tempFile.delete();
+        int updated = users.updateIf(file, record -> {
+            if (record.fieldCount() >= 3 && record.getUserId().trim().equals(userId)) {
+                System.out.println("사용자 수정: " + record.getLine() + " -> " + newName);
+                return newName + "," + userId + "," + newPw;
             }
-            throw new DatabaseException(
-                    inputFile.getName(),
-                    DatabaseException.OperationType.UPDATE,
-                    "사용자 정보 수정 중 오류가 발생했습니다",
-                    e
-            );
-        }
+            return null;
+        });
 
-        if (!updated) {
-            tempFile.delete();
+        if (updated == 0) {
             throw new BusinessLogicException(
                     BusinessLogicException.BusinessRuleViolation.RESERVATION_NOT_FOUND,
                     "수정할 사용자를 찾을 수 없습니다: " + userId
             );
         }
-
-        // 파일 교체
-        if (!inputFile.delete()) {
-            tempFile.delete();
-            throw new DatabaseException(
-                    inputFile.getName(),
-                    DatabaseException.OperationType.DELETE,
-                    "기존 파일을 삭제할 수 없습니다"
-            );
-        }
-
-        if (!tempFile.renameTo(inputFile)) {
-            throw new DatabaseException(
-                    tempFile.getName(),
-                    DatabaseException.OperationType.UPDATE,
-                    "파일 업데이트에 실패했습니다"
-            );
-        }
     }
 
     private void updateReservationFilesName(String oldName, String newName) 
             throws DatabaseException {
-        String[] reservationFiles = {
-            BASE_DIR + "/ReserveClass.txt",
-            BASE_DIR + "/ReserveLab.txt",
-            BASE_DIR + "/ReservationRequest.txt",
-            BASE_DIR + "/ApprovedBackUp.txt"
-        };
-
-        for (String filePath : reservationFiles) {
+        for (ReservationStore store : new ReservationStore[]{
+                ReservationStore.CLASS, ReservationStore.LAB, ReservationStore.PENDING}) {
+            try {
+                reservations.updateIf(store, record -> {
+                    if (record.fieldCount() < 7 || !record.field(0).equals(oldName.trim())) {
+                        return null;
+                    }
+                    String[] tokens = record.getLine().split(",");
+                    tokens[0] = newName;
+                    return String.join(",", tokens);
+                });
+            } catch (DatabaseException e) {
+                // 예약 파일 업데이트 실패는 치명적이지 않으므로 계속 진행
+                System.err.println("예약 파일 이름 업데이트 오류: " + e.getMessage());
+            }
+        }
+
+        // 승인 이력 파일은 메모리에 올리지 않으므로 직접 갱신
+        for (String filePath : new String[]{BASE_DIR + "/ApprovedBackUp.txt"}) {
             File file = new File(filePath);
             if (!file.exists()) continue;
 
@@ -201,12 +174,4 @@ public class UpdateUserCommand implements Command {
             }
         }
     }
-
-    private String getUserFileById(String userId) {
-        if (userId == null) return null;
-        if (userId.startsWith("S")) return BASE_DIR + "/users.txt";
-        if (userId.startsWith("P")) return BASE_DIR + "/prof.txt";
-        if (userId.startsWith("A")) return BASE_DIR + "/assistant.txt";
-        return null;
-    }
 }
@@ -9,16 +9,21 @@ package Server.commands;
  * @author YangJinWon
  */
 import Server.UserDAO;
+import Server.storage.ReservationRecord;
+import Server.storage.ReservationRepository;
+import Server.storage.ReservationStore;
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
 import Server.exceptions.*;
 
 public class ViewAllReservationsCommand implements Command {
-    private final String BASE_DIR;
+    private final ReservationRepository reservations;
     private final UserDAO userDAO;
     private final String currentUserId;
 
-    public ViewAllReservationsCommand(String baseDir, UserDAO userDAO, String currentUserId) {
-        this.BASE_DIR = baseDir;
+    public ViewAllReservationsCommand(ReservationRepository reservations, UserDAO userDAO, String currentUserId) {
+        this.reservations = reservations;
         this.userDAO = userDAO;
         this.currentUserId = currentUserId;
     }
@@ -34,53 +39,42 @@ public class ViewAllReservationsCommand implements Command {
 
         System.out.println("VIEW_ALL_RESERVATIONS 요청 수신");
 
-        File[] files = {
-            new File(BASE_DIR + "/ReserveClass.txt"),
-            new File(BASE_DIR + "/ReserveLab.txt")
-        };
-
-        for (File file : files) {
-            if (!file.exists()) continue;
-
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] lineParts = line.split(",");
-                    // ✅ 파일 형식: 이름,방,날짜,요일,시간,목적,역할,상태,인원,userId
-                    if (lineParts.length >= 10) {
-                        String fileUserName = lineParts[0].trim();
-                        String room = lineParts[1].trim();
-                        String date = lineParts[2].trim();
-                        String day = lineParts[3].trim();
-                        String time = lineParts[4].trim();
-                        String studentCount = lineParts[8].trim();
-                        String resolvedUserId = lineParts[9].trim();
-
-                        // ✅ 클라이언트 형식: userId,time,day,date,room,name,count
-                        out.println(String.join(",", resolvedUserId, time, day, date, room, fileUserName, studentCount));
-                        System.out.println("[ViewAllReservations] 전송: " + resolvedUserId + "," + time + "," + day + "," + date + "," + room + "," + fileUserName + "," + studentCount);
-                    } else if (lineParts.length >= 9) {
-                        // ✅ 구 형식 지원 (userId 없음)
-                        String fileUserName = lineParts[0].trim();
-                        String room = lineParts[1].trim();
-                        String date = lineParts[2].trim();
-                        String day = lineParts[3].trim();
-                        String time = lineParts[4].trim();
-                        String studentCount = lineParts[8].trim();
-                        String resolvedUserId = userDAO.getUserIdByName(fileUserName);
+        // PAGE=n[,CURSOR=...]이면 한 페이지만 전송 (파일마다 보관된 예약 → 현재 예약 두 파트)
+        Pager pager = Pager.parse(params, reservations.pageEpoch());
+        ReservationStore[] stores = ReservationStore.approved();
+        int parts = stores.length * 2;
+        for (int i = 0; i < stores.length; i++) {
+            ReservationStore store = stores[i];
+            // ✅ 파일 형식: 이름,방,날짜,요일,시간,목적,역할,상태,인원,userId (날짜 없는 주간 예약은 제외)
+            List<ReservationRecord> records;
+            if (pager == null) {
+                records = reservations.findWithArchived(store, ReservationRecord::hasDate);
+            } else {
+                records = new ArrayList<>(pager.take(i * 2, parts,
+                        (afterSeq, limit) -> reservations.pageArchived(store, ReservationRecord::hasDate, afterSeq, limit),
+                        ReservationRecord::getSeq));
+                records.addAll(pager.take(i * 2 + 1, parts,
+                        (afterSeq, limit) -> reservations.page(store, ReservationRecord::hasDate, afterSeq, limit),
+                        ReservationRecord::getSeq));
+            }
+            for (ReservationRecord record : records) {
+                String fileUserName = record.field(0);
+                String room = record.field(1);
+                String date = record.field(2);
+                String day = record.field(3);
+                String time = record.field(4);
+                String studentCount = record.field(8);
+                String resolvedUserId = record.field(9);
 
-                        // ✅ 클라이언트 형식: userId,time,day,date,room,name,count
-                        out.println(String.join(",", resolvedUserId, time, day, date, room, fileUserName, studentCount));
-                        System.out.println("[ViewAllReservations] 전송: " + resolvedUserId + "," + time + "," + day + "," + date + "," + room + "," + fileUserName + "," + studentCount);
-                    }
-                }
-            } catch (IOException e) {
-                out.println("ERROR_READING_ALL_RESERVATIONS");
-                out.flush();
-                continue;
+                // ✅ 클라이언트 형식: userId,time,day,date,room,name,count
+                out.println(String.join(",", resolvedUserId, time, day, date, room, fileUserName, studentCount));
+                System.out.println("[ViewAllReservations] 전송: " + resolvedUserId + "," + time + "," + day + "," + date + "," + room + "," + fileUserName + "," + studentCount);
             }
         }
 
+        if (pager != null) {
+            pager.writeCursor(out);
+        }
         out.println("END_OF_APPROVED_RESERVATIONS");
         out.flush();
 
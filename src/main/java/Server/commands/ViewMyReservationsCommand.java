@@ -8,19 +8,20 @@ package Server.commands;
  *
  * @author YangJinWon
  */
-import Server.UserDAO;
+import Server.storage.ReservationRecord;
+import Server.storage.ReservationRepository;
+import Server.storage.ReservationStore;
 import java.io.*;
+import java.util.List;
 import Server.exceptions.*;
 
 public class ViewMyReservationsCommand implements Command {
-    private final String BASE_DIR;
-    private final UserDAO userDAO;
+    private final ReservationRepository reservations;
     private final String currentUserId; // 🔥 추가
 
     // 🔥 생성자에 currentUserId 추가
-    public ViewMyReservationsCommand(String baseDir, UserDAO userDAO, String currentUserId) {
-        this.BASE_DIR = baseDir;
-        this.userDAO = userDAO;
+    public ViewMyReservationsCommand(ReservationRepository reservations, String currentUserId) {
+        this.reservations = reservations;
         this.currentUserId = currentUserId;
     }
 
@@ -34,86 +35,21 @@ public class ViewMyReservationsCommand implements Command {
             return "INVALID_VIEW_MY_RESERVATIONS_FORMAT";
         }
         
-        String userName = userDAO.getUserNameById(requestUserId);
-        System.out.println("VIEW_MY_RESERVATIONS 요청: " + requestUserId + " → 이름: " + userName);
+        System.out.println("VIEW_MY_RESERVATIONS 요청: " + requestUserId);
 
         boolean isAssistant = requestUserId.startsWith("A");
 
-        File[] files = {
-            new File(BASE_DIR + "/ReserveClass.txt"),
-            new File(BASE_DIR + "/ReserveLab.txt")
-        };
-
-        for (File file : files) {
-            if (!file.exists()) continue;
-
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] lineParts = line.split(",");
-
-                    if (lineParts.length >= 7) {
-                        String fileUserName = lineParts[0];
-                        String room = lineParts[1];
-                        String dateString = "";
-                        String day = "";
-                        String time = "";
-                        String purpose = "";
-                        String role = "";
-                        String requestedPeople = "0";
-                        String fileUserId = "";
-                        
-                        // ✅ 새 형식 (10개 필드: 이름,방,날짜,요일,시간,목적,권한,상태,학생수,userId)
-                        if (lineParts.length >= 10) {
-                            dateString = lineParts[2];
-                            day = lineParts[3];
-                            time = lineParts[4];
-                            purpose = lineParts[5];
-                            role = lineParts[6];
-                            requestedPeople = lineParts[8];
-                            fileUserId = lineParts[9];
-                        }
-                        // ✅ 중간 형식 (9개 필드: 이름,방,날짜,요일,시간,목적,권한,상태,학생수)
-                        else if (lineParts.length >= 9) {
-                            dateString = lineParts[2];
-                            day = lineParts[3];
-                            time = lineParts[4];
-                            purpose = lineParts[5];
-                            role = lineParts[6];
-                            requestedPeople = lineParts[8];
-                        }
-                        // 구 형식 (이름,방,요일,시간,목적,권한,상태,학생수)
-                        else {
-                            day = lineParts[2];
-                            time = lineParts[3];
-                            purpose = lineParts[4];
-                            role = lineParts[5];
-                            requestedPeople = (lineParts.length >= 8) ? lineParts[7] : "0";
-                        }
-
-                        // ✅ userId 기반으로 필터링 (새 형식)
-                        boolean shouldShow = false;
-                        String userIdToSend = requestUserId;
-                        
-                        if (!fileUserId.isEmpty()) {
-                            // userId 필드가 있으면 userId로 비교
-                            if (isAssistant || fileUserId.equals(requestUserId)) {
-                                shouldShow = true;
-                                userIdToSend = fileUserId;
-                            }
-                        } else {
-                            // userId 필드가 없으면 이름으로 비교 (호환성)
-                            if (isAssistant || fileUserName.equals(userName)) {
-                                shouldShow = true;
-                                userIdToSend = isAssistant ? userDAO.getUserIdByName(fileUserName) : requestUserId;
-                            }
-                        }
-                        
-                        if (shouldShow) {
-                            out.println(String.join(",", userIdToSend, time, dateString.isEmpty() ? day : dateString, room, fileUserName, purpose, requestedPeople));
-                        }
-                    }
-                }
+        for (ReservationStore store : ReservationStore.approved()) {
+            // 조교는 전체, 그 외는 예약자 색인에서 본인 예약만 (보관된 지난 예약 포함)
+            // 형식: 이름,방,날짜,요일,시간,목적,권한,상태,학생수,userId (날짜가 없는 주간 예약은 요일 전송)
+            List<ReservationRecord> rows = isAssistant
+                    ? reservations.findWithArchived(store, ReservationRecord::isCanonical)
+                    : reservations.findByOwnerWithArchived(requestUserId, store);
+            for (ReservationRecord record : rows) {
+                String dateString = record.rawField(2);
+                String dateOrDay = dateString.isEmpty() ? record.rawField(3) : dateString;
+                out.println(String.join(",", record.rawField(9), record.rawField(4), dateOrDay, record.rawField(1),
+                        record.rawField(0), record.rawField(5), record.rawField(8)));
             }
         }
 
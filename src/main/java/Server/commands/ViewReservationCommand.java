@@ -8,17 +8,23 @@ package Server.commands;
  *
  * @author YangJinWon
  */
+import Server.storage.ReservationRecord;
+import Server.storage.ReservationRepository;
+import Server.storage.RoomLocks;
 import java.io.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import Server.exceptions.*;
 
 public class ViewReservationCommand implements Command {
 
-    private final String BASE_DIR;
-    private final Object FILE_LOCK;
+    private final ReservationRepository reservations;
+    private final RoomLocks roomLocks;
 
-    public ViewReservationCommand(String baseDir, Object fileLock) {
-        this.BASE_DIR = baseDir;
-        this.FILE_LOCK = fileLock;
+    public ViewReservationCommand(ReservationRepository reservations, RoomLocks roomLocks) {
+        this.reservations = reservations;
+        this.roomLocks = roomLocks;
     }
 
     @Override
@@ -35,101 +41,36 @@ public class ViewReservationCommand implements Command {
         
         String weekStart = hasDateRange ? params[3].trim() : null;
         String weekEnd = hasDateRange ? params[4].trim() : null;
+
+        LocalDate from = null;
+        LocalDate to = null;
+        if (hasDateRange) {
+            try {
+                from = LocalDate.parse(weekStart);
+                to = LocalDate.parse(weekEnd);
+            } catch (DateTimeParseException e) {
+                return "INVALID_VIEW_FORMAT";
+            }
+        }
         
         System.out.println("[ViewReservation] 요청: room=" + roomName + 
             (hasDateRange ? ", 기간: " + weekStart + " ~ " + weekEnd : ""));
 
-        synchronized (FILE_LOCK) {
-            String file1 = BASE_DIR + "/ReserveClass.txt";
-            String file2 = BASE_DIR + "/ReserveLab.txt";
-            String file3 = BASE_DIR + "/ReservationRequest.txt";
-
-            try {
-                for (String filePath : new String[]{file1, file2}) {
-                    File confirmedFile = new File(filePath);
-                    if (!confirmedFile.exists()) {
-                        continue;
-                    }
-
-                    try (BufferedReader reader = new BufferedReader(new FileReader(confirmedFile))) {
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            String[] tokens = line.split(",");
-                            // ✅ 9개 필드로 수정 (name,room,date,day,time,purpose,role,status,studentCount)
-                            if (tokens.length < 9) {
-                                continue;
-                            }
-
-                            String fileRoom = tokens[1].trim();
-                            if (!fileRoom.equals(roomName)
-                                    && !fileRoom.equals(roomName + "호")
-                                    && !(fileRoom + "호").equals(roomName)) {
-                                continue;
-                            }
-                            
-                            // ✅ 날짜 필터링 (주간 범위가 지정된 경우)
-                            if (hasDateRange && tokens.length >= 3) {
-                                try {
-                                    String reservationDate = tokens[2].trim();
-                                    if (reservationDate.compareTo(weekStart) < 0 || 
-                                        reservationDate.compareTo(weekEnd) > 0) {
-                                        continue; // 범위 밖 예약은 제외
-                                    }
-                                } catch (Exception e) {
-                                    System.err.println("[날짜 파싱 오류] " + tokens[2]);
-                                }
-                            }
-                            
-                            out.println(line);
-                        }
-                    }
-                }
-
-                File pendingFile = new File(file3);
-                if (pendingFile.exists()) {
-                    try (BufferedReader reader = new BufferedReader(new FileReader(pendingFile))) {
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            String[] tokens = line.split(",");
-                            // ✅ 9개 필드로 수정
-                            if (tokens.length < 9) {
-                                continue;
-                            }
-
-                            String fileRoom = tokens[1].trim();
-                            if (!fileRoom.equals(roomName)
-                                    && !fileRoom.equals(roomName + "호")
-                                    && !(fileRoom + "호").equals(roomName)) {
-                                continue;
-                            }
-                            
-                            // ✅ 날짜 필터링 (주간 범위가 지정된 경우)
-                            if (hasDateRange && tokens.length >= 3) {
-                                try {
-                                    String reservationDate = tokens[2].trim();
-                                    if (reservationDate.compareTo(weekStart) < 0 || 
-                                        reservationDate.compareTo(weekEnd) > 0) {
-                                        continue; // 범위 밖 예약은 제외
-                                    }
-                                } catch (Exception e) {
-                                    System.err.println("[날짜 파싱 오류] " + tokens[2]);
-                                }
-                            }
-                            
-                            out.println(line);
-                        }
-                    }
-                }
-
-            } catch (IOException e) {
-                out.println("ERROR_READING_RESERVATION_FILE");
-                out.println("END_OF_RESERVATION");
-                out.flush();
-            } finally {
-                System.out.println("예약 정보 전송 종료: END_OF_RESERVATION");
-                out.println("END_OF_RESERVATION");
-                out.flush();
+        // 승인된 예약(강의실 → 실습실) 다음에 대기 중 요청 순서 (기간이 없으면 전체, 9개 필드 이상 행)
+        // 강의실 잠금 없이 낙관적 읽기로 메모리 행만 모으고, 보관된 행(디스크)을 합치고 전송하는 것은 읽기가 끝난 후에 한다
+        LocalDate rangeFrom = from;
+        LocalDate rangeTo = to;
+        ReservationRepository.RoomRows live = roomLocks.read(roomName,
+                () -> reservations.findLiveByRoom(roomName, rangeFrom, rangeTo));
+        List<ReservationRecord> rows = reservations.withArchived(live);
+        try {
+            for (ReservationRecord record : rows) {
+                out.println(record.getLine());
             }
+        } finally {
+            System.out.println("예약 정보 전송 종료: END_OF_RESERVATION");
+            out.println("END_OF_RESERVATION");
+            out.flush();
         }
 
         return null; // 이미 out으로 직접 출력했으므로 null 반환
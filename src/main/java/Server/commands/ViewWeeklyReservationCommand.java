@@ -1,15 +1,21 @@
 package Server.commands;
 
+import Server.storage.ReservationRecord;
+import Server.storage.ReservationRepository;
+import Server.storage.RoomLocks;
 import java.io.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import Server.exceptions.*;
 
 public class ViewWeeklyReservationCommand implements Command {
-    private final String BASE_DIR;
-    private final Object FILE_LOCK;
+    private final ReservationRepository reservations;
+    private final RoomLocks roomLocks;
 
-    public ViewWeeklyReservationCommand(String baseDir, Object fileLock) {
-        this.BASE_DIR = baseDir;
-        this.FILE_LOCK = fileLock;
+    public ViewWeeklyReservationCommand(ReservationRepository reservations, RoomLocks roomLocks) {
+        this.reservations = reservations;
+        this.roomLocks = roomLocks;
     }
 
     @Override
@@ -28,55 +34,33 @@ public class ViewWeeklyReservationCommand implements Command {
         System.out.printf("[ViewWeeklyReservationCommand] %s: %s ~ %s%n", 
             roomName, weekStart, weekEnd);
 
-        synchronized (FILE_LOCK) {
-            String[] files = {
-                BASE_DIR + "/ReserveClass.txt",
-                BASE_DIR + "/ReserveLab.txt",
-                BASE_DIR + "/ReservationRequest.txt"
-            };
-
-            int count = 0;
-
-            try {
-                for (String filePath : files) {
-                    File file = new File(filePath);
-                    if (!file.exists()) continue;
-
-                    try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            String[] tokens = line.split(",");
-                            // ✅ 9개 필드로 수정 (name,room,date,day,time,purpose,role,status,studentCount)
-                            if (tokens.length < 9) continue;
-
-                            String fileRoom = tokens[1].trim();
-                            String fileDateString = tokens[2].trim();
-                            
-                            boolean roomMatch = fileRoom.equals(roomName)
-                                    || fileRoom.equals(roomName + "호")
-                                    || (fileRoom + "호").equals(roomName);
-                            
-                            if (!roomMatch) continue;
-
-                            if (fileDateString.compareTo(weekStart) >= 0 
-                                    && fileDateString.compareTo(weekEnd) <= 0) {
-                                out.println(line);
-                                count++;
-                            }
-                        }
-                    }
-                }
-
-                System.out.printf("[ViewWeeklyReservationCommand] %s - %d개 전송%n", 
-                    roomName, count);
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = LocalDate.parse(weekStart);
+            to = LocalDate.parse(weekEnd);
+        } catch (DateTimeParseException e) {
+            out.println("INVALID_VIEW_FORMAT");
+            out.println("END_OF_RESERVATION");
+            out.flush();
+            return null;
+        }
 
-            } catch (IOException e) {
-                System.err.println("[ERROR] 파일 읽기 오류: " + e.getMessage());
-                out.println("ERROR_READING_RESERVATION_FILE");
-            } finally {
-                out.println("END_OF_RESERVATION");
-                out.flush();
+        // 강의실별 날짜 색인에서 해당 주만 범위 조회 (9개 필드 이상 행)
+        // 강의실 잠금 없이 낙관적 읽기로 메모리 행만 모으고, 보관된 행(디스크)을 합치고 전송하는 것은 읽기가 끝난 후에 한다
+        ReservationRepository.RoomRows live = roomLocks.read(roomName,
+                () -> reservations.findLiveByRoom(roomName, from, to));
+        List<ReservationRecord> rows = reservations.withArchived(live);
+        try {
+            for (ReservationRecord record : rows) {
+                out.println(record.getLine());
             }
+
+            System.out.printf("[ViewWeeklyReservationCommand] %s - %d개 전송%n", 
+                roomName, rows.size());
+        } finally {
+            out.println("END_OF_RESERVATION");
+            out.flush();
         }
         return null;
     }
@@ -3,6 +3,7 @@ package Server.manager;
 import common.dto.ClassroomDTO;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 서버 전용 강의실/실습실 관리자 (Singleton Pattern)
@@ -15,6 +16,9 @@ public class ServerClassroomManager {
     private Map<String, ClassroomDTO> classrooms;
     private List<String> classroomNames;
     private List<String> labNames;
+
+    // 변경 시 파일 저장(I/O)을 수행하므로 synchronized 대신 ReentrantLock 사용 (가상 스레드 pinning 방지)
+    private final ReentrantLock lock = new ReentrantLock();
     
     private static final String CLASSROOM_FILE = System.getProperty("user.dir") 
             + File.separator + "data" + File.separator + "Classrooms.txt";
@@ -185,20 +189,25 @@ public class ServerClassroomManager {
     /**
      * 수용 인원 수정
      */
-    public synchronized boolean updateCapacity(String name, int newCapacity) {
-        ClassroomDTO oldDto = classrooms.get(name);
-        if (oldDto == null) {
-            System.err.println("[서버] 존재하지 않는 강의실: " + name);
-            return false;
-        }
+    public boolean updateCapacity(String name, int newCapacity) {
+        lock.lock();
+        try {
+            ClassroomDTO oldDto = classrooms.get(name);
+            if (oldDto == null) {
+                System.err.println("[서버] 존재하지 않는 강의실: " + name);
+                return false;
+            }
         
-        // 새로운 DTO 생성 (불변 객체)
-        ClassroomDTO newDto = new ClassroomDTO(name, oldDto.type, newCapacity);
-        classrooms.put(name, newDto);
+            // 새로운 DTO 생성 (불변 객체)
+            ClassroomDTO newDto = new ClassroomDTO(name, oldDto.type, newCapacity);
+            classrooms.put(name, newDto);
         
-        saveClassroomData();
-        System.out.println("[서버] " + name + " 수용 인원 변경: " + newCapacity + "명");
-        return true;
+            saveClassroomData();
+            System.out.println("[서버] " + name + " 수용 인원 변경: " + newCapacity + "명");
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
     
     /**
@@ -245,69 +254,79 @@ public class ServerClassroomManager {
     /**
      * 강의실 추가
      */
-    public synchronized boolean addClassroom(ClassroomDTO classroom) {
-        if (classroom == null) {
-            System.err.println("[서버] classroom이 null입니다.");
-            return false;
-        }
+    public boolean addClassroom(ClassroomDTO classroom) {
+        lock.lock();
+        try {
+            if (classroom == null) {
+                System.err.println("[서버] classroom이 null입니다.");
+                return false;
+            }
         
-        String name = classroom.getRoomName();
-        String type = classroom.getType();
+            String name = classroom.getRoomName();
+            String type = classroom.getType();
         
-        // 중복 체크
-        if (classrooms.containsKey(name)) {
-            System.err.println("[서버] 이미 존재하는 강의실: " + name);
-            return false;
-        }
+            // 중복 체크
+            if (classrooms.containsKey(name)) {
+                System.err.println("[서버] 이미 존재하는 강의실: " + name);
+                return false;
+            }
         
-        // 메모리에 추가
-        classrooms.put(name, classroom);
+            // 메모리에 추가
+            classrooms.put(name, classroom);
         
-        if ("CLASS".equals(type)) {
-            classroomNames.add(name);
-            Collections.sort(classroomNames);
-        } else if ("LAB".equals(type)) {
-            labNames.add(name);
-            Collections.sort(labNames);
-        }
+            if ("CLASS".equals(type)) {
+                classroomNames.add(name);
+                Collections.sort(classroomNames);
+            } else if ("LAB".equals(type)) {
+                labNames.add(name);
+                Collections.sort(labNames);
+            }
         
-        // 파일에 저장
-        saveClassroomData();
+            // 파일에 저장
+            saveClassroomData();
         
-        System.out.println("[서버] 강의실 추가 완료: " + name + " (" + type + ", " + classroom.getCapacity() + "명)");
-        return true;
+            System.out.println("[서버] 강의실 추가 완료: " + name + " (" + type + ", " + classroom.getCapacity() + "명)");
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
     
     /**
      * 강의실 삭제
      */
-    public synchronized boolean deleteClassroom(String roomName) {
-        if (roomName == null || roomName.trim().isEmpty()) {
-            System.err.println("[서버] 강의실 이름이 비어있습니다.");
-            return false;
-        }
+    public boolean deleteClassroom(String roomName) {
+        lock.lock();
+        try {
+            if (roomName == null || roomName.trim().isEmpty()) {
+                System.err.println("[서버] 강의실 이름이 비어있습니다.");
+                return false;
+            }
         
-        ClassroomDTO dto = classrooms.get(roomName);
-        if (dto == null) {
-            System.err.println("[서버] 존재하지 않는 강의실: " + roomName);
-            return false;
-        }
+            ClassroomDTO dto = classrooms.get(roomName);
+            if (dto == null) {
+                System.err.println("[서버] 존재하지 않는 강의실: " + roomName);
+                return false;
+            }
         
-        // 메모리에서 삭제
-        classrooms.remove(roomName);
+            // 메모리에서 삭제
+            classrooms.remove(roomName);
         
-        String type = dto.getType();
-        if ("CLASS".equals(type)) {
-            classroomNames.remove(roomName);
-        } else if ("LAB".equals(type)) {
-            labNames.remove(roomName);
-        }
+            String type = dto.getType();
+            if ("CLASS".equals(type)) {
+                classroomNames.remove(roomName);
+            } else if ("LAB".equals(type)) {
+                labNames.remove(roomName);
+            }
         
-        // 파일에 저장
-        saveClassroomData();
+            // 파일에 저장
+            saveClassroomData();
         
-        System.out.println("[서버] 강의실 삭제 완료: " + roomName);
-        return true;
+            System.out.println("[서버] 강의실 삭제 완료: " + roomName);
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
     
     /**
@@ -0,0 +1,259 @@
+package Server.network;
+
+import Server.ServerConfig;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 접속 허용(Admission) 제어기 (Singleton Pattern)
+ *
+ * 고정된 로그인 인원 제한 대신 서버 부하 지표로 요청을 받아들일지 결정한다.
+ * - 로그인 세션: 허용 슬롯(Semaphore)이 없으면 대기열에서 잠시 기다리고, 대기열도 가득 차면 거절
+ *   (NIO 모드에서는 기다리는 동안 워커를 붙잡으므로 대기 수를 워커 수의 절반 아래로 제한)
+ * - 명령 실행: 처리 중 요청 수, 워커 큐 깊이, 워커 사용률과 평균 처리 시간(EWMA)이 임계치를 넘으면 부하 차단(shed)
+ * - 거절 시 클라이언트에 재시도 대기 시간(retry-after, ms)을 함께 알려준다.
+ */
+public class AdmissionController {
+
+    private static volatile AdmissionController instance;
+
+    /** 평균 처리 시간 EWMA 가중치 */
+    private static final double LATENCY_ALPHA = 0.2;
+    private static final long MAX_RETRY_AFTER_MS = 30_000;
+
+    private final int maxSessions;
+    private final int loginQueueCapacity;
+    private final long loginWaitMs;
+    private final int maxInFlight;
+    private final double queueHighWater;
+    private final long latencyHighWaterMs;
+    private final long baseRetryAfterMs;
+
+    private final Semaphore sessionPermits;
+    private final AtomicInteger waitingLogins = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // double 값을 비트로 저장 (락 없이 EWMA 갱신)
+    private final AtomicLong latencyEwmaBits = new AtomicLong(Double.doubleToLongBits(0.0));
+
+    private final LongAdder admittedCommands = new LongAdder();
+    private final LongAdder shedCommands = new LongAdder();
+    private final LongAdder queuedLogins = new LongAdder();
+    private final LongAdder rejectedLogins = new LongAdder();
+
+    private volatile ThreadPoolExecutor workerPool;
+
+    public AdmissionController(int maxSessions, int loginQueueCapacity, long loginWaitMs,
+            int maxInFlight, double queueHighWater, long latencyHighWaterMs, long baseRetryAfterMs) {
+        this.maxSessions = Math.max(1, maxSessions);
+        this.loginQueueCapacity = Math.max(0, loginQueueCapacity);
+        this.loginWaitMs = Math.max(0, loginWaitMs);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.queueHighWater = queueHighWater;
+        this.latencyHighWaterMs = latencyHighWaterMs;
+        this.baseRetryAfterMs = Math.max(1, baseRetryAfterMs);
+        this.sessionPermits = new Semaphore(this.maxSessions, true);
+    }
+
+    public static AdmissionController getInstance() {
+        if (instance == null) {
+            synchronized (AdmissionController.class) {
+                if (instance == null) {
+                    instance = fromConfig();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * config.properties 값으로 생성
+     */
+    static AdmissionController fromConfig() {
+        int maxSessions = ServerConfig.getInt("max.clients", 50);
+        AdmissionController controller = new AdmissionController(
+                maxSessions,
+                ServerConfig.getInt("admission.login.queue", 32),
+                ServerConfig.getLong("admission.login.wait.ms", 2000),
+                ServerConfig.getInt("admission.max.inflight", 64),
+                ServerConfig.getInt("admission.queue.highwater.percent", 80) / 100.0,
+                ServerConfig.getLong("admission.latency.highwater.ms", 500),
+                ServerConfig.getLong("admission.retry.after.ms", 1000));
+        System.out.println("[Admission] 최대 세션 " + controller.maxSessions
+                + ", 로그인 대기열 " + controller.loginQueueCapacity
+                + " (최대 " + controller.loginWaitMs + "ms), 동시 처리 " + controller.maxInFlight);
+        return controller;
+    }
+
+    /**
+     * NIO 워커 풀을 부하 지표(큐 깊이, 사용률)로 사용
+     * 로그인 대기는 워커 스레드에서 일어나므로, 이후 대기 수는 워커 수의 절반을 넘지 않는다.
+     */
+    public void bindWorkerPool(ThreadPoolExecutor pool) {
+        this.workerPool = pool;
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    // ===== 로그인 세션 =====
+
+    /**
+     * 로그인 세션 슬롯 확보
+     * 슬롯이 없으면 대기열에서 최대 loginWaitMs 동안 기다린다.
+     * 대기 수가 한도(getLoginQueueLimit)에 이르면 기다리지 않고 바로 거절한다.
+     * @return 확보했으면 true (이후 반드시 releaseSession 호출)
+     */
+    public boolean tryAdmitSession() {
+        if (sessionPermits.tryAcquire()) {
+            return true;
+        }
+        if (waitingLogins.incrementAndGet() > getLoginQueueLimit()) {
+            waitingLogins.decrementAndGet();
+            rejectedLogins.increment();
+            return false;
+        }
+        queuedLogins.increment();
+        try {
+            if (sessionPermits.tryAcquire(loginWaitMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            rejectedLogins.increment();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejectedLogins.increment();
+            return false;
+        } finally {
+            waitingLogins.decrementAndGet();
+        }
+    }
+
+    /**
+     * 동시에 슬롯을 기다릴 수 있는 로그인 수
+     * 워커 풀이 묶여 있으면 워커 수의 절반으로 더 줄여, 대기 중인 로그인이 워커를 모두 붙잡아
+     * 슬롯을 돌려줄 EXIT/LOGOUT 처리까지 막는 일이 없게 한다.
+     */
+    public int getLoginQueueLimit() {
+        ThreadPoolExecutor pool = workerPool;
+        if (pool == null) {
+            return loginQueueCapacity;
+        }
+        return Math.min(loginQueueCapacity, pool.getMaximumPoolSize() / 2);
+    }
+
+    /**
+     * 로그인 세션 슬롯 반환 (로그아웃, 연결 종료, 로그인 실패 시)
+     */
+    public void releaseSession() {
+        sessionPermits.release();
+    }
+
+    // ===== 명령 실행 =====
+
+    /**
+     * 현재 부하에서 새 명령을 받아들일 수 있는지 확인
+     * @return 받아들이면 true (이후 반드시 endCommand 호출), 차단하면 false
+     */
+    public boolean tryBeginCommand() {
+        if (isOverloaded()) {
+            shedCommands.increment();
+            return false;
+        }
+        beginCommand();
+        return true;
+    }
+
+    /**
+     * 부하와 관계없이 명령 실행 시작 기록 (LOGIN 등 차단 대상이 아닌 명령)
+     */
+    public void beginCommand() {
+        inFlight.incrementAndGet();
+        admittedCommands.increment();
+    }
+
+    /**
+     * 명령 실행 종료 기록 및 평균 처리 시간 갱신
+     * @param startNanos 시작 시각 (System.nanoTime)
+     */
+    public void endCommand(long startNanos) {
+        inFlight.decrementAndGet();
+        double elapsedMs = (System.nanoTime() - startNanos) / 1_000_000.0;
+        while (true) {
+            long prevBits = latencyEwmaBits.get();
+            double prev = Double.longBitsToDouble(prevBits);
+            double next = prev == 0.0 ? elapsedMs : prev + LATENCY_ALPHA * (elapsedMs - prev);
+            if (latencyEwmaBits.compareAndSet(prevBits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 과부하 판단
+     * - 처리 중 요청 수가 최대치 이상
+     * - 워커 큐가 고수위(highwater) 이상
+     * - 워커가 모두 사용 중이면서 평균 처리 시간이 임계치 초과
+     */
+    public boolean isOverloaded() {
+        if (inFlight.get() >= maxInFlight) {
+            return true;
+        }
+        ThreadPoolExecutor pool = workerPool;
+        if (pool == null) {
+            return false;
+        }
+        int depth = pool.getQueue().size();
+        int capacity = depth + pool.getQueue().remainingCapacity();
+        if (capacity > 0 && depth >= capacity * queueHighWater) {
+            return true;
+        }
+        return pool.getActiveCount() >= pool.getMaximumPoolSize()
+                && getLatencyEwmaMs() > latencyHighWaterMs;
+    }
+
+    /**
+     * 재시도 권장 대기 시간(ms)
+     * 대기 중인 작업을 현재 평균 처리 시간으로 소화하는 데 걸리는 시간을 추정한다.
+     */
+    public long getRetryAfterMs() {
+        ThreadPoolExecutor pool = workerPool;
+        int workers = pool != null ? Math.max(1, pool.getMaximumPoolSize()) : maxInFlight;
+        int backlog = inFlight.get() + waitingLogins.get() + (pool != null ? pool.getQueue().size() : 0);
+        long estimate = (long) (getLatencyEwmaMs() * backlog / workers);
+        return Math.min(MAX_RETRY_AFTER_MS, Math.max(baseRetryAfterMs, estimate));
+    }
+
+    public double getLatencyEwmaMs() {
+        return Double.longBitsToDouble(latencyEwmaBits.get());
+    }
+
+    /**
+     * 지표 한 줄 요약 (GET_SERVER_METRICS 응답)
+     * 형식: SERVER_METRICS,key=value,...
+     */
+    public String metricsLine() {
+        ThreadPoolExecutor pool = workerPool;
+        StringBuilder sb = new StringBuilder("SERVER_METRICS");
+        sb.append(",sessions=").append(maxSessions - sessionPermits.availablePermits()).append('/').append(maxSessions);
+        sb.append(",loginWaiting=").append(waitingLogins.get()).append('/').append(getLoginQueueLimit());
+        sb.append(",inFlight=").append(inFlight.get()).append('/').append(maxInFlight);
+        if (pool != null) {
+            int depth = pool.getQueue().size();
+            sb.append(",queueDepth=").append(depth).append('/').append(depth + pool.getQueue().remainingCapacity());
+            sb.append(",workerActive=").append(pool.getActiveCount()).append('/').append(pool.getMaximumPoolSize());
+        }
+        sb.append(",latencyMs=").append(String.format(Locale.ROOT, "%.1f", getLatencyEwmaMs()));
+        sb.append(",admitted=").append(admittedCommands.sum());
+        sb.append(",shed=").append(shedCommands.sum());
+        sb.append(",loginQueued=").append(queuedLogins.sum());
+        sb.append(",loginRejected=").append(rejectedLogins.sum());
+        sb.append(",retryAfterMs=").append(getRetryAfterMs());
+        return sb.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package Server.network;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 이진 프레임 프로토콜을 지원하는 세션 (nio 세션만 구현)
+ *
+ * SessionProcessor는 세션이 이 인터페이스를 구현할 때만 "PROTOCOL,BINARY" 협상을 수락하고,
+ * 협상 이후의 요청 응답(LINE/DONE 프레임)은 writeFrame으로 보낸다.
+ */
+public interface BinaryFrameSession {
+
+    /**
+     * 이후 getWriter()/getPushWriter() 출력(서버 푸시)을 PUSH 프레임으로 전송
+     */
+    void enableBinaryOutput();
+
+    /**
+     * 인코딩된 프레임 전송
+     */
+    void writeFrame(ByteBuffer frame);
+}
@@ -0,0 +1,164 @@
+package Server.network;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 길이 접두 이진 프레임 프로토콜 (텍스트 프로토콜과 병행)
+ *
+ * 협상: 텍스트 줄 "PROTOCOL,BINARY" 전송 → 텍스트 응답 "PROTOCOL_OK,BINARY" 이후 양방향 모두 이진 프레임
+ *
+ * 요청 프레임 (big-endian):
+ *   int32 length   이후 바이트 수
+ *   u16   opcode   명령 코드 (0이면 첫 STRING 필드가 명령 이름)
+ *   int32 requestId 상관 ID
+ *   u8    fieldCount
+ *   필드: u8 type + 값 (STRING: u16 byteLength + UTF-8, INT: int32)
+ *
+ * 응답 프레임:
+ *   int32 length | u16 kind (LINE/DONE/PUSH) | int32 requestId | UTF-8 본문 (LINE/PUSH)
+ *   한 요청의 응답은 LINE 프레임 0개 이상 뒤에 DONE 프레임 1개로 끝난다.
+ *   Observer 알림 등 서버 푸시는 requestId 0의 PUSH 프레임으로 전송된다.
+ *
+ * 필드 값은 구분자 없이 전달되므로 목적(purpose) 등에 쉼표가 있어도 요청이 깨지지 않는다.
+ * 단, 저장 형식(CSV)과 텍스트 응답을 보호하기 위해 쉼표는 전각 쉼표(，)로, 줄바꿈은 공백으로 바꾼다.
+ */
+public final class BinaryProtocol {
+
+    public static final String NEGOTIATE_REQUEST = "PROTOCOL,BINARY";
+    public static final String NEGOTIATE_OK = "PROTOCOL_OK,BINARY";
+
+    public static final int MAX_FRAME_LENGTH = 64 * 1024;
+
+    public static final byte FIELD_STRING = 1;
+    public static final byte FIELD_INT = 2;
+
+    public static final short KIND_LINE = 0x81;
+    public static final short KIND_DONE = 0x82;
+    public static final short KIND_PUSH = 0x83;
+
+    /** opcode → 명령 이름 (인덱스가 opcode, 0은 이름 지정 방식) */
+    private static final String[] COMMANDS = {
+        null,
+        "LOGIN", "REGISTER", "RESERVE_REQUEST", "VIEW_RESERVATION", "CANCEL_RESERVATION",
+        "CHANGE_RESERVATION", "APPROVE_RESERVATION", "REJECT_RESERVATION", "COUNT_PENDING_REQUEST", "GET_ALL_USERS",
+        "DELETE_USER", "UPDATE_USER", "VIEW_ALL_RESERVATIONS", "VIEW_MY_RESERVATIONS", "CHECK_ROOM_TIME",
+        "CHANGE_PASSWORD", "GET_RESERVATION_REQUESTS", "UPDATE_ROOM_STATUS", "CHECK_ROOM_STATUS", "GET_RESERVED_COUNT",
+        "GET_RESERVED_COUNT_BY_DATE", "VIEW_WEEKLY_RESERVATION", "GET_ROOM_INFO", "GET_CLASSROOMS", "GET_LABS",
+        "UPDATE_ROOM_CAPACITY", "VIEW_APPROVED_RESERVATIONS", "CHANGE_RESERVATION_FULL", "ADD_CLASSROOM", "DELETE_CLASSROOM",
+        "GET_SERVER_METRICS", "EXIT", "INIT",
+        "FIND_AVAILABLE_ROOMS", "GET_WEEK_GRID"
+    };
+
+    private BinaryProtocol() {
+    }
+
+    /**
+     * opcode에 해당하는 명령 이름
+     * @return 정의되지 않은 opcode면 null
+     */
+    public static String commandName(int opcode) {
+        if (opcode <= 0 || opcode >= COMMANDS.length) {
+            return null;
+        }
+        return COMMANDS[opcode];
+    }
+
+    /**
+     * 명령 이름에 해당하는 opcode (없으면 0)
+     */
+    public static int opcodeOf(String commandName) {
+        for (int i = 1; i < COMMANDS.length; i++) {
+            if (COMMANDS[i].equals(commandName)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 필드 값을 저장/텍스트 응답 형식에 안전한 값으로 변환
+     */
+    static String sanitizeField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return value.replace(',', '，').replace('\r', ' ').replace('\n', ' ');
+    }
+
+    /**
+     * 응답 프레임 인코딩
+     */
+    public static ByteBuffer encodeResponse(short kind, int requestId, String payload) {
+        byte[] body = payload == null ? new byte[0] : payload.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer frame = ByteBuffer.allocate(4 + 2 + 4 + body.length);
+        frame.putInt(2 + 4 + body.length);
+        frame.putShort(kind);
+        frame.putInt(requestId);
+        frame.put(body);
+        frame.flip();
+        return frame;
+    }
+
+    /**
+     * 요청 응답용 PrintWriter: 출력한 줄마다 LINE 프레임으로 전송
+     */
+    static PrintWriter responseWriter(BinaryFrameSession session, int requestId) {
+        return new PrintWriter(new FrameLineWriter(session, KIND_LINE, requestId));
+    }
+
+    /**
+     * 응답 종료(DONE) 프레임 전송
+     */
+    static void complete(PrintWriter responseWriter, BinaryFrameSession session, int requestId) {
+        responseWriter.close();
+        session.writeFrame(encodeResponse(KIND_DONE, requestId, null));
+    }
+
+    /**
+     * 줄 단위로 프레임을 만들어 세션에 전달하는 Writer
+     * (PrintWriter가 이 객체를 lock으로 사용하므로 별도 동기화 불필요)
+     */
+    static class FrameLineWriter extends Writer {
+        private final BinaryFrameSession session;
+        private final short kind;
+        private final int requestId;
+        private final StringBuilder line = new StringBuilder();
+
+        FrameLineWriter(BinaryFrameSession session, short kind, int requestId) {
+            this.session = session;
+            this.kind = kind;
+            this.requestId = requestId;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                char c = cbuf[i];
+                if (c == '\n') {
+                    emitLine();
+                } else if (c != '\r') {
+                    line.append(c);
+                }
+            }
+        }
+
+        private void emitLine() {
+            session.writeFrame(encodeResponse(kind, requestId, line.toString()));
+            line.setLength(0);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            if (line.length() > 0) {
+                emitLine();
+            }
+        }
+    }
+}
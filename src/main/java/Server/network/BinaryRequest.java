@@ -0,0 +1,29 @@
+package Server.network;
+
+/**
+ * 이진 프레임으로 받은 요청 (명령 이름과 필드가 이미 분리된 상태)
+ */
+public final class BinaryRequest {
+
+    private final int requestId;
+    private final String[] params;
+
+    public BinaryRequest(int requestId, String[] params) {
+        this.requestId = requestId;
+        this.params = params;
+    }
+
+    /**
+     * 상관 ID (응답 프레임에 그대로 사용)
+     */
+    public int getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * 명령 매개변수 (params[0]이 명령 이름, 텍스트 프로토콜의 split(",") 결과와 같은 형태)
+     */
+    public String[] getParams() {
+        return params;
+    }
+}
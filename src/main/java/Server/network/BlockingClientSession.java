@@ -0,0 +1,183 @@
+package Server.network;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 스레드 하나가 소켓을 블로킹 방식으로 읽는 세션 (server.io.mode=blocking)
+ *
+ * 쓰기는 세션 전용 writer 스레드(가상 스레드)가 담당한다. 명령 응답과 Observer 알림은
+ * OutboundQueue에 넣기만 하므로, 느린 클라이언트가 알림을 보낸 명령 스레드(강의실 잠금 보유)를 막지 않는다.
+ * 응답이 한도 이상 쌓이면 읽기 스레드는 다음 요청을 읽기 전에 전송이 따라잡기를 기다린다(awaitOutboundRoom).
+ */
+public class BlockingClientSession extends ClientSession {
+
+    /** 종료 시 남은 출력을 보내기 위해 기다리는 최대 시간 */
+    private static final long CLOSE_FLUSH_WAIT_MS = 5_000;
+    private static final long WRITER_POLL_MS = 1_000;
+
+    private final Socket socket;
+    private final WritableByteChannel output;
+    private final OutboundQueue outbound = OutboundQueue.create();
+    private final QueueWriter responseOut;
+    private final PrintWriter writer;
+    private final PrintWriter pushWriter;
+
+    public BlockingClientSession(Socket socket) throws IOException {
+        this.socket = socket;
+        this.output = Channels.newChannel(socket.getOutputStream());
+        this.responseOut = new QueueWriter(false);
+        this.writer = new PrintWriter(responseOut, true);
+        this.pushWriter = new PrintWriter(new QueueWriter(true), true);
+    }
+
+    /**
+     * writer 스레드 시작 (생성 직후 한 번 호출, 생성자에서 시작하면 초기화가 끝나기 전의 this가 노출됨)
+     */
+    public void start() {
+        Thread.ofVirtual().name("client-writer").start(this::drainOutbound);
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        return writer;
+    }
+
+    @Override
+    public PrintWriter getPushWriter() {
+        return pushWriter;
+    }
+
+    @Override
+    public Socket getSocket() {
+        return socket;
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return String.valueOf(socket.getInetAddress());
+    }
+
+    @Override
+    public void closeAfterFlush() {
+        writer.flush();
+        pushWriter.flush();
+        try {
+            if (!outbound.awaitEmpty(CLOSE_FLUSH_WAIT_MS)) {
+                System.err.println("[" + getRemoteAddress() + "] 남은 출력 전송 시간 초과로 연결 종료");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        close();
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (!socket.isClosed()) {
+                socket.close();
+            }
+        } catch (IOException ignored) {
+        }
+        outbound.discard();
+    }
+
+    /**
+     * outbound 큐가 한도 이하가 될 때까지 대기 (다음 요청을 읽기 전에 호출)
+     * @return 연결이 닫혔거나 대기 중 인터럽트되면 false
+     */
+    public boolean awaitOutboundRoom() {
+        try {
+            return outbound.awaitBelowLimit();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * writer 스레드: outbound 큐를 순서대로 소켓에 전송
+     */
+    private void drainOutbound() {
+        try {
+            while (!socket.isClosed()) {
+                OutboundChunk chunk = outbound.awaitHead(WRITER_POLL_MS);
+                if (chunk == null) {
+                    continue;
+                }
+                // 블로킹 채널이므로 한 번의 호출로 모두 전송됨
+                chunk.writeTo(output);
+                outbound.removeHead();
+            }
+        } catch (IOException e) {
+            if (!socket.isClosed()) {
+                System.err.println("[" + getRemoteAddress() + "] 전송 실패: " + e.getMessage());
+            }
+            close();
+        } catch (InterruptedException e) {
+            close();
+        }
+    }
+
+    /**
+     * outbound 큐에 추가, 알림이 한도를 넘으면 연결 종료 (읽기 스레드는 소켓 종료로 깨어나 세션을 정리함)
+     */
+    private void enqueue(ByteBuffer bytes, boolean droppable) {
+        if (!outbound.offer(OutboundChunk.of(bytes), droppable)) {
+            System.err.println("[" + getRemoteAddress() + "] 알림 출력 큐 초과로 연결 종료 (한도 "
+                    + outbound.getMaxBytes() + " bytes)");
+            close();
+        }
+    }
+
+    /**
+     * PrintWriter 출력을 UTF-8 바이트로 변환해 outbound 큐에 넣는 Writer
+     * 푸시용 Writer는 응답 Writer의 lock 안에서 큐에 넣어 응답 줄과 섞이지 않게 한다.
+     */
+    private class QueueWriter extends Writer {
+        private final StringBuilder buffer = new StringBuilder();
+        private final boolean push;
+
+        QueueWriter(boolean push) {
+            this.push = push;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            buffer.append(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() {
+            if (buffer.length() == 0) {
+                return;
+            }
+            if (!push) {
+                enqueueBuffer();
+                return;
+            }
+            synchronized (responseOut) {
+                enqueueBuffer();
+            }
+        }
+
+        private void enqueueBuffer() {
+            ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(buffer));
+            buffer.setLength(0);
+            enqueue(bytes, push);
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
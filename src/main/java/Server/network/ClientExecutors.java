@@ -0,0 +1,61 @@
+package Server.network;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 블로킹 모드에서 연결(handleClient)을 실행할 Executor 생성 (server.executor.mode)
+ *
+ * - platform: 연결마다 플랫폼 스레드 생성 (기존 new Thread 방식과 동일)
+ * - virtual : 연결마다 가상 스레드 생성 (소켓/파일 I/O 대기 중 캐리어 스레드를 반납)
+ * - pool    : 고정 크기 플랫폼 스레드 풀 (초과 연결은 스레드가 빌 때까지 대기)
+ *
+ * 가상 스레드는 synchronized 블록 안에서 블로킹되면 캐리어에 고정(pinning)되므로
+ * 파일 I/O를 감싸는 락은 ReentrantLock을 사용해야 한다.
+ */
+public final class ClientExecutors {
+
+    public enum Mode {
+        PLATFORM, VIRTUAL, POOL;
+
+        /**
+         * 설정 문자열을 모드로 변환 (알 수 없는 값이면 PLATFORM)
+         */
+        public static Mode parse(String value) {
+            if (value == null) {
+                return PLATFORM;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                System.err.println("[ClientExecutors] 알 수 없는 실행 모드: " + value + " → platform 사용");
+                return PLATFORM;
+            }
+        }
+    }
+
+    private ClientExecutors() {
+    }
+
+    /**
+     * @param mode 실행 모드
+     * @param poolSize pool 모드의 스레드 수 (다른 모드에서는 무시)
+     * @param namePrefix 스레드 이름 접두사 (예: "client")
+     */
+    public static ExecutorService create(Mode mode, int poolSize, String namePrefix) {
+        switch (mode) {
+            case VIRTUAL:
+                return Executors.newThreadPerTaskExecutor(
+                        Thread.ofVirtual().name(namePrefix + "-v-", 1).factory());
+            case POOL:
+                ThreadFactory pooled = Thread.ofPlatform().name(namePrefix + "-pool-", 1).factory();
+                return Executors.newFixedThreadPool(Math.max(1, poolSize), pooled);
+            case PLATFORM:
+            default:
+                return Executors.newThreadPerTaskExecutor(
+                        Thread.ofPlatform().name(namePrefix + "-", 1).factory());
+        }
+    }
+}
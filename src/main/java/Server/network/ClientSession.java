@@ -0,0 +1,138 @@
+package Server.network;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 클라이언트 연결 하나를 나타내는 세션
+ * 블로킹(스레드) 방식과 NIO 방식이 같은 SessionProcessor 로직을 공유하기 위한 추상화
+ */
+public abstract class ClientSession {
+
+    /** 로그인 세션의 소켓 → 세션 (다른 스레드가 소켓으로 연결을 끊을 때 세션 방식대로 닫기 위함) */
+    private static final ConcurrentHashMap<Socket, ClientSession> BY_SOCKET = new ConcurrentHashMap<>();
+
+    private boolean disconnected;
+    private volatile String userId;
+    private volatile boolean anonymous;
+    private volatile long lastActivityMillis = System.currentTimeMillis();
+
+    /**
+     * 클라이언트로의 출력 스트림
+     */
+    public abstract PrintWriter getWriter();
+
+    /**
+     * 서버 푸시(Observer 알림, 오프라인 알림)용 출력 스트림
+     * 출력 큐가 가득 찼을 때 drop-oldest 정책으로 버릴 수 있는 출력은 이 스트림으로 보낸다.
+     */
+    public PrintWriter getPushWriter() {
+        return getWriter();
+    }
+
+    /**
+     * 로그인 사용자 관리(loggedInUsers)에 등록할 소켓
+     */
+    public abstract Socket getSocket();
+
+    /**
+     * 접속 주소 (로깅용)
+     */
+    public abstract String getRemoteAddress();
+
+    /**
+     * 출력 대기 중인 응답을 모두 보낸 뒤 연결 종료
+     */
+    public abstract void closeAfterFlush();
+
+    /**
+     * 즉시 연결 종료
+     */
+    public abstract void close();
+
+    /**
+     * 로그인 사용자 관리(loggedInUsers)에 등록된 소켓의 연결 종료 (예: 중복 로그인 시 기존 연결)
+     * 세션을 찾으면 세션의 close()로 닫아 NIO 세션은 셀렉터 스레드에서 바로 정리되게 하고,
+     * 찾지 못하면 소켓만 닫는다.
+     */
+    public static void closeSocket(Socket socket) throws IOException {
+        ClientSession session = BY_SOCKET.get(socket);
+        if (session != null) {
+            session.close();
+        } else if (!socket.isClosed()) {
+            socket.close();
+        }
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * 로그인 성공한 사용자를 세션에 연결
+     * @return 이미 연결이 끊긴 세션이면 false
+     */
+    synchronized boolean bindUser(String userId) {
+        if (disconnected) {
+            return false;
+        }
+        this.userId = userId;
+        BY_SOCKET.put(getSocket(), this);
+        return true;
+    }
+
+    public boolean isLoggedIn() {
+        return userId != null;
+    }
+
+    /**
+     * 로그인 전 익명 세션으로 전환 (허용된 명령은 연결을 끊지 않고 계속 처리)
+     */
+    void enterAnonymous() {
+        anonymous = true;
+    }
+
+    /**
+     * 로그인하지 않은 익명 세션 여부 (LOGIN 성공 시 같은 연결에서 로그인 세션으로 전환됨)
+     */
+    public boolean isAnonymous() {
+        return anonymous && userId == null;
+    }
+
+    /**
+     * 요청 처리 후 연결을 유지하는 세션인지 (로그인 또는 익명 세션)
+     */
+    public boolean isPersistent() {
+        return userId != null || anonymous;
+    }
+
+    /**
+     * 마지막 요청 수신 시각 갱신 (익명 세션 유휴 시간 계산용)
+     */
+    public void touch() {
+        lastActivityMillis = System.currentTimeMillis();
+    }
+
+    public long getLastActivityMillis() {
+        return lastActivityMillis;
+    }
+
+    /**
+     * 연결 해제 처리가 한 번만 수행되도록 표시
+     * @return 처음 호출된 경우 true
+     */
+    synchronized boolean markDisconnected() {
+        if (disconnected) {
+            return false;
+        }
+        disconnected = true;
+        BY_SOCKET.remove(getSocket(), this);
+        return true;
+    }
+
+    public synchronized boolean isDisconnected() {
+        return disconnected;
+    }
+}
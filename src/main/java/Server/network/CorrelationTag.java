@@ -0,0 +1,136 @@
+package Server.network;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * 파이프라이닝용 요청 상관 ID (correlation ID)
+ *
+ * 요청 줄 앞에 "#{id} "를 붙이면 해당 요청의 모든 응답 줄(여러 줄 목록 포함)에 같은 접두사가 붙고,
+ * 처리가 끝나면 "#{id} DONE" 줄로 응답 종료를 알린다.
+ * 예) 요청 "#7 VIEW_MY_RESERVATIONS,S20230001" → 응답 "#7 ...", "#7 END_OF_MY_RESERVATIONS", "#7 DONE"
+ *
+ * 접두사가 없는 요청은 기존과 동일하게 처리되며, Observer 알림 등 서버 푸시 메시지에는 태그가 붙지 않는다.
+ * 한 세션의 요청은 도착 순서대로 실행되므로 클라이언트는 응답을 기다리지 않고 여러 요청을 연속으로 보낼 수 있다.
+ */
+public final class CorrelationTag {
+
+    public static final String PREFIX = "#";
+    public static final String DONE = "DONE";
+    private static final int MAX_ID_LENGTH = 32;
+
+    private final String id;
+    private final String request;
+    private TaggingWriter writer;
+
+    private CorrelationTag(String id, String request) {
+        this.id = id;
+        this.request = request;
+    }
+
+    /**
+     * 요청 줄에서 상관 ID 분리
+     * @return 태그가 없는 줄이면 null
+     * @throws IllegalArgumentException ID 형식이 잘못된 경우 (영문/숫자/-/_ 1~32자)
+     */
+    public static CorrelationTag parse(String line) {
+        if (line == null || !line.startsWith(PREFIX)) {
+            return null;
+        }
+        int space = line.indexOf(' ');
+        String id = space < 0 ? line.substring(1) : line.substring(1, space);
+        if (id.isEmpty() || id.length() > MAX_ID_LENGTH || !isValidId(id)) {
+            throw new IllegalArgumentException("잘못된 요청 ID: " + id);
+        }
+        String request = space < 0 ? "" : line.substring(space + 1);
+        return new CorrelationTag(id, request);
+    }
+
+    private static boolean isValidId(String id) {
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            boolean ok = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                    || (c >= '0' && c <= '9') || c == '-' || c == '_';
+            if (!ok) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 태그를 제외한 실제 요청
+     */
+    public String getRequest() {
+        return request;
+    }
+
+    /**
+     * 응답 줄마다 "#{id} " 접두사를 붙이는 PrintWriter
+     * 줄 단위로 target에 전달하므로 다른 스레드의 푸시 메시지와 한 줄 안에서 섞이지 않는다.
+     */
+    public PrintWriter wrap(PrintWriter target) {
+        writer = new TaggingWriter(target, PREFIX + id + " ");
+        return new PrintWriter(writer);
+    }
+
+    /**
+     * 응답 종료 표시 전송 (줄바꿈 없이 남은 출력이 있으면 먼저 한 줄로 내보냄)
+     */
+    public void complete() {
+        if (writer != null) {
+            writer.close();
+            writer.target.println(PREFIX + id + " " + DONE);
+            writer.target.flush();
+        }
+    }
+
+    /**
+     * 완성된 줄에만 접두사를 붙여 전달하는 Writer
+     * (PrintWriter가 이 객체를 lock으로 사용하므로 별도 동기화 불필요)
+     */
+    private static class TaggingWriter extends Writer {
+        private final PrintWriter target;
+        private final String prefix;
+        private final StringBuilder line = new StringBuilder();
+
+        TaggingWriter(PrintWriter target, String prefix) {
+            this.target = target;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                char c = cbuf[i];
+                if (c == '\n') {
+                    emitLine();
+                } else if (c != '\r') {
+                    line.append(c);
+                }
+            }
+        }
+
+        private void emitLine() {
+            target.println(prefix + line);
+            line.setLength(0);
+        }
+
+        @Override
+        public void flush() {
+            target.flush();
+        }
+
+        @Override
+        public void close() {
+            if (line.length() > 0) {
+                emitLine();
+            }
+            target.flush();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package Server.network;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 파일 내용을 그대로 소켓으로 보낼 수 있는 출력 스트림 (zero-copy 전송)
+ *
+ * 저장된 줄을 변환 없이 내보내는 목록 명령은 out이 이 인터페이스를 구현하면
+ * 한 줄씩 읽고 다시 println하는 대신 transferFile을 사용할 수 있다.
+ * 파일 내용은 커널에서 소켓으로 바로 복사되며(FileChannel.transferTo), 마지막 줄에 개행이 없으면 붙여 준다.
+ */
+public interface FileTransferWriter {
+
+    /**
+     * 파일 전체를 응답 스트림에 이어 붙인다 (앞서 println한 내용 뒤, 이후 println할 내용 앞)
+     * @return 현재 출력 모드에서 지원하지 않으면 false (호출자가 줄 단위로 전송해야 함)
+     * @throws IOException 파일을 열 수 없는 경우
+     */
+    boolean transferFile(Path file) throws IOException;
+}
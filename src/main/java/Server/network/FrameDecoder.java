@@ -0,0 +1,109 @@
+package Server.network;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 이진 요청 프레임 디코더 (형식은 BinaryProtocol 참고)
+ * 논블로킹 채널에서 읽은 바이트를 누적하여 완성된 프레임만 명령 매개변수로 변환한다.
+ * 필드 바이트를 바로 문자열로 디코딩하므로 요청 전체를 한 줄로 만들었다 다시 나누는 과정이 없다.
+ */
+public class FrameDecoder {
+
+    private ByteBuffer pending = ByteBuffer.allocate(256);
+
+    /**
+     * 버퍼의 읽기 가능한 바이트를 모두 소비하고 완성된 요청 목록을 반환
+     * @param buffer 읽기 모드(flip 완료)의 버퍼
+     * @throws IOException 프레임 길이나 필드 구성이 잘못된 경우 (연결을 끊어야 함)
+     */
+    public List<BinaryRequest> decode(ByteBuffer buffer) throws IOException {
+        append(buffer);
+        pending.flip();
+        List<BinaryRequest> requests = new ArrayList<>();
+        try {
+            while (pending.remaining() >= 4) {
+                int length = pending.getInt(pending.position());
+                if (length < 2 + 4 + 1 || length > BinaryProtocol.MAX_FRAME_LENGTH) {
+                    throw new IOException("잘못된 프레임 길이: " + length);
+                }
+                if (pending.remaining() < 4 + length) {
+                    break;
+                }
+                pending.getInt();
+                ByteBuffer frame = pending.slice(pending.position(), length);
+                pending.position(pending.position() + length);
+                requests.add(parseFrame(frame));
+            }
+        } finally {
+            pending.compact();
+        }
+        return requests;
+    }
+
+    private void append(ByteBuffer buffer) {
+        if (pending.remaining() < buffer.remaining()) {
+            int needed = pending.position() + buffer.remaining();
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(needed, pending.capacity() * 2));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        pending.put(buffer);
+    }
+
+    private BinaryRequest parseFrame(ByteBuffer frame) throws IOException {
+        try {
+            int opcode = Short.toUnsignedInt(frame.getShort());
+            int requestId = frame.getInt();
+            int fieldCount = Byte.toUnsignedInt(frame.get());
+
+            String commandName = BinaryProtocol.commandName(opcode);
+            int offset = commandName == null ? 0 : 1;
+            String[] params = new String[fieldCount + offset];
+            if (commandName != null) {
+                params[0] = commandName;
+            }
+            for (int i = 0; i < fieldCount; i++) {
+                params[i + offset] = readField(frame);
+            }
+            if (frame.hasRemaining()) {
+                throw new IOException("프레임 끝에 불필요한 바이트가 있습니다");
+            }
+
+            if (commandName == null) {
+                // opcode 0: 첫 필드가 명령 이름, 그 외 정의되지 않은 opcode는 알 수 없는 명령으로 처리
+                if (opcode != 0 || params.length == 0) {
+                    params = new String[]{"UNKNOWN_OPCODE_" + opcode};
+                }
+            }
+            return new BinaryRequest(requestId, params);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("프레임 필드가 프레임 길이를 넘습니다");
+        }
+    }
+
+    private String readField(ByteBuffer frame) throws IOException {
+        byte type = frame.get();
+        switch (type) {
+            case BinaryProtocol.FIELD_STRING: {
+                int length = Short.toUnsignedInt(frame.getShort());
+                if (length > frame.remaining()) {
+                    throw new IOException("문자열 필드 길이가 프레임을 넘습니다");
+                }
+                String value = new String(frame.array(), frame.arrayOffset() + frame.position(),
+                        length, StandardCharsets.UTF_8);
+                frame.position(frame.position() + length);
+                return BinaryProtocol.sanitizeField(value);
+            }
+            case BinaryProtocol.FIELD_INT:
+                return Integer.toString(frame.getInt());
+            default:
+                throw new IOException("알 수 없는 필드 타입: " + type);
+        }
+    }
+}
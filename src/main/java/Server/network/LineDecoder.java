@@ -0,0 +1,81 @@
+package Server.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 개행 단위 프로토콜 프레이밍
+ * 논블로킹 채널에서 읽은 바이트를 누적하여 완성된 줄만 꺼낸다.
+ * (BufferedReader.readLine과 동일하게 \n 또는 \r\n을 줄 끝으로 인식)
+ */
+public class LineDecoder {
+
+    public static final int DEFAULT_MAX_LINE_LENGTH = 64 * 1024;
+
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final int maxLineLength;
+
+    public LineDecoder() {
+        this(DEFAULT_MAX_LINE_LENGTH);
+    }
+
+    public LineDecoder(int maxLineLength) {
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * 버퍼의 읽기 가능한 바이트를 모두 소비하고 완성된 줄 목록을 반환
+     * @param buffer 읽기 모드(flip 완료)의 버퍼
+     * @throws IOException 한 줄이 최대 길이를 넘는 경우
+     */
+    public List<String> decode(ByteBuffer buffer) throws IOException {
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = nextLine(buffer)) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    /**
+     * 완성된 줄 하나만 꺼내고 나머지 바이트는 버퍼에 남겨 둔다.
+     * (프로토콜 전환 직후의 바이트를 다른 디코더로 넘길 때 사용)
+     * @return 줄 끝을 만나기 전에 버퍼가 비면 null
+     * @throws IOException 한 줄이 최대 길이를 넘는 경우
+     */
+    public String nextLine(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b == '\n') {
+                return takeLine();
+            }
+            pending.write(b);
+            if (pending.size() > maxLineLength) {
+                pending.reset();
+                throw new IOException("요청 길이가 최대치(" + maxLineLength + " bytes)를 초과했습니다");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 아직 줄 끝을 받지 못한 바이트 수
+     */
+    public int pendingBytes() {
+        return pending.size();
+    }
+
+    private String takeLine() {
+        byte[] bytes = pending.toByteArray();
+        pending.reset();
+        int length = bytes.length;
+        if (length > 0 && bytes[length - 1] == '\r') {
+            length--;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
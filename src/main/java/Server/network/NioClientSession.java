@@ -0,0 +1,482 @@
+package Server.network;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * NIO 리액터가 관리하는 세션
+ *
+ * - 읽기: 셀렉터 스레드가 LineDecoder로 줄을 만들어 pendingLines에 넣는다.
+ * - 처리: 한 세션의 요청은 워커 스레드에서 도착 순서대로 하나씩 실행된다.
+ * - 쓰기: 명령 응답과 알림은 flush 시점에 크기 제한이 있는 outbound 큐(OutboundQueue)에 쌓이고 셀렉터 스레드가 전송한다.
+ *   큐가 한도를 넘으면 워커는 다음 요청을 꺼내지 않고 돌아가며, 셀렉터 스레드가 한도 아래로 전송한 뒤 다시 워커에 제출한다.
+ * - "PROTOCOL,BINARY" 줄을 읽으면 워커가 협상을 수락할 때까지 읽기를 멈추고, 수락되면 그 뒤 바이트부터 FrameDecoder로 해석한다
+ *   (협상 줄이 거절되면 텍스트 줄로 계속 읽음, RequestDecoder 참고).
+ */
+class NioClientSession extends ClientSession implements BinaryFrameSession {
+
+    /** 처리 대기 줄이 이 값을 넘으면 읽기를 잠시 멈춘다 */
+    private static final int MAX_PENDING_LINES = 256;
+
+    private final NioServer server;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final String remoteAddress;
+    private final RequestDecoder decoder = new RequestDecoder();
+    private final RequestDecoder.Handler requestHandler = new RequestDecoder.Handler() {
+        @Override
+        public void onLine(String line) {
+            offer(new PendingRequest(line, null));
+        }
+
+        @Override
+        public void onFrame(BinaryRequest request) {
+            offer(new PendingRequest(null, request));
+        }
+    };
+    private final OutboundQueue outbound = OutboundQueue.create();
+    private final ChannelWriter responseOut;
+    private final SessionWriter writer;
+    private final PrintWriter pushWriter;
+
+    // pendingLines, processing, awaitingDrain은 pendingLines 객체로 동기화
+    private final Deque<PendingRequest> pendingLines = new ArrayDeque<>();
+    private boolean processing;
+    /** outbound 큐가 줄기를 기다리며 처리를 멈춘 상태 (processing은 true로 유지해 새 요청이 제출되지 않게 함) */
+    private boolean awaitingDrain;
+
+    private volatile boolean closeAfterFlush;
+    private volatile boolean binaryOutput;
+    private boolean readPaused;
+
+    NioClientSession(NioServer server, SocketChannel channel, SelectionKey key) {
+        this.server = server;
+        this.channel = channel;
+        this.key = key;
+        this.remoteAddress = String.valueOf(channel.socket().getInetAddress());
+        this.responseOut = new ChannelWriter(false);
+        this.writer = new SessionWriter(responseOut);
+        this.pushWriter = new PrintWriter(new ChannelWriter(true), true);
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        return writer;
+    }
+
+    @Override
+    public PrintWriter getPushWriter() {
+        return pushWriter;
+    }
+
+    @Override
+    public Socket getSocket() {
+        return channel.socket();
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    @Override
+    public void closeAfterFlush() {
+        closeAfterFlush = true;
+        server.requestWrite(this);
+    }
+
+    @Override
+    public void close() {
+        server.requestClose(this);
+    }
+
+    /**
+     * 협상 수락 (PROTOCOL_OK 전송 후 워커에서 호출): 출력을 프레임으로 바꾸고, 셀렉터 스레드에 FrameDecoder 전환을 요청
+     */
+    @Override
+    public void enableBinaryOutput() {
+        writer.flush();
+        pushWriter.flush();
+        binaryOutput = true;
+        server.endNegotiation(this, true);
+    }
+
+    @Override
+    public void writeFrame(ByteBuffer frame) {
+        enqueue(OutboundChunk.of(frame), false);
+    }
+
+    SocketChannel channel() {
+        return channel;
+    }
+
+    SelectionKey key() {
+        return key;
+    }
+
+    // ===== 셀렉터 스레드 전용 =====
+
+    /**
+     * 읽기 이벤트 처리
+     * @return 연결이 끊겼으면 false
+     */
+    boolean onReadable(ByteBuffer readBuffer) throws IOException {
+        readBuffer.clear();
+        int read = channel.read(readBuffer);
+        if (read < 0) {
+            return false;
+        }
+        readBuffer.flip();
+        decodeRequests(readBuffer);
+        return true;
+    }
+
+    /**
+     * 이진 프레임 협상 결과 반영: 보관한 바이트를 프레임(수락) 또는 텍스트 줄(거절)로 해석하고 읽기 재개
+     */
+    void endNegotiation(boolean accepted) throws IOException {
+        decoder.endNegotiation(accepted, requestHandler);
+        if (decoder.isNegotiating()) {
+            // 보관했던 바이트에 협상 줄이 또 있으면 그 결과를 기다림
+            return;
+        }
+        synchronized (pendingLines) {
+            if (readPaused) {
+                return;
+            }
+        }
+        if (key.isValid()) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+        }
+    }
+
+    private void decodeRequests(ByteBuffer input) throws IOException {
+        decoder.decode(input, requestHandler);
+        if (decoder.isNegotiating() && key.isValid()) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * 쓰기 이벤트 처리: outbound 큐를 가능한 만큼 전송
+     * @return 큐를 모두 비웠으면 true
+     */
+    boolean onWritable() throws IOException {
+        OutboundChunk chunk;
+        while ((chunk = outbound.peek()) != null) {
+            if (!chunk.writeTo(channel)) {
+                return false;
+            }
+            outbound.removeHead();
+        }
+        return true;
+    }
+
+    /**
+     * 연결 종료 시 전송하지 못한 항목 정리 (열린 파일 닫기)
+     */
+    void discardOutbound() {
+        outbound.discard();
+    }
+
+    boolean isCloseAfterFlush() {
+        return closeAfterFlush;
+    }
+
+    /**
+     * 종료 직전 남은 응답을 가능한 만큼 전송 (실패는 무시)
+     */
+    void flushQuietly() {
+        try {
+            onWritable();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * outbound 큐가 한도 아래로 줄었으면 멈춰 둔 요청 처리를 다시 워커에 제출
+     */
+    void resumeProcessingIfDrained() {
+        synchronized (pendingLines) {
+            if (!awaitingDrain || outbound.isBacklogged()) {
+                return;
+            }
+            awaitingDrain = false;
+        }
+        server.dispatch(this);
+    }
+
+    /**
+     * 처리 대기 줄이 줄어들면 읽기를 다시 시작
+     */
+    void resumeReadIfPossible() {
+        if (decoder.isNegotiating()) {
+            return;
+        }
+        synchronized (pendingLines) {
+            if (!readPaused || pendingLines.size() >= MAX_PENDING_LINES / 2) {
+                return;
+            }
+            readPaused = false;
+        }
+        if (key.isValid()) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+        }
+    }
+
+    private void offer(PendingRequest request) {
+        boolean dispatch = false;
+        synchronized (pendingLines) {
+            if (closeAfterFlush) {
+                return;
+            }
+            pendingLines.add(request);
+            if (!processing) {
+                processing = true;
+                dispatch = true;
+            }
+            if (pendingLines.size() >= MAX_PENDING_LINES && !readPaused) {
+                readPaused = true;
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            }
+        }
+        if (dispatch) {
+            server.dispatch(this);
+        }
+    }
+
+    // ===== 워커 스레드 =====
+
+    /**
+     * 대기 중인 요청을 순서대로 처리
+     */
+    void processPendingLines(SessionProcessor processor) {
+        while (true) {
+            if (outbound.isBacklogged() && !pauseForDrain()) {
+                return;
+            }
+            PendingRequest request;
+            boolean resume;
+            synchronized (pendingLines) {
+                request = pendingLines.poll();
+                if (request == null || isDisconnected()) {
+                    processing = false;
+                    return;
+                }
+                resume = readPaused && pendingLines.size() < MAX_PENDING_LINES / 2;
+            }
+            if (resume) {
+                server.resumeRead(this);
+            }
+
+            boolean keepOpen = request.line != null
+                    ? processor.handleLine(this, request.line)
+                    : processor.handleFrame(this, request.frame);
+            if (!keepOpen) {
+                synchronized (pendingLines) {
+                    pendingLines.clear();
+                    processing = false;
+                }
+                closeAfterFlush();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 느린 클라이언트: 응답이 한도 이상 쌓였으면 처리를 멈추고 워커를 반환
+     * @return 멈추기 직전에 큐가 이미 줄어 계속 처리해도 되면 true
+     */
+    private boolean pauseForDrain() {
+        synchronized (pendingLines) {
+            awaitingDrain = true;
+        }
+        server.requestWrite(this);
+        if (outbound.isBacklogged()) {
+            return false;
+        }
+        // 그 사이 셀렉터가 다 보냈으면 셀렉터가 다시 제출했거나, 아직이면 여기서 이어서 처리
+        synchronized (pendingLines) {
+            if (!awaitingDrain) {
+                return false;
+            }
+            awaitingDrain = false;
+            return true;
+        }
+    }
+
+    /**
+     * 워커 풀이 요청을 받을 수 없을 때 대기 요청을 모두 거절 (요청마다 응답)
+     */
+    void rejectPendingLines(SessionProcessor processor, String response) {
+        List<PendingRequest> rejected;
+        synchronized (pendingLines) {
+            rejected = new ArrayList<>(pendingLines);
+            pendingLines.clear();
+            processing = false;
+        }
+        for (PendingRequest request : rejected) {
+            if (request.line != null) {
+                processor.rejectLine(this, request.line, response);
+                if (request.line.equals(BinaryProtocol.NEGOTIATE_REQUEST)) {
+                    // 클라이언트는 PROTOCOL_OK를 받지 못했으므로 텍스트 모드로 계속 읽음
+                    server.endNegotiation(this, false);
+                }
+            } else {
+                processor.rejectFrame(this, request.frame, response);
+            }
+        }
+    }
+
+    /**
+     * outbound 큐에 추가 (호출 스레드는 소켓 전송을 기다리지 않음)
+     * @param droppable drop-oldest 정책에서 버릴 수 있는 서버 푸시인지
+     */
+    private void enqueue(OutboundChunk chunk, boolean droppable) {
+        if (!outbound.offer(chunk, droppable)) {
+            System.err.println("[NioServer] 알림 출력 큐 초과로 연결 종료 (" + remoteAddress
+                    + ", 한도 " + outbound.getMaxBytes() + " bytes)");
+            server.requestClose(this);
+            return;
+        }
+        if (isDisconnected()) {
+            // 종료 처리 이후 들어온 항목은 전송되지 않으므로 바로 정리
+            discardOutbound();
+            return;
+        }
+        server.requestWrite(this);
+    }
+
+    /**
+     * 세션 출력 스트림: 텍스트 모드에서는 파일을 zero-copy로 이어 보낼 수 있다.
+     */
+    private class SessionWriter extends PrintWriter implements FileTransferWriter {
+
+        SessionWriter(ChannelWriter out) {
+            super(out, true);
+        }
+
+        @Override
+        public boolean transferFile(Path file) throws IOException {
+            if (binaryOutput) {
+                return false;
+            }
+            FileChannel source = FileChannel.open(file, StandardOpenOption.READ);
+            long size;
+            boolean needsNewline;
+            try {
+                size = source.size();
+                needsNewline = size > 0 && lastByte(source, size) != '\n';
+            } catch (IOException e) {
+                source.close();
+                throw e;
+            }
+            // 앞서 쓴 응답과 다른 스레드의 알림 사이에 끼어들지 않도록 writer lock 안에서 순서대로 큐에 넣음
+            synchronized (lock) {
+                flush();
+                enqueue(OutboundChunk.ofFile(source, size), false);
+                if (needsNewline) {
+                    enqueue(OutboundChunk.of(ByteBuffer.wrap(new byte[]{'\n'})), false);
+                }
+            }
+            return true;
+        }
+
+        private byte lastByte(FileChannel source, long size) throws IOException {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            source.read(one, size - 1);
+            return one.get(0);
+        }
+    }
+
+    /**
+     * PrintWriter 출력을 UTF-8 바이트로 변환해 outbound 큐에 넣는 Writer
+     * (PrintWriter가 이 객체를 lock으로 사용하므로 버퍼 자체는 별도 동기화 불필요)
+     *
+     * 푸시용 Writer는 응답 Writer의 lock 안에서 큐에 넣어, 응답 도중에 알림이 끼어드는 순서가 기존과 같게 한다.
+     */
+    private class ChannelWriter extends Writer {
+        private final StringBuilder buffer = new StringBuilder();
+        private final boolean push;
+
+        ChannelWriter(boolean push) {
+            this.push = push;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            buffer.append(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() {
+            if (buffer.length() == 0) {
+                return;
+            }
+            if (!push) {
+                enqueueBuffer();
+                return;
+            }
+            synchronized (responseOut) {
+                enqueueBuffer();
+            }
+        }
+
+        private void enqueueBuffer() {
+            if (binaryOutput) {
+                flushAsPushFrames();
+                return;
+            }
+            ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(buffer));
+            buffer.setLength(0);
+            enqueue(OutboundChunk.of(bytes), push);
+        }
+
+        /**
+         * 이진 모드: 완성된 줄마다 PUSH 프레임으로 전송 (줄바꿈 전 내용은 남겨 둠)
+         */
+        private void flushAsPushFrames() {
+            int start = 0;
+            int newline;
+            while ((newline = buffer.indexOf("\n", start)) >= 0) {
+                int end = newline > start && buffer.charAt(newline - 1) == '\r' ? newline - 1 : newline;
+                enqueue(OutboundChunk.of(
+                        BinaryProtocol.encodeResponse(BinaryProtocol.KIND_PUSH, 0, buffer.substring(start, end))), push);
+                start = newline + 1;
+            }
+            buffer.delete(0, start);
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+
+    /**
+     * 처리 대기 요청 (텍스트 줄 또는 이진 프레임 중 하나)
+     */
+    private static final class PendingRequest {
+        final String line;
+        final BinaryRequest frame;
+
+        PendingRequest(String line, BinaryRequest frame) {
+            this.line = line;
+            this.frame = frame;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package Server.network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 논블로킹 Acceptor/Reactor 서버 (server.io.mode=nio)
+ *
+ * 셀렉터 스레드 하나가 accept/read/write 이벤트를 모두 처리하고,
+ * 완성된 요청 줄은 고정 크기 워커 풀에서 SessionProcessor로 실행한다.
+ * 대기 중인(유휴) 연결은 스레드를 점유하지 않으므로 수천 개의 세션을 소수의 스레드로 유지할 수 있다.
+ */
+public class NioServer {
+
+    /** 유휴 세션 정리 주기 (응답마다 셀렉터가 깨어나도 전체 세션 순회는 이 주기로만) */
+    private static final long SWEEP_INTERVAL_MS = 1000;
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    private final InetSocketAddress address;
+    private final int backlog;
+    private final SessionProcessor processor;
+    private final ThreadPoolExecutor workers;
+
+    private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<>();
+    private final Set<NioClientSession> sessions = ConcurrentHashMap.newKeySet();
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+    private volatile Selector selector;
+    private volatile boolean running;
+
+    public NioServer(InetSocketAddress address, int backlog, SessionProcessor processor,
+            int workerThreads, int workerQueueCapacity) {
+        this.address = address;
+        this.backlog = backlog;
+        this.processor = processor;
+        this.workers = new ThreadPoolExecutor(
+                workerThreads, workerThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerQueueCapacity),
+                new NamedThreadFactory("nio-worker"));
+        processor.getAdmissionController().bindWorkerPool(workers);
+    }
+
+    /**
+     * 이벤트 루프 실행 (shutdown() 호출 전까지 반환하지 않음)
+     */
+    public void run() throws IOException {
+        try (Selector sel = Selector.open();
+             ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            selector = sel;
+            serverChannel.configureBlocking(false);
+            serverChannel.bind(address, backlog);
+            serverChannel.register(sel, SelectionKey.OP_ACCEPT);
+            running = true;
+
+            System.out.println("[NioServer] 이벤트 루프 시작: " + address
+                    + " (워커 " + workers.getMaximumPoolSize() + "개)");
+
+            long nextSweep = System.currentTimeMillis() + SWEEP_INTERVAL_MS;
+            while (running) {
+                sel.select(Math.max(1, nextSweep - System.currentTimeMillis()));
+                runSelectorTasks();
+
+                Iterator<SelectionKey> it = sel.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    handleKey(serverChannel, key);
+                }
+
+                long now = System.currentTimeMillis();
+                if (now >= nextSweep) {
+                    sweepSessions(now);
+                    nextSweep = now + SWEEP_INTERVAL_MS;
+                }
+            }
+        } finally {
+            running = false;
+            for (NioClientSession session : new ArrayList<>(sessions)) {
+                session.flushQuietly();
+                closeSession(session);
+            }
+            workers.shutdown();
+            System.out.println("[NioServer] 이벤트 루프 종료");
+        }
+    }
+
+    /**
+     * 서버 종료 요청 (어느 스레드에서나 호출 가능)
+     */
+    public void shutdown() {
+        running = false;
+        Selector sel = selector;
+        if (sel != null) {
+            sel.wakeup();
+        }
+    }
+
+    /**
+     * 현재 연결된 세션 수
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    private void handleKey(ServerSocketChannel serverChannel, SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept(serverChannel);
+            return;
+        }
+
+        NioClientSession session = (NioClientSession) key.attachment();
+        try {
+            if (key.isReadable() && !session.onReadable(readBuffer)) {
+                closeSession(session);
+                return;
+            }
+            if (key.isValid() && key.isWritable()) {
+                flush(session);
+            }
+        } catch (IOException | CancelledKeyException e) {
+            System.err.println("[NioServer] 연결 오류 (" + session.getRemoteAddress() + "): " + e.getMessage());
+            closeSession(session);
+        }
+    }
+
+    private void accept(ServerSocketChannel serverChannel) {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                NioClientSession session = new NioClientSession(this, channel, key);
+                key.attach(session);
+                sessions.add(session);
+                System.out.println("새 클라이언트 접속: " + session.getRemoteAddress());
+            }
+        } catch (IOException e) {
+            System.err.println("[NioServer] accept 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * outbound 큐 전송, 다 보냈으면 OP_WRITE 해제 (closeAfterFlush면 연결 종료)
+     * 큐가 한도 아래로 줄면 전송을 기다리던 세션의 요청 처리를 재개한다.
+     */
+    private void flush(NioClientSession session) throws IOException {
+        SelectionKey key = session.key();
+        boolean drained = session.onWritable();
+        session.resumeProcessingIfDrained();
+        if (drained) {
+            if (session.isCloseAfterFlush()) {
+                closeSession(session);
+            } else if (key.isValid()) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            }
+        } else if (key.isValid()) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * 유휴 시간이 지난 익명 세션 정리 (SWEEP_INTERVAL_MS마다)
+     * 다른 스레드에서 닫는 세션은 requestClose로 바로 정리되며, 여기서는 그 밖의 경로로 닫힌 채널만 함께 거둔다.
+     */
+    private void sweepSessions(long now) {
+        List<NioClientSession> closed = new ArrayList<>();
+        for (NioClientSession session : sessions) {
+            if (!session.channel().isOpen()) {
+                closed.add(session);
+            } else if (processor.isIdleExpired(session, now)) {
+                System.out.println("[NioServer] 익명 세션 유휴 시간 초과로 종료: " + session.getRemoteAddress());
+                closed.add(session);
+            }
+        }
+        for (NioClientSession session : closed) {
+            closeSession(session);
+        }
+    }
+
+    private void closeSession(NioClientSession session) {
+        if (!sessions.remove(session)) {
+            return;
+        }
+        session.key().cancel();
+        try {
+            session.channel().close();
+        } catch (IOException ignored) {
+        }
+        processor.onDisconnect(session);
+        session.discardOutbound();
+    }
+
+    private void runSelectorTasks() {
+        Runnable task;
+        while ((task = selectorTasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (CancelledKeyException ignored) {
+            } catch (RuntimeException e) {
+                System.err.println("[NioServer] 셀렉터 작업 오류: " + e.getMessage());
+            }
+        }
+    }
+
+    private void runOnSelector(Runnable task) {
+        selectorTasks.add(task);
+        Selector sel = selector;
+        if (sel != null) {
+            sel.wakeup();
+        }
+    }
+
+    // ===== NioClientSession에서 호출 =====
+
+    void requestWrite(NioClientSession session) {
+        runOnSelector(() -> {
+            try {
+                if (sessions.contains(session)) {
+                    flush(session);
+                }
+            } catch (IOException e) {
+                System.err.println("[NioServer] 전송 실패 (" + session.getRemoteAddress() + "): " + e.getMessage());
+                closeSession(session);
+            }
+        });
+    }
+
+    void requestClose(NioClientSession session) {
+        runOnSelector(() -> closeSession(session));
+    }
+
+    void resumeRead(NioClientSession session) {
+        runOnSelector(session::resumeReadIfPossible);
+    }
+
+    /**
+     * 이진 프레임 협상 결과를 셀렉터 스레드에서 반영 (세션 입력 해석기는 셀렉터 스레드 전용)
+     */
+    void endNegotiation(NioClientSession session, boolean accepted) {
+        runOnSelector(() -> {
+            if (!sessions.contains(session)) {
+                return;
+            }
+            try {
+                session.endNegotiation(accepted);
+            } catch (IOException e) {
+                System.err.println("[NioServer] 요청 해석 실패 (" + session.getRemoteAddress() + "): " + e.getMessage());
+                closeSession(session);
+            }
+        });
+    }
+
+    /**
+     * 세션의 대기 요청 처리를 워커 풀에 제출
+     */
+    void dispatch(NioClientSession session) {
+        try {
+            workers.execute(() -> session.processPendingLines(processor));
+        } catch (RejectedExecutionException e) {
+            System.err.println("[NioServer] 워커 큐 포화 - 요청 거절: " + session.getRemoteAddress());
+            session.rejectPendingLines(processor, processor.busyResponse("서버 요청이 많습니다. 잠시 후 다시 시도해주세요."));
+        }
+    }
+
+    /**
+     * 워커 스레드 이름 지정용 ThreadFactory
+     */
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger sequence = new AtomicInteger(1);
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + "-" + sequence.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package Server.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 세션 출력 큐 항목 (세션의 전송 담당 스레드에서 전송)
+ */
+interface OutboundChunk {
+
+    /**
+     * @return 모두 보냈으면 true, 소켓 버퍼가 가득 차 남았으면 false
+     */
+    boolean writeTo(WritableByteChannel channel) throws IOException;
+
+    /**
+     * 큐 용량 계산에 포함되는 메모리 크기 (파일 구간은 메모리를 차지하지 않으므로 0)
+     */
+    long size();
+
+    default void release() {
+    }
+
+    static OutboundChunk of(ByteBuffer buffer) {
+        return new BufferChunk(buffer);
+    }
+
+    static OutboundChunk ofFile(FileChannel source, long size) {
+        return new FileChunk(source, size);
+    }
+
+    final class BufferChunk implements OutboundChunk {
+        private final ByteBuffer buffer;
+        private final int size;
+
+        BufferChunk(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.size = buffer.remaining();
+        }
+
+        @Override
+        public boolean writeTo(WritableByteChannel channel) throws IOException {
+            channel.write(buffer);
+            return !buffer.hasRemaining();
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+    }
+
+    /**
+     * 파일 구간을 FileChannel.transferTo로 전송 (사용자 공간 복사 없음)
+     * 큐에 넣을 때의 크기까지만 보내며, 그 사이 파일이 줄어들면 남은 만큼만 보내고 끝낸다.
+     */
+    final class FileChunk implements OutboundChunk {
+        private final FileChannel source;
+        private final long end;
+        private long position;
+
+        FileChunk(FileChannel source, long size) {
+            this.source = source;
+            this.end = size;
+        }
+
+        @Override
+        public boolean writeTo(WritableByteChannel channel) throws IOException {
+            while (position < end) {
+                long sent = source.transferTo(position, end - position, channel);
+                if (sent == 0) {
+                    if (position >= source.size()) {
+                        return true;
+                    }
+                    return false;
+                }
+                position += sent;
+            }
+            return true;
+        }
+
+        @Override
+        public long size() {
+            return 0;
+        }
+
+        @Override
+        public void release() {
+            try {
+                source.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package Server.network;
+
+import Server.ServerConfig;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 세션별 출력 큐 (크기 제한)
+ *
+ * 명령 응답과 Observer 알림은 소켓에 직접 쓰지 않고 이 큐에 넣기만 하며,
+ * 세션의 전송 담당(nio: 셀렉터 스레드, blocking: 세션 전용 writer 스레드)이 꺼내 전송한다.
+ * 따라서 강의실 잠금(RoomLocks)을 잡은 명령 스레드가 느린 클라이언트 때문에 멈추지 않는다.
+ *
+ * 쌓인 서버 푸시(알림) 바이트가 server.outbound.max.bytes를 넘으면 server.outbound.overflow 정책을 따른다.
+ * - disconnect : 연결 종료 (기본)
+ * - drop-oldest: 가장 오래된 알림부터 버림 (전송 중인 맨 앞 알림만 남아 공간이 안 나면 연결 종료)
+ * 명령 응답은 한도와 관계없이 모두 받아 응답 하나가 한도보다 커도 잘리지 않는다. 대신 전체 바이트가 한도를 넘은 동안
+ * 세션은 다음 요청을 처리하지 않고 전송이 따라잡기를 기다리므로(isBacklogged), 읽지 않는 클라이언트의 응답도 무한히 쌓이지 않는다.
+ */
+public final class OutboundQueue {
+
+    public enum OverflowPolicy {
+        DISCONNECT, DROP_OLDEST;
+
+        /**
+         * 설정 문자열을 정책으로 변환 (알 수 없는 값이면 DISCONNECT)
+         */
+        public static OverflowPolicy parse(String value) {
+            if (value == null) {
+                return DISCONNECT;
+            }
+            try {
+                return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                System.err.println("[OutboundQueue] 알 수 없는 overflow 정책: " + value + " → disconnect 사용");
+                return DISCONNECT;
+            }
+        }
+    }
+
+    private final long maxBytes;
+    private final OverflowPolicy policy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    private long queuedBytes;
+    /** queuedBytes 중 서버 푸시 바이트 (한도 적용 대상) */
+    private long pushBytes;
+    private long droppedCount;
+    private boolean closed;
+
+    public OutboundQueue(long maxBytes, OverflowPolicy policy) {
+        this.maxBytes = maxBytes;
+        this.policy = policy;
+    }
+
+    /**
+     * config.properties 값으로 생성
+     */
+    static OutboundQueue create() {
+        return new OutboundQueue(Settings.MAX_BYTES, Settings.POLICY);
+    }
+
+    /**
+     * 항목 추가
+     * @param droppable 서버 푸시 알림인지 (한도 적용 대상, drop-oldest 정책에서 버릴 수 있음)
+     * @return 알림이 한도를 넘어 연결을 끊어야 하면 false (명령 응답은 항상 true, 이미 닫힌 큐면 항목을 정리하고 true)
+     */
+    boolean offer(OutboundChunk chunk, boolean droppable) {
+        lock.lock();
+        try {
+            if (closed) {
+                chunk.release();
+                return true;
+            }
+            entries.add(new Entry(chunk, droppable));
+            queuedBytes += chunk.size();
+            notEmpty.signal();
+            if (!droppable) {
+                return true;
+            }
+            pushBytes += chunk.size();
+            if (pushBytes <= maxBytes) {
+                return true;
+            }
+            if (policy == OverflowPolicy.DROP_OLDEST) {
+                dropOldestDroppable();
+            }
+            return pushBytes <= maxBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 맨 앞 항목은 전송 중일 수 있으므로 건너뛰고, 오래된 알림부터 알림 바이트가 한도 이하가 될 때까지 제거
+     */
+    private void dropOldestDroppable() {
+        Iterator<Entry> it = entries.iterator();
+        if (it.hasNext()) {
+            it.next();
+        }
+        while (pushBytes > maxBytes && it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.droppable) {
+                it.remove();
+                queuedBytes -= entry.chunk.size();
+                pushBytes -= entry.chunk.size();
+                entry.chunk.release();
+                droppedCount++;
+            }
+        }
+    }
+
+    /**
+     * 전송할 맨 앞 항목 (없으면 null)
+     */
+    OutboundChunk peek() {
+        lock.lock();
+        try {
+            Entry head = entries.peekFirst();
+            return head == null ? null : head.chunk;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 항목이 들어올 때까지 대기 (blocking 모드 writer 스레드용)
+     * @return 시간 초과 또는 닫힌 큐면 null
+     */
+    OutboundChunk awaitHead(long timeoutMillis) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while (entries.isEmpty() && !closed) {
+                if (remaining <= 0) {
+                    return null;
+                }
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+            Entry head = entries.peekFirst();
+            return head == null ? null : head.chunk;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 전송을 마친 맨 앞 항목 제거
+     */
+    void removeHead() {
+        Entry head;
+        lock.lock();
+        try {
+            head = entries.pollFirst();
+            if (head == null) {
+                return;
+            }
+            queuedBytes -= head.chunk.size();
+            if (head.droppable) {
+                pushBytes -= head.chunk.size();
+            }
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        head.chunk.release();
+    }
+
+    boolean isEmpty() {
+        lock.lock();
+        try {
+            return entries.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 쌓인 바이트(응답 + 알림)가 한도를 넘었는지 (넘은 동안 세션은 다음 요청을 처리하지 않음)
+     */
+    boolean isBacklogged() {
+        lock.lock();
+        try {
+            return queuedBytes > maxBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 쌓인 바이트가 한도 이하가 될 때까지 대기 (blocking 모드 읽기 스레드용)
+     * @return 한도 이하가 되었으면 true, 큐가 닫혔으면 false
+     */
+    boolean awaitBelowLimit() throws InterruptedException {
+        lock.lock();
+        try {
+            while (queuedBytes > maxBytes && !closed) {
+                notEmpty.await();
+            }
+            return !closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 큐가 빌 때까지 대기
+     * @return 제한 시간 안에 비었으면 true
+     */
+    boolean awaitEmpty(long timeoutMillis) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while (!entries.isEmpty() && !closed) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+            return entries.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 연결 종료 시 전송하지 못한 항목 정리 (열린 파일 닫기), 이후 추가되는 항목은 바로 정리
+     */
+    void discard() {
+        Deque<Entry> remaining;
+        lock.lock();
+        try {
+            closed = true;
+            remaining = new ArrayDeque<>(entries);
+            entries.clear();
+            queuedBytes = 0;
+            pushBytes = 0;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Entry entry : remaining) {
+            entry.chunk.release();
+        }
+    }
+
+    public long getQueuedBytes() {
+        lock.lock();
+        try {
+            return queuedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return droppedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    private static final class Entry {
+        final OutboundChunk chunk;
+        final boolean droppable;
+
+        Entry(OutboundChunk chunk, boolean droppable) {
+            this.chunk = chunk;
+            this.droppable = droppable;
+        }
+    }
+
+    /**
+     * 설정값은 처음 세션을 만들 때 한 번만 읽는다
+     */
+    private static final class Settings {
+        static final long MAX_BYTES = ServerConfig.getLong("server.outbound.max.bytes", 1024 * 1024);
+        static final OverflowPolicy POLICY =
+                OverflowPolicy.parse(ServerConfig.getString("server.outbound.overflow", "disconnect"));
+    }
+}
@@ -0,0 +1,95 @@
+package Server.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 세션 입력 해석기: 텍스트 줄(LineDecoder)로 읽다가 이진 프레임 협상이 수락되면 FrameDecoder로 전환
+ *
+ * "PROTOCOL,BINARY" 줄을 읽으면 협상 결과가 나올 때까지 그 뒤 바이트를 해석하지 않고 보관한다 (세션은 읽기도 멈춤).
+ * 워커가 PROTOCOL_OK를 보낸 뒤 수락하면 보관한 바이트부터 프레임으로 읽고,
+ * 협상 줄이 거절되면(워커 큐 포화 등) 클라이언트는 텍스트 모드 그대로이므로 계속 줄로 읽는다.
+ * 셀렉터 스레드에서만 사용한다.
+ */
+final class RequestDecoder {
+
+    /**
+     * 해석한 요청을 받는 쪽 (도착 순서대로 호출)
+     */
+    interface Handler {
+        void onLine(String line);
+
+        void onFrame(BinaryRequest request);
+    }
+
+    private final LineDecoder lines = new LineDecoder();
+    private FrameDecoder frames;
+    private boolean negotiating;
+    private ByteBuffer held;
+
+    /**
+     * 읽은 바이트 해석 (협상 중이면 남은 바이트는 보관)
+     * @throws IOException 줄이 너무 길거나 프레임이 잘못된 경우 (연결을 끊어야 함)
+     */
+    void decode(ByteBuffer input, Handler handler) throws IOException {
+        while (input.hasRemaining()) {
+            if (negotiating) {
+                hold(input);
+                return;
+            }
+            if (frames != null) {
+                for (BinaryRequest request : frames.decode(input)) {
+                    handler.onFrame(request);
+                }
+                return;
+            }
+            String line = lines.nextLine(input);
+            if (line == null) {
+                return;
+            }
+            if (line.equals(BinaryProtocol.NEGOTIATE_REQUEST)) {
+                negotiating = true;
+            }
+            handler.onLine(line);
+        }
+    }
+
+    /**
+     * 협상 결과 반영 후 보관한 바이트 해석
+     * @param accepted PROTOCOL_OK를 보냈으면 true, 협상 줄이 거절되었으면 false
+     */
+    void endNegotiation(boolean accepted, Handler handler) throws IOException {
+        if (!negotiating) {
+            return;
+        }
+        negotiating = false;
+        if (accepted) {
+            frames = new FrameDecoder();
+        }
+        ByteBuffer rest = held;
+        held = null;
+        if (rest != null) {
+            rest.flip();
+            decode(rest, handler);
+        }
+    }
+
+    /**
+     * 협상 결과를 기다리는 중인지 (이 동안 세션은 읽기를 멈춤)
+     */
+    boolean isNegotiating() {
+        return negotiating;
+    }
+
+    private void hold(ByteBuffer input) {
+        if (held == null) {
+            held = ByteBuffer.allocate(Math.max(input.remaining(), 256));
+        } else if (held.remaining() < input.remaining()) {
+            ByteBuffer grown = ByteBuffer.allocate(held.position() + input.remaining());
+            held.flip();
+            grown.put(held);
+            held = grown;
+        }
+        held.put(input);
+    }
+}
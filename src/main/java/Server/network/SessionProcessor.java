@@ -0,0 +1,397 @@
+package Server.network;
+
+import Server.OfflineNotificationHelper;
+import Server.commands.Command;
+import Server.commands.CommandFactory;
+import Server.commands.CommandInvoker;
+import Server.ServerConfig;
+import common.observer.ReservationSubject;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 세션 단위 요청 처리기
+ * 한 줄 요청을 받아 CommandInvoker로 실행하고, 로그인/로그아웃에 따른 세션 상태를 관리한다.
+ *
+ * 프로토콜 규칙 (기존 LoginServer.handleClient 동작과 동일):
+ * - 로그인 전: 요청 1개 처리 후 연결 종료 (LOGIN 성공 시에만 세션 유지)
+ * - 로그인 후: EXIT 수신 시 LOGOUT_SUCCESS 응답 후 종료, INIT은 무시
+ *
+ * 익명 세션: 로그인 전 "SESSION,ANONYMOUS"를 보내면 허용 목록(server.anonymous.commands)의 명령은
+ * 연결을 유지한 채 계속 처리하고, LOGIN 성공 시 같은 연결이 로그인 세션으로 전환된다.
+ * 허용되지 않은 명령은 ERROR:AUTH_REQUIRED로 거절하며, 유휴 시간(server.anonymous.idle.ms)이 지나면 연결을 끊는다.
+ *
+ * 이진 프레임: "PROTOCOL,BINARY" 협상 후 길이 접두 프레임으로 요청/응답 (BinaryProtocol 참고, nio 모드 전용).
+ *
+ * 파이프라이닝: 요청 앞에 "#{id} "를 붙이면 응답 줄마다 같은 ID가 붙고 "#{id} DONE"으로 끝난다 (CorrelationTag 참고).
+ *
+ * 부하 제어: LOGIN은 AdmissionController의 세션 슬롯을 확보해야 하며(부족하면 대기 후 거절),
+ * 그 밖의 명령은 과부하 시 ERROR:SERVER_BUSY:{재시도ms}:{메시지} 로 즉시 거절한다.
+ */
+public class SessionProcessor {
+
+    /** 익명 세션에서 허용하는 기본 명령 (조회/회원가입) */
+    private static final String DEFAULT_ANONYMOUS_COMMANDS =
+            "GET_CLASSROOMS,GET_LABS,GET_ROOM_INFO,CHECK_ROOM_STATUS,REGISTER";
+
+    private final CommandFactory commandFactory;
+    private final ConcurrentHashMap<String, Socket> loggedInUsers;
+    private final AtomicInteger currentClients;
+    private final AdmissionController admission;
+    private final Runnable shutdownHandler;
+    private final Set<String> anonymousCommands;
+    private final long anonymousIdleMillis;
+
+    public SessionProcessor(CommandFactory commandFactory,
+            ConcurrentHashMap<String, Socket> loggedInUsers,
+            AtomicInteger currentClients,
+            AdmissionController admission,
+            Runnable shutdownHandler) {
+        this.commandFactory = commandFactory;
+        this.loggedInUsers = loggedInUsers;
+        this.currentClients = currentClients;
+        this.admission = admission;
+        this.shutdownHandler = shutdownHandler;
+        this.anonymousCommands = parseCommandList(
+                ServerConfig.getString("server.anonymous.commands", DEFAULT_ANONYMOUS_COMMANDS));
+        this.anonymousIdleMillis = ServerConfig.getLong("server.anonymous.idle.ms", 60_000);
+    }
+
+    private static Set<String> parseCommandList(String value) {
+        Set<String> commands = new HashSet<>();
+        for (String name : value.split(",")) {
+            if (!name.trim().isEmpty()) {
+                commands.add(name.trim());
+            }
+        }
+        return Collections.unmodifiableSet(commands);
+    }
+
+    /**
+     * 익명 세션 유휴 제한 시간 (0 이하면 제한 없음)
+     */
+    public long getAnonymousIdleMillis() {
+        return anonymousIdleMillis;
+    }
+
+    /**
+     * 익명 세션이 유휴 제한 시간을 넘겼는지
+     */
+    public boolean isIdleExpired(ClientSession session, long now) {
+        return session.isAnonymous() && anonymousIdleMillis > 0
+                && now - session.getLastActivityMillis() > anonymousIdleMillis;
+    }
+
+    public AdmissionController getAdmissionController() {
+        return admission;
+    }
+
+    /**
+     * 과부하 거절 응답 (재시도 권장 대기 시간 포함)
+     */
+    public String busyResponse(String message) {
+        return "ERROR:SERVER_BUSY:" + admission.getRetryAfterMs() + ":" + message;
+    }
+
+    /**
+     * 요청 한 줄 처리
+     * @param session 요청을 보낸 세션
+     * @param request 수신된 요청 (개행 제외)
+     * @return 연결을 유지하면 true, 응답 후 종료해야 하면 false
+     */
+    public boolean handleLine(ClientSession session, String request) {
+        session.touch();
+
+        // 이진 프레임 협상 (세션이 지원하면 이후 요청/응답은 프레임으로 교환)
+        if (request.equals(BinaryProtocol.NEGOTIATE_REQUEST)) {
+            return negotiateBinary(session);
+        }
+
+        CorrelationTag tag;
+        try {
+            tag = CorrelationTag.parse(request);
+        } catch (IllegalArgumentException e) {
+            PrintWriter out = session.getWriter();
+            out.println("ERROR:INVALID_INPUT:" + e.getMessage());
+            out.flush();
+            return session.isPersistent();
+        }
+
+        if (tag == null) {
+            return handleRequest(session, request.split(","), request, session.getWriter());
+        }
+
+        // 파이프라이닝: 응답 줄마다 상관 ID를 붙이고 마지막에 DONE 전송
+        PrintWriter tagged = tag.wrap(session.getWriter());
+        try {
+            return handleRequest(session, tag.getRequest().split(","), tag.getRequest(), tagged);
+        } finally {
+            tag.complete();
+        }
+    }
+
+    /**
+     * 이진 프레임 요청 처리 (응답은 LINE 프레임들과 DONE 프레임)
+     * @return 연결을 유지하면 true, 응답 후 종료해야 하면 false
+     */
+    public <S extends ClientSession & BinaryFrameSession> boolean handleFrame(S session, BinaryRequest request) {
+        session.touch();
+        PrintWriter out = BinaryProtocol.responseWriter(session, request.getRequestId());
+        try {
+            String[] params = request.getParams();
+            return handleRequest(session, params, "[BINARY] " + params[0], out);
+        } finally {
+            BinaryProtocol.complete(out, session, request.getRequestId());
+        }
+    }
+
+    /**
+     * 실행하지 못한 이진 요청에 거절 응답 전송 (워커 큐 포화 시)
+     */
+    public void rejectFrame(BinaryFrameSession session, BinaryRequest request, String response) {
+        PrintWriter out = BinaryProtocol.responseWriter(session, request.getRequestId());
+        out.println(response);
+        BinaryProtocol.complete(out, session, request.getRequestId());
+    }
+
+    private boolean negotiateBinary(ClientSession session) {
+        PrintWriter out = session.getWriter();
+        if (!(session instanceof BinaryFrameSession)) {
+            out.println("ERROR:UNSUPPORTED:이진 프레임은 nio 모드에서만 지원됩니다");
+            out.flush();
+            return session.isPersistent();
+        }
+        out.println(BinaryProtocol.NEGOTIATE_OK);
+        out.flush();
+        ((BinaryFrameSession) session).enableBinaryOutput();
+        System.out.println("[" + session.getRemoteAddress() + "] 이진 프레임 프로토콜로 전환");
+        return true;
+    }
+
+    /**
+     * 실행하지 못한 요청에 거절 응답 전송 (워커 큐 포화 시)
+     * 상관 ID가 있는 요청이면 같은 ID로 응답한다.
+     */
+    public void rejectLine(ClientSession session, String request, String response) {
+        CorrelationTag tag;
+        try {
+            tag = CorrelationTag.parse(request);
+        } catch (IllegalArgumentException e) {
+            tag = null;
+        }
+        if (tag == null) {
+            session.getWriter().println(response);
+            session.getWriter().flush();
+            return;
+        }
+        PrintWriter tagged = tag.wrap(session.getWriter());
+        tagged.println(response);
+        tag.complete();
+    }
+
+    /**
+     * @param params 요청 매개변수 (params[0]이 명령 이름)
+     * @param display 로그 출력용 요청 표현
+     */
+    private boolean handleRequest(ClientSession session, String[] params, String display, PrintWriter out) {
+        if (session.isLoggedIn()) {
+            return handleLoggedInRequest(session, params, display, out);
+        }
+        return handleFirstRequest(session, params, display, out);
+    }
+
+    private static boolean isCommand(String[] params, String name) {
+        return params.length == 1 && params[0].equalsIgnoreCase(name);
+    }
+
+    /**
+     * 로그인 전 요청 처리
+     */
+    private boolean handleFirstRequest(ClientSession session, String[] params, String display, PrintWriter out) {
+        System.out.println("수신된 요청: " + display);
+
+        // SHUTDOWN 명령 처리
+        if (isCommand(params, "SHUTDOWN")) {
+            out.println("SERVER_SHUTTING_DOWN");
+            out.flush();
+            shutdownHandler.run();
+            return false;
+        }
+
+        // 익명 세션 시작
+        if (params.length == 2 && params[0].equals("SESSION") && params[1].equals("ANONYMOUS")) {
+            session.enterAnonymous();
+            out.println("ANONYMOUS_SESSION_OK");
+            out.flush();
+            return true;
+        }
+
+        boolean loginRequest = params[0].equals("LOGIN");
+        if (session.isAnonymous() && !loginRequest) {
+            if (isCommand(params, "EXIT")) {
+                out.println("SESSION_CLOSED");
+                out.flush();
+                return false;
+            }
+            if (!anonymousCommands.contains(params[0])) {
+                out.println("ERROR:AUTH_REQUIRED:로그인이 필요한 명령입니다");
+                out.flush();
+                return true;
+            }
+        }
+
+        if (loginRequest && !admission.tryAdmitSession()) {
+            System.out.println("[Admission] 세션 슬롯 부족으로 로그인 거절");
+            out.println(busyResponse("접속자가 많습니다. 잠시 후 다시 시도해주세요."));
+            out.flush();
+            return session.isPersistent();
+        }
+
+        String response = execute(params, null, out);
+
+        // 로그인 성공 시 세션 등록 (실패하면 확보한 슬롯 반환)
+        if (loginRequest) {
+            if (response != null && response.startsWith("SUCCESS")
+                    && registerLogin(session, params[1])) {
+                return true;
+            }
+            admission.releaseSession();
+        }
+
+        // REGISTER 명령 처리
+        if (params[0].equals("REGISTER") && response != null) {
+            System.out.println("회원가입 처리 완료: " + response);
+        }
+        // 익명 세션은 연결 유지, 그 외에는 기존처럼 응답 후 종료
+        return session.isPersistent();
+    }
+
+    /**
+     * 로그인 후 후속 메시지 처리
+     */
+    private boolean handleLoggedInRequest(ClientSession session, String[] params, String display, PrintWriter out) {
+        String userId = session.getUserId();
+
+        // 로그아웃
+        if (isCommand(params, "EXIT")) {
+            out.println("LOGOUT_SUCCESS");
+            out.flush();
+            System.out.println("[" + userId + "] 로그아웃 요청 수신.");
+            return false;
+        }
+
+        // INIT 메시지 무시
+        if (params.length == 1 && params[0].equals("INIT")) {
+            System.out.println("[" + userId + "] INIT 메시지 수신 (연결 확인)");
+            return true;
+        }
+
+        System.out.println("[" + userId + "] 후속 메시지 수신: " + display);
+        execute(params, userId, out);
+        return true;
+    }
+
+    /**
+     * CommandInvoker를 통한 명령 실행 및 응답 전송
+     * @return 명령 응답 (이미 out으로 응답한 경우 null)
+     */
+    private String execute(String[] params, String userId, PrintWriter out) {
+        String commandName = params.length > 0 ? params[0] : "UNKNOWN";
+
+        Command command = commandFactory.createCommand(params, userId);
+        if (command == null) {
+            out.println("ERROR:UNKNOWN_COMMAND:알 수 없는 명령입니다");
+            out.flush();
+            return null;
+        }
+
+        // 과부하 시 부하 차단 (LOGIN은 세션 슬롯으로 제어, 지표 조회는 항상 허용)
+        if (isSheddable(commandName)) {
+            if (!admission.tryBeginCommand()) {
+                System.out.println("[Admission] 과부하로 요청 거절: " + commandName);
+                out.println(busyResponse("서버 요청이 많습니다. 잠시 후 다시 시도해주세요."));
+                out.flush();
+                return null;
+            }
+        } else {
+            admission.beginCommand();
+        }
+
+        long start = System.nanoTime();
+        try {
+            CommandInvoker invoker = new CommandInvoker();
+            invoker.setCommand(command, commandName);
+
+            // 예외 처리는 invoker가 자동으로 수행
+            String response = invoker.execute(params, null, out);
+            if (response != null) {
+                out.println(response);
+            }
+            out.flush();
+            return response;
+        } finally {
+            admission.endCommand(start);
+        }
+    }
+
+    private boolean isSheddable(String commandName) {
+        return !commandName.equals("LOGIN") && !commandName.equals("GET_SERVER_METRICS");
+    }
+
+    /**
+     * 로그인 성공 후 세션 등록 및 오프라인 알림 전송
+     * @return 이미 연결이 끊겨 등록하지 못했으면 false
+     */
+    private boolean registerLogin(ClientSession session, String userId) {
+        if (!session.bindUser(userId)) {
+            System.out.println("[" + userId + "] 로그인 처리 중 연결이 종료됨");
+            return false;
+        }
+        loggedInUsers.put(userId, session.getSocket());
+        currentClients.incrementAndGet();
+
+        // Observer 패턴: 클라이언트 등록
+        ReservationSubject subject = ReservationSubject.getInstance();
+        subject.registerClient(userId, session.getPushWriter());
+        System.out.println("[Observer] " + userId + " 클라이언트 알림 등록 완료");
+
+        System.out.println(userId + " 로그인 성공");
+        System.out.println("현재 로그인 중인 사용자: " + loggedInUsers.keySet());
+        System.out.println("현재 접속자 수: " + currentClients.get());
+
+        // 오프라인 알림 전송
+        OfflineNotificationHelper.sendOfflineNotifications(userId, session.getPushWriter());
+        return true;
+    }
+
+    /**
+     * 연결 종료 시 세션 정리 (로그아웃 처리, Observer 해제)
+     */
+    public void onDisconnect(ClientSession session) {
+        if (!session.markDisconnected()) {
+            return;
+        }
+
+        String userId = session.getUserId();
+        if (userId == null) {
+            return;
+        }
+
+        // Observer 패턴: 로그아웃 시 제거
+        ReservationSubject subject = ReservationSubject.getInstance();
+        subject.unregisterClient(userId, session.getPushWriter());
+        System.out.println("[Observer] " + userId + " 클라이언트 알림 등록 해제");
+
+        loggedInUsers.remove(userId, session.getSocket());
+        currentClients.decrementAndGet();
+        admission.releaseSession();
+        System.out.println(userId + " 로그아웃 처리됨");
+        System.out.println("현재 로그인 중인 사용자: " + loggedInUsers.keySet());
+        System.out.println("현재 접속자 수: " + currentClients.get());
+    }
+}
@@ -0,0 +1,272 @@
+package Server.storage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * (강의실, 날짜 또는 요일) → 차지된 교시 비트맵
+ *
+ * 비트 p가 1이면 p교시를 대기 중 예약(PENDING) 또는 승인된 예약(CLASS/LAB 중 상태가 예약됨/승인)이 차지하고 있다.
+ * 강의실은 처음 볼 때 정수 번호를 붙이고, (번호 << 32 | 에포크 일) 키로 LongLongMap에 비트맵을 두므로
+ * "이번 주 X호의 빈 교시", "D일 P교시에 빈 강의실" 같은 조회가 박싱 없이 비트 연산으로 끝난다.
+ * 승인 예약과 대기 예약은 비트맵을 따로 두고(주간 시간표의 대기 표시용), 승인 예약은 칸별 학생 수 합계도 둔다.
+ * 같은 교시를 여러 행이 차지하는 드문 경우에는 겹친 수만 따로 세어, 마지막 행이 빠질 때 비트를 지운다.
+ * 강의실은 RoomDateIndex와 같이 끝의 "호"를 무시하고, 교시는 시간 문자열 앞의 숫자로 읽는다 (예: "3교시(11:00~12:00)" → 3).
+ * 날짜 없이 요일로 기록된 주간 승인 예약은 실제 날짜와 겹치지 않는 날짜 키(Integer.MIN_VALUE + 요일 순번)에 따로 둔다.
+ * 날짜·요일이나 교시를 읽을 수 없는 행(1~63교시 밖)은 담지 않는다.
+ * 갱신과 조회 모두 LoggedTables 잠금 안에서 호출된다.
+ */
+final class AvailabilityIndex implements TableListener<ReservationStore, ReservationRecord> {
+
+    static final int MAX_PERIOD = 63;
+
+    private static final String DAYS = "월화수목금토일";
+    private static final long WEEKLY_BASE = Integer.MIN_VALUE;
+
+    private final Map<String, Integer> roomIds = new HashMap<>();
+    private final Bitmaps approved = new Bitmaps();
+    private final Bitmaps pending = new Bitmaps();
+    /** (강의실, 날짜, 교시) → 승인 예약 학생 수 합계 */
+    private final LongLongMap students = new LongLongMap();
+    /** 반영한 변경 수 (주간 시간표 캐시가 최신인지 확인용) */
+    private long version;
+
+    @Override
+    public void inserted(ReservationStore store, ReservationRecord row) {
+        long key = key(store, row);
+        if (key == Long.MIN_VALUE) {
+            return;
+        }
+        int period = period(row.field(4));
+        if (store == ReservationStore.PENDING) {
+            pending.add(key, period);
+        } else {
+            approved.add(key, period);
+            long cell = cellKey(key, period);
+            students.put(cell, students.get(cell) + studentCount(row));
+        }
+        version++;
+    }
+
+    @Override
+    public void removed(ReservationStore store, ReservationRecord row) {
+        long key = key(store, row);
+        if (key == Long.MIN_VALUE) {
+            return;
+        }
+        int period = period(row.field(4));
+        if (store == ReservationStore.PENDING) {
+            pending.remove(key, period);
+        } else {
+            approved.remove(key, period);
+            long cell = cellKey(key, period);
+            students.put(cell, students.get(cell) - studentCount(row));
+        }
+        version++;
+    }
+
+    /**
+     * 강의실·날짜의 차지된 교시 비트맵 (대기 + 승인, 비트 p = p교시)
+     */
+    long occupied(String room, LocalDate date) {
+        Integer id = roomIds.get(RoomDateIndex.roomKey(room));
+        if (id == null) {
+            return 0;
+        }
+        long key = key(id, date.toEpochDay());
+        return approved.get(key) | pending.get(key);
+    }
+
+    /**
+     * 시작일부터 days일 동안 날짜별 비트맵 (대기 + 승인, 인덱스 0 = 시작일)
+     */
+    long[] occupied(String room, LocalDate from, int days) {
+        long[] week = new long[days];
+        Integer id = roomIds.get(RoomDateIndex.roomKey(room));
+        if (id != null) {
+            long start = from.toEpochDay();
+            for (int i = 0; i < days; i++) {
+                long key = key(id, start + i);
+                week[i] = approved.get(key) | pending.get(key);
+            }
+        }
+        return week;
+    }
+
+    /**
+     * 요일로 기록된 주간 예약이 차지한 교시 비트맵
+     */
+    long weekly(String room, DayOfWeek day) {
+        Integer id = roomIds.get(RoomDateIndex.roomKey(room));
+        return id == null ? 0 : approved.get(key(id, WEEKLY_BASE + day.ordinal()));
+    }
+
+    /**
+     * 날짜·교시가 비어 있는 강의실 (그 요일의 주간 예약도 제외, 입력 순서 유지)
+     */
+    List<String> freeRooms(List<String> rooms, LocalDate date, int period) {
+        long bit = 1L << period;
+        long day = date.toEpochDay();
+        long weekday = WEEKLY_BASE + date.getDayOfWeek().ordinal();
+        List<String> free = new ArrayList<>();
+        for (String room : rooms) {
+            Integer id = roomIds.get(RoomDateIndex.roomKey(room));
+            if (id == null) {
+                free.add(room);
+                continue;
+            }
+            long dated = key(id, day);
+            if (((approved.get(dated) | pending.get(dated) | approved.get(key(id, weekday))) & bit) == 0) {
+                free.add(room);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * 강의실별 한 주(7일) 시간표 (승인 비트맵에는 그 요일의 주간 예약도 합침)
+     */
+    WeekGrid weekGrid(List<String> rooms, LocalDate weekStart) {
+        int days = WeekGrid.DAYS;
+        long[] approvedBits = new long[rooms.size() * days];
+        long[] pendingBits = new long[rooms.size() * days];
+        int[] counts = new int[rooms.size() * days * (MAX_PERIOD + 1)];
+        long start = weekStart.toEpochDay();
+        for (int r = 0; r < rooms.size(); r++) {
+            Integer id = roomIds.get(RoomDateIndex.roomKey(rooms.get(r)));
+            if (id == null) {
+                continue;
+            }
+            for (int d = 0; d < days; d++) {
+                long dated = key(id, start + d);
+                long weekly = key(id, WEEKLY_BASE + weekStart.plusDays(d).getDayOfWeek().ordinal());
+                long bits = approved.get(dated) | approved.get(weekly);
+                int cell = r * days + d;
+                approvedBits[cell] = bits;
+                pendingBits[cell] = pending.get(dated);
+                // 켜진 비트만 돌며 학생 수 합계를 채움
+                for (long rest = bits; rest != 0; rest &= rest - 1) {
+                    int period = Long.numberOfTrailingZeros(rest);
+                    counts[cell * (MAX_PERIOD + 1) + period] =
+                            (int) (students.get(cellKey(dated, period)) + students.get(cellKey(weekly, period)));
+                }
+            }
+        }
+        return new WeekGrid(weekStart, rooms, version, approvedBits, pendingBits, counts);
+    }
+
+    long version() {
+        return version;
+    }
+
+    /**
+     * 시간 문자열 앞의 교시 번호 (읽을 수 없거나 1~63 밖이면 -1)
+     */
+    static int period(String time) {
+        String trimmed = time.trim();
+        int value = 0;
+        int i = 0;
+        while (i < trimmed.length() && Character.isDigit(trimmed.charAt(i))) {
+            value = value * 10 + (trimmed.charAt(i) - '0');
+            if (value > MAX_PERIOD) {
+                return -1;
+            }
+            i++;
+        }
+        return i == 0 || value < 1 ? -1 : value;
+    }
+
+    /**
+     * 행의 비트맵 키 (담지 않는 행이면 Long.MIN_VALUE)
+     */
+    private long key(ReservationStore store, ReservationRecord row) {
+        if (!occupies(store, row) || period(row.field(4)) < 0) {
+            return Long.MIN_VALUE;
+        }
+        long day;
+        if (row.hasDate()) {
+            try {
+                day = LocalDate.parse(row.field(2)).toEpochDay();
+            } catch (DateTimeParseException e) {
+                return Long.MIN_VALUE;
+            }
+        } else {
+            int weekday = row.field(3).isEmpty() ? -1 : DAYS.indexOf(row.field(3).charAt(0));
+            if (weekday < 0) {
+                return Long.MIN_VALUE;
+            }
+            day = WEEKLY_BASE + weekday;
+        }
+        return key(roomIds.computeIfAbsent(RoomDateIndex.roomKey(row.field(1)), k -> roomIds.size()), day);
+    }
+
+    private static long key(int roomId, long epochDay) {
+        return ((long) roomId << 32) | (epochDay & 0xFFFFFFFFL);
+    }
+
+    private static long cellKey(long key, int period) {
+        // 강의실 번호 26비트 + 에포크 일 32비트 + 교시 6비트
+        return (key << 6) | period;
+    }
+
+    private static boolean occupies(ReservationStore store, ReservationRecord row) {
+        if (!row.isCanonical()) {
+            return false;
+        }
+        switch (store) {
+            case PENDING:
+                return row.hasDate();
+            case CLASS:
+            case LAB:
+                return row.field(7).equals("예약됨") || row.field(7).equals("승인");
+            default:
+                return false;
+        }
+    }
+
+    private static int studentCount(ReservationRecord row) {
+        try {
+            return Integer.parseInt(row.getStudentCountText());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 키별 교시 비트맵 + 같은 칸을 추가로 차지한 행 수
+     */
+    private static final class Bitmaps {
+        private final LongLongMap bits = new LongLongMap(1024);
+        private final LongLongMap overlaps = new LongLongMap();
+
+        long get(long key) {
+            return bits.get(key);
+        }
+
+        void add(long key, int period) {
+            long bit = 1L << period;
+            long current = bits.get(key);
+            if ((current & bit) != 0) {
+                long cell = cellKey(key, period);
+                overlaps.put(cell, overlaps.get(cell) + 1);
+            } else {
+                bits.put(key, current | bit);
+            }
+        }
+
+        void remove(long key, int period) {
+            long cell = cellKey(key, period);
+            long extra = overlaps.get(cell);
+            if (extra > 0) {
+                overlaps.put(cell, extra - 1);
+            } else {
+                bits.put(key, bits.get(key) & ~(1L << period));
+            }
+        }
+    }
+}
@@ -0,0 +1,949 @@
+package Server.storage;
+
+import Server.ServerConfig;
+import Server.exceptions.DatabaseException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 기준 파일 + 변경 로그(WAL)로 관리하는 텍스트 테이블 묶음
+ *
+ * 기준 파일(예: ReserveClass.txt)은 시작 시 한 번 읽고, 이후 변경은 기준 파일을 다시 쓰지 않고
+ * 변경 로그 끝에 레코드 한 줄로 추가한다. 따라서 변경 비용은 파일 크기와 관계없이 일정하다.
+ *
+ * 로그 레코드 (번호는 로그 세대 안의 행 번호: 세대를 시작할 때의 파일 순서대로 1부터, 이후 추가한 행은 이어서)
+ *   I  테이블  줄                 : 끝에 추가
+ *   R  테이블  번호1,번호2,...    : 행 삭제
+ *   M  테이블  번호  줄 [번호 줄]  : 행 내용 교체
+ * 행 번호는 삭제해도 다른 행의 번호가 바뀌지 않으므로, 찾은 행을 테이블 안의 위치를 세지 않고 바로 기록할 수 있다.
+ * (순번은 적재할 때마다 다시 매기므로 로그에는 세대 안에서 고정된 행 번호를 쓴다.)
+ * 여러 행을 바꾸는 변경도 레코드 한 줄이므로 중간에 중단되어도 일부만 반영되는 경우는 없다.
+ * 레코드는 쓰기 잠금 안에서 로그 대기열에 넣고, 잠금을 푼 뒤 기록 완료를 기다린다 (WriteAheadLog 그룹 커밋,
+ * 완료 기준은 storage.durability). 따라서 동시에 들어온 변경은 write/fsync 한 번으로 묶인다.
+ *
+ * 시작 시에는 기준 파일 위에 로그를 순서대로 재생해 현재 상태를 만든다.
+ * compact()는 현재 상태로 기준 파일을 다시 쓰고 반영된 로그를 지운다 (StorageCompactor가 주기적으로 호출).
+ * 압축할 때 같은 상태를 이진 스냅샷(TableSnapshot)으로도 남겨, 다음 시작 시에는 텍스트 파일 대신 스냅샷을 읽고
+ * 그 이후의 로그만 재생한다 (스냅샷 이후 기준 파일을 직접 고쳤으면 텍스트 파일에서 적재).
+ *
+ * 압축 절차와 복구
+ *   1. 쓰기 잠금 안에서 현재 상태를 복사하고 새 세대의 로그로 전환
+ *   2. 복사본을 "기준파일.compact-세대"에 기록
+ *   3. manifest에 세대 번호 기록 (원자적 교체, 이 시점이 확정)
+ *   4. 임시 파일을 기준 파일로 교체하고 해당 세대까지의 로그 삭제
+ * 3 이전에 중단되면 임시 파일을 버리고 로그를 다시 재생하며, 3 이후에 중단되면 남은 임시 파일을 마저 교체한다.
+ */
+final class LoggedTables<S extends Enum<S>, R extends StoredRow> {
+
+    private static final String OP_INSERT = "I";
+    private static final String OP_REMOVE = "R";
+    private static final String OP_MODIFY = "M";
+
+    private final Path baseDir;
+    private final String logName;
+    private final Class<S> type;
+    private final List<S> keys;
+    private final Function<S, String> fileNames;
+    private final BiFunction<Long, String, R> rowFactory;
+    private final Pattern logPattern;
+    private final WriteAheadLog.Durability durability;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<S, LinkedHashMap<Long, R>> tables;
+    /** 테이블별 순번 순 색인 (되돌린 행은 파일 순서로는 끝이지만 순번 순서로는 제자리, 페이지 조회용) */
+    private final Map<S, TreeMap<Long, R>> bySeq;
+    /** 테이블별 순번 → 현재 로그 세대의 행 번호 */
+    private final Map<S, Map<Long, Long>> rowNumbers;
+    /** 테이블별 다음에 추가할 행의 번호 */
+    private final Map<S, Long> nextRowNumbers;
+    /** 기준 파일에 아직 반영되지 않은 변경 수 (테이블별) */
+    private final Map<S, Integer> pendingChanges;
+    private long nextSeq = 1;
+    /** 이 적재에서 붙인 순번의 구분값 (재시작하면 순번을 다시 매기므로 이전 페이지 커서를 알아보는 데 사용) */
+    private final long epoch = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+    private final List<TableListener<S, R>> listeners = new CopyOnWriteArrayList<>();
+
+    /** 기준 파일에 반영된 마지막 로그 세대 */
+    private long baseGeneration;
+    /** 현재 기록 중인 로그 세대 */
+    private long generation;
+    private WriteAheadLog log;
+    private long pendingRecords;
+    private long pendingBytes;
+    /** 스냅샷이 현재 기준 파일과 같은 내용인지 (아니면 다음 압축 확인 때 스냅샷만 다시 씀) */
+    private volatile boolean snapshotCurrent;
+    private boolean snapshotLoaded;
+
+    private final Object compactionMonitor = new Object();
+
+    /**
+     * @param logName 로그/manifest 파일 이름 접두사 (예: reservations → reservations-000001.wal)
+     */
+    LoggedTables(Path baseDir, String logName, Class<S> type, List<S> keys,
+                 Function<S, String> fileNames, BiFunction<Long, String, R> rowFactory) {
+        this.baseDir = baseDir;
+        this.logName = logName;
+        this.type = type;
+        this.keys = keys;
+        this.fileNames = fileNames;
+        this.rowFactory = rowFactory;
+        this.logPattern = Pattern.compile(Pattern.quote(logName) + "-(\\d+)\\.wal");
+        this.durability = WriteAheadLog.Durability.parse(ServerConfig.getString("storage.durability", "batch"));
+        this.tables = new EnumMap<>(type);
+        this.bySeq = new EnumMap<>(type);
+        this.rowNumbers = new EnumMap<>(type);
+        this.nextRowNumbers = new EnumMap<>(type);
+        this.pendingChanges = new EnumMap<>(type);
+    }
+
+    // ===== 적재 / 복구 =====
+
+    /**
+     * 기준 파일과 로그를 읽어 현재 상태를 구성
+     */
+    void load() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(baseDir);
+        baseGeneration = readManifest();
+        recoverCompaction();
+
+        Map<S, List<String>> lines = loadSnapshot();
+        snapshotLoaded = lines != null;
+        snapshotCurrent = snapshotLoaded;
+        if (lines == null) {
+            lines = new EnumMap<>(type);
+            for (S key : keys) {
+                Path file = baseFile(key);
+                lines.put(key, Files.exists(file)
+                        ? new ArrayList<>(Files.readAllLines(file, StandardCharsets.UTF_8))
+                        : new ArrayList<>());
+            }
+        }
+        for (S key : keys) {
+            pendingChanges.put(key, 0);
+        }
+
+        Map<S, Replay> replay = new EnumMap<>(type);
+        for (S key : keys) {
+            replay.put(key, new Replay(lines.get(key)));
+        }
+        List<Long> generations = logGenerations();
+        for (long gen : generations) {
+            // 세대마다 그 시점의 파일 순서로 행 번호를 다시 매김 (기록할 때와 같은 규칙)
+            for (Replay table : replay.values()) {
+                table.renumber();
+            }
+            Path file = logFile(gen);
+            for (String[] record : WriteAheadLog.readAll(file)) {
+                S key = apply(replay, record);
+                if (key != null) {
+                    pendingChanges.merge(key, 1, Integer::sum);
+                }
+                pendingRecords++;
+            }
+            pendingBytes += Files.size(file);
+        }
+
+        int total = 0;
+        for (S key : keys) {
+            LinkedHashMap<Long, R> table = new LinkedHashMap<>();
+            TreeMap<Long, R> ordered = new TreeMap<>();
+            Map<Long, Long> numbers = new HashMap<>();
+            for (Map.Entry<Long, String> entry : replay.get(key).rows.entrySet()) {
+                R row = rowFactory.apply(nextSeq++, entry.getValue());
+                table.put(row.getSeq(), row);
+                ordered.put(row.getSeq(), row);
+                numbers.put(row.getSeq(), entry.getKey());
+            }
+            tables.put(key, table);
+            bySeq.put(key, ordered);
+            rowNumbers.put(key, numbers);
+            nextRowNumbers.put(key, replay.get(key).nextNumber);
+            total += table.size();
+        }
+
+        // 마지막 로그가 있으면 이어서 기록 (손상된 꼬리는 readAll에서 이미 잘라냄)
+        generation = generations.isEmpty() ? baseGeneration + 1 : generations.get(generations.size() - 1);
+        log = WriteAheadLog.open(logFile(generation), durability);
+
+        System.out.printf("[%s] %s 적재 완료 (%s): %d행, 재생한 로그 %d건 (%.1fms)%n",
+                logName, baseDir, snapshotLoaded ? "스냅샷" : "텍스트 파일", total, pendingRecords,
+                (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    /**
+     * 기준 세대의 스냅샷에서 테이블 내용 읽기
+     * @return 스냅샷이 없거나, 세대가 다르거나, 그 뒤로 기준 파일이 바뀌었으면 null
+     */
+    private Map<S, List<String>> loadSnapshot() {
+        try {
+            TableSnapshot snapshot = TableSnapshot.read(snapshotFile());
+            if (snapshot == null || snapshot.getGeneration() != baseGeneration) {
+                return null;
+            }
+            Map<S, List<String>> lines = new EnumMap<>(type);
+            for (S key : keys) {
+                TableSnapshot.Table table = snapshot.table(key.name());
+                if (table == null || !table.matches(baseFile(key))) {
+                    System.out.println("[" + logName + "] 스냅샷 이후 바뀐 기준 파일이 있어 텍스트 파일에서 적재: "
+                            + fileNames.apply(key));
+                    return null;
+                }
+                lines.put(key, table.lines);
+            }
+            return lines;
+        } catch (IOException e) {
+            System.err.println("[" + logName + "] 스냅샷을 읽지 못해 텍스트 파일에서 적재: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 시작 시 스냅샷에서 적재했는지
+     */
+    boolean isSnapshotLoaded() {
+        return snapshotLoaded;
+    }
+
+    /**
+     * 중단된 압축 정리: 확정된 세대의 임시 파일은 마저 교체, 나머지는 삭제
+     */
+    private void recoverCompaction() throws IOException {
+        for (S key : keys) {
+            String prefix = fileNames.apply(key) + ".compact-";
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(baseDir, prefix + "*")) {
+                for (Path temp : stream) {
+                    String suffix = temp.getFileName().toString().substring(prefix.length());
+                    if (suffix.equals(String.valueOf(baseGeneration))) {
+                        Files.move(temp, baseFile(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                        System.out.println("[" + logName + "] 중단된 압축 마무리: " + fileNames.apply(key));
+                    } else {
+                        Files.deleteIfExists(temp);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 레코드 하나를 재생 중인 테이블에 적용
+     * @return 변경된 테이블 (알 수 없는 레코드면 null)
+     */
+    private S apply(Map<S, Replay> replay, String[] record) {
+        if (record.length < 3) {
+            return null;
+        }
+        S key;
+        try {
+            key = Enum.valueOf(type, record[1]);
+        } catch (IllegalArgumentException e) {
+            System.err.println("[" + logName + "] 알 수 없는 테이블 레코드 무시: " + record[1]);
+            return null;
+        }
+        Replay table = replay.get(key);
+        if (table == null) {
+            return null;
+        }
+        switch (record[0]) {
+            case OP_INSERT:
+                table.insert(record[2]);
+                break;
+            case OP_REMOVE:
+                for (String number : record[2].split(",")) {
+                    table.rows.remove(Long.parseLong(number));
+                }
+                break;
+            case OP_MODIFY:
+                for (int i = 2; i + 1 < record.length; i += 2) {
+                    table.rows.replace(Long.parseLong(record[i]), record[i + 1]);
+                }
+                break;
+            default:
+                System.err.println("[" + logName + "] 알 수 없는 로그 레코드 무시: " + record[0]);
+                return null;
+        }
+        return key;
+    }
+
+    /**
+     * 재생 중인 테이블 하나 (행 번호 → 줄, 파일 순서)
+     */
+    private static final class Replay {
+        private LinkedHashMap<Long, String> rows = new LinkedHashMap<>();
+        private long nextNumber = 1;
+
+        Replay(List<String> lines) {
+            for (String line : lines) {
+                insert(line);
+            }
+        }
+
+        void insert(String line) {
+            rows.put(nextNumber++, line);
+        }
+
+        /**
+         * 현재 파일 순서대로 1부터 다시 번호 매김 (새 로그 세대 시작)
+         */
+        void renumber() {
+            List<String> lines = new ArrayList<>(rows.values());
+            rows = new LinkedHashMap<>();
+            nextNumber = 1;
+            for (String line : lines) {
+                insert(line);
+            }
+        }
+    }
+
+    /**
+     * 보조 색인 등록 (이미 적재된 행은 inserted로 한 번씩 전달)
+     */
+    void addListener(TableListener<S, R> listener) {
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<S, LinkedHashMap<Long, R>> entry : tables.entrySet()) {
+                for (R row : entry.getValue().values()) {
+                    listener.inserted(entry.getKey(), row);
+                }
+            }
+            listeners.add(listener);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== 조회 =====
+
+    /**
+     * 읽기 잠금 안에서 실행 (보조 색인 조회용)
+     */
+    <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<R> find(S key, Predicate<? super R> filter) {
+        lock.readLock().lock();
+        try {
+            List<R> result = new ArrayList<>();
+            for (R row : table(key).values()) {
+                if (filter.test(row)) {
+                    result.add(row);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 순번이 afterSeq보다 큰 행 중 순번이 작은 것부터 limit개 (조건에 맞는 행만, 순번 순)
+     * 삭제 후 되돌린 행은 원래 순번으로 테이블 끝에 붙으므로, 파일 순서가 아니라 순번 순 색인에서 골라 커서가 되돌아가지 않게 한다.
+     * 커서 다음 행부터 읽고 limit개를 채우면 멈추므로, 페이지 비용은 테이블 크기가 아니라 건너뛴 행 수에 비례한다.
+     */
+    List<R> page(S key, Predicate<? super R> filter, long afterSeq, int limit) {
+        lock.readLock().lock();
+        try {
+            TreeMap<Long, R> ordered = ordered(key);
+            List<R> result = new ArrayList<>(Math.min(limit, 64));
+            if (limit <= 0) {
+                return result;
+            }
+            for (R row : ordered.tailMap(afterSeq, false).values()) {
+                if (filter.test(row)) {
+                    result.add(row);
+                    if (result.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long epoch() {
+        return epoch;
+    }
+
+    R findFirst(S key, Predicate<? super R> filter) {
+        lock.readLock().lock();
+        try {
+            for (R row : table(key).values()) {
+                if (filter.test(row)) {
+                    return row;
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int count(S key, Predicate<? super R> filter) {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (R row : table(key).values()) {
+                if (filter.test(row)) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 기준 파일이 현재 상태와 같은지 (반영되지 않은 변경이 없는지)
+     */
+    boolean isBaseCurrent(S key) {
+        lock.readLock().lock();
+        try {
+            return pendingChanges.get(key) == 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Path baseFile(S key) {
+        return baseDir.resolve(fileNames.apply(key));
+    }
+
+    // ===== 변경 =====
+
+    R append(S key, String line) throws DatabaseException {
+        WriteAheadLog.Commit commit;
+        R row;
+        lock.writeLock().lock();
+        try {
+            commit = writeLog(key, OP_INSERT, key.name(), line);
+            row = rowFactory.apply(nextSeq++, line);
+            put(key, row);
+            notifyInserted(key, row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(commit);
+        return row;
+    }
+
+    List<R> removeIf(S key, Predicate<? super R> filter) throws DatabaseException {
+        WriteAheadLog.Commit commit;
+        List<R> removed = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (R row : table(key).values()) {
+                if (filter.test(row)) {
+                    removed.add(row);
+                }
+            }
+            commit = remove(key, removed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(commit);
+        return removed;
+    }
+
+    /**
+     * 색인으로 찾은 행 삭제 (테이블을 훑지 않음)
+     * 찾은 뒤 이미 삭제되었거나 내용이 바뀐 행은 건너뛴다.
+     * @return 삭제된 행 (넘긴 순서)
+     */
+    List<R> removeRows(S key, Collection<? extends R> rows) throws DatabaseException {
+        WriteAheadLog.Commit commit;
+        List<R> removed;
+        lock.writeLock().lock();
+        try {
+            removed = current(key, rows);
+            commit = remove(key, removed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(commit);
+        return removed;
+    }
+
+    int updateIf(S key, Function<? super R, String> mapper) throws DatabaseException {
+        WriteAheadLog.Commit commit;
+        List<R> replaced = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            commit = update(key, table(key).values(), mapper, replaced);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(commit);
+        return replaced.size();
+    }
+
+    /**
+     * 색인으로 찾은 행의 내용 수정 (순번과 순서 유지, 테이블을 훑지 않음)
+     * 찾은 뒤 이미 삭제되었거나 내용이 바뀐 행은 건너뛴다.
+     * @param mapper 바꿀 행이면 새 줄, 그대로 둘 행이면 null 반환
+     * @return 수정된 행 (새 내용, 넘긴 순서)
+     */
+    List<R> updateRows(S key, Collection<? extends R> rows, Function<? super R, String> mapper)
+            throws DatabaseException {
+        WriteAheadLog.Commit commit;
+        List<R> replaced = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            commit = update(key, current(key, rows), mapper, replaced);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(commit);
+        return replaced;
+    }
+
+    /**
+     * 쓰기 잠금 안에서 호출: 넘긴 행 중 아직 테이블에 같은 내용으로 있는 행 (순번 중복 제외)
+     */
+    private List<R> current(S key, Collection<? extends R> rows) {
+        LinkedHashMap<Long, R> table = table(key);
+        Map<Long, R> found = new LinkedHashMap<>();
+        for (R row : rows) {
+            R existing = table.get(row.getSeq());
+            if (existing != null && existing.getLine().equals(row.getLine())) {
+                found.put(existing.getSeq(), existing);
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    /**
+     * 쓰기 잠금 안에서 호출: 행 삭제를 기록하고 반영
+     * @return 기록 완료 대기용 (지울 행이 없으면 null)
+     */
+    private WriteAheadLog.Commit remove(S key, List<R> removed) throws DatabaseException {
+        if (removed.isEmpty()) {
+            return null;
+        }
+        Map<Long, Long> numbers = rowNumbers.get(key);
+        StringBuilder record = new StringBuilder();
+        for (R row : removed) {
+            if (record.length() > 0) {
+                record.append(',');
+            }
+            record.append(numbers.get(row.getSeq()));
+        }
+        WriteAheadLog.Commit commit = writeLog(key, OP_REMOVE, key.name(), record.toString());
+        LinkedHashMap<Long, R> table = table(key);
+        TreeMap<Long, R> ordered = ordered(key);
+        for (R row : removed) {
+            table.remove(row.getSeq());
+            ordered.remove(row.getSeq());
+            numbers.remove(row.getSeq());
+            notifyRemoved(key, row);
+        }
+        return commit;
+    }
+
+    /**
+     * 쓰기 잠금 안에서 호출: 행 내용 교체를 기록하고 반영
+     * @param replaced 바뀐 행(새 내용)을 담을 목록
+     * @return 기록 완료 대기용 (바꿀 행이 없으면 null)
+     */
+    private WriteAheadLog.Commit update(S key, Collection<R> rows, Function<? super R, String> mapper,
+                                        List<R> replaced) throws DatabaseException {
+        Map<Long, Long> numbers = rowNumbers.get(key);
+        List<String> record = new ArrayList<>();
+        record.add(OP_MODIFY);
+        record.add(key.name());
+        List<R> previous = new ArrayList<>();
+        for (R row : rows) {
+            String newLine = mapper.apply(row);
+            if (newLine != null && !newLine.equals(row.getLine())) {
+                record.add(String.valueOf(numbers.get(row.getSeq())));
+                record.add(newLine);
+                previous.add(row);
+                replaced.add(rowFactory.apply(row.getSeq(), newLine));
+            }
+        }
+        if (replaced.isEmpty()) {
+            return null;
+        }
+        WriteAheadLog.Commit commit = writeLog(key, record.toArray(new String[0]));
+        LinkedHashMap<Long, R> table = table(key);
+        TreeMap<Long, R> ordered = ordered(key);
+        for (int i = 0; i < replaced.size(); i++) {
+            table.put(replaced.get(i).getSeq(), replaced.get(i));
+            ordered.put(replaced.get(i).getSeq(), replaced.get(i));
+            notifyUpdated(key, previous.get(i), replaced.get(i));
+        }
+        return commit;
+    }
+
+    /**
+     * 삭제했던 행을 같은 순번으로 끝에 다시 추가
+     */
+    void restore(S key, R row) throws DatabaseException {
+        WriteAheadLog.Commit commit;
+        lock.writeLock().lock();
+        try {
+            commit = writeLog(key, OP_INSERT, key.name(), row.getLine());
+            put(key, row);
+            notifyInserted(key, row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(commit);
+    }
+
+    /**
+     * 쓰기 잠금 안에서 호출: 행을 끝에 추가하고 새 행 번호 부여
+     */
+    private void put(S key, R row) {
+        table(key).put(row.getSeq(), row);
+        ordered(key).put(row.getSeq(), row);
+        long number = nextRowNumbers.get(key);
+        rowNumbers.get(key).put(row.getSeq(), number);
+        nextRowNumbers.put(key, number + 1);
+    }
+
+    private void notifyInserted(S key, R row) {
+        for (TableListener<S, R> listener : listeners) {
+            listener.inserted(key, row);
+        }
+    }
+
+    private void notifyRemoved(S key, R row) {
+        for (TableListener<S, R> listener : listeners) {
+            listener.removed(key, row);
+        }
+    }
+
+    private void notifyUpdated(S key, R previous, R current) {
+        for (TableListener<S, R> listener : listeners) {
+            listener.updated(key, previous, current);
+        }
+    }
+
+    private LinkedHashMap<Long, R> table(S key) {
+        LinkedHashMap<Long, R> table = tables.get(key);
+        if (table == null) {
+            throw new IllegalArgumentException("로그로 관리하지 않는 테이블입니다: " + key);
+        }
+        return table;
+    }
+
+    private TreeMap<Long, R> ordered(S key) {
+        TreeMap<Long, R> ordered = bySeq.get(key);
+        if (ordered == null) {
+            throw new IllegalArgumentException("로그로 관리하지 않는 테이블입니다: " + key);
+        }
+        return ordered;
+    }
+
+    /**
+     * 쓰기 잠금 안에서 호출: 레코드를 로그 대기열에 넣음 (넣지 못하면 메모리는 바꾸지 않음)
+     */
+    private WriteAheadLog.Commit writeLog(S key, String... record) throws DatabaseException {
+        WriteAheadLog.Commit commit;
+        try {
+            commit = log.append(record);
+        } catch (IOException e) {
+            throw new DatabaseException(log.getFile().getFileName().toString(),
+                    DatabaseException.OperationType.WRITE, "변경 기록 중 오류가 발생했습니다", e);
+        }
+        pendingBytes += commit.getBytes();
+        pendingRecords++;
+        pendingChanges.merge(key, 1, Integer::sum);
+        return commit;
+    }
+
+    /**
+     * 쓰기 잠금 밖에서 호출: 레코드가 storage.durability 기준으로 기록될 때까지 대기 (그룹 커밋)
+     * 여기서 실패하면 메모리에는 이미 반영되어 있으나 요청은 실패로 응답하고, 이후 변경도 모두 거부된다.
+     */
+    private void awaitDurable(WriteAheadLog.Commit commit) throws DatabaseException {
+        if (commit == null) {
+            return;
+        }
+        try {
+            commit.await();
+        } catch (IOException e) {
+            System.err.println("[" + logName + "] 변경 로그 기록 실패: " + e.getMessage());
+            throw new DatabaseException(commit.getFile().getFileName().toString(),
+                    DatabaseException.OperationType.WRITE, "변경 기록 중 오류가 발생했습니다", e);
+        }
+    }
+
+    // ===== 압축 =====
+
+    boolean needsCompaction(long thresholdRecords, long thresholdBytes) {
+        lock.readLock().lock();
+        try {
+            if (pendingRecords == 0) {
+                return !snapshotCurrent;
+            }
+            return pendingRecords >= thresholdRecords || pendingBytes >= thresholdBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 쓰기 잠금 안에서 호출: 새 로그 세대를 시작하며 현재 파일 순서대로 행 번호를 1부터 다시 매김
+     * 재시작 시 재생도 세대마다 같은 규칙으로 번호를 매기므로, 이후 레코드의 번호가 같은 행을 가리킨다.
+     */
+    private void renumberRows() {
+        for (S key : keys) {
+            Map<Long, Long> numbers = new HashMap<>();
+            long number = 1;
+            for (R row : tables.get(key).values()) {
+                numbers.put(row.getSeq(), number++);
+            }
+            rowNumbers.put(key, numbers);
+            nextRowNumbers.put(key, number);
+        }
+    }
+
+    /**
+     * 현재 상태로 기준 파일을 다시 쓰고 반영된 로그 삭제
+     * 기준 파일을 쓰는 동안에는 잠금을 잡지 않으므로 조회/변경이 멈추지 않는다.
+     * 반영할 변경이 없어도 스냅샷이 없거나 오래되었으면 스냅샷만 다시 쓴다.
+     * @return 압축했으면 true (반영할 변경이 없거나 실패하면 false)
+     */
+    boolean compact() {
+        synchronized (compactionMonitor) {
+            refreshSnapshot();
+            long start = System.nanoTime();
+            Map<S, List<String>> snapshot = new EnumMap<>(type);
+            Map<S, Integer> snapshotChanges = new EnumMap<>(type);
+            long sealed;
+            long sealedRecords;
+            long sealedBytes;
+
+            lock.writeLock().lock();
+            try {
+                if (pendingRecords == 0) {
+                    return false;
+                }
+                for (S key : keys) {
+                    List<String> lines = new ArrayList<>(tables.get(key).size());
+                    for (R row : tables.get(key).values()) {
+                        lines.add(row.getLine());
+                    }
+                    snapshot.put(key, lines);
+                    snapshotChanges.put(key, pendingChanges.get(key));
+                }
+                WriteAheadLog next;
+                try {
+                    next = WriteAheadLog.open(logFile(generation + 1), durability);
+                } catch (IOException e) {
+                    System.err.println("[" + logName + "] 압축 실패 (새 로그 생성): " + e.getMessage());
+                    return false;
+                }
+                log.close();
+                log = next;
+                sealed = generation++;
+                renumberRows();
+                sealedRecords = pendingRecords;
+                sealedBytes = pendingBytes;
+                pendingRecords = 0;
+                pendingBytes = 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            boolean committed = false;
+            try {
+                for (S key : keys) {
+                    writeSynced(tempFile(key, sealed), snapshot.get(key));
+                }
+                writeManifest(sealed);
+                committed = true;
+                snapshotCurrent = false;
+                baseGeneration = sealed;
+                for (S key : keys) {
+                    Files.move(tempFile(key, sealed), baseFile(key),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+                writeSnapshot(sealed, snapshot);
+                for (long gen : logGenerations()) {
+                    if (gen <= sealed) {
+                        Files.deleteIfExists(logFile(gen));
+                    }
+                }
+            } catch (IOException e) {
+                // 로그는 그대로 남아 있으므로 데이터는 유지되고, 다음 압축에서 다시 시도
+                System.err.println("[" + logName + "] 압축 실패: " + e.getMessage());
+                if (!committed) {
+                    for (S key : keys) {
+                        try {
+                            Files.deleteIfExists(tempFile(key, sealed));
+                        } catch (IOException ignored) {
+                        }
+                    }
+                }
+                lock.writeLock().lock();
+                try {
+                    pendingRecords += sealedRecords;
+                    pendingBytes += sealedBytes;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                return false;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (S key : keys) {
+                    pendingChanges.merge(key, -snapshotChanges.get(key), Integer::sum);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            System.out.printf("[%s] 압축 완료: 로그 %d건 반영 (%.1fms)%n",
+                    logName, sealedRecords, (System.nanoTime() - start) / 1_000_000.0);
+            return true;
+        }
+    }
+
+    /**
+     * 압축할 변경이 없을 때(메모리 = 기준 파일) 스냅샷이 없거나 오래되었으면 현재 상태로 다시 씀
+     * compactionMonitor 안에서 호출한다.
+     */
+    private void refreshSnapshot() {
+        Map<S, List<String>> lines = new EnumMap<>(type);
+        lock.readLock().lock();
+        try {
+            if (snapshotCurrent || pendingRecords > 0) {
+                return;
+            }
+            for (S key : keys) {
+                List<String> table = new ArrayList<>(tables.get(key).size());
+                for (R row : tables.get(key).values()) {
+                    table.add(row.getLine());
+                }
+                lines.put(key, table);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        writeSnapshot(baseGeneration, lines);
+    }
+
+    /**
+     * 기준 파일을 교체한 뒤 같은 내용의 스냅샷 기록 (실패해도 다음 시작 때 텍스트 파일에서 적재하므로 기록만 남김)
+     */
+    private void writeSnapshot(long gen, Map<S, List<String>> lines) {
+        try {
+            Map<String, TableSnapshot.Table> snapshotTables = new LinkedHashMap<>();
+            for (S key : keys) {
+                snapshotTables.put(key.name(), TableSnapshot.Table.of(baseFile(key), lines.get(key)));
+            }
+            new TableSnapshot(gen, snapshotTables).write(snapshotFile());
+            snapshotCurrent = true;
+        } catch (IOException e) {
+            snapshotCurrent = false;
+            System.err.println("[" + logName + "] 스냅샷 기록 실패: " + e.getMessage());
+        }
+    }
+
+    private void writeSynced(Path file, List<String> lines) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    // ===== 파일 이름 =====
+
+    private Path logFile(long gen) {
+        return baseDir.resolve(String.format("%s-%06d.wal", logName, gen));
+    }
+
+    private Path tempFile(S key, long gen) {
+        return baseDir.resolve(fileNames.apply(key) + ".compact-" + gen);
+    }
+
+    private Path snapshotFile() {
+        return baseDir.resolve(logName + ".snapshot");
+    }
+
+    private Path manifestFile() {
+        return baseDir.resolve(logName + ".manifest");
+    }
+
+    private long readManifest() throws IOException {
+        Path manifest = manifestFile();
+        if (!Files.exists(manifest)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(manifest), StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException(manifest.getFileName() + " 형식 오류", e);
+        }
+    }
+
+    private void writeManifest(long gen) throws IOException {
+        Path temp = baseDir.resolve(logName + ".manifest.tmp");
+        writeSynced(temp, Collections.singletonList(String.valueOf(gen)));
+        Files.move(temp, manifestFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 아직 기준 파일에 반영되지 않은 로그 세대 (오름차순), 이미 반영된 로그 파일은 삭제
+     */
+    private List<Long> logGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(baseDir, logName + "-*.wal")) {
+            for (Path file : stream) {
+                Matcher matcher = logPattern.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                long gen = Long.parseLong(matcher.group(1));
+                if (gen <= baseGeneration) {
+                    Files.deleteIfExists(file);
+                } else {
+                    generations.add(gen);
+                }
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+}
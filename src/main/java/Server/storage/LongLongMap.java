@@ -0,0 +1,125 @@
+package Server.storage;
+
+/**
+ * long → long 해시 맵 (개방 주소법, 박싱 없음)
+ *
+ * 값 0은 "없음"과 같게 취급해 put(key, 0)은 삭제로 처리한다 (비트맵 용도).
+ * 선형 탐사 + 삭제 시 뒤쪽 항목을 당겨오는 방식이라 묘비(tombstone)가 쌓이지 않는다.
+ * 동기화하지 않으므로 호출하는 쪽이 잠금으로 보호한다.
+ */
+final class LongLongMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    LongLongMap() {
+        this(16);
+    }
+
+    LongLongMap(int expected) {
+        int capacity = 16;
+        while (capacity < expected * 2) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return 값 (없으면 0)
+     */
+    long get(long key) {
+        int mask = keys.length - 1;
+        for (int i = index(key, mask); ; i = (i + 1) & mask) {
+            long existing = keys[i];
+            if (existing == key) {
+                return values[i];
+            }
+            if (existing == EMPTY) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 값 저장 (0이면 삭제)
+     */
+    void put(long key, long value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("사용할 수 없는 키입니다: " + key);
+        }
+        if (value == 0) {
+            remove(key);
+            return;
+        }
+        int mask = keys.length - 1;
+        for (int i = index(key, mask); ; i = (i + 1) & mask) {
+            long existing = keys[i];
+            if (existing == key) {
+                values[i] = value;
+                return;
+            }
+            if (existing == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size * 2 > keys.length) {
+                    rehash(keys.length << 1);
+                }
+                return;
+            }
+        }
+    }
+
+    private void remove(long key) {
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        // 빈 칸까지 이어지는 뒤쪽 항목 중 원래 자리가 i 이전인 것을 당겨 채움
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = index(keys[j], mask);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = 0;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        java.util.Arrays.fill(keys, EMPTY);
+    }
+
+    private static int index(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,97 @@
+package Server.storage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * (강의실, 날짜 또는 요일, 교시) → 승인된 예약 인원 합계 (잠금 없이 조회)
+ *
+ * CLASS/LAB 중 상태가 예약됨/승인인 행의 학생 수를 더해 두고, 승인·취소·변경으로 행이 바뀔 때마다 차이만 반영한다.
+ * 시작 시에는 LoggedTables가 기존 행을 inserted로 한 번씩 전달하므로 저장소 내용에서 다시 계산된다.
+ * 날짜가 있는 예약은 날짜로, 날짜 없이 요일로 기록된 주간 예약은 요일로 따로 모은다.
+ * 강의실·교시는 파일 값(앞뒤 공백 제외)과 그대로 비교하며, 학생 수를 해석할 수 없는 행은 0명으로 센다.
+ */
+final class OccupancyIndex implements TableListener<ReservationStore, ReservationRecord> {
+
+    private final Map<String, Integer> byDate = new ConcurrentHashMap<>();
+    private final Map<String, Integer> weekly = new ConcurrentHashMap<>();
+
+    @Override
+    public void inserted(ReservationStore store, ReservationRecord row) {
+        if (counts(store, row)) {
+            add(row, studentCount(row));
+        }
+    }
+
+    @Override
+    public void removed(ReservationStore store, ReservationRecord row) {
+        if (counts(store, row)) {
+            add(row, -studentCount(row));
+        }
+    }
+
+    @Override
+    public void updated(ReservationStore store, ReservationRecord previous, ReservationRecord current) {
+        if (counts(store, previous) && counts(store, current)
+                && mapOf(previous) == mapOf(current) && key(previous).equals(key(current))) {
+            // 같은 칸의 인원만 바뀐 경우 한 번에 반영 (조회가 중간 값을 보지 않도록)
+            merge(mapOf(current), key(current), studentCount(current) - studentCount(previous));
+            return;
+        }
+        TableListener.super.updated(store, previous, current);
+    }
+
+    /**
+     * 날짜 예약 인원 합계
+     */
+    int byDate(String room, String date, String time) {
+        return byDate.getOrDefault(key(room.trim(), date.trim(), time.trim()), 0);
+    }
+
+    /**
+     * 요일로 기록된 주간 예약 인원 합계
+     */
+    int weekly(String room, String day, String time) {
+        return weekly.getOrDefault(key(room.trim(), day.trim(), time.trim()), 0);
+    }
+
+    private void add(ReservationRecord row, int delta) {
+        merge(mapOf(row), key(row), delta);
+    }
+
+    private static void merge(Map<String, Integer> map, String key, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        map.compute(key, (k, total) -> {
+            int next = (total == null ? 0 : total) + delta;
+            return next == 0 ? null : next;
+        });
+    }
+
+    private Map<String, Integer> mapOf(ReservationRecord row) {
+        return row.hasDate() ? byDate : weekly;
+    }
+
+    private static String key(ReservationRecord row) {
+        return key(row.getRoom(), row.hasDate() ? row.getDate() : row.getDay(), row.getTime());
+    }
+
+    private static String key(String room, String dateOrDay, String time) {
+        return room + '\u0000' + dateOrDay + '\u0000' + time;
+    }
+
+    private static boolean counts(ReservationStore store, ReservationRecord row) {
+        return (store == ReservationStore.CLASS || store == ReservationStore.LAB)
+                && row.isCanonical()
+                && (row.getStatus().equals("예약됨") || row.getStatus().equals("승인"));
+    }
+
+    private static int studentCount(ReservationRecord row) {
+        try {
+            return Integer.parseInt(row.getStudentCountText());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package Server.storage;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 예약자 아이디 → 예약 행 색인 (CLASS, LAB, PENDING)
+ *
+ * 시작 시 모든 행이 10개 필드로 변환되어 있으므로(ReservationSchema) 마지막 필드의 아이디를 그대로 키로 쓴다.
+ * 사용자별 목록은 순번(파일 순서)으로 정렬된다.
+ */
+final class OwnerIndex implements TableListener<ReservationStore, ReservationRecord> {
+
+    private final Map<String, Map<ReservationStore, TreeMap<Long, ReservationRecord>>> byOwner = new HashMap<>();
+
+    @Override
+    public void inserted(ReservationStore store, ReservationRecord row) {
+        if (!indexed(store, row)) {
+            return;
+        }
+        byOwner.computeIfAbsent(row.getUserId(), k -> new EnumMap<>(ReservationStore.class))
+                .computeIfAbsent(store, k -> new TreeMap<>())
+                .put(row.getSeq(), row);
+    }
+
+    @Override
+    public void removed(ReservationStore store, ReservationRecord row) {
+        if (!indexed(store, row)) {
+            return;
+        }
+        String owner = row.getUserId();
+        Map<ReservationStore, TreeMap<Long, ReservationRecord>> stores = byOwner.get(owner);
+        TreeMap<Long, ReservationRecord> rows = stores == null ? null : stores.get(store);
+        if (rows == null) {
+            return;
+        }
+        rows.remove(row.getSeq());
+        if (rows.isEmpty()) {
+            stores.remove(store);
+            if (stores.isEmpty()) {
+                byOwner.remove(owner);
+            }
+        }
+    }
+
+    /**
+     * 사용자의 예약 행 (파일 순서)
+     */
+    List<ReservationRecord> rows(String userId, ReservationStore store) {
+        Map<ReservationStore, TreeMap<Long, ReservationRecord>> stores = byOwner.get(userId.trim());
+        TreeMap<Long, ReservationRecord> rows = stores == null ? null : stores.get(store);
+        return rows == null ? new ArrayList<>() : new ArrayList<>(rows.values());
+    }
+
+    private static boolean indexed(ReservationStore store, ReservationRecord row) {
+        return (store == ReservationStore.CLASS || store == ReservationStore.LAB || store == ReservationStore.PENDING)
+                && row.isCanonical();
+    }
+}
@@ -0,0 +1,267 @@
+package Server.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 월 단위로 나눈 지난 예약 보관소 (archive/파일이름/yyyy-MM.txt[.gz])
+ *
+ * 보관 기간(storage.archive.retention.days)이 지난 승인 예약은 메모리 테이블에서 빼서 예약 날짜의 월 파티션에 옮긴다.
+ * 파티션은 두 형태로 존재한다.
+ *   yyyy-MM.txt     : 아직 열려 있는 파티션 (승인 이력처럼 끝에 추가만 하는 파일)
+ *   yyyy-MM.txt.gz  : 닫힌 파티션 (gzip 압축, 다시 쓸 때는 임시 파일 작성 후 원자적 교체)
+ * 기간 조회는 요청한 기간과 겹치는 월 파티션만 읽으므로, 보관된 데이터가 늘어도 평소 조회 비용에는 영향이 없다.
+ * 기간이 없는 목록(전체 예약, 내 예약)은 page로 월 순서대로 읽으며, 페이지 커서가 가리키는 달보다 앞선 파티션은 건너뛴다.
+ *
+ * 파티션은 줄 목록이므로 내용이 같은 예약 두 건도 두 줄로 보관하며, unseal은 봉인한 줄 수만큼만 뺀다.
+ * (파티션 기록 뒤 테이블에서 빼기 전에 서버가 중단되면 다음 보관 때 그 행이 한 번 더 기록될 수 있다.
+ * 보관 이력을 잃는 것보다 낫기 때문에 기록을 먼저 한다.)
+ */
+final class ReservationArchive {
+
+    private static final String PLAIN = ".txt";
+    private static final String COMPRESSED = ".txt.gz";
+
+    private final Path archiveDir;
+
+    ReservationArchive(Path baseDir) {
+        this.archiveDir = baseDir.resolve("archive");
+    }
+
+    // ===== 기록 =====
+
+    /**
+     * 줄들을 월 파티션의 압축 파일에 합쳐 기록 (열린 파티션이 있으면 함께 압축)
+     */
+    synchronized void seal(ReservationStore store, YearMonth month, List<String> lines) throws IOException {
+        rewrite(store, month, lines, Collections.emptyList());
+    }
+
+    /**
+     * 봉인한 줄 일부를 월 파티션에서 다시 제거 (봉인 뒤 테이블에서 빼지 못한, 즉 그사이 바뀌거나 취소된 행)
+     * 줄마다 가장 나중에 기록된 한 줄만 빼므로, 앞서 보관된 같은 내용의 예약은 남는다.
+     */
+    synchronized void unseal(ReservationStore store, YearMonth month, Collection<String> lines) throws IOException {
+        rewrite(store, month, Collections.emptyList(), lines);
+    }
+
+    /**
+     * 압축 파티션 + 열린 파티션에 줄을 더하고 빼서 압축 파티션으로 다시 기록
+     */
+    private void rewrite(ReservationStore store, YearMonth month, List<String> added, Collection<String> removed)
+            throws IOException {
+        Path compressed = partition(store, month, COMPRESSED);
+        Path plain = partition(store, month, PLAIN);
+        List<String> merged = new ArrayList<>(readPartition(compressed));
+        merged.addAll(readPartition(plain));
+        merged.addAll(added);
+        for (String line : removed) {
+            int last = merged.lastIndexOf(line);
+            if (last >= 0) {
+                merged.remove(last);
+            }
+        }
+
+        Files.createDirectories(compressed.getParent());
+        Path temp = compressed.resolveSibling(compressed.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream stream = Channels.newOutputStream(channel);
+            GZIPOutputStream gzip = new GZIPOutputStream(stream);
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8));
+            for (String line : merged) {
+                writer.write(line);
+                writer.newLine();
+            }
+            writer.flush();
+            gzip.finish();
+            channel.force(true);
+        }
+        Files.move(temp, compressed, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(plain);
+    }
+
+    /**
+     * 열린 월 파티션 끝에 한 줄 추가 (승인 이력)
+     */
+    synchronized void append(ReservationStore store, YearMonth month, String line) throws IOException {
+        Path plain = partition(store, month, PLAIN);
+        Files.createDirectories(plain.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(plain, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(line);
+            writer.newLine();
+        }
+    }
+
+    /**
+     * 보관 기준일보다 이전 달의 열린 파티션을 압축
+     * @return 압축한 파티션 수
+     */
+    int sealBefore(ReservationStore store, YearMonth month) throws IOException {
+        int sealed = 0;
+        for (YearMonth open : months(store, PLAIN)) {
+            if (open.isBefore(month)) {
+                seal(store, open, Collections.emptyList());
+                sealed++;
+            }
+        }
+        return sealed;
+    }
+
+    // ===== 조회 =====
+
+    /**
+     * 기간과 겹치는 월 파티션에서 강의실의 행 (날짜 순, 같은 날짜는 파티션 안 순서)
+     * 날짜를 해석할 수 없는 행은 제외한다.
+     */
+    List<ReservationRecord> rows(ReservationStore store, String room, LocalDate from, LocalDate to) throws IOException {
+        String key = RoomDateIndex.roomKey(room);
+        List<ReservationRecord> result = new ArrayList<>();
+        for (YearMonth month : months(store, null)) {
+            if (month.isBefore(YearMonth.from(from)) || month.isAfter(YearMonth.from(to))) {
+                continue;
+            }
+            for (String line : partitionLines(store, month)) {
+                ReservationRecord row = new ReservationRecord(0, line);
+                LocalDate date = dateOf(row);
+                if (date != null && !date.isBefore(from) && !date.isAfter(to)
+                        && RoomDateIndex.roomKey(row.field(1)).equals(key)) {
+                    result.add(row);
+                }
+            }
+        }
+        result.sort((a, b) -> dateOf(a).compareTo(dateOf(b)));
+        return result;
+    }
+
+    /**
+     * 조건에 맞는 보관 행을 월 순서(파티션 안에서는 기록 순서)로 순번 afterSeq 다음부터 최대 limit개
+     * 보관 행의 순번은 (월 번호 << 32 | 파티션 안 위치)로 매기므로, 커서가 가리키는 달보다 앞선 파티션은 읽지 않는다.
+     */
+    List<ReservationRecord> page(ReservationStore store, Predicate<ReservationRecord> filter, long afterSeq, int limit)
+            throws IOException {
+        List<ReservationRecord> result = new ArrayList<>();
+        long afterMonth = afterSeq >>> 32;
+        for (YearMonth month : months(store, null)) {
+            long number = month.getYear() * 12L + month.getMonthValue();
+            if (number < afterMonth) {
+                continue;
+            }
+            List<String> lines = partitionLines(store, month);
+            for (int i = 0; i < lines.size() && result.size() < limit; i++) {
+                long seq = (number << 32) | (i + 1);
+                ReservationRecord row = new ReservationRecord(seq, lines.get(i));
+                if (seq > afterSeq && filter.test(row)) {
+                    result.add(row);
+                }
+            }
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 보관된 월 (오름차순)
+     * @param suffix 파티션 형태 (null이면 둘 다)
+     */
+    List<YearMonth> months(ReservationStore store, String suffix) throws IOException {
+        Path dir = archiveDir.resolve(stem(store));
+        if (!Files.isDirectory(dir)) {
+            return new ArrayList<>();
+        }
+        LinkedHashSet<YearMonth> months = new LinkedHashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                for (String candidate : new String[]{PLAIN, COMPRESSED}) {
+                    if ((suffix == null || suffix.equals(candidate)) && name.length() == 7 + candidate.length()
+                            && name.endsWith(candidate)) {
+                        try {
+                            months.add(YearMonth.parse(name.substring(0, 7)));
+                        } catch (DateTimeParseException ignored) {
+                        }
+                    }
+                }
+            }
+        }
+        List<YearMonth> sorted = new ArrayList<>(months);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * 행의 예약 날짜 (날짜 필드가 없거나 해석할 수 없으면 null)
+     */
+    static LocalDate dateOf(ReservationRecord row) {
+        if (!row.hasDate()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(row.field(2));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 월 파티션의 줄 (압축 파티션 → 열린 파티션 순서)
+     */
+    private List<String> partitionLines(ReservationStore store, YearMonth month) throws IOException {
+        List<String> lines = new ArrayList<>(readPartition(partition(store, month, COMPRESSED)));
+        lines.addAll(readPartition(partition(store, month, PLAIN)));
+        return lines;
+    }
+
+    private List<String> readPartition(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return Collections.emptyList();
+        }
+        if (!file.getFileName().toString().endsWith(COMPRESSED)) {
+            return Files.readAllLines(file, StandardCharsets.UTF_8);
+        }
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private Path partition(ReservationStore store, YearMonth month, String suffix) {
+        return archiveDir.resolve(stem(store)).resolve(month + suffix);
+    }
+
+    private static String stem(ReservationStore store) {
+        String name = store.getFileName();
+        return name.endsWith(PLAIN) ? name.substring(0, name.length() - PLAIN.length()) : name;
+    }
+}
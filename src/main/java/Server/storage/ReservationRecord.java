@@ -0,0 +1,126 @@
+package Server.storage;
+
+/**
+ * 예약 파일의 한 줄 (불변)
+ *
+ * 원본 줄을 그대로 보관하므로 목록 응답은 파일에 있던 내용과 동일하게 전송된다.
+ * 필드는 기존 명령들과 같은 방식(line.split(","))으로 나누어 둔다.
+ * 예약 행(CLASS/LAB/PENDING)은 시작 시 10개 필드로 변환되므로(ReservationSchema) 접근자는 고정 위치만 읽는다.
+ */
+public final class ReservationRecord implements StoredRow {
+
+    private final long seq;
+    private final String line;
+    private final String[] fields;
+
+    ReservationRecord(long seq, String line) {
+        this.seq = seq;
+        this.line = line;
+        this.fields = line.split(",");
+    }
+
+    /**
+     * 저장소 안에서의 순번 (파일 순서와 같으며 삭제되어도 다른 행의 순번은 바뀌지 않음)
+     */
+    @Override
+    public long getSeq() {
+        return seq;
+    }
+
+    /**
+     * 파일에 저장된 원본 줄
+     */
+    @Override
+    public String getLine() {
+        return line;
+    }
+
+    public int fieldCount() {
+        return fields.length;
+    }
+
+    /**
+     * 앞뒤 공백을 제거한 필드 값 (없으면 빈 문자열)
+     */
+    public String field(int index) {
+        return index < fields.length ? fields[index].trim() : "";
+    }
+
+    /**
+     * 원본 필드 값 (공백 유지)
+     */
+    public String rawField(int index) {
+        return index < fields.length ? fields[index] : "";
+    }
+
+    public boolean isBlank() {
+        return line.trim().isEmpty();
+    }
+
+    /**
+     * 현재 형식(10개 필드)의 예약 행인지
+     */
+    public boolean isCanonical() {
+        return fields.length >= ReservationSchema.FIELD_COUNT;
+    }
+
+    /**
+     * 날짜가 있는 예약인지 (날짜 없이 요일로만 기록된 구 주간 예약은 날짜 칸이 비어 있음)
+     */
+    public boolean hasDate() {
+        return isCanonical() && !field(2).isEmpty();
+    }
+
+    // ===== 예약 행(CLASS/LAB/PENDING) 접근자: 이름,방,날짜,요일,시간,목적,권한,상태,학생수,아이디 =====
+
+    public String getName() {
+        return field(0);
+    }
+
+    public String getRoom() {
+        return field(1);
+    }
+
+    /**
+     * 예약 날짜 (주간 반복 예약이면 빈 문자열)
+     */
+    public String getDate() {
+        return field(2);
+    }
+
+    public String getDay() {
+        return field(3);
+    }
+
+    public String getTime() {
+        return field(4);
+    }
+
+    public String getPurpose() {
+        return field(5);
+    }
+
+    public String getRole() {
+        return field(6);
+    }
+
+    public String getStatus() {
+        return field(7);
+    }
+
+    /**
+     * 사용 인원 문자열 (파일 값 그대로)
+     */
+    public String getStudentCountText() {
+        return field(8);
+    }
+
+    public String getUserId() {
+        return field(9);
+    }
+
+    @Override
+    public String toString() {
+        return line;
+    }
+}
@@ -0,0 +1,643 @@
+package Server.storage;
+
+import Server.ServerConfig;
+import Server.exceptions.DatabaseException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 예약 데이터 저장소 (메모리 + 변경 로그)
+ *
+ * 시작 시 ReserveClass.txt, ReserveLab.txt, ReservationRequest.txt, ChangeRequest.txt와
+ * 아직 반영되지 않은 변경 로그(reservations-*.wal)를 읽어 메모리에 올리고, 모든 조회는 메모리에서 처리한다.
+ * 변경은 로그에 한 줄을 추가한 뒤 메모리에 반영하며, 기준 파일은 StorageCompactor가 백그라운드에서 다시 쓴다.
+ *
+ * 시작 시 구 형식(8/9개 필드) 행은 한 번 10개 필드로 변환해 두므로(ReservationSchema), 조회 경로는 한 가지 형식만 다룬다.
+ * 보관 기간(storage.archive.retention.days)이 지난 승인 예약은 주기적으로 월 단위 압축 파티션(ReservationArchive)으로 옮기므로,
+ * 메모리와 기준 파일에는 최근 예약만 남는다. 승인 이력(ApprovedBackup)은 처음부터 월 파티션에 추가한다.
+ *
+ * 디렉토리당 인스턴스 하나를 공유하며(open), 개별 메서드는 원자적으로 동작한다.
+ * "확인 후 추가"처럼 여러 호출을 묶어야 하는 작업은 호출하는 명령이 해당 강의실의 RoomLocks로 감싼다.
+ */
+public final class ReservationRepository {
+
+    private static final Map<Path, ReservationRepository> OPENED = new ConcurrentHashMap<>();
+    private static final int WEEK_GRID_CACHE_SIZE = 64;
+
+    private final LoggedTables<ReservationStore, ReservationRecord> tables;
+    private final SlotIndex slots = new SlotIndex();
+    private final OwnerIndex owners = new OwnerIndex();
+    private final RoomDateIndex roomDates = new RoomDateIndex();
+    private final OccupancyIndex occupancy = new OccupancyIndex();
+    private final AvailabilityIndex availability = new AvailabilityIndex();
+    /** (주 시작일, 강의실 목록) → 마지막으로 계산한 주간 시간표 */
+    private final Map<String, WeekGrid> weekGrids = new ConcurrentHashMap<>();
+    private final ReservationArchive archive;
+    /** 보관된 가장 최근 월 (이 달 이후만 조회하면 보관소를 읽지 않음, 보관된 것이 없으면 null) */
+    private volatile YearMonth latestArchived;
+
+    private ReservationRepository(Path baseDir) {
+        this.archive = new ReservationArchive(baseDir);
+        List<ReservationStore> cached = new ArrayList<>();
+        for (ReservationStore store : ReservationStore.values()) {
+            if (store.isCached()) {
+                cached.add(store);
+            }
+        }
+        this.tables = new LoggedTables<>(baseDir, "reservations", ReservationStore.class, cached,
+                ReservationStore::getFileName, ReservationRecord::new);
+    }
+
+    /**
+     * 데이터 디렉토리의 저장소 (처음 호출 시 파일을 읽어 적재)
+     */
+    public static ReservationRepository open(String baseDir) {
+        Path dir = Paths.get(baseDir).toAbsolutePath().normalize();
+        return OPENED.computeIfAbsent(dir, d -> {
+            ReservationRepository repository = new ReservationRepository(d);
+            try {
+                repository.tables.load();
+                repository.migrate(d, UserRepository.open(d.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("예약 데이터 적재 실패: " + d, e);
+            }
+            repository.tables.addListener(repository.slots);
+            repository.tables.addListener(repository.owners);
+            repository.tables.addListener(repository.roomDates);
+            repository.tables.addListener(repository.occupancy);
+            repository.tables.addListener(repository.availability);
+            StorageCompactor.register(repository.tables);
+            try {
+                for (ReservationStore store : ReservationStore.approved()) {
+                    List<YearMonth> months = repository.archive.months(store, null);
+                    if (!months.isEmpty()) {
+                        repository.markArchived(months.get(months.size() - 1));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("예약 보관소 확인 실패: " + d, e);
+            }
+            long retentionDays = ServerConfig.getLong("storage.archive.retention.days", 180);
+            if (retentionDays > 0) {
+                StorageCompactor.schedule(ServerConfig.getLong("storage.archive.interval.ms", 3_600_000),
+                        () -> repository.archiveExpired(retentionDays));
+            }
+            return repository;
+        });
+    }
+
+    // ===== 조회 =====
+
+    /**
+     * 파일 순서대로 모든 행
+     */
+    public List<ReservationRecord> list(ReservationStore store) {
+        return find(store, record -> true);
+    }
+
+    /**
+     * 조건에 맞는 행 (파일 순서)
+     */
+    public List<ReservationRecord> find(ReservationStore store, Predicate<ReservationRecord> filter) {
+        return tables.find(store, filter);
+    }
+
+    /**
+     * 조건에 맞는 첫 행 (없으면 null)
+     */
+    public ReservationRecord findFirst(ReservationStore store, Predicate<ReservationRecord> filter) {
+        return tables.findFirst(store, filter);
+    }
+
+    public boolean exists(ReservationStore store, Predicate<ReservationRecord> filter) {
+        return findFirst(store, filter) != null;
+    }
+
+    public int count(ReservationStore store, Predicate<ReservationRecord> filter) {
+        return tables.count(store, filter);
+    }
+
+    /**
+     * 순번이 afterSeq보다 큰 행을 순번 순으로 최대 limit개 (페이지 조회, 다음 페이지는 마지막 행의 순번부터)
+     */
+    public List<ReservationRecord> page(ReservationStore store, Predicate<ReservationRecord> filter,
+                                        long afterSeq, int limit) {
+        return tables.page(store, filter, afterSeq, limit);
+    }
+
+    /**
+     * 순번 구분값 (재시작하면 순번을 다시 매기고 이 값도 바뀌므로, 페이지 커서가 같은 실행의 것인지 확인하는 데 사용)
+     */
+    public long pageEpoch() {
+        return tables.epoch();
+    }
+
+    /**
+     * 해당 강의실·날짜·교시를 차지한 대기/승인 예약 (색인 조회, 없으면 빈 목록)
+     */
+    public List<ReservationRecord> findSlotHolders(String room, String date, String time) {
+        return tables.read(() -> slots.holders(room, date, time));
+    }
+
+    /**
+     * 해당 강의실·날짜·교시를 대기/승인 예약이 차지했는지 (비트맵으로 먼저 거르고, 비트가 켜진 경우만 시간대 색인 확인)
+     */
+    public boolean isSlotTaken(String room, String date, String time) {
+        return tables.read(() -> {
+            int period = AvailabilityIndex.period(time);
+            if (period > 0) {
+                try {
+                    if ((availability.occupied(room, LocalDate.parse(date.trim())) & (1L << period)) == 0) {
+                        return false;
+                    }
+                } catch (DateTimeParseException e) {
+                    // 날짜를 읽을 수 없으면 시간대 색인으로 판단
+                }
+            }
+            return slots.isTaken(room, date, time);
+        });
+    }
+
+    /**
+     * 시간 문자열 앞의 교시 번호 (예: "3교시(11:00~12:00)" → 3, 읽을 수 없거나 1~63 밖이면 -1)
+     */
+    public static int periodOf(String time) {
+        return AvailabilityIndex.period(time);
+    }
+
+    /**
+     * 강의실·날짜의 차지된 교시 비트맵 (비트 p = p교시, 대기 + 승인 예약, 강의실 끝의 "호" 무시)
+     */
+    public long occupiedPeriods(String room, LocalDate date) {
+        return tables.read(() -> availability.occupied(room, date));
+    }
+
+    /**
+     * 시작일부터 days일 동안의 날짜별 차지된 교시 비트맵 (인덱스 0 = 시작일, 한 번의 읽기 잠금 안에서 조회)
+     */
+    public long[] occupiedPeriods(String room, LocalDate from, int days) {
+        return tables.read(() -> availability.occupied(room, from, days));
+    }
+
+    /**
+     * 날짜의 period교시가 비어 있는 강의실 (대기·승인 예약과 그 요일의 주간 예약을 모두 제외, 입력 순서 유지)
+     */
+    public List<String> findFreeRooms(List<String> rooms, LocalDate date, int period) {
+        if (period < 1 || period > AvailabilityIndex.MAX_PERIOD) {
+            throw new IllegalArgumentException("교시 범위 오류: " + period);
+        }
+        return tables.read(() -> availability.freeRooms(rooms, date, period));
+    }
+
+    /**
+     * 강의실별 시작일부터 7일간의 시간표 (승인·대기 교시 비트맵과 교시별 승인 인원, 보관되지 않은 예약 기준)
+     * 같은 주·강의실 목록으로 다시 요청하면, 그 사이 시간표에 영향을 주는 변경이 없었을 때 계산 없이 이전 결과를 돌려준다.
+     */
+    public WeekGrid weekGrid(List<String> rooms, LocalDate weekStart) {
+        String key = weekStart + "\u0000" + String.join("\u0000", rooms);
+        WeekGrid cached = weekGrids.get(key);
+        WeekGrid grid = tables.read(() -> cached != null && cached.getVersion() == availability.version()
+                ? cached : availability.weekGrid(new ArrayList<>(rooms), weekStart));
+        if (grid != cached) {
+            if (weekGrids.size() >= WEEK_GRID_CACHE_SIZE) {
+                weekGrids.clear();
+            }
+            weekGrids.put(key, grid);
+        }
+        return grid;
+    }
+
+    /**
+     * 강의실의 예약 행 (CLASS, LAB, PENDING 중 하나, 날짜 순, 날짜 색인의 범위 조회)
+     * 강의실 이름 끝의 "호"는 있어도 없어도 같은 강의실로 본다.
+     * 기간이 보관된 달에 걸치면 기간과 겹치는 월 파티션만 함께 읽는다 (시작일이 없으면 보관된 모든 달).
+     * @param from 시작일 (포함, null이면 처음부터)
+     * @param to 종료일 (포함, null이면 끝까지)
+     */
+    public List<ReservationRecord> findByRoom(String room, ReservationStore store, LocalDate from, LocalDate to) {
+        return withArchived(store, room, from, to, tables.read(() -> roomDates.rows(room, store, from, to)));
+    }
+
+    /**
+     * 강의실의 승인된 예약(강의실 → 실습실) 다음에 대기 중 요청 순서로 모은 행 (보관된 행 포함)
+     */
+    public List<ReservationRecord> findByRoom(String room, LocalDate from, LocalDate to) {
+        return withArchived(findLiveByRoom(room, from, to));
+    }
+
+    /**
+     * findByRoom의 메모리 부분만 (한 번의 읽기 잠금 안에서 조회, 디스크를 읽지 않음)
+     * 강의실 잠금의 낙관적 읽기처럼 여러 번 실행될 수 있는 곳에서는 이것만 읽고, 보관된 행은 읽기가 끝난 뒤
+     * withArchived로 합친다.
+     */
+    public RoomRows findLiveByRoom(String room, LocalDate from, LocalDate to) {
+        return tables.read(() -> {
+            Map<ReservationStore, List<ReservationRecord>> rows = new EnumMap<>(ReservationStore.class);
+            for (ReservationStore store : RoomRows.STORES) {
+                rows.put(store, roomDates.rows(room, store, from, to));
+            }
+            return new RoomRows(room, from, to, rows);
+        });
+    }
+
+    /**
+     * 메모리에서 찾은 강의실 행에 기간과 겹치는 보관 파티션의 행을 합침 (승인 예약 → 대기 중 요청 순서)
+     */
+    public List<ReservationRecord> withArchived(RoomRows live) {
+        List<ReservationRecord> rows = new ArrayList<>();
+        for (ReservationStore store : RoomRows.STORES) {
+            rows.addAll(withArchived(store, live.room, live.from, live.to, live.rows.get(store)));
+        }
+        return rows;
+    }
+
+    /**
+     * findLiveByRoom 결과 (강의실, 기간, 파일별 메모리 행)
+     */
+    public static final class RoomRows {
+
+        private static final ReservationStore[] STORES =
+                {ReservationStore.CLASS, ReservationStore.LAB, ReservationStore.PENDING};
+
+        private final String room;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final Map<ReservationStore, List<ReservationRecord>> rows;
+
+        private RoomRows(String room, LocalDate from, LocalDate to, Map<ReservationStore, List<ReservationRecord>> rows) {
+            this.room = room;
+            this.from = from;
+            this.to = to;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * 메모리에서 찾은 행에 보관된 행을 합침 (기간이 보관된 달에 걸칠 때만 파티션을 읽음)
+     * 메모리를 먼저 읽고 보관소를 나중에 읽으므로, 그 사이 보관된 행도 빠지지 않으며 양쪽에 있는 행은 한 번만 담는다.
+     */
+    private List<ReservationRecord> withArchived(ReservationStore store, String room, LocalDate from, LocalDate to,
+                                                 List<ReservationRecord> live) {
+        YearMonth latest = latestArchived;
+        if (latest == null || (from != null && YearMonth.from(from).isAfter(latest)) || !isArchivable(store)) {
+            return live;
+        }
+        List<ReservationRecord> archived;
+        try {
+            archived = archive.rows(store, room, from == null ? LocalDate.MIN : from, to == null ? LocalDate.MAX : to);
+        } catch (IOException e) {
+            System.err.println("[ReservationRepository] 보관된 예약을 읽지 못해 현재 예약만 응답: " + e.getMessage());
+            return live;
+        }
+        if (archived.isEmpty()) {
+            return live;
+        }
+        List<ReservationRecord> rows = new ArrayList<>(live);
+        rows.addAll(notIn(live, archived));
+        // 날짜 없는 행(기간 없는 조회의 주간 예약)은 앞에 두고, 같은 날짜는 메모리 행 → 보관 행 순서 유지
+        rows.sort(Comparator.comparing(ReservationArchive::dateOf, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return rows;
+    }
+
+    /**
+     * 조건에 맞는 행에 보관된 행을 더함 (보관 행 → 메모리 행 순서, 기간이 없는 목록용이라 모든 월 파티션을 읽음)
+     */
+    private List<ReservationRecord> withArchived(ReservationStore store, Predicate<ReservationRecord> filter,
+                                                 List<ReservationRecord> live) {
+        if (latestArchived == null || !isArchivable(store)) {
+            return live;
+        }
+        List<ReservationRecord> archived;
+        try {
+            archived = archive.page(store, filter, 0, Integer.MAX_VALUE);
+        } catch (IOException e) {
+            System.err.println("[ReservationRepository] 보관된 예약을 읽지 못해 현재 예약만 응답: " + e.getMessage());
+            return live;
+        }
+        List<ReservationRecord> rows = notIn(live, archived);
+        rows.addAll(live);
+        return rows;
+    }
+
+    /**
+     * 보관 행 중 메모리 행에 없는 것 (메모리를 먼저 읽고 보관소를 나중에 읽으므로 그사이 보관된 행은 양쪽에 있음)
+     * 내용이 같은 행이 여럿이면 메모리에 있는 수만큼만 뺀다.
+     */
+    private static List<ReservationRecord> notIn(List<ReservationRecord> live, List<ReservationRecord> archived) {
+        Map<String, Integer> liveLines = new HashMap<>();
+        for (ReservationRecord row : live) {
+            liveLines.merge(row.getLine(), 1, Integer::sum);
+        }
+        List<ReservationRecord> rows = new ArrayList<>();
+        for (ReservationRecord row : archived) {
+            Integer count = liveLines.remove(row.getLine());
+            if (count == null) {
+                rows.add(row);
+            } else if (count > 1) {
+                liveLines.put(row.getLine(), count - 1);
+            }
+        }
+        return rows;
+    }
+
+    private static boolean isArchivable(ReservationStore store) {
+        return store == ReservationStore.CLASS || store == ReservationStore.LAB;
+    }
+
+    /**
+     * 강의실·날짜의 메모리 행 중 조건에 맞는 것 (변경 명령이 지우거나 바꿀 행을 찾을 때, 보관소는 읽지 않음)
+     * 날짜를 해석할 수 있으면 날짜 색인 범위 조회로 찾고, 날짜가 비었거나 해석할 수 없거나 색인하지 않는 파일이면
+     * 읽기 잠금 안에서 테이블을 훑는다.
+     */
+    public List<ReservationRecord> findInRoom(ReservationStore store, String room, String date,
+                                              Predicate<ReservationRecord> filter) {
+        LocalDate day = null;
+        if (store == ReservationStore.CLASS || store == ReservationStore.LAB || store == ReservationStore.PENDING) {
+            try {
+                day = LocalDate.parse(date.trim());
+            } catch (DateTimeParseException e) {
+                day = null;
+            }
+        }
+        if (day == null) {
+            return find(store, filter);
+        }
+        LocalDate from = day;
+        List<ReservationRecord> rows = tables.read(() -> roomDates.rows(room, store, from, from));
+        rows.removeIf(filter.negate());
+        return rows;
+    }
+
+    /**
+     * 강의실·날짜·교시의 승인된 예약 인원 합계 (집계 색인 조회, 잠금 없음)
+     */
+    public int reservedCount(String room, String date, String time) {
+        return occupancy.byDate(room, date, time);
+    }
+
+    /**
+     * 강의실·요일·교시의 주간(날짜 없는) 승인 예약 인원 합계 (집계 색인 조회, 잠금 없음)
+     */
+    public int weeklyReservedCount(String room, String day, String time) {
+        return occupancy.weekly(room, day, time);
+    }
+
+    /**
+     * 사용자의 예약 (CLASS, LAB, PENDING 중 하나, 파일 순서, 색인 조회)
+     */
+    public List<ReservationRecord> findByOwner(String userId, ReservationStore store) {
+        return tables.read(() -> owners.rows(userId, store));
+    }
+
+    /**
+     * 사용자의 예약에 보관된 예약을 더한 행 (보관 행 → 메모리 행 순서, 내 예약 조회용)
+     */
+    public List<ReservationRecord> findByOwnerWithArchived(String userId, ReservationStore store) {
+        String owner = userId.trim();
+        return withArchived(store, row -> row.isCanonical() && row.getUserId().equals(owner),
+                findByOwner(userId, store));
+    }
+
+    /**
+     * 조건에 맞는 행에 보관된 예약을 더한 행 (보관 행 → 메모리 행 순서, 전체 목록 조회용)
+     */
+    public List<ReservationRecord> findWithArchived(ReservationStore store, Predicate<ReservationRecord> filter) {
+        return withArchived(store, filter, find(store, filter));
+    }
+
+    /**
+     * 조건에 맞는 보관 행 한 페이지 (목록 명령의 Pager용, 보관하지 않는 파일이면 빈 목록)
+     * 보관 행의 순번은 월 파티션 기준이라 메모리 행의 순번과 따로 매겨지므로, 명령은 보관 행과 메모리 행을 다른 파트로 보낸다.
+     */
+    public List<ReservationRecord> pageArchived(ReservationStore store, Predicate<ReservationRecord> filter,
+                                                long afterSeq, int limit) {
+        if (latestArchived == null || !isArchivable(store)) {
+            return new ArrayList<>();
+        }
+        try {
+            return archive.page(store, filter, afterSeq, limit);
+        } catch (IOException e) {
+            System.err.println("[ReservationRepository] 보관된 예약을 읽지 못해 현재 예약만 응답: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // ===== 변경 =====
+
+    /**
+     * 행 추가 (메모리에 올리지 않는 파일은 예약 날짜의 월 파티션 끝에 바로 append)
+     */
+    public ReservationRecord append(ReservationStore store, String line) throws DatabaseException {
+        if (!store.isCached()) {
+            ReservationRecord record = new ReservationRecord(0, line);
+            LocalDate date = ReservationArchive.dateOf(record);
+            try {
+                archive.append(store, date != null ? YearMonth.from(date) : YearMonth.now(), line);
+            } catch (IOException e) {
+                throw new DatabaseException(store.getFileName(), DatabaseException.OperationType.WRITE,
+                        "예약 저장 중 오류가 발생했습니다", e);
+            }
+            return record;
+        }
+        return tables.append(store, line);
+    }
+
+    /**
+     * 조건에 맞는 행을 모두 삭제
+     * @return 삭제된 행 (파일 순서)
+     */
+    public List<ReservationRecord> removeIf(ReservationStore store, Predicate<ReservationRecord> filter)
+            throws DatabaseException {
+        return tables.removeIf(store, filter);
+    }
+
+    /**
+     * 색인 등으로 찾아 둔 행 삭제 (테이블을 훑지 않음, 그사이 삭제되었거나 바뀐 행은 건너뜀)
+     * @return 삭제된 행
+     */
+    public List<ReservationRecord> removeRows(ReservationStore store, Collection<ReservationRecord> rows)
+            throws DatabaseException {
+        return tables.removeRows(store, rows);
+    }
+
+    /**
+     * 찾아 둔 행의 내용 수정 (순서 유지, 테이블을 훑지 않음, 그사이 삭제되었거나 바뀐 행은 건너뜀)
+     * @param mapper 바꿀 행이면 새 줄, 그대로 둘 행이면 null 반환
+     * @return 수정된 행 (새 내용)
+     */
+    public List<ReservationRecord> updateRows(ReservationStore store, Collection<ReservationRecord> rows,
+                                              Function<ReservationRecord, String> mapper) throws DatabaseException {
+        return tables.updateRows(store, rows, mapper);
+    }
+
+    /**
+     * 행 내용 수정 (순서 유지)
+     * @param mapper 바꿀 행이면 새 줄, 그대로 둘 행이면 null 반환
+     * @return 수정된 행 수
+     */
+    public int updateIf(ReservationStore store, Function<ReservationRecord, String> mapper)
+            throws DatabaseException {
+        return tables.updateIf(store, mapper);
+    }
+
+    /**
+     * 삭제했던 행을 같은 순번으로 다시 추가 (명령 실패 시 롤백용, 목록에서는 끝에 위치)
+     */
+    public void restore(ReservationStore store, ReservationRecord record) throws DatabaseException {
+        tables.restore(store, record);
+    }
+
+    /**
+     * 변경 로그를 기준 파일에 즉시 반영
+     */
+    public boolean compact() {
+        return tables.compact();
+    }
+
+    // ===== 형식 변환 =====
+
+    /**
+     * 형식 버전이 낮으면 구 형식 예약 행을 10개 필드로 변환하고 버전 기록 (색인 등록 전, 시작 시 한 번)
+     * 아이디는 여기서 한 번만 이름으로 찾으므로, 이후 조회 경로에서는 사용자 파일을 찾지 않는다.
+     */
+    private void migrate(Path dir, UserRepository users) throws IOException {
+        if (ReservationSchema.readVersion(dir) >= ReservationSchema.CURRENT) {
+            return;
+        }
+        int migrated = 0;
+        for (ReservationStore store : new ReservationStore[]{
+                ReservationStore.CLASS, ReservationStore.LAB, ReservationStore.PENDING}) {
+            try {
+                migrated += tables.updateIf(store, row -> ReservationSchema.canonicalize(row, users::findUserIdByName));
+            } catch (DatabaseException e) {
+                throw new IOException("예약 형식 변환 실패: " + store.getFileName(), e);
+            }
+            int malformed = tables.count(store, row -> !row.isBlank() && row.fieldCount() < 7);
+            if (malformed > 0) {
+                System.err.printf("[ReservationRepository] %s: 해석할 수 없는 행 %d개는 변환하지 않음%n",
+                        store.getFileName(), malformed);
+            }
+        }
+        ReservationSchema.writeVersion(dir, ReservationSchema.CURRENT);
+        System.out.printf("[ReservationRepository] 예약 형식 버전 %d로 변환: %d행%n", ReservationSchema.CURRENT, migrated);
+    }
+
+    // ===== 보관 =====
+
+    /**
+     * 보관 기준일 이전 날짜의 승인 예약(CLASS, LAB)을 월 파티션으로 옮기고, 지난 달의 승인 이력 파티션을 압축
+     * 파티션 기록(fsync)이 끝난 뒤에 메모리/로그에서 삭제하며, 그 사이 내용이 바뀐 행은 남겨 두었다가 다음에 옮긴다.
+     * 기록과 삭제 사이에 바뀌거나 취소된 행의 줄은 파티션을 다시 기록해 빼므로, 보관소에 지난 내용이 남지 않는다
+     * (강의실 잠금 없이 돌기 때문에, 느린 압축 동안 예약 명령을 막지 않기 위한 방식).
+     * @param horizon 이 날짜보다 이전인 예약을 보관
+     * @return 옮긴 행 수
+     */
+    public int archive(LocalDate horizon) throws DatabaseException {
+        int moved = 0;
+        for (ReservationStore store : ReservationStore.approved()) {
+            List<ReservationRecord> expired = tables.find(store, row -> {
+                LocalDate date = ReservationArchive.dateOf(row);
+                return date != null && date.isBefore(horizon);
+            });
+            if (expired.isEmpty()) {
+                continue;
+            }
+            Map<YearMonth, List<String>> byMonth = new TreeMap<>();
+            Map<Long, String> archived = new HashMap<>();
+            for (ReservationRecord row : expired) {
+                byMonth.computeIfAbsent(YearMonth.from(ReservationArchive.dateOf(row)), k -> new ArrayList<>())
+                        .add(row.getLine());
+                archived.put(row.getSeq(), row.getLine());
+            }
+            try {
+                for (Map.Entry<YearMonth, List<String>> partition : byMonth.entrySet()) {
+                    archive.seal(store, partition.getKey(), partition.getValue());
+                    markArchived(partition.getKey());
+                }
+            } catch (IOException e) {
+                throw new DatabaseException(store.getFileName(), DatabaseException.OperationType.WRITE,
+                        "예약 보관 중 오류가 발생했습니다", e);
+            }
+            List<ReservationRecord> removed =
+                    tables.removeIf(store, row -> row.getLine().equals(archived.get(row.getSeq())));
+            moved += removed.size();
+            if (removed.size() < expired.size()) {
+                unsealStale(store, expired, removed);
+            }
+        }
+        try {
+            archive.sealBefore(ReservationStore.APPROVED_BACKUP, YearMonth.from(horizon));
+        } catch (IOException e) {
+            throw new DatabaseException(ReservationStore.APPROVED_BACKUP.getFileName(),
+                    DatabaseException.OperationType.WRITE, "승인 이력 압축 중 오류가 발생했습니다", e);
+        }
+        return moved;
+    }
+
+    /**
+     * 봉인했지만 테이블에서 빼지 못한 행의 줄을 월 파티션에서 제거
+     * 같은 내용의 행이 여럿이면 빼낸 수만큼만 옮겨진 것으로 센다.
+     */
+    private void unsealStale(ReservationStore store, List<ReservationRecord> sealed, List<ReservationRecord> removed)
+            throws DatabaseException {
+        Map<String, Integer> moved = new HashMap<>();
+        for (ReservationRecord row : removed) {
+            moved.merge(row.getLine(), 1, Integer::sum);
+        }
+        Map<YearMonth, List<String>> stale = new TreeMap<>();
+        for (ReservationRecord row : sealed) {
+            Integer count = moved.remove(row.getLine());
+            if (count != null) {
+                if (count > 1) {
+                    moved.put(row.getLine(), count - 1);
+                }
+                continue;
+            }
+            stale.computeIfAbsent(YearMonth.from(ReservationArchive.dateOf(row)), k -> new ArrayList<>())
+                    .add(row.getLine());
+        }
+        try {
+            for (Map.Entry<YearMonth, List<String>> partition : stale.entrySet()) {
+                archive.unseal(store, partition.getKey(), partition.getValue());
+            }
+        } catch (IOException e) {
+            throw new DatabaseException(store.getFileName(), DatabaseException.OperationType.WRITE,
+                    "보관 중 바뀐 예약을 보관소에서 빼는 중 오류가 발생했습니다", e);
+        }
+    }
+
+    private void archiveExpired(long retentionDays) {
+        long start = System.nanoTime();
+        try {
+            int moved = archive(LocalDate.now().minusDays(retentionDays));
+            if (moved > 0) {
+                System.out.printf("[ReservationRepository] 지난 예약 %d건 보관 (%.1fms)%n",
+                        moved, (System.nanoTime() - start) / 1_000_000.0);
+            }
+        } catch (DatabaseException e) {
+            System.err.println("[ReservationRepository] 예약 보관 실패: " + e.getMessage());
+        }
+    }
+
+    private synchronized void markArchived(YearMonth month) {
+        if (latestArchived == null || month.isAfter(latestArchived)) {
+            latestArchived = month;
+        }
+    }
+}
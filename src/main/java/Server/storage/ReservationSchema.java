@@ -0,0 +1,80 @@
+package Server.storage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Function;
+
+/**
+ * 예약 행(CLASS, LAB, PENDING) 형식 버전과 구 형식 변환
+ *
+ * 버전 1: 8개(이름,방,요일,시간,목적,권한,상태,학생수) / 9개(+날짜, 아이디 없음) / 10개 필드가 섞여 있음
+ * 버전 2: 모두 10개 필드 (이름,방,날짜,요일,시간,목적,권한,상태,학생수,아이디)
+ *         날짜가 없던 주간 반복 예약은 날짜 칸을 비워 두고, 아이디는 변환할 때 한 번 이름으로 찾아 채운다.
+ *
+ * 데이터 디렉토리의 reservations.schema에 버전을 기록하며, 시작 시 버전이 낮으면 ReservationRepository가 한 번 변환한다.
+ * 변환은 변경 로그를 통해 기록되므로 중간에 중단되어도 다음 시작 때 이어서 변환된다 (이미 10개 필드인 행은 그대로).
+ */
+final class ReservationSchema {
+
+    static final int CURRENT = 2;
+    static final int FIELD_COUNT = 10;
+
+    private static final String FILE_NAME = "reservations.schema";
+
+    private ReservationSchema() {
+    }
+
+    /**
+     * 구 형식 행을 10개 필드로 변환
+     * @param resolveUserId 이름 → 아이디 (찾지 못하면 null, 이 경우 기존 관례대로 이름을 아이디 칸에 둠)
+     * @return 새 줄 (이미 현재 형식이거나, 필드가 7개 미만이라 해석할 수 없으면 null)
+     */
+    static String canonicalize(ReservationRecord row, Function<String, String> resolveUserId) {
+        int count = row.fieldCount();
+        if (count >= FIELD_COUNT || count < 7) {
+            return null;
+        }
+        String[] fields = new String[FIELD_COUNT];
+        fields[0] = row.rawField(0);
+        fields[1] = row.rawField(1);
+        if (count == 9) {
+            // 이름,방,날짜,요일,시간,목적,권한,상태,학생수
+            for (int i = 2; i < 9; i++) {
+                fields[i] = row.rawField(i);
+            }
+        } else {
+            // 이름,방,요일,시간,목적,권한,상태[,학생수]
+            fields[2] = "";
+            for (int i = 2; i < 7; i++) {
+                fields[i + 1] = row.rawField(i);
+            }
+            fields[8] = count >= 8 ? row.rawField(7) : "0";
+        }
+        String name = row.field(0);
+        String userId = resolveUserId.apply(name);
+        fields[9] = userId != null ? userId : name;
+        return String.join(",", fields);
+    }
+
+    static int readVersion(Path baseDir) throws IOException {
+        Path file = baseDir.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException(FILE_NAME + " 형식 오류", e);
+        }
+    }
+
+    static void writeVersion(Path baseDir, int version) throws IOException {
+        Path temp = baseDir.resolve(FILE_NAME + ".tmp");
+        Files.write(temp, String.valueOf(version).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, baseDir.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+}
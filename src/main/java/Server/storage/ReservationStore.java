@@ -0,0 +1,43 @@
+package Server.storage;
+
+/**
+ * 예약 데이터 파일 구분
+ */
+public enum ReservationStore {
+    /** 승인된 강의실 예약: 이름,방,날짜,요일,시간,목적,권한,상태,학생수,아이디 */
+    CLASS("ReserveClass.txt", true),
+    /** 승인된 실습실 예약 (CLASS와 같은 형식) */
+    LAB("ReserveLab.txt", true),
+    /** 승인 대기 예약 (CLASS와 같은 형식, 상태=대기중) */
+    PENDING("ReservationRequest.txt", true),
+    /** 변경 요청: ID,시간,날짜,요일,방,이름,목적,권한,원시간,원날짜,원요일,원방,인원 */
+    CHANGE("ChangeRequest.txt", true),
+    /** 승인 이력 (추가만 하고 읽지 않으므로 메모리에 올리지 않음) */
+    APPROVED_BACKUP("ApprovedBackup.txt", false);
+
+    private final String fileName;
+    private final boolean cached;
+
+    ReservationStore(String fileName, boolean cached) {
+        this.fileName = fileName;
+        this.cached = cached;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * 시작 시 메모리에 올려 조회에 사용하는지 (변경은 변경 로그에 기록)
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * 승인된 예약 파일(CLASS, LAB)
+     */
+    public static ReservationStore[] approved() {
+        return new ReservationStore[]{CLASS, LAB};
+    }
+}
@@ -0,0 +1,111 @@
+package Server.storage;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * 강의실별 날짜 순 색인 (CLASS, LAB, PENDING의 9개 필드 이상 행)
+ *
+ * 강의실 → 파일 → 날짜(epoch day) → 순번 순서로 정렬해 두어, "강의실 X의 A~B일" 조회는
+ * subMap 범위 조회로 끝나고 보관된 과거 예약이 많아도 조회 비용은 범위 안의 행 수에만 비례한다.
+ * 강의실 이름은 끝의 "호"를 떼고 비교한다 (기존 "908" / "908호" 혼용 호환).
+ * 날짜를 해석할 수 없는 행은 가장 앞(UNDATED)에 두어 전체 조회에만 포함된다.
+ */
+final class RoomDateIndex implements TableListener<ReservationStore, ReservationRecord> {
+
+    private static final long UNDATED = Long.MIN_VALUE;
+
+    private final Map<String, Map<ReservationStore, TreeMap<Long, TreeMap<Long, ReservationRecord>>>> rooms =
+            new HashMap<>();
+
+    @Override
+    public void inserted(ReservationStore store, ReservationRecord row) {
+        if (!indexed(store, row)) {
+            return;
+        }
+        rooms.computeIfAbsent(roomKey(row.field(1)), k -> new EnumMap<>(ReservationStore.class))
+                .computeIfAbsent(store, k -> new TreeMap<>())
+                .computeIfAbsent(epochDay(row.field(2)), k -> new TreeMap<>())
+                .put(row.getSeq(), row);
+    }
+
+    @Override
+    public void removed(ReservationStore store, ReservationRecord row) {
+        if (!indexed(store, row)) {
+            return;
+        }
+        String room = roomKey(row.field(1));
+        Map<ReservationStore, TreeMap<Long, TreeMap<Long, ReservationRecord>>> stores = rooms.get(room);
+        TreeMap<Long, TreeMap<Long, ReservationRecord>> days = stores == null ? null : stores.get(store);
+        if (days == null) {
+            return;
+        }
+        long day = epochDay(row.field(2));
+        TreeMap<Long, ReservationRecord> rows = days.get(day);
+        if (rows == null) {
+            return;
+        }
+        rows.remove(row.getSeq());
+        if (rows.isEmpty()) {
+            days.remove(day);
+            if (days.isEmpty()) {
+                stores.remove(store);
+                if (stores.isEmpty()) {
+                    rooms.remove(room);
+                }
+            }
+        }
+    }
+
+    /**
+     * 강의실의 행 (날짜 → 파일 순서)
+     * @param from 시작일 (포함, null이면 처음부터 - 날짜를 해석할 수 없는 행도 포함)
+     * @param to 종료일 (포함, null이면 끝까지)
+     */
+    List<ReservationRecord> rows(String room, ReservationStore store, LocalDate from, LocalDate to) {
+        List<ReservationRecord> result = new ArrayList<>();
+        Map<ReservationStore, TreeMap<Long, TreeMap<Long, ReservationRecord>>> stores = rooms.get(roomKey(room));
+        TreeMap<Long, TreeMap<Long, ReservationRecord>> days = stores == null ? null : stores.get(store);
+        if (days == null) {
+            return result;
+        }
+        long low = from == null ? UNDATED : from.toEpochDay();
+        long high = to == null ? Long.MAX_VALUE : to.toEpochDay();
+        if (low > high) {
+            return result;
+        }
+        NavigableMap<Long, TreeMap<Long, ReservationRecord>> range = days.subMap(low, true, high, true);
+        for (TreeMap<Long, ReservationRecord> rows : range.values()) {
+            result.addAll(rows.values());
+        }
+        return result;
+    }
+
+    private static boolean indexed(ReservationStore store, ReservationRecord row) {
+        return (store == ReservationStore.CLASS || store == ReservationStore.LAB || store == ReservationStore.PENDING)
+                && row.hasDate();
+    }
+
+    /**
+     * 강의실 비교용 키 (앞뒤 공백과 끝의 "호" 제거)
+     */
+    static String roomKey(String room) {
+        String trimmed = room.trim();
+        return trimmed.endsWith("호") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private static long epochDay(String date) {
+        try {
+            return LocalDate.parse(date).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return UNDATED;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package Server.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * 강의실 단위로 나눈 예약 잠금 (lock striping)
+ *
+ * 예약 명령은 전역 잠금 하나 대신, 강의실 이름을 해시해 고른 stripe 잠금을 잡는다.
+ * 서로 다른 강의실의 예약/승인/조회는 동시에 진행되고, 같은 강의실(또는 같은 stripe)에 대한 "확인 후 변경"만 순서대로 처리된다.
+ * 강의실이 아닌 데이터(사용자 파일)는 USERS 같은 파티션 키로 같은 방식으로 잠근다.
+ *
+ * 교착 방지: 여러 키를 잠글 때는 항상 stripe 번호 오름차순으로 한 번에 잡는다.
+ * 따라서 한 명령이 필요한 키는 lock() 한 번에 모두 넘겨야 하며, 잠금을 쥔 채 다시 lock()이나 read()를 호출하지 않는다
+ * (StampedLock은 재진입되지 않는다).
+ *
+ * 조회 명령은 read()로 낙관적 읽기를 한다: 잠금 없이 읽은 뒤 그동안 같은 stripe에 변경 명령이 없었는지만 확인하고,
+ * 있었으면 읽기 잠금으로 한 번 더 읽는다. 따라서 조회끼리는 서로 막지 않고, 조회 때문에 승인/예약이 기다리지도 않는다.
+ * StampedLock은 LockSupport로 대기하므로 가상 스레드가 캐리어에 고정되지 않는다.
+ */
+public final class RoomLocks {
+
+    /** 사용자 파일(users.txt, prof.txt, assistant.txt) 파티션 키 */
+    public static final String USERS = "@users";
+
+    private final StampedLock[] stripes;
+
+    /**
+     * @param stripeCount stripe 수 (2의 거듭제곱으로 올림)
+     */
+    public RoomLocks(int stripeCount) {
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new StampedLock[size];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new StampedLock();
+        }
+    }
+
+    /**
+     * 주어진 강의실/파티션 키의 잠금을 모두 획득 (같은 stripe는 한 번만)
+     * 강의실 이름 끝의 "호"는 있어도 없어도 같은 키로 본다.
+     */
+    public Held lock(String... keys) {
+        return lock(Arrays.asList(keys));
+    }
+
+    public Held lock(Collection<String> keys) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (String key : keys) {
+            if (key != null) {
+                indexes.add(stripeOf(key));
+            }
+        }
+        return acquire(indexes);
+    }
+
+    /**
+     * 잠글 키를 잠금 전에 조회해야 하는 경우 (예: 변경 요청 승인 시 원래 강의실)
+     * 잠근 뒤 다시 조회해 키가 늘어났으면 풀고 다시 잡는다.
+     */
+    public Held lock(Supplier<Collection<String>> keys) {
+        while (true) {
+            Collection<String> expected = keys.get();
+            Held held = lock(expected);
+            List<Integer> current = new ArrayList<>();
+            for (String key : keys.get()) {
+                if (key != null) {
+                    current.add(stripeOf(key));
+                }
+            }
+            if (held.indexes.containsAll(current)) {
+                return held;
+            }
+            held.unlock();
+        }
+    }
+
+    /**
+     * 강의실 하나를 일관되게 읽기 (낙관적 읽기 → 실패하면 읽기 잠금)
+     * reader는 여러 번 호출될 수 있으므로 결과를 모아 반환만 하고, 전송 같은 부수 효과는 반환 후에 처리한다.
+     */
+    public <T> T read(String room, Supplier<T> reader) {
+        StampedLock lock = stripes[stripeOf(room)];
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            T result = reader.get();
+            if (lock.validate(stamp)) {
+                return result;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 모든 stripe 획득 (여러 강의실에 걸친 일괄 변경용, 예: 사용자 이름 변경)
+     */
+    public Held lockAll() {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (int i = 0; i < stripes.length; i++) {
+            indexes.add(i);
+        }
+        return acquire(indexes);
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    int stripeOf(String key) {
+        int hash = RoomDateIndex.roomKey(key).hashCode();
+        hash ^= (hash >>> 16);
+        return hash & (stripes.length - 1);
+    }
+
+    private Held acquire(TreeSet<Integer> indexes) {
+        Held held = new Held(indexes);
+        try {
+            for (int index : indexes) {
+                StampedLock lock = stripes[index];
+                held.add(lock, lock.writeLock());
+            }
+        } catch (RuntimeException | Error e) {
+            held.unlock();
+            throw e;
+        }
+        return held;
+    }
+
+    /**
+     * 획득한 잠금 묶음 (finally에서 unlock)
+     */
+    public static final class Held {
+
+        private final TreeSet<Integer> indexes;
+        private final List<StampedLock> locks = new ArrayList<>();
+        private final List<Long> stamps = new ArrayList<>();
+
+        private Held(TreeSet<Integer> indexes) {
+            this.indexes = indexes;
+        }
+
+        private void add(StampedLock lock, long stamp) {
+            locks.add(lock);
+            stamps.add(stamp);
+        }
+
+        /**
+         * 획득의 역순으로 해제
+         */
+        public void unlock() {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlockWrite(stamps.get(i));
+            }
+        }
+    }
+}
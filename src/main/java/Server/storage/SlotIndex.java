@@ -0,0 +1,80 @@
+package Server.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * (강의실, 날짜, 교시) → 그 시간을 차지한 예약 색인
+ *
+ * 대기 중 예약(PENDING)과 승인된 예약(CLASS/LAB 중 상태가 예약됨/승인)을 담으며,
+ * 승인·거절·취소·변경으로 행이 바뀌면 LoggedTables 통지로 함께 갱신된다.
+ * 교시는 괄호 앞부분만 비교한다 (예: "1교시(09:00~10:00)" → "1교시").
+ * 날짜가 없는 구 형식 행은 시간대를 특정할 수 없으므로 담지 않는다.
+ */
+final class SlotIndex implements TableListener<ReservationStore, ReservationRecord> {
+
+    /** 한 시간대를 여러 행이 차지하는 경우는 드물어 작은 리스트로 충분 */
+    private final Map<String, List<ReservationRecord>> slots = new HashMap<>();
+
+    @Override
+    public void inserted(ReservationStore store, ReservationRecord row) {
+        if (occupies(store, row)) {
+            slots.computeIfAbsent(key(row.field(1), row.field(2), row.field(4)), k -> new ArrayList<>(1)).add(row);
+        }
+    }
+
+    @Override
+    public void removed(ReservationStore store, ReservationRecord row) {
+        if (!occupies(store, row)) {
+            return;
+        }
+        String key = key(row.field(1), row.field(2), row.field(4));
+        List<ReservationRecord> holders = slots.get(key);
+        if (holders == null) {
+            return;
+        }
+        holders.removeIf(holder -> holder.getSeq() == row.getSeq());
+        if (holders.isEmpty()) {
+            slots.remove(key);
+        }
+    }
+
+    /**
+     * 해당 시간대를 차지한 예약 (없으면 빈 목록)
+     */
+    List<ReservationRecord> holders(String room, String date, String time) {
+        List<ReservationRecord> holders = slots.get(key(room.trim(), date.trim(), time.trim()));
+        return holders == null ? Collections.emptyList() : new ArrayList<>(holders);
+    }
+
+    boolean isTaken(String room, String date, String time) {
+        return slots.containsKey(key(room.trim(), date.trim(), time.trim()));
+    }
+
+    private static boolean occupies(ReservationStore store, ReservationRecord row) {
+        if (!row.hasDate()) {
+            return false;
+        }
+        switch (store) {
+            case PENDING:
+                return true;
+            case CLASS:
+            case LAB:
+                return row.field(7).equals("예약됨") || row.field(7).equals("승인");
+            default:
+                return false;
+        }
+    }
+
+    private static String normalizeTime(String time) {
+        int paren = time.indexOf('(');
+        return paren >= 0 ? time.substring(0, paren).trim() : time;
+    }
+
+    private static String key(String room, String date, String time) {
+        return room + '\u0000' + date + '\u0000' + normalizeTime(time);
+    }
+}
@@ -0,0 +1,82 @@
+package Server.storage;
+
+import Server.ServerConfig;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 변경 로그 백그라운드 압축
+ *
+ * storage.compaction.interval.ms마다 등록된 저장소를 확인해, 반영되지 않은 로그가
+ * storage.compaction.threshold.records건 또는 storage.compaction.threshold.bytes 이상이면 기준 파일을 다시 쓴다.
+ * 지난 예약 보관처럼 주기적인 저장소 정리 작업도 같은 스레드에서 실행한다 (schedule).
+ */
+public final class StorageCompactor {
+
+    private static final List<LoggedTables<?, ?>> TABLES = new CopyOnWriteArrayList<>();
+    private static ScheduledExecutorService scheduler;
+    private static boolean compactionScheduled;
+
+    private StorageCompactor() {
+    }
+
+    static synchronized void register(LoggedTables<?, ?> tables) {
+        TABLES.add(tables);
+        if (compactionScheduled) {
+            return;
+        }
+        compactionScheduled = true;
+        long interval = Math.max(100, ServerConfig.getLong("storage.compaction.interval.ms", 30_000));
+        long thresholdRecords = ServerConfig.getLong("storage.compaction.threshold.records", 1_000);
+        long thresholdBytes = ServerConfig.getLong("storage.compaction.threshold.bytes", 1L << 20);
+
+        scheduler().scheduleWithFixedDelay(() -> {
+            for (LoggedTables<?, ?> registered : TABLES) {
+                try {
+                    if (registered.needsCompaction(thresholdRecords, thresholdBytes)) {
+                        registered.compact();
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("[StorageCompactor] 압축 중 오류: " + e.getMessage());
+                }
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 주기적인 정리 작업 등록 (첫 실행도 intervalMs 후)
+     */
+    static synchronized void schedule(long intervalMs, Runnable task) {
+        long interval = Math.max(100, intervalMs);
+        scheduler().scheduleWithFixedDelay(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("[StorageCompactor] 정리 작업 중 오류: " + e.getMessage());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private static synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "storage-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    /**
+     * 모든 저장소의 남은 로그를 기준 파일에 반영 (서버 종료 시)
+     */
+    public static void compactAll() {
+        for (LoggedTables<?, ?> registered : TABLES) {
+            registered.compact();
+        }
+    }
+}
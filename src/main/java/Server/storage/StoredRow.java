@@ -0,0 +1,17 @@
+package Server.storage;
+
+/**
+ * LoggedTables에 보관되는 한 줄
+ */
+interface StoredRow {
+
+    /**
+     * 저장소 안에서의 순번 (적재 순서, 삭제되어도 다른 행의 순번은 바뀌지 않음)
+     */
+    long getSeq();
+
+    /**
+     * 파일에 저장되는 원본 줄
+     */
+    String getLine();
+}
@@ -0,0 +1,23 @@
+package Server.storage;
+
+/**
+ * LoggedTables 변경 통지 (보조 색인 유지용)
+ *
+ * 쓰기 잠금 안에서 호출되므로 구현은 짧게 끝나야 하며, 같은 잠금으로 보호되는 조회(LoggedTables.read)와 일관된다.
+ * 수정은 updated로 통지하며, 기본 구현은 이전 행 removed → 새 행 inserted 순서로 나누어 전달한다.
+ */
+interface TableListener<S, R> {
+
+    void inserted(S key, R row);
+
+    void removed(S key, R row);
+
+    /**
+     * 행 내용 교체 (순번은 같음)
+     * 잠금 없이 읽는 색인은 재정의해 한 번에 바꾸면, 교체 도중 조회가 행을 놓치지 않는다.
+     */
+    default void updated(S key, R previous, R current) {
+        removed(key, previous);
+        inserted(key, current);
+    }
+}
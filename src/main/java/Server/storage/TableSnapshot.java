@@ -0,0 +1,183 @@
+package Server.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 압축 시점의 테이블 상태를 담은 이진 스냅샷 (예: reservations.snapshot)
+ *
+ * 텍스트 기준 파일은 사람이 읽고 고칠 수 있도록 그대로 두고, 같은 내용을 길이 접두 형식으로 한 파일에 함께 저장한다.
+ * 시작 시 스냅샷이 manifest 세대와 같고 기준 파일이 그 뒤로 바뀌지 않았으면(크기·수정 시각) 텍스트 파일을 줄 단위로
+ * 파싱하지 않고 스냅샷을 한 번에 읽은 뒤, 그 세대 이후의 로그만 재생한다.
+ *
+ * 형식: MAGIC, VERSION, 세대, 테이블 수, [이름, 기준 파일 크기, 수정 시각, 행 수, [길이, UTF-8 바이트]...]..., CRC32
+ * 끝의 CRC가 맞지 않거나 형식이 다르면 없는 것으로 보고 텍스트 파일에서 적재한다.
+ */
+final class TableSnapshot {
+
+    private static final int MAGIC = 0x534E4150; // "SNAP"
+    private static final int VERSION = 1;
+    /** 기준 파일이 없을 때 기록하는 크기 */
+    static final long MISSING = -1;
+
+    private final long generation;
+    private final Map<String, Table> tables;
+
+    TableSnapshot(long generation, Map<String, Table> tables) {
+        this.generation = generation;
+        this.tables = tables;
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * 테이블 이름의 내용 (스냅샷에 없으면 null)
+     */
+    Table table(String name) {
+        return tables.get(name);
+    }
+
+    /**
+     * 테이블 하나의 행과, 스냅샷을 쓸 때의 기준 파일 상태
+     */
+    static final class Table {
+        final long fileSize;
+        final long fileModified;
+        final List<String> lines;
+
+        Table(long fileSize, long fileModified, List<String> lines) {
+            this.fileSize = fileSize;
+            this.fileModified = fileModified;
+            this.lines = lines;
+        }
+
+        /**
+         * 기준 파일이 스냅샷을 쓴 뒤로 바뀌지 않았는지
+         */
+        boolean matches(Path baseFile) throws IOException {
+            if (!Files.exists(baseFile)) {
+                return fileSize == MISSING;
+            }
+            return Files.size(baseFile) == fileSize
+                    && Files.getLastModifiedTime(baseFile).toMillis() == fileModified;
+        }
+
+        static Table of(Path baseFile, List<String> lines) throws IOException {
+            if (!Files.exists(baseFile)) {
+                return new Table(MISSING, 0, lines);
+            }
+            return new Table(Files.size(baseFile), Files.getLastModifiedTime(baseFile).toMillis(), lines);
+        }
+    }
+
+    /**
+     * 임시 파일에 기록·fsync 후 원자적으로 교체
+     */
+    void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            BufferedOutputStream buffered = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, crc));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(generation);
+            out.writeInt(tables.size());
+            for (Map.Entry<String, Table> entry : tables.entrySet()) {
+                Table table = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeLong(table.fileSize);
+                out.writeLong(table.fileModified);
+                out.writeInt(table.lines.size());
+                for (String line : table.lines) {
+                    byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+            out.flush();
+            DataOutputStream trailer = new DataOutputStream(buffered);
+            trailer.writeLong(crc.getValue());
+            trailer.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 스냅샷 읽기
+     * @return 파일이 없거나 손상되었으면 null
+     */
+    static TableSnapshot read(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        long limit;
+        try {
+            limit = Files.size(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(raw, crc));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            long generation = in.readLong();
+            int tableCount = in.readInt();
+            if (tableCount < 0 || tableCount > limit) {
+                return null;
+            }
+            Map<String, Table> tables = new LinkedHashMap<>();
+            for (int t = 0; t < tableCount; t++) {
+                String name = in.readUTF();
+                long fileSize = in.readLong();
+                long fileModified = in.readLong();
+                int rows = in.readInt();
+                if (rows < 0 || rows > limit) {
+                    return null;
+                }
+                List<String> lines = new ArrayList<>(rows);
+                for (int i = 0; i < rows; i++) {
+                    int length = in.readInt();
+                    if (length < 0 || length > limit) {
+                        return null;
+                    }
+                    byte[] bytes = new byte[length];
+                    in.readFully(bytes);
+                    lines.add(new String(bytes, StandardCharsets.UTF_8));
+                }
+                tables.put(name, new Table(fileSize, fileModified, lines));
+            }
+            long expected = crc.getValue();
+            if (new DataInputStream(raw).readLong() != expected) {
+                return null;
+            }
+            return new TableSnapshot(generation, tables);
+        } catch (NoSuchFileException | EOFException | UTFDataFormatException e) {
+            return null;
+        }
+    }
+}
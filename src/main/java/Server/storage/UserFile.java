@@ -0,0 +1,43 @@
+package Server.storage;
+
+/**
+ * 사용자 데이터 파일 구분 (형식: 이름,아이디,비밀번호)
+ */
+public enum UserFile {
+    /** 학생 (아이디가 S로 시작) */
+    STUDENT("users.txt"),
+    /** 교수 (P로 시작) */
+    PROFESSOR("prof.txt"),
+    /** 조교 (A로 시작) */
+    ASSISTANT("assistant.txt");
+
+    private final String fileName;
+
+    UserFile(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * 아이디 첫 글자로 파일 결정 (알 수 없는 형식이면 null)
+     */
+    public static UserFile forUserId(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        String id = userId.trim().toUpperCase();
+        if (id.startsWith("S")) {
+            return STUDENT;
+        }
+        if (id.startsWith("P")) {
+            return PROFESSOR;
+        }
+        if (id.startsWith("A")) {
+            return ASSISTANT;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,130 @@
+package Server.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사용자 아이디 / 이름 해시 색인 (잠금 없이 조회)
+ *
+ * 갱신은 LoggedTables 쓰기 잠금 안에서 한 번에 한 스레드만 하고, 조회는 ConcurrentHashMap에서 잠금 없이 읽는다.
+ * 키마다 순번 순으로 정렬된 불변 리스트를 두고 바뀔 때마다 새 리스트로 교체하므로, 읽는 쪽은 항상 완성된 목록을 본다
+ * (같은 아이디/이름이 여러 줄이면 파일의 앞쪽 행이 우선).
+ * 비밀번호 변경처럼 키가 그대로인 수정은 한 번의 교체로 반영되어, 그 사이 로그인이 사용자를 놓치지 않는다.
+ */
+final class UserIndex implements TableListener<UserFile, UserRecord> {
+
+    private final Map<UserFile, Map<String, List<UserRecord>>> byId = new EnumMap<>(UserFile.class);
+    private final Map<UserFile, Map<String, List<UserRecord>>> byName = new EnumMap<>(UserFile.class);
+
+    UserIndex() {
+        // 파일별 맵은 여기서만 만들고 이후에는 구조가 바뀌지 않으므로 EnumMap을 동시에 읽어도 안전
+        for (UserFile file : UserFile.values()) {
+            byId.put(file, new ConcurrentHashMap<>());
+            byName.put(file, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public void inserted(UserFile file, UserRecord row) {
+        if (!indexed(row)) {
+            return;
+        }
+        add(byId.get(file), idKey(row), row);
+        add(byName.get(file), nameKey(row), row);
+    }
+
+    @Override
+    public void removed(UserFile file, UserRecord row) {
+        if (!indexed(row)) {
+            return;
+        }
+        remove(byId.get(file), idKey(row), row);
+        remove(byName.get(file), nameKey(row), row);
+    }
+
+    @Override
+    public void updated(UserFile file, UserRecord previous, UserRecord current) {
+        if (!indexed(previous) || !indexed(current)) {
+            TableListener.super.updated(file, previous, current);
+            return;
+        }
+        update(byId.get(file), idKey(previous), idKey(current), previous, current);
+        update(byName.get(file), nameKey(previous), nameKey(current), previous, current);
+    }
+
+    /**
+     * 아이디가 같은 행 (파일 순서, 아이디는 파일에 저장된 값과 정확히 비교, 없으면 빈 목록)
+     */
+    List<UserRecord> byId(UserFile file, String userId) {
+        List<UserRecord> rows = byId.get(file).get(userId);
+        return rows == null ? Collections.emptyList() : rows;
+    }
+
+    /**
+     * 이름이 같은 첫 행 (학생 → 교수 → 조교 파일 순서, 앞뒤 공백 무시, 없으면 null)
+     */
+    UserRecord byName(String name) {
+        String key = name.trim();
+        for (UserFile file : UserFile.values()) {
+            List<UserRecord> rows = byName.get(file).get(key);
+            if (rows != null) {
+                return rows.get(0);
+            }
+        }
+        return null;
+    }
+
+    private static boolean indexed(UserRecord row) {
+        return row.fieldCount() >= 2;
+    }
+
+    private static String idKey(UserRecord row) {
+        return row.getUserId();
+    }
+
+    private static String nameKey(UserRecord row) {
+        return row.getName().trim();
+    }
+
+    private static void add(Map<String, List<UserRecord>> map, String key, UserRecord row) {
+        List<UserRecord> current = map.get(key);
+        List<UserRecord> next = current == null ? new ArrayList<>(1) : new ArrayList<>(current);
+        int position = 0;
+        while (position < next.size() && next.get(position).getSeq() < row.getSeq()) {
+            position++;
+        }
+        next.add(position, row);
+        map.put(key, Collections.unmodifiableList(next));
+    }
+
+    private static void remove(Map<String, List<UserRecord>> map, String key, UserRecord row) {
+        List<UserRecord> current = map.get(key);
+        if (current == null) {
+            return;
+        }
+        List<UserRecord> next = new ArrayList<>(current);
+        next.removeIf(existing -> existing.getSeq() == row.getSeq());
+        if (next.isEmpty()) {
+            map.remove(key);
+        } else {
+            map.put(key, Collections.unmodifiableList(next));
+        }
+    }
+
+    private static void update(Map<String, List<UserRecord>> map, String previousKey, String currentKey,
+                               UserRecord previous, UserRecord current) {
+        List<UserRecord> rows = map.get(previousKey);
+        if (!previousKey.equals(currentKey) || rows == null) {
+            remove(map, previousKey, previous);
+            add(map, currentKey, current);
+            return;
+        }
+        List<UserRecord> next = new ArrayList<>(rows);
+        next.replaceAll(existing -> existing.getSeq() == previous.getSeq() ? current : existing);
+        map.put(currentKey, Collections.unmodifiableList(next));
+    }
+}
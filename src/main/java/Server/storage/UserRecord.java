@@ -0,0 +1,55 @@
+package Server.storage;
+
+/**
+ * 사용자 파일의 한 줄 (불변, 형식: 이름,아이디,비밀번호)
+ */
+public final class UserRecord implements StoredRow {
+
+    private final long seq;
+    private final String line;
+    private final String[] fields;
+
+    UserRecord(long seq, String line) {
+        this.seq = seq;
+        this.line = line;
+        this.fields = line.split(",");
+    }
+
+    @Override
+    public long getSeq() {
+        return seq;
+    }
+
+    @Override
+    public String getLine() {
+        return line;
+    }
+
+    public int fieldCount() {
+        return fields.length;
+    }
+
+    /**
+     * 원본 필드 값 (공백 유지, 없으면 빈 문자열)
+     */
+    public String rawField(int index) {
+        return index < fields.length ? fields[index] : "";
+    }
+
+    public String getName() {
+        return rawField(0);
+    }
+
+    public String getUserId() {
+        return rawField(1);
+    }
+
+    public String getPassword() {
+        return rawField(2);
+    }
+
+    @Override
+    public String toString() {
+        return line;
+    }
+}
@@ -0,0 +1,142 @@
+package Server.storage;
+
+import Server.exceptions.DatabaseException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 사용자 데이터 저장소 (메모리 + 변경 로그)
+ *
+ * users.txt, prof.txt, assistant.txt를 메모리에 올리고, 가입/삭제/수정은 users-*.wal에 한 줄씩 기록한다.
+ * 기준 파일은 StorageCompactor가 백그라운드에서 다시 쓴다.
+ * 아이디/이름 조회는 해시 색인(UserIndex)에서 잠금 없이 처리하므로 로그인과 이름 변환이 사용자 수나 다른 스레드의 영향을 받지 않는다.
+ */
+public final class UserRepository {
+
+    private static final Map<Path, UserRepository> OPENED = new ConcurrentHashMap<>();
+
+    private final LoggedTables<UserFile, UserRecord> tables;
+    private final UserIndex index = new UserIndex();
+
+    private UserRepository(Path baseDir) {
+        this.tables = new LoggedTables<>(baseDir, "users", UserFile.class, Arrays.asList(UserFile.values()),
+                UserFile::getFileName, UserRecord::new);
+    }
+
+    /**
+     * 데이터 디렉토리의 저장소 (처음 호출 시 파일을 읽어 적재)
+     */
+    public static UserRepository open(String baseDir) {
+        Path dir = Paths.get(baseDir).toAbsolutePath().normalize();
+        return OPENED.computeIfAbsent(dir, d -> {
+            UserRepository repository = new UserRepository(d);
+            try {
+                repository.tables.load();
+            } catch (IOException e) {
+                throw new UncheckedIOException("사용자 데이터 적재 실패: " + d, e);
+            }
+            repository.tables.addListener(repository.index);
+            StorageCompactor.register(repository.tables);
+            return repository;
+        });
+    }
+
+    // ===== 조회 =====
+
+    public List<UserRecord> list(UserFile file) {
+        return tables.find(file, record -> true);
+    }
+
+    public UserRecord findFirst(UserFile file, Predicate<UserRecord> filter) {
+        return tables.findFirst(file, filter);
+    }
+
+    /**
+     * 순번이 afterSeq보다 큰 행을 순번 순으로 최대 limit개 (페이지 조회, 다음 페이지는 마지막 행의 순번부터)
+     */
+    public List<UserRecord> page(UserFile file, Predicate<UserRecord> filter, long afterSeq, int limit) {
+        return tables.page(file, filter, afterSeq, limit);
+    }
+
+    /**
+     * 순번 구분값 (재시작하면 순번을 다시 매기고 이 값도 바뀌므로, 페이지 커서가 같은 실행의 것인지 확인하는 데 사용)
+     */
+    public long pageEpoch() {
+        return tables.epoch();
+    }
+
+    /**
+     * 아이디로 사용자 찾기 (아이디 첫 글자로 파일을 정하고 색인 조회, 없으면 null)
+     */
+    public UserRecord findById(String userId) {
+        return findById(userId, r -> true);
+    }
+
+    /**
+     * 아이디가 같은 행 중 조건에 맞는 첫 행 (같은 아이디가 여러 줄이면 파일 순서로 확인, 없으면 null)
+     */
+    public UserRecord findById(String userId, Predicate<UserRecord> filter) {
+        UserFile file = UserFile.forUserId(userId);
+        if (file == null) {
+            return null;
+        }
+        for (UserRecord record : index.byId(file, userId)) {
+            if (filter.test(record)) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 이름으로 아이디 찾기 (학생 → 교수 → 조교 파일 순서, 색인 조회, 없으면 null)
+     */
+    public String findUserIdByName(String name) {
+        UserRecord user = index.byName(name);
+        return user != null ? user.getUserId().trim() : null;
+    }
+
+    /**
+     * 기준 파일 내용이 메모리와 같은지 (같으면 파일을 그대로 전송해도 됨)
+     */
+    public boolean isFileCurrent(UserFile file) {
+        return tables.isBaseCurrent(file);
+    }
+
+    public Path getFilePath(UserFile file) {
+        return tables.baseFile(file);
+    }
+
+    // ===== 변경 =====
+
+    public UserRecord append(UserFile file, String line) throws DatabaseException {
+        return tables.append(file, line);
+    }
+
+    public List<UserRecord> removeIf(UserFile file, Predicate<UserRecord> filter) throws DatabaseException {
+        return tables.removeIf(file, filter);
+    }
+
+    /**
+     * @param mapper 바꿀 행이면 새 줄, 그대로 둘 행이면 null 반환
+     * @return 수정된 행 수
+     */
+    public int updateIf(UserFile file, Function<UserRecord, String> mapper) throws DatabaseException {
+        return tables.updateIf(file, mapper);
+    }
+
+    /**
+     * 변경 로그를 기준 파일에 즉시 반영
+     */
+    public boolean compact() {
+        return tables.compact();
+    }
+}
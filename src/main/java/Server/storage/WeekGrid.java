@@ -0,0 +1,71 @@
+package Server.storage;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 강의실별 한 주(7일) 시간표 (불변)
+ *
+ * 칸마다 승인 예약 교시 비트맵(주간 반복 예약 포함), 대기 예약 교시 비트맵, 승인 교시별 학생 수 합계를 담는다.
+ * 비트 p = p교시이며, 요일 인덱스 0은 시작일이다.
+ * 만든 시점의 변경 버전을 함께 두어, 그 뒤 예약이 바뀌지 않았다면 다시 계산하지 않고 재사용한다.
+ */
+public final class WeekGrid {
+
+    public static final int DAYS = 7;
+
+    private static final int PERIODS = AvailabilityIndex.MAX_PERIOD + 1;
+
+    private final LocalDate weekStart;
+    private final List<String> rooms;
+    private final long version;
+    private final long[] approved;
+    private final long[] pending;
+    private final int[] students;
+
+    WeekGrid(LocalDate weekStart, List<String> rooms, long version, long[] approved, long[] pending, int[] students) {
+        this.weekStart = weekStart;
+        this.rooms = Collections.unmodifiableList(rooms);
+        this.version = version;
+        this.approved = approved;
+        this.pending = pending;
+        this.students = students;
+    }
+
+    public LocalDate getWeekStart() {
+        return weekStart;
+    }
+
+    /**
+     * 행 순서대로의 강의실 이름 (요청한 순서 그대로)
+     */
+    public List<String> getRooms() {
+        return rooms;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * 승인 예약이 차지한 교시 비트맵
+     */
+    public long approved(int room, int day) {
+        return approved[room * DAYS + day];
+    }
+
+    /**
+     * 대기 중 예약이 있는 교시 비트맵
+     */
+    public long pending(int room, int day) {
+        return pending[room * DAYS + day];
+    }
+
+    /**
+     * 승인 예약 학생 수 합계
+     */
+    public int students(int room, int day, int period) {
+        return students[(room * DAYS + day) * PERIODS + period];
+    }
+}
@@ -0,0 +1,344 @@
+package Server.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * 변경 로그 파일 하나 (추가 전용, 그룹 커밋)
+ *
+ * 한 줄이 레코드 하나: {@code crc32(16진수)\t필드1\t필드2...}
+ * 필드 안의 역슬래시/탭/줄바꿈은 이스케이프한다.
+ * 쓰기 도중 중단되어 줄바꿈으로 끝나지 않았거나 CRC가 맞지 않는 레코드부터는 읽지 않고 잘라낸다.
+ *
+ * 그룹 커밋: append()는 레코드를 메모리 버퍼에 넣고 순번(Commit)만 돌려주며, 파일 기록은 Commit.await()에서 한다.
+ * 먼저 도착한 대기자가 flush 잠금을 잡고 그때까지 쌓인 레코드를 한 번의 write(+fsync)로 기록하고,
+ * 그동안 도착한 요청들은 잠금을 기다렸다가 다음 한 번의 기록에 함께 묶인다. 예약 오픈처럼 요청이 몰릴수록 묶음이 커진다.
+ * 기록에 실패하면 이후 모든 기록/대기가 실패한다 (어디까지 기록되었는지 알 수 없으므로 재시작해 로그로 복구).
+ */
+final class WriteAheadLog {
+
+    /**
+     * 기록 완료 기준 (storage.durability)
+     */
+    enum Durability {
+        /** write까지만 (fsync 없음, OS가 디스크에 내려 씀) */
+        NONE,
+        /** 묶음마다 write 한 번 + fsync 한 번 (기본) */
+        BATCH,
+        /** 레코드마다 write + fsync */
+        PER_WRITE;
+
+        static Durability parse(String value) {
+            switch (value.trim().toLowerCase()) {
+                case "none": return NONE;
+                case "per-write": return PER_WRITE;
+                case "batch": return BATCH;
+                default:
+                    System.err.println("[WriteAheadLog] 알 수 없는 storage.durability: " + value + " → batch 사용");
+                    return BATCH;
+            }
+        }
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Durability durability;
+
+    /** 아직 파일에 쓰지 않은 레코드 (bufferLock) */
+    private final ReentrantLock bufferLock = new ReentrantLock();
+    private List<ByteBuffer> buffered = new ArrayList<>();
+    private long lastAppended;
+    private long size;
+
+    /** 파일 기록 담당 (한 번에 한 스레드) */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile long lastDurable;
+    private volatile IOException failure;
+
+    private WriteAheadLog(Path file, FileChannel channel, Durability durability) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.durability = durability;
+        this.size = channel.size();
+    }
+
+    /**
+     * 쓰기용으로 열기 (없으면 생성, 기존 내용 뒤에 추가)
+     */
+    static WriteAheadLog open(Path file, Durability durability) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new WriteAheadLog(file, channel, durability);
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * 버퍼에 넣은 레코드까지 포함한 로그 크기
+     */
+    long size() {
+        bufferLock.lock();
+        try {
+            return size;
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * 레코드를 기록 대기열에 추가 (호출 순서대로 파일에 기록됨)
+     * 완료를 기다리려면 반환된 Commit의 await() 호출
+     */
+    Commit append(String... fields) throws IOException {
+        IOException failed = failure;
+        if (failed != null) {
+            throw new IOException("이전 로그 기록 실패로 쓰기 중단", failed);
+        }
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(encode(fields));
+        int length = buffer.remaining();
+        bufferLock.lock();
+        try {
+            buffered.add(buffer);
+            size += length;
+            return new Commit(++lastAppended, length);
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * 버퍼에 남은 레코드를 모두 기록 (로그 전환 / 종료 전)
+     */
+    void sync() throws IOException {
+        long target;
+        bufferLock.lock();
+        try {
+            target = lastAppended;
+        } finally {
+            bufferLock.unlock();
+        }
+        awaitDurable(target);
+    }
+
+    void close() {
+        try {
+            sync();
+        } catch (IOException e) {
+            System.err.println("[WriteAheadLog] " + file.getFileName() + " 닫기 전 기록 실패: " + e.getMessage());
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void awaitDurable(long target) throws IOException {
+        if (lastDurable >= target) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            // 잠금을 기다리는 동안 앞선 대기자가 이 레코드까지 기록했을 수 있음
+            if (lastDurable >= target) {
+                return;
+            }
+            if (failure != null) {
+                throw new IOException("이전 로그 기록 실패", failure);
+            }
+            List<ByteBuffer> batch;
+            long batchEnd;
+            bufferLock.lock();
+            try {
+                batch = buffered;
+                batchEnd = lastAppended;
+                buffered = new ArrayList<>();
+            } finally {
+                bufferLock.unlock();
+            }
+            try {
+                write(batch);
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+            lastDurable = batchEnd;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<ByteBuffer> batch) throws IOException {
+        if (durability == Durability.PER_WRITE) {
+            for (ByteBuffer buffer : batch) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            return;
+        }
+        ByteBuffer[] buffers = batch.toArray(new ByteBuffer[0]);
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+        if (durability == Durability.BATCH) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * append() 한 건의 기록 순번
+     */
+    final class Commit {
+
+        private final long position;
+        private final int bytes;
+
+        private Commit(long position, int bytes) {
+            this.position = position;
+            this.bytes = bytes;
+        }
+
+        int getBytes() {
+            return bytes;
+        }
+
+        /**
+         * 이 레코드가 storage.durability 기준으로 기록될 때까지 대기 (필요하면 직접 묶음을 기록)
+         */
+        void await() throws IOException {
+            awaitDurable(position);
+        }
+
+        Path getFile() {
+            return file;
+        }
+    }
+
+    // ===== 읽기 =====
+
+    /**
+     * 온전한 레코드만 읽음 (손상된 꼬리는 파일에서 잘라냄)
+     */
+    static List<String[]> readAll(Path file) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return records;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        int start = 0;
+        int valid = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            String[] fields = decode(new String(bytes, start, i - start, StandardCharsets.UTF_8));
+            if (fields == null) {
+                break;
+            }
+            records.add(fields);
+            start = i + 1;
+            valid = start;
+        }
+        if (valid < bytes.length) {
+            System.err.println("[WriteAheadLog] " + file.getFileName() + " 손상된 꼬리 "
+                    + (bytes.length - valid) + " bytes 제거");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+            }
+        }
+        return records;
+    }
+
+    // ===== 인코딩 =====
+
+    static String encode(String... fields) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                body.append('\t');
+            }
+            escape(fields[i], body);
+        }
+        return Long.toHexString(crc(body.toString())) + "\t" + body + "\n";
+    }
+
+    /**
+     * @return 필드 배열, CRC가 맞지 않으면 null
+     */
+    static String[] decode(String line) {
+        int tab = line.indexOf('\t');
+        if (tab < 0) {
+            return null;
+        }
+        String body = line.substring(tab + 1);
+        try {
+            if (Long.parseLong(line.substring(0, tab), 16) != crc(body)) {
+                return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        String[] parts = body.split("\t", -1);
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = unescape(parts[i]);
+        }
+        return parts;
+    }
+
+    private static long crc(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static void escape(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': out.append("\\\\"); break;
+                case '\t': out.append("\\t"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                default: out.append(c);
+            }
+        }
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                out.append(c);
+                continue;
+            }
+            char next = value.charAt(++i);
+            switch (next) {
+                case 't': out.append('\t'); break;
+                case 'n': out.append('\n'); break;
+                case 'r': out.append('\r'); break;
+                default: out.append(next);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -2,6 +2,7 @@ package Server.commands;
 
 import org.junit.jupiter.api.*;
 import Server.UserDAO;
+import Server.storage.RoomLocks;
 
 import java.net.Socket;
 import java.util.concurrent.ConcurrentHashMap;
@@ -17,12 +18,12 @@ public class DefaultCommandFactoryTest {
     void setUp() {
         UserDAO userDAO = new UserDAO();
         String baseDir = System.getProperty("user.dir") + java.io.File.separator + "data";
-        Object fileLock = new Object();
+        RoomLocks roomLocks = new RoomLocks(16);
         ConcurrentHashMap<String, Socket> loggedIn = new ConcurrentHashMap<>();
         AtomicInteger current = new AtomicInteger(0);
         int maxClients = 3;
 
-        factory = new DefaultCommandFactory(userDAO, baseDir, fileLock, loggedIn, current, maxClients);
+        factory = new DefaultCommandFactory(userDAO, baseDir, roomLocks, loggedIn, current, maxClients);
     }
 
     @Test
@@ -60,6 +61,20 @@ public class DefaultCommandFactoryTest {
         assertEquals(UpdateRoomCapacityCommand.class, cmd.getClass());
     }
 
+    @Test
+    void createFindAvailableRoomsCommand() {
+        Command cmd = factory.createCommand("FIND_AVAILABLE_ROOMS,2025-11-12,1,10,CLASS");
+        assertNotNull(cmd);
+        assertEquals(FindAvailableRoomsCommand.class, cmd.getClass());
+    }
+
+    @Test
+    void createGetWeekGridCommand() {
+        Command cmd = factory.createCommand("GET_WEEK_GRID,2025-11-10,ALL");
+        assertNotNull(cmd);
+        assertEquals(GetWeekGridCommand.class, cmd.getClass());
+    }
+
     @Test
     void createUnknownCommandReturnsNull() {
         Command cmd = factory.createCommand("FOOBAR_CMD");
@@ -0,0 +1,79 @@
+package Server.commands;
+
+import Server.exceptions.InvalidInputException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 목록 명령 페이지 옵션 테스트
+ */
+public class PagerTest {
+
+    private static final long EPOCH = 42;
+
+    /** 파트별 순번 목록 (파트 0: 1~5, 파트 1: 없음, 파트 2: 10~12) */
+    private static final List<List<Long>> PARTS = List.of(
+            LongStream.rangeClosed(1, 5).boxed().collect(Collectors.toList()),
+            List.of(),
+            List.of(10L, 11L, 12L));
+
+    private static List<Long> fetch(int part, long afterSeq, int limit) {
+        return PARTS.get(part).stream().filter(seq -> seq > afterSeq).limit(limit).collect(Collectors.toList());
+    }
+
+    /** 한 페이지를 가져와 보낸 순번을 seen에 담고 다음 커서 반환 (없으면 null) */
+    private static String page(String[] params, List<Long> seen) throws InvalidInputException {
+        Pager pager = Pager.parse(params, EPOCH);
+        for (int part = 0; part < PARTS.size(); part++) {
+            int current = part;
+            seen.addAll(pager.take(part, PARTS.size(), (after, limit) -> fetch(current, after, limit), Long::longValue));
+        }
+        StringWriter written = new StringWriter();
+        pager.writeCursor(new PrintWriter(written, true));
+        String line = written.toString().trim();
+        return line.isEmpty() ? null : line.substring("NEXT_CURSOR,".length());
+    }
+
+    @Test
+    @DisplayName("커서를 따라가면 파트를 넘어 모든 행을 한 번씩 받고 마지막 페이지에는 커서가 없음")
+    public void cursorWalksAllParts() throws Exception {
+        List<Long> seen = new ArrayList<>();
+        String cursor = page(new String[]{"VIEW_ALL_RESERVATIONS", "PAGE=3"}, seen);
+        int pages = 1;
+        while (cursor != null) {
+            cursor = page(new String[]{"VIEW_ALL_RESERVATIONS", "PAGE=3", "CURSOR=" + cursor}, seen);
+            pages++;
+        }
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 10L, 11L, 12L), seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    @DisplayName("옵션이 없으면 전체 전송, 잘못된 크기나 다른 실행의 커서는 거절")
+    public void parsesOptions() throws Exception {
+        assertNull(Pager.parse(new String[]{"GET_ALL_USERS"}, EPOCH));
+        assertTrue(Pager.isOption(" page=10"));
+        assertFalse(Pager.isOption("A0001"));
+
+        assertThrows(InvalidInputException.class, () -> Pager.parse(new String[]{"GET_ALL_USERS", "PAGE=0"}, EPOCH));
+        assertThrows(InvalidInputException.class, () -> Pager.parse(new String[]{"GET_ALL_USERS", "PAGE=x"}, EPOCH));
+        assertThrows(InvalidInputException.class, () -> Pager.parse(new String[]{"GET_ALL_USERS", "CURSOR=abc"}, EPOCH));
+        assertThrows(InvalidInputException.class, () ->
+                Pager.parse(new String[]{"GET_ALL_USERS", "PAGE=5", "CURSOR=!!"}, EPOCH));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = page(new String[]{"GET_ALL_USERS", "PAGE=2"}, seen);
+        assertThrows(InvalidInputException.class, () ->
+                Pager.parse(new String[]{"GET_ALL_USERS", "PAGE=2", "CURSOR=" + cursor}, EPOCH + 1));
+    }
+}
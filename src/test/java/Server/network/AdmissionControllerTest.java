@@ -0,0 +1,92 @@
+package Server.network;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AdmissionController 단위 테스트
+ */
+public class AdmissionControllerTest {
+
+    @Test
+    @DisplayName("세션 슬롯이 남아 있으면 즉시 허용, 모두 사용 중이면 대기 후 거절")
+    void sessionSlotsAreLimited() {
+        AdmissionController controller = new AdmissionController(1, 4, 50, 10, 0.8, 500, 1000);
+
+        assertTrue(controller.tryAdmitSession());
+        long start = System.nanoTime();
+        assertFalse(controller.tryAdmitSession());
+        assertTrue((System.nanoTime() - start) / 1_000_000 >= 40, "대기열에서 기다린 뒤 거절해야 합니다");
+
+        controller.releaseSession();
+        assertTrue(controller.tryAdmitSession());
+    }
+
+    @Test
+    @DisplayName("로그인 대기열 용량이 0이면 기다리지 않고 거절")
+    void fullLoginQueueRejectsImmediately() {
+        AdmissionController controller = new AdmissionController(1, 0, 5_000, 10, 0.8, 500, 1000);
+
+        assertTrue(controller.tryAdmitSession());
+        long start = System.nanoTime();
+        assertFalse(controller.tryAdmitSession());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1_000);
+    }
+
+    @Test
+    @DisplayName("워커 풀이 묶이면 로그인 대기 수는 워커 수의 절반으로 제한")
+    void loginQueueStaysBelowWorkerCount() throws Exception {
+        AdmissionController controller = new AdmissionController(1, 32, 5_000, 10, 0.8, 500, 1000);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        try {
+            controller.bindWorkerPool(pool);
+            assertEquals(1, controller.getLoginQueueLimit());
+
+            assertTrue(controller.tryAdmitSession());
+            Future<Boolean> waiting = pool.submit(controller::tryAdmitSession);
+            while (!controller.metricsLine().contains("loginWaiting=1/1")) {
+                Thread.sleep(5);
+            }
+
+            // 두 번째 대기자는 워커를 붙잡지 않고 바로 거절
+            long start = System.nanoTime();
+            assertFalse(controller.tryAdmitSession());
+            assertTrue((System.nanoTime() - start) / 1_000_000 < 1_000);
+
+            controller.releaseSession();
+            assertTrue(waiting.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("처리 중 요청이 최대치에 도달하면 새 명령을 차단")
+    void shedsWhenInFlightLimitReached() {
+        AdmissionController controller = new AdmissionController(10, 4, 0, 2, 0.8, 500, 1000);
+
+        assertTrue(controller.tryBeginCommand());
+        assertTrue(controller.tryBeginCommand());
+        assertFalse(controller.tryBeginCommand());
+        assertTrue(controller.metricsLine().contains("shed=1"));
+
+        controller.endCommand(System.nanoTime());
+        assertTrue(controller.tryBeginCommand());
+    }
+
+    @Test
+    @DisplayName("재시도 대기 시간은 기본값 이상")
+    void retryAfterHasFloor() {
+        AdmissionController controller = new AdmissionController(10, 4, 0, 2, 0.8, 500, 750);
+
+        assertEquals(750, controller.getRetryAfterMs());
+        assertTrue(controller.metricsLine().startsWith("SERVER_METRICS,"));
+    }
+}
@@ -0,0 +1,60 @@
+package Server.network;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CorrelationTag 단위 테스트
+ */
+public class CorrelationTagTest {
+
+    @Test
+    @DisplayName("태그가 없는 요청은 null")
+    void untaggedLine() {
+        assertNull(CorrelationTag.parse("GET_LABS"));
+    }
+
+    @Test
+    @DisplayName("상관 ID와 요청 본문 분리")
+    void parseTaggedLine() {
+        CorrelationTag tag = CorrelationTag.parse("#req-7 VIEW_MY_RESERVATIONS,S20230001");
+
+        assertNotNull(tag);
+        assertEquals("req-7", tag.getId());
+        assertEquals("VIEW_MY_RESERVATIONS,S20230001", tag.getRequest());
+    }
+
+    @Test
+    @DisplayName("허용되지 않은 문자가 포함된 ID는 거부")
+    void rejectInvalidId() {
+        assertThrows(IllegalArgumentException.class, () -> CorrelationTag.parse("#a,b GET_LABS"));
+        assertThrows(IllegalArgumentException.class, () -> CorrelationTag.parse("# GET_LABS"));
+    }
+
+    @Test
+    @DisplayName("여러 줄 응답의 모든 줄에 태그가 붙고 DONE으로 끝남")
+    void tagsEveryResponseLine() {
+        StringWriter sink = new StringWriter();
+        PrintWriter target = new PrintWriter(sink);
+        CorrelationTag tag = CorrelationTag.parse("#3 GET_ALL_USERS");
+
+        PrintWriter out = tag.wrap(target);
+        out.println("홍길동,S20230001,abc123");
+        out.println("END_OF_USERS");
+        out.print("partial");
+        tag.complete();
+
+        String[] lines = sink.toString().split("\\R");
+        assertArrayEquals(new String[]{
+            "#3 홍길동,S20230001,abc123",
+            "#3 END_OF_USERS",
+            "#3 partial",
+            "#3 DONE"
+        }, lines);
+    }
+}
@@ -0,0 +1,102 @@
+package Server.network;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FrameDecoder 단위 테스트
+ */
+public class FrameDecoderTest {
+
+    static byte[] frame(int opcode, int requestId, Object... fields) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        out.writeShort(opcode);
+        out.writeInt(requestId);
+        out.writeByte(fields.length);
+        for (Object field : fields) {
+            if (field instanceof Integer) {
+                out.writeByte(BinaryProtocol.FIELD_INT);
+                out.writeInt((Integer) field);
+            } else {
+                byte[] bytes = ((String) field).getBytes(StandardCharsets.UTF_8);
+                out.writeByte(BinaryProtocol.FIELD_STRING);
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+        }
+        ByteBuffer framed = ByteBuffer.allocate(4 + body.size());
+        framed.putInt(body.size()).put(body.toByteArray());
+        return framed.array();
+    }
+
+    @Test
+    @DisplayName("opcode와 타입별 필드를 명령 매개변수로 변환")
+    void decodeTypedFields() throws IOException {
+        FrameDecoder decoder = new FrameDecoder();
+        int opcode = BinaryProtocol.opcodeOf("CHECK_ROOM_TIME");
+
+        List<BinaryRequest> requests = decoder.decode(ByteBuffer.wrap(frame(opcode, 42, "911호", 7, "월")));
+
+        assertEquals(1, requests.size());
+        assertEquals(42, requests.get(0).getRequestId());
+        assertArrayEquals(new String[]{"CHECK_ROOM_TIME", "911호", "7", "월"}, requests.get(0).getParams());
+    }
+
+    @Test
+    @DisplayName("여러 번에 나뉘어 도착한 프레임을 조립")
+    void decodeSplitFrames() throws IOException {
+        FrameDecoder decoder = new FrameDecoder();
+        byte[] first = frame(BinaryProtocol.opcodeOf("GET_LABS"), 1);
+        byte[] second = frame(0, 2, "GET_CLASSROOMS");
+        byte[] all = new byte[first.length + second.length];
+        System.arraycopy(first, 0, all, 0, first.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+
+        assertTrue(decoder.decode(ByteBuffer.wrap(all, 0, 3)).isEmpty());
+        List<BinaryRequest> requests = decoder.decode(ByteBuffer.wrap(all, 3, all.length - 3));
+
+        assertEquals(2, requests.size());
+        assertArrayEquals(new String[]{"GET_LABS"}, requests.get(0).getParams());
+        assertArrayEquals(new String[]{"GET_CLASSROOMS"}, requests.get(1).getParams());
+    }
+
+    @Test
+    @DisplayName("필드 안의 쉼표와 줄바꿈은 저장 형식을 깨지 않도록 치환")
+    void sanitizeDelimiters() throws IOException {
+        FrameDecoder decoder = new FrameDecoder();
+
+        List<BinaryRequest> requests = decoder.decode(ByteBuffer.wrap(frame(0, 3, "X", "스터디, 세미나\n2차")));
+
+        assertEquals("스터디， 세미나 2차", requests.get(0).getParams()[1]);
+    }
+
+    @Test
+    @DisplayName("정의되지 않은 opcode는 알 수 없는 명령으로 전달")
+    void unknownOpcode() throws IOException {
+        FrameDecoder decoder = new FrameDecoder();
+
+        List<BinaryRequest> requests = decoder.decode(ByteBuffer.wrap(frame(999, 5)));
+
+        assertEquals("UNKNOWN_OPCODE_999", requests.get(0).getParams()[0]);
+    }
+
+    @Test
+    @DisplayName("최대 길이를 넘는 프레임은 예외")
+    void rejectOversizedFrame() {
+        FrameDecoder decoder = new FrameDecoder();
+        ByteBuffer buffer = ByteBuffer.allocate(4).putInt(BinaryProtocol.MAX_FRAME_LENGTH + 1);
+        buffer.flip();
+
+        assertThrows(IOException.class, () -> decoder.decode(buffer));
+    }
+}
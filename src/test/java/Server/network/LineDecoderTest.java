@@ -0,0 +1,63 @@
+package Server.network;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LineDecoder 프레이밍 테스트
+ */
+class LineDecoderTest {
+
+    private LineDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new LineDecoder(32);
+    }
+
+    private static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("여러 줄이 한 번에 도착하면 모두 분리")
+    void testMultipleLines() throws IOException {
+        List<String> lines = decoder.decode(bytes("LOGIN,S1,pw\nINIT\n"));
+
+        assertEquals(List.of("LOGIN,S1,pw", "INIT"), lines);
+        assertEquals(0, decoder.pendingBytes());
+    }
+
+    @Test
+    @DisplayName("줄이 여러 번에 나뉘어 도착해도 이어 붙임")
+    void testSplitLine() throws IOException {
+        assertTrue(decoder.decode(bytes("GET_CLA")).isEmpty());
+        assertEquals(7, decoder.pendingBytes());
+
+        List<String> lines = decoder.decode(bytes("SSROOMS\r\n"));
+        assertEquals(List.of("GET_CLASSROOMS"), lines);
+    }
+
+    @Test
+    @DisplayName("UTF-8 멀티바이트 문자가 경계에서 잘려도 복원")
+    void testMultiByteBoundary() throws IOException {
+        byte[] encoded = "908호\n".getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(decoder.decode(ByteBuffer.wrap(encoded, 0, 4)).isEmpty());
+        List<String> lines = decoder.decode(ByteBuffer.wrap(encoded, 4, encoded.length - 4));
+
+        assertEquals(List.of("908호"), lines);
+    }
+
+    @Test
+    @DisplayName("최대 길이를 넘는 요청은 IOException")
+    void testLineTooLong() {
+        assertThrows(IOException.class, () -> decoder.decode(bytes("X".repeat(40))));
+    }
+}
@@ -0,0 +1,106 @@
+package Server.network;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OutboundQueue 단위 테스트
+ */
+public class OutboundQueueTest {
+
+    private static OutboundChunk chunk(int size) {
+        return OutboundChunk.of(ByteBuffer.allocate(size));
+    }
+
+    @Test
+    @DisplayName("disconnect 정책: 알림이 한도를 넘으면 연결 종료 요청")
+    void disconnectOnOverflow() {
+        OutboundQueue queue = new OutboundQueue(100, OutboundQueue.OverflowPolicy.DISCONNECT);
+
+        assertTrue(queue.offer(chunk(60), false));
+        assertTrue(queue.offer(chunk(100), true));
+        assertFalse(queue.offer(chunk(1), true));
+    }
+
+    @Test
+    @DisplayName("drop-oldest 정책: 오래된 알림부터 버리고 응답은 유지")
+    void dropOldestPushOnly() {
+        OutboundQueue queue = new OutboundQueue(100, OutboundQueue.OverflowPolicy.DROP_OLDEST);
+        OutboundChunk head = chunk(10);
+
+        assertTrue(queue.offer(head, true));
+        assertTrue(queue.offer(chunk(30), false));
+        assertTrue(queue.offer(chunk(50), true));
+        assertTrue(queue.offer(chunk(50), true));
+
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(90, queue.getQueuedBytes());
+        assertSame(head, queue.peek(), "전송 중일 수 있는 맨 앞 항목은 버리지 않아야 합니다");
+    }
+
+    @Test
+    @DisplayName("drop-oldest 정책: 전송 중인 알림만 남아 공간이 안 나면 연결 종료 요청")
+    void dropOldestFallsBackToDisconnect() {
+        OutboundQueue queue = new OutboundQueue(50, OutboundQueue.OverflowPolicy.DROP_OLDEST);
+
+        assertFalse(queue.offer(chunk(60), true));
+    }
+
+    @Test
+    @DisplayName("한도보다 큰 응답도 버리거나 끊지 않고 순서대로 모두 전송")
+    void replyLargerThanLimitIsDeliveredIntact() throws IOException {
+        OutboundQueue queue = new OutboundQueue(100, OutboundQueue.OverflowPolicy.DROP_OLDEST);
+        byte[] reply = new byte[350];
+        for (int i = 0; i < reply.length; i++) {
+            reply[i] = (byte) i;
+        }
+        for (int off = 0; off < reply.length; off += 50) {
+            assertTrue(queue.offer(OutboundChunk.of(ByteBuffer.wrap(reply, off, 50)), false));
+        }
+        assertTrue(queue.offer(chunk(10), true), "응답이 쌓여 있어도 알림 한도와는 별개여야 합니다");
+        assertTrue(queue.isBacklogged());
+
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(sent);
+        OutboundChunk next;
+        while ((next = queue.peek()) != null) {
+            assertTrue(next.writeTo(channel));
+            queue.removeHead();
+        }
+
+        byte[] received = sent.toByteArray();
+        assertEquals(0, queue.getDroppedCount());
+        assertEquals(reply.length + 10, received.length);
+        assertArrayEquals(reply, Arrays.copyOf(received, reply.length));
+        assertFalse(queue.isBacklogged());
+    }
+
+    @Test
+    @DisplayName("전송 완료한 항목을 제거하면 용량이 반환됨")
+    void removeHeadReleasesCapacity() {
+        OutboundQueue queue = new OutboundQueue(100, OutboundQueue.OverflowPolicy.DISCONNECT);
+        queue.offer(chunk(70), false);
+
+        queue.removeHead();
+
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.getQueuedBytes());
+        assertTrue(queue.offer(chunk(100), false));
+    }
+
+    @Test
+    @DisplayName("설정 문자열을 정책으로 변환")
+    void parsePolicy() {
+        assertEquals(OutboundQueue.OverflowPolicy.DROP_OLDEST, OutboundQueue.OverflowPolicy.parse("drop-oldest"));
+        assertEquals(OutboundQueue.OverflowPolicy.DISCONNECT, OutboundQueue.OverflowPolicy.parse("unknown"));
+    }
+}
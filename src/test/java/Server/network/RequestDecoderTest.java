@@ -0,0 +1,83 @@
+package Server.network;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RequestDecoder 이진 프레임 협상 전환 테스트
+ */
+public class RequestDecoderTest {
+
+    /**
+     * 받은 요청을 "LINE:..." / "FRAME:명령" 형태로 기록
+     */
+    private static class Recorder implements RequestDecoder.Handler {
+        final List<String> received = new ArrayList<>();
+
+        @Override
+        public void onLine(String line) {
+            received.add("LINE:" + line);
+        }
+
+        @Override
+        public void onFrame(BinaryRequest request) {
+            received.add("FRAME:" + request.getParams()[0]);
+        }
+    }
+
+    private static ByteBuffer bytes(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static byte[] text(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("협상이 수락되면 보관한 바이트부터 프레임으로 해석")
+    void acceptedNegotiationSwitchesToFrames() throws IOException {
+        RequestDecoder decoder = new RequestDecoder();
+        Recorder recorder = new Recorder();
+        byte[] frame = FrameDecoderTest.frame(BinaryProtocol.opcodeOf("GET_LABS"), 1);
+
+        decoder.decode(bytes(text(BinaryProtocol.NEGOTIATE_REQUEST + "\n"), frame), recorder);
+
+        assertTrue(decoder.isNegotiating());
+        assertEquals(List.of("LINE:" + BinaryProtocol.NEGOTIATE_REQUEST), recorder.received,
+                "수락 전에는 뒤따라온 바이트를 해석하지 않아야 합니다");
+
+        decoder.endNegotiation(true, recorder);
+
+        assertFalse(decoder.isNegotiating());
+        assertEquals(List.of("LINE:" + BinaryProtocol.NEGOTIATE_REQUEST, "FRAME:GET_LABS"), recorder.received);
+    }
+
+    @Test
+    @DisplayName("협상 줄이 거절되면 뒤따라온 요청을 계속 텍스트 줄로 해석")
+    void rejectedNegotiationStaysInTextMode() throws IOException {
+        RequestDecoder decoder = new RequestDecoder();
+        Recorder recorder = new Recorder();
+
+        decoder.decode(bytes(text(BinaryProtocol.NEGOTIATE_REQUEST + "\nGET_LA")), recorder);
+        decoder.decode(bytes(text("BS\n")), recorder);
+        decoder.endNegotiation(false, recorder);
+        decoder.decode(bytes(text("GET_CLASSROOMS\n")), recorder);
+
+        assertFalse(decoder.isNegotiating());
+        assertEquals(List.of("LINE:" + BinaryProtocol.NEGOTIATE_REQUEST, "LINE:GET_LABS", "LINE:GET_CLASSROOMS"),
+                recorder.received);
+    }
+}
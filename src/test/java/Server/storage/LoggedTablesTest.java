@@ -0,0 +1,245 @@
+package Server.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LoggedTables 변경 로그 재생/압축 테스트
+ */
+public class LoggedTablesTest {
+
+    private Path dir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("logged-tables");
+        Files.write(dir.resolve("users.txt"), Arrays.asList("홍길동,S1,a", "김철수,S2,b", "이영희,S3,c"),
+                StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private LoggedTables<UserFile, UserRecord> open() throws IOException {
+        LoggedTables<UserFile, UserRecord> tables = new LoggedTables<>(dir, "users", UserFile.class,
+                Arrays.asList(UserFile.values()), UserFile::getFileName, UserRecord::new);
+        tables.load();
+        return tables;
+    }
+
+    private static List<String> lines(LoggedTables<UserFile, UserRecord> tables) {
+        return tables.find(UserFile.STUDENT, r -> true).stream().map(UserRecord::getLine).collect(Collectors.toList());
+    }
+
+    private List<Path> logFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".wal")).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("기준 파일은 그대로 두고 재시작 시 로그를 재생해 같은 상태 복원")
+    public void replayRestoresState() throws Exception {
+        LoggedTables<UserFile, UserRecord> tables = open();
+        tables.append(UserFile.STUDENT, "박민수,S4,d");
+        tables.removeIf(UserFile.STUDENT, r -> r.getUserId().equals("S1") || r.getUserId().equals("S3"));
+        tables.updateIf(UserFile.STUDENT, r -> r.getUserId().equals("S4") ? "박민수,S4,new" : null);
+
+        assertEquals(3, Files.readAllLines(dir.resolve("users.txt")).size());
+        assertFalse(tables.isBaseCurrent(UserFile.STUDENT));
+        assertTrue(tables.isBaseCurrent(UserFile.PROFESSOR));
+
+        assertEquals(List.of("김철수,S2,b", "박민수,S4,new"), lines(open()));
+    }
+
+    @Test
+    @DisplayName("압축하면 기준 파일을 다시 쓰고 반영된 로그 삭제")
+    public void compactRewritesBaseFiles() throws Exception {
+        LoggedTables<UserFile, UserRecord> tables = open();
+        tables.removeIf(UserFile.STUDENT, r -> r.getUserId().equals("S2"));
+
+        assertTrue(tables.compact());
+
+        assertEquals(List.of("홍길동,S1,a", "이영희,S3,c"), Files.readAllLines(dir.resolve("users.txt")));
+        assertTrue(tables.isBaseCurrent(UserFile.STUDENT));
+        assertEquals(1, logFiles().size(), "새로 기록 중인 로그 하나만 남아야 합니다");
+        assertFalse(tables.compact(), "반영할 변경이 없으면 압축하지 않아야 합니다");
+
+        tables.append(UserFile.STUDENT, "박민수,S4,d");
+        assertEquals(List.of("홍길동,S1,a", "이영희,S3,c", "박민수,S4,d"), lines(open()));
+    }
+
+    @Test
+    @DisplayName("압축 후 재시작은 스냅샷과 이후 로그로 적재하고, 기준 파일을 직접 고치면 텍스트 파일에서 적재")
+    public void startsFromSnapshot() throws Exception {
+        LoggedTables<UserFile, UserRecord> tables = open();
+        assertFalse(tables.isSnapshotLoaded());
+        tables.removeIf(UserFile.STUDENT, r -> r.getUserId().equals("S2"));
+        assertTrue(tables.compact());
+        tables.append(UserFile.STUDENT, "박민수,S4,d");
+
+        LoggedTables<UserFile, UserRecord> reopened = open();
+        assertTrue(reopened.isSnapshotLoaded());
+        assertEquals(List.of("홍길동,S1,a", "이영희,S3,c", "박민수,S4,d"), lines(reopened));
+
+        Files.write(dir.resolve("users.txt"), Arrays.asList("홍길동,S1,a", "최지훈,S5,edited"), StandardCharsets.UTF_8);
+        LoggedTables<UserFile, UserRecord> edited = open();
+        assertFalse(edited.isSnapshotLoaded());
+        assertEquals(List.of("홍길동,S1,a", "최지훈,S5,edited", "박민수,S4,d"), lines(edited));
+    }
+
+    @Test
+    @DisplayName("손상된 스냅샷은 무시하고 텍스트 파일에서 적재")
+    public void corruptSnapshotFallsBack() throws Exception {
+        LoggedTables<UserFile, UserRecord> tables = open();
+        assertTrue(tables.needsCompaction(Long.MAX_VALUE, Long.MAX_VALUE), "스냅샷이 없으면 다시 써야 합니다");
+        assertFalse(tables.compact());
+        assertFalse(tables.needsCompaction(Long.MAX_VALUE, Long.MAX_VALUE));
+        assertTrue(open().isSnapshotLoaded());
+
+        byte[] bytes = Files.readAllBytes(dir.resolve("users.snapshot"));
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(dir.resolve("users.snapshot"), bytes);
+
+        LoggedTables<UserFile, UserRecord> reopened = open();
+        assertFalse(reopened.isSnapshotLoaded());
+        assertEquals(List.of("홍길동,S1,a", "김철수,S2,b", "이영희,S3,c"), lines(reopened));
+    }
+
+    @Test
+    @DisplayName("쓰다 만 마지막 레코드는 무시하고 잘라냄")
+    public void tornTailIsIgnored() throws Exception {
+        LoggedTables<UserFile, UserRecord> tables = open();
+        tables.append(UserFile.STUDENT, "박민수,S4,d");
+        Path log = logFiles().get(0);
+        Files.write(log, WriteAheadLog.encode("I", "STUDENT", "최지훈,S5,e").substring(0, 10)
+                .getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertEquals(List.of("홍길동,S1,a", "김철수,S2,b", "이영희,S3,c", "박민수,S4,d"), lines(open()));
+    }
+
+    @Test
+    @DisplayName("확정된 압축이 중단되었으면 재시작 시 임시 파일을 마저 교체")
+    public void finishesCommittedCompaction() throws Exception {
+        LoggedTables<UserFile, UserRecord> tables = open();
+        tables.removeIf(UserFile.STUDENT, r -> r.getUserId().equals("S1"));
+        tables.compact();
+        // 교체 직전에 중단된 상황 재현: 확정된 세대의 임시 파일과 이전 기준 파일
+        String committed = new String(Files.readAllBytes(dir.resolve("users.manifest")), StandardCharsets.UTF_8).trim();
+        Files.move(dir.resolve("users.txt"), dir.resolve("users.txt.compact-" + committed));
+        Files.write(dir.resolve("users.txt"), Arrays.asList("홍길동,S1,a", "김철수,S2,b", "이영희,S3,c"),
+                StandardCharsets.UTF_8);
+
+        assertEquals(List.of("김철수,S2,b", "이영희,S3,c"), lines(open()));
+        assertFalse(Files.exists(dir.resolve("users.txt.compact-" + committed)));
+    }
+
+    @Test
+    @DisplayName("동시에 추가한 레코드는 묶여 기록되어도 빠짐없이 재생됨")
+    public void concurrentAppendsAreAllDurable() throws Exception {
+        LoggedTables<UserFile, UserRecord> tables = open();
+        int threads = 8;
+        int perThread = 50;
+        List<Thread> workers = new ArrayList<>();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    try {
+                        tables.append(UserFile.STUDENT, "사용자" + id + "," + "T" + id + "_" + i + ",pw");
+                    } catch (Exception e) {
+                        errors.add(e);
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertTrue(errors.isEmpty(), "추가 중 오류: " + errors);
+        assertEquals(3 + threads * perThread, lines(open()).size());
+    }
+
+    @Test
+    @DisplayName("페이지 조회는 되돌린 행이 끝에 붙어도 순번 순으로 이어짐")
+    public void pagesFollowSeqOrder() throws Exception {
+        LoggedTables<UserFile, UserRecord> tables = open();
+        tables.append(UserFile.STUDENT, "박민수,S4,d");
+        UserRecord removed = tables.removeIf(UserFile.STUDENT, r -> r.getUserId().equals("S1")).get(0);
+        tables.restore(UserFile.STUDENT, removed);
+
+        List<String> seen = new ArrayList<>();
+        long after = 0;
+        List<UserRecord> page;
+        while (!(page = tables.page(UserFile.STUDENT, r -> true, after, 3)).isEmpty()) {
+            page.forEach(r -> seen.add(r.getUserId()));
+            after = page.get(page.size() - 1).getSeq();
+        }
+
+        assertEquals(List.of("S1", "S2", "S3", "S4"), seen);
+        assertEquals(List.of("S3"), tables.page(UserFile.STUDENT, r -> !r.getUserId().equals("S2"), removed.getSeq(), 1)
+                .stream().map(UserRecord::getUserId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("찾아 둔 행의 삭제/수정은 행 번호로 기록되어 압축 전후 재시작 모두 같은 상태 복원")
+    public void rowsChangedByNumberReplay() throws Exception {
+        LoggedTables<UserFile, UserRecord> tables = open();
+        UserRecord s2 = tables.findFirst(UserFile.STUDENT, r -> r.getUserId().equals("S2"));
+        UserRecord s4 = tables.append(UserFile.STUDENT, "박민수,S4,d");
+        assertEquals(List.of(s2), tables.removeRows(UserFile.STUDENT, List.of(s2, s2)));
+        assertEquals(1, tables.updateRows(UserFile.STUDENT, List.of(s4), r -> "박민수,S4,new").size());
+        assertTrue(tables.removeRows(UserFile.STUDENT, List.of(s4)).isEmpty(), "내용이 바뀐 행은 지우지 않아야 합니다");
+        assertEquals(List.of("홍길동,S1,a", "이영희,S3,c", "박민수,S4,new"), lines(open()));
+
+        assertTrue(tables.compact());
+        UserRecord s3 = tables.findFirst(UserFile.STUDENT, r -> r.getUserId().equals("S3"));
+        tables.append(UserFile.STUDENT, "최지훈,S5,e");
+        tables.removeRows(UserFile.STUDENT, List.of(s3));
+
+        assertEquals(List.of("홍길동,S1,a", "박민수,S4,new", "최지훈,S5,e"), lines(open()));
+    }
+
+    @Test
+    @DisplayName("storage.durability 값 해석 (모르는 값은 batch)")
+    public void parsesDurability() {
+        assertEquals(WriteAheadLog.Durability.NONE, WriteAheadLog.Durability.parse("none"));
+        assertEquals(WriteAheadLog.Durability.PER_WRITE, WriteAheadLog.Durability.parse(" Per-Write "));
+        assertEquals(WriteAheadLog.Durability.BATCH, WriteAheadLog.Durability.parse("sometimes"));
+    }
+
+    @Test
+    @DisplayName("탭과 역슬래시가 들어간 줄도 그대로 복원")
+    public void escapesSpecialCharacters() {
+        String[] fields = WriteAheadLog.decode(WriteAheadLog.encode("I", "STUDENT", "a\tb\\c").trim());
+
+        assertNotNull(fields);
+        assertEquals("a\tb\\c", fields[2]);
+        assertNull(WriteAheadLog.decode("0\tI\tSTUDENT\tx"), "CRC가 맞지 않으면 null이어야 합니다");
+    }
+}
@@ -0,0 +1,41 @@
+package Server.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LongLongMap 테스트
+ */
+public class LongLongMapTest {
+
+    @Test
+    @DisplayName("저장·덮어쓰기·삭제를 섞어도 HashMap과 같은 결과")
+    public void matchesHashMap() {
+        LongLongMap map = new LongLongMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20000; i++) {
+            // 키 범위를 좁혀 충돌과 삭제 후 당겨오기가 자주 일어나도록 함
+            long key = random.nextInt(512) - 256;
+            long value = random.nextInt(4) == 0 ? 0 : random.nextLong();
+            map.put(key, value);
+            if (value == 0) {
+                expected.remove(key);
+            } else {
+                expected.put(key, value);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = -256; key < 256; key++) {
+            assertEquals(expected.getOrDefault(key, 0L).longValue(), map.get(key));
+        }
+    }
+}
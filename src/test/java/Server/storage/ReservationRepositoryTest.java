@@ -0,0 +1,344 @@
+package Server.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ReservationRepository 단위 테스트
+ */
+public class ReservationRepositoryTest {
+
+    private static final String HONG = "홍길동,908호,2025-11-12,수,1교시(09:00~10:00),수업,학생,예약됨,20,S20230001";
+    private static final String KIM = "김철수,911호,2025-11-12,수,2교시(10:00~11:00),스터디,학생,예약됨,5,S20230002";
+
+    private Path dir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("reservation-repo");
+        Files.write(dir.resolve("ReserveClass.txt"), Arrays.asList(HONG, KIM), StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private List<String> fileLines(String name) throws IOException {
+        return Files.readAllLines(dir.resolve(name), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("시작 시 파일 내용을 순서대로 적재")
+    public void loadsExistingRows() {
+        ReservationRepository repository = ReservationRepository.open(dir.toString());
+
+        List<ReservationRecord> rows = repository.list(ReservationStore.CLASS);
+
+        assertEquals(2, rows.size());
+        assertEquals(HONG, rows.get(0).getLine());
+        assertEquals("908호", rows.get(0).getRoom());
+        assertEquals("S20230001", rows.get(0).getUserId());
+        assertTrue(repository.list(ReservationStore.PENDING).isEmpty());
+    }
+
+    @Test
+    @DisplayName("추가한 행은 바로 조회되고 압축 후 파일에 반영")
+    public void appendThenCompact() throws Exception {
+        ReservationRepository repository = ReservationRepository.open(dir.toString());
+        String pending = "홍길동,912호,2025-11-13,목,3교시(11:00~12:00),수업,학생,대기중,10,S20230001";
+
+        repository.append(ReservationStore.PENDING, pending);
+
+        assertTrue(repository.exists(ReservationStore.PENDING, r -> r.getRoom().equals("912호")));
+        assertTrue(repository.compact());
+        assertEquals(List.of(pending), fileLines("ReservationRequest.txt"));
+    }
+
+    @Test
+    @DisplayName("삭제 후 나머지 행 순서는 유지되고 복구한 행은 끝에 위치")
+    public void removeAndRestore() throws Exception {
+        ReservationRepository repository = ReservationRepository.open(dir.toString());
+
+        List<ReservationRecord> removed = repository.removeIf(ReservationStore.CLASS, r -> r.getName().equals("홍길동"));
+
+        assertEquals(1, removed.size());
+        assertEquals(1, repository.count(ReservationStore.CLASS, r -> true));
+        assertEquals(List.of(HONG, KIM), fileLines("ReserveClass.txt"), "기준 파일은 압축 전까지 그대로여야 합니다");
+
+        repository.restore(ReservationStore.CLASS, removed.get(0));
+        repository.compact();
+        assertEquals(List.of(KIM, HONG), fileLines("ReserveClass.txt"));
+    }
+
+    @Test
+    @DisplayName("수정한 행만 바뀌고 같은 디렉토리는 같은 인스턴스를 공유")
+    public void updateAndShareInstance() throws Exception {
+        ReservationRepository repository = ReservationRepository.open(dir.toString());
+
+        int changed = repository.updateIf(ReservationStore.CLASS,
+                r -> r.getName().equals("김철수") ? r.getLine().replace("김철수", "김영희") : null);
+
+        assertEquals(1, changed);
+        repository.compact();
+        assertEquals(HONG, fileLines("ReserveClass.txt").get(0));
+        assertTrue(fileLines("ReserveClass.txt").get(1).startsWith("김영희,"));
+        assertSame(repository, ReservationRepository.open(dir.resolve(".").toString()));
+    }
+
+    @Test
+    @DisplayName("시간대 색인은 대기·승인 예약을 담고 삭제·상태 변경을 따라감")
+    public void slotIndexFollowsChanges() throws Exception {
+        ReservationRepository repository = ReservationRepository.open(dir.toString());
+        String pending = "박민수,912호,2025-11-13,목,3교시(11:00~12:00),수업,학생,대기중,10,S20230003";
+
+        assertTrue(repository.isSlotTaken("908호", "2025-11-12", "1교시"), "괄호 앞 교시만으로도 찾아야 합니다");
+        assertFalse(repository.isSlotTaken("908호", "2025-11-12", "2교시(10:00~11:00)"));
+
+        repository.append(ReservationStore.PENDING, pending);
+        assertEquals(pending, repository.findSlotHolders("912호", "2025-11-13", "3교시(11:00~12:00)").get(0).getLine());
+
+        repository.removeIf(ReservationStore.PENDING, r -> true);
+        assertFalse(repository.isSlotTaken("912호", "2025-11-13", "3교시(11:00~12:00)"));
+
+        repository.updateIf(ReservationStore.CLASS, r -> r.getName().equals("홍길동") ? r.getLine().replace("예약됨", "취소") : null);
+        assertFalse(repository.isSlotTaken("908호", "2025-11-12", "1교시(09:00~10:00)"), "취소된 예약은 시간대를 차지하지 않아야 합니다");
+        assertTrue(repository.isSlotTaken("911호", "2025-11-12", "2교시(10:00~11:00)"));
+    }
+
+    @Test
+    @DisplayName("구 형식 행은 시작 시 한 번 10개 필드로 변환되고 예약자 색인에 아이디로 묶임")
+    public void migratesLegacyRows() throws Exception {
+        String legacy = "김철수,912호,2025-11-14,금,4교시(12:00~13:00),회의,학생,예약됨,3";
+        String weekly = "이영희,913호,월,1교시(09:00~10:00),수업,학생,예약됨,7";
+        Files.write(dir.resolve("ReserveClass.txt"), Arrays.asList(HONG, KIM, legacy, weekly), StandardCharsets.UTF_8);
+        Files.write(dir.resolve("users.txt"), Arrays.asList("홍길동,S20230001,a", "김철수,S20230002,b"),
+                StandardCharsets.UTF_8);
+        ReservationRepository repository = ReservationRepository.open(dir.toString());
+
+        List<ReservationRecord> kim = repository.findByOwner("S20230002", ReservationStore.CLASS);
+        assertEquals(2, kim.size());
+        assertEquals(KIM, kim.get(0).getLine());
+        assertEquals(legacy + ",S20230002", kim.get(1).getLine());
+
+        ReservationRecord migrated = repository.findByOwner("이영희", ReservationStore.CLASS).get(0);
+        assertEquals("이영희,913호,,월,1교시(09:00~10:00),수업,학생,예약됨,7,이영희", migrated.getLine());
+        assertFalse(migrated.hasDate());
+        assertEquals("월", migrated.getDay());
+        assertEquals("2", new String(Files.readAllBytes(dir.resolve("reservations.schema")), StandardCharsets.UTF_8));
+
+        repository.removeIf(ReservationStore.CLASS, r -> r.getLine().startsWith("김철수,912호"));
+        assertEquals(1, repository.findByOwner("S20230002", ReservationStore.CLASS).size());
+        assertTrue(repository.findByOwner("S20230002", ReservationStore.LAB).isEmpty());
+    }
+
+    @Test
+    @DisplayName("인원 집계는 승인·취소·인원 변경을 따라가고 주간 예약은 요일로 따로 집계")
+    public void occupancyFollowsChanges() throws Exception {
+        ReservationRepository repository = ReservationRepository.open(dir.toString());
+        String time = "1교시(09:00~10:00)";
+        assertEquals(20, repository.reservedCount("908호", "2025-11-12", time));
+
+        repository.append(ReservationStore.CLASS, "이영희,908호,2025-11-12,수,1교시(09:00~10:00),수업,학생,승인,5,S20230003");
+        repository.append(ReservationStore.PENDING, "박민수,908호,2025-11-12,수,1교시(09:00~10:00),수업,학생,대기중,9,S20230004");
+        repository.append(ReservationStore.CLASS, "최지훈,908호,,수,1교시(09:00~10:00),수업,학생,예약됨,4,S20230005");
+        assertEquals(25, repository.reservedCount("908호", "2025-11-12", time));
+        assertEquals(4, repository.weeklyReservedCount("908호", "수", time));
+
+        repository.updateIf(ReservationStore.CLASS, r -> r.getName().equals("홍길동") ? r.getLine().replace(",20,", ",12,") : null);
+        assertEquals(17, repository.reservedCount("908호", "2025-11-12", time));
+
+        repository.updateIf(ReservationStore.CLASS, r -> r.getName().equals("이영희") ? r.getLine().replace("승인", "취소") : null);
+        repository.removeIf(ReservationStore.CLASS, r -> r.getName().equals("홍길동"));
+        assertEquals(0, repository.reservedCount("908호", "2025-11-12", time));
+        assertEquals(5, repository.reservedCount("911호", "2025-11-12", "2교시(10:00~11:00)"));
+    }
+
+    @Test
+    @DisplayName("교시 비트맵은 겹친 예약이 모두 빠질 때만 비고, 빈 강의실 조회는 주간 예약도 제외")
+    public void availabilityBitmapFollowsChanges() throws Exception {
+        ReservationRepository repository = ReservationRepository.open(dir.toString());
+        LocalDate day = LocalDate.of(2025, 11, 12);
+        assertEquals(1L << 1, repository.occupiedPeriods("908", day));
+
+        repository.append(ReservationStore.PENDING, "박민수,908호,2025-11-12,수,1교시(09:00~10:00),수업,학생,대기중,9,S20230004");
+        repository.append(ReservationStore.PENDING, "박민수,908호,2025-11-13,목,3교시(11:00~12:00),수업,학생,대기중,9,S20230004");
+        long[] week = repository.occupiedPeriods("908호", LocalDate.of(2025, 11, 10), 7);
+        assertArrayEquals(new long[]{0, 0, 1L << 1, 1L << 3, 0, 0, 0}, week);
+        assertEquals(List.of("911호"), repository.findFreeRooms(List.of("908호", "911호"), day, 1));
+
+        repository.removeIf(ReservationStore.CLASS, r -> r.getName().equals("홍길동"));
+        assertTrue(repository.isSlotTaken("908호", "2025-11-12", "1교시(09:00~10:00)"));
+        repository.removeIf(ReservationStore.PENDING, r -> r.field(2).equals("2025-11-12"));
+        assertEquals(0, repository.occupiedPeriods("908호", day));
+        assertFalse(repository.isSlotTaken("908호", "2025-11-12", "1교시"));
+        assertEquals(List.of("908호", "911호"), repository.findFreeRooms(List.of("908호", "911호"), day, 1));
+
+        // 날짜 없이 요일로 기록된 주간 예약은 그 요일마다 강의실을 차지
+        repository.append(ReservationStore.CLASS, "최지훈,908호,,수,1교시(09:00~10:00),수업,학생,예약됨,4,S20230005");
+        assertEquals(List.of("911호"), repository.findFreeRooms(List.of("908호", "911호"), day.plusWeeks(1), 1));
+        assertEquals(0, repository.occupiedPeriods("908호", day));
+    }
+
+    @Test
+    @DisplayName("주간 시간표는 승인·대기 비트와 인원을 담고, 변경이 없으면 캐시된 결과를 재사용")
+    public void weekGridIsCachedUntilChange() throws Exception {
+        ReservationRepository repository = ReservationRepository.open(dir.toString());
+        LocalDate monday = LocalDate.of(2025, 11, 10);
+        List<String> rooms = List.of("908호", "911호");
+        repository.append(ReservationStore.PENDING, "박민수,908호,2025-11-13,목,3교시(11:00~12:00),수업,학생,대기중,9,S20230004");
+        repository.append(ReservationStore.CLASS, "최지훈,908호,,월,2교시(10:00~11:00),수업,학생,예약됨,4,S20230005");
+
+        WeekGrid grid = repository.weekGrid(rooms, monday);
+        assertEquals(1L << 2, grid.approved(0, 0));
+        assertEquals(4, grid.students(0, 0, 2));
+        assertEquals(1L << 1, grid.approved(0, 2));
+        assertEquals(20, grid.students(0, 2, 1));
+        assertEquals(1L << 3, grid.pending(0, 3));
+        assertEquals(5, grid.students(1, 2, 2));
+        assertSame(grid, repository.weekGrid(rooms, monday));
+
+        repository.updateIf(ReservationStore.CLASS, r -> r.getName().equals("홍길동") ? r.getLine().replace(",20,", ",12,") : null);
+        WeekGrid changed = repository.weekGrid(rooms, monday);
+        assertNotSame(grid, changed);
+        assertEquals(12, changed.students(0, 2, 1));
+    }
+
+    @Test
+    @DisplayName("강의실 날짜 색인은 기간 안의 행만 날짜 순으로 반환")
+    public void roomDateIndexRangeQuery() throws Exception {
+        ReservationRepository repository = ReservationRepository.open(dir.toString());
+        String later = "이영희,908호,2025-11-20,목,1교시(09:00~10:00),수업,학생,예약됨,8,S20230003";
+        String earlier = "박민수,908,2025-11-10,월,2교시(10:00~11:00),수업,학생,예약됨,8,S20230004";
+        repository.append(ReservationStore.CLASS, later);
+        repository.append(ReservationStore.CLASS, earlier);
+
+        List<ReservationRecord> week = repository.findByRoom("908", ReservationStore.CLASS,
+                LocalDate.of(2025, 11, 10), LocalDate.of(2025, 11, 16));
+        assertEquals(List.of(earlier, HONG), week.stream().map(ReservationRecord::getLine).collect(Collectors.toList()));
+
+        assertEquals(3, repository.findByRoom("908호", ReservationStore.CLASS, null, null).size());
+        assertTrue(repository.findByRoom("908호", ReservationStore.PENDING, null, null).isEmpty());
+
+        repository.removeIf(ReservationStore.CLASS, r -> r.getLine().equals(earlier));
+        assertEquals(List.of(HONG), repository.findByRoom("908호", ReservationStore.CLASS,
+                LocalDate.of(2025, 11, 10), LocalDate.of(2025, 11, 16)).stream()
+                .map(ReservationRecord::getLine).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("보관 기준일 이전 승인 예약은 월 파티션으로 옮기고 기간 조회에서 함께 반환")
+    public void archivesExpiredReservations() throws Exception {
+        ReservationRepository repository = ReservationRepository.open(dir.toString());
+        String old = "이영희,908,2025-09-03,수,1교시(09:00~10:00),수업,학생,예약됨,8,S20230003";
+        repository.append(ReservationStore.CLASS, old);
+
+        assertEquals(1, repository.archive(LocalDate.of(2025, 11, 1)));
+        assertEquals(0, repository.archive(LocalDate.of(2025, 11, 1)));
+
+        assertEquals(List.of(HONG, KIM), repository.list(ReservationStore.CLASS).stream()
+                .map(ReservationRecord::getLine).collect(Collectors.toList()));
+        assertEquals(List.of(old), gzipLines("archive/ReserveClass/2025-09.txt.gz"));
+        assertEquals(List.of(old, HONG), repository.findByRoom("908호", ReservationStore.CLASS,
+                LocalDate.of(2025, 9, 1), LocalDate.of(2025, 11, 30)).stream()
+                .map(ReservationRecord::getLine).collect(Collectors.toList()));
+        assertEquals(1, repository.findByRoom("908호", ReservationStore.CLASS,
+                LocalDate.of(2025, 11, 1), LocalDate.of(2025, 11, 30)).size());
+        assertEquals(List.of(old, HONG), repository.findByRoom("908호", ReservationStore.CLASS, null, null).stream()
+                .map(ReservationRecord::getLine).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("기간 없는 목록과 내 예약 조회는 보관된 예약을 앞에 더해 반환하고 페이지로도 이어 읽음")
+    public void unrangedListingsIncludeArchivedReservations() throws Exception {
+        ReservationRepository repository = ReservationRepository.open(dir.toString());
+        String september = "이영희,908,2025-09-03,수,1교시(09:00~10:00),수업,학생,예약됨,8,S20230003";
+        String october = "이영희,911,2025-10-01,수,2교시(10:00~11:00),수업,학생,예약됨,8,S20230003";
+        repository.append(ReservationStore.CLASS, september);
+        repository.append(ReservationStore.CLASS, october);
+        assertEquals(2, repository.archive(LocalDate.of(2025, 11, 1)));
+
+        assertEquals(List.of(september, october, HONG, KIM),
+                repository.findWithArchived(ReservationStore.CLASS, ReservationRecord::hasDate).stream()
+                        .map(ReservationRecord::getLine).collect(Collectors.toList()));
+        assertEquals(List.of(september, october),
+                repository.findByOwnerWithArchived("S20230003", ReservationStore.CLASS).stream()
+                        .map(ReservationRecord::getLine).collect(Collectors.toList()));
+
+        List<ReservationRecord> first = repository.pageArchived(ReservationStore.CLASS, r -> true, 0, 1);
+        assertEquals(List.of(september), first.stream().map(ReservationRecord::getLine).collect(Collectors.toList()));
+        List<ReservationRecord> rest = repository.pageArchived(ReservationStore.CLASS, r -> true, first.get(0).getSeq(), 5);
+        assertEquals(List.of(october), rest.stream().map(ReservationRecord::getLine).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("봉인 뒤 테이블에서 빼지 못한 줄은 파티션에서 다시 제거")
+    public void unsealDropsLinesThatStayedInTable() throws Exception {
+        ReservationArchive archive = new ReservationArchive(dir);
+        String kept = "이영희,908,2025-09-03,수,1교시(09:00~10:00),수업,학생,예약됨,8,S20230003";
+        String changed = "박민수,911,2025-09-04,목,2교시(10:00~11:00),수업,학생,예약됨,4,S20230004";
+        archive.seal(ReservationStore.CLASS, YearMonth.of(2025, 9), List.of(kept, changed));
+
+        archive.unseal(ReservationStore.CLASS, YearMonth.of(2025, 9), List.of(changed));
+
+        assertEquals(List.of(kept), gzipLines("archive/ReserveClass/2025-09.txt.gz"));
+    }
+
+    @Test
+    @DisplayName("내용이 같은 예약도 따로 보관되고, 다시 뺄 때는 봉인한 만큼만 제거")
+    public void identicalLinesAreKeptPerReservation() throws Exception {
+        ReservationArchive archive = new ReservationArchive(dir);
+        String line = "이영희,908,2025-09-03,수,1교시(09:00~10:00),수업,학생,예약됨,8,S20230003";
+        archive.seal(ReservationStore.CLASS, YearMonth.of(2025, 9), List.of(line));
+        archive.seal(ReservationStore.CLASS, YearMonth.of(2025, 9), List.of(line));
+
+        assertEquals(List.of(line, line), gzipLines("archive/ReserveClass/2025-09.txt.gz"));
+
+        archive.unseal(ReservationStore.CLASS, YearMonth.of(2025, 9), List.of(line));
+
+        assertEquals(List.of(line), gzipLines("archive/ReserveClass/2025-09.txt.gz"),
+                "앞서 보관된 같은 내용의 예약은 남아야 합니다");
+    }
+
+    @Test
+    @DisplayName("승인 이력은 월 파티션에 추가되고 지난 달 파티션은 압축")
+    public void approvedBackupIsPartitionedByMonth() throws Exception {
+        ReservationRepository repository = ReservationRepository.open(dir.toString());
+        String approved = "홍길동,908호,2025-10-02,목,1교시(09:00~10:00),수업,학생,승인,20,S20230001";
+        repository.append(ReservationStore.APPROVED_BACKUP, approved);
+
+        assertEquals(List.of(approved), fileLines("archive/ApprovedBackup/2025-10.txt"));
+
+        repository.archive(LocalDate.of(2025, 11, 1));
+        assertFalse(Files.exists(dir.resolve("archive/ApprovedBackup/2025-10.txt")));
+        assertEquals(List.of(approved), gzipLines("archive/ApprovedBackup/2025-10.txt.gz"));
+    }
+
+    private List<String> gzipLines(String name) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(dir.resolve(name))), StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package Server.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RoomLocks stripe 잠금 테스트
+ */
+public class RoomLocksTest {
+
+    @Test
+    @DisplayName("stripe 수는 2의 거듭제곱으로 올리고 \"호\" 유무는 같은 키로 취급")
+    public void normalizesKeys() {
+        RoomLocks locks = new RoomLocks(50);
+
+        assertEquals(64, locks.stripeCount());
+        assertEquals(locks.stripeOf("908호"), locks.stripeOf(" 908 "));
+    }
+
+    @Test
+    @DisplayName("다른 stripe의 강의실은 동시에 잠글 수 있음")
+    public void differentRoomsRunInParallel() throws Exception {
+        RoomLocks locks = new RoomLocks(64);
+        String other = findRoomOnOtherStripe(locks, "908호");
+        AtomicBoolean acquired = new AtomicBoolean();
+
+        RoomLocks.Held held = locks.lock("908호");
+        try {
+            Thread thread = new Thread(() -> {
+                RoomLocks.Held inner = locks.lock(other);
+                acquired.set(true);
+                inner.unlock();
+            });
+            thread.start();
+            thread.join(2000);
+        } finally {
+            held.unlock();
+        }
+
+        assertTrue(acquired.get(), "다른 강의실 잠금이 기다리지 않아야 합니다");
+    }
+
+    @Test
+    @DisplayName("두 강의실을 반대 순서로 요청해도 교착 없이 끝남")
+    public void multiRoomLockIsDeadlockFree() throws Exception {
+        RoomLocks locks = new RoomLocks(64);
+        String other = findRoomOnOtherStripe(locks, "908호");
+        int rounds = 2000;
+        AtomicInteger done = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(2);
+
+        Runnable forward = () -> {
+            for (int i = 0; i < rounds; i++) {
+                locks.lock("908호", other).unlock();
+                done.incrementAndGet();
+            }
+            finished.countDown();
+        };
+        Runnable backward = () -> {
+            for (int i = 0; i < rounds; i++) {
+                locks.lock(other, "908호").unlock();
+                done.incrementAndGet();
+            }
+            finished.countDown();
+        };
+        new Thread(forward).start();
+        new Thread(backward).start();
+
+        assertTrue(finished.await(10, TimeUnit.SECONDS), "교착 상태 없이 끝나야 합니다");
+        assertEquals(rounds * 2, done.get());
+    }
+
+    @Test
+    @DisplayName("읽는 중 같은 강의실에 변경이 끼어들면 읽기 잠금으로 다시 읽음")
+    public void optimisticReadRetriesAfterWrite() {
+        RoomLocks locks = new RoomLocks(64);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = locks.read("908호", () -> {
+            if (calls.incrementAndGet() == 1) {
+                Thread writer = new Thread(() -> locks.lock("908").unlock());
+                writer.start();
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "stale";
+            }
+            return "fresh";
+        });
+
+        assertEquals("fresh", result);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("변경 명령이 잠금을 쥔 동안의 조회는 해제 후 끝남")
+    public void readWaitsForWriter() throws Exception {
+        RoomLocks locks = new RoomLocks(64);
+        CountDownLatch done = new CountDownLatch(1);
+
+        RoomLocks.Held held = locks.lock("908호");
+        Thread reader = new Thread(() -> {
+            locks.read("908호", () -> true);
+            done.countDown();
+        });
+        try {
+            reader.start();
+            assertFalse(done.await(200, TimeUnit.MILLISECONDS), "쓰는 중에는 조회가 끝나지 않아야 합니다");
+        } finally {
+            held.unlock();
+        }
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+    }
+
+    private static String findRoomOnOtherStripe(RoomLocks locks, String room) {
+        for (int i = 900; i < 1000; i++) {
+            String candidate = i + "호";
+            if (locks.stripeOf(candidate) != locks.stripeOf(room)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("다른 stripe의 강의실을 찾지 못했습니다");
+    }
+}
@@ -0,0 +1,105 @@
+package Server.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserRepository 아이디/이름 색인 테스트
+ */
+public class UserRepositoryTest {
+
+    private Path dir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("user-repo");
+        Files.write(dir.resolve("users.txt"), Arrays.asList("홍길동,S20230001,abc123", "김철수,S20230002,pw"),
+                StandardCharsets.UTF_8);
+        Files.write(dir.resolve("assistant.txt"), Arrays.asList("홍길동,A0001,pw"), StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    @DisplayName("아이디·이름 색인은 가입·수정·삭제를 따라가고 이름은 학생 파일이 우선")
+    public void indexFollowsChanges() throws Exception {
+        UserRepository users = UserRepository.open(dir.toString());
+
+        assertEquals("abc123", users.findById("S20230001").getPassword());
+        assertNull(users.findById("X1"));
+        assertEquals("S20230001", users.findUserIdByName(" 홍길동 "));
+
+        users.append(UserFile.PROFESSOR, "이교수,P001,pw");
+        assertEquals("P001", users.findUserIdByName("이교수"));
+
+        users.updateIf(UserFile.STUDENT, r -> r.getUserId().equals("S20230002") ? "김영수,S20230002,pw" : null);
+        assertNull(users.findUserIdByName("김철수"));
+        assertEquals("김영수", users.findById("S20230002").getName());
+
+        users.removeIf(UserFile.STUDENT, r -> r.getUserId().equals("S20230001"));
+        assertNull(users.findById("S20230001"));
+        assertEquals("A0001", users.findUserIdByName("홍길동"));
+    }
+
+    @Test
+    @DisplayName("같은 아이디가 여러 줄이면 조건에 맞는 행을 파일 순서로 찾음")
+    public void findByIdScansRowsWithSameId() throws Exception {
+        Files.write(dir.resolve("users.txt"), Arrays.asList("홍길동,S20230001", "홍길동,S20230001,old", "홍길동,S20230001,new"),
+                StandardCharsets.UTF_8);
+        UserRepository users = UserRepository.open(dir.toString());
+
+        assertEquals(2, users.findById("S20230001").fieldCount());
+        assertEquals("old", users.findById("S20230001", r -> r.fieldCount() >= 3).getPassword());
+        assertEquals("new", users.findById("S20230001", r -> r.fieldCount() >= 3 && r.getPassword().equals("new")).getPassword());
+        assertNull(users.findById("S20230001", r -> r.fieldCount() >= 3 && r.getPassword().equals("x")));
+    }
+
+    @Test
+    @DisplayName("비밀번호를 바꾸는 동안에도 잠금 없는 조회가 사용자를 놓치지 않음")
+    public void lookupsNeverMissDuringUpdates() throws Exception {
+        UserRepository users = UserRepository.open(dir.toString());
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger misses = new AtomicInteger();
+
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                if (users.findById("S20230002") == null || users.findUserIdByName("김철수") == null) {
+                    misses.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        try {
+            for (int i = 0; i < 200; i++) {
+                String password = "pw" + i;
+                users.updateIf(UserFile.STUDENT,
+                        r -> r.getUserId().equals("S20230002") ? "김철수,S20230002," + password : null);
+            }
+        } finally {
+            running.set(false);
+            reader.join();
+        }
+
+        assertEquals(0, misses.get());
+        assertEquals("pw199", users.findById("S20230002").getPassword());
+    }
+}